@@ -0,0 +1,142 @@
+package com.creditcard.management.credit_card_api.application.dto;
+
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of one item of a batch request.
+ * Items are identified by their zero-based position in the request, so clients can
+ * match every result with the element they sent.
+ */
+public class BatchItemResultDTO {
+
+    // Status of an item that was created
+    public static final String CREATED = "CREATED";
+
+    // Status of an item that was not processed because it is invalid
+    public static final String REJECTED = "REJECTED";
+
+    // Zero-based position of the item in the request
+    private int index;
+
+    // Outcome of the item, e.g. "CREATED", "REJECTED", or "APPROVED" and "DECLINED" for postings
+    private String status;
+
+    // Identifier of the resource created or affected by the item, if any
+    private Long id;
+
+    // Reason why the item was not processed, if any
+    private String message;
+
+    /**
+     * Constructor to initialize a BatchItemResultDTO with all its fields.
+     *
+     * @param index   The zero-based position of the item in the request.
+     * @param status  The outcome of the item.
+     * @param id      The identifier of the affected resource, or null.
+     * @param message The reason why the item was not processed, or null.
+     */
+    public BatchItemResultDTO(int index, String status, Long id, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    /**
+     * Creates the result of an item that was created.
+     *
+     * @param index The zero-based position of the item in the request.
+     * @param id    The identifier of the created resource.
+     * @return A BatchItemResultDTO with status CREATED.
+     */
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, CREATED, id, null);
+    }
+
+    /**
+     * Creates the result of a posting that was processed.
+     *
+     * @param index  The zero-based position of the item in the request.
+     * @param cardId The identifier of the credit card the posting was applied to.
+     * @param status The outcome of the posting.
+     * @return A BatchItemResultDTO with status APPROVED or DECLINED.
+     */
+    public static BatchItemResultDTO posted(int index, Long cardId, PostingStatus status) {
+        return new BatchItemResultDTO(index, status.name(), cardId, null);
+    }
+
+    /**
+     * Creates the result of an item that was rejected.
+     *
+     * @param index   The zero-based position of the item in the request.
+     * @param message The reason for the rejection.
+     * @return A BatchItemResultDTO with status REJECTED.
+     */
+    public static BatchItemResultDTO rejected(int index, String message) {
+        return new BatchItemResultDTO(index, REJECTED, null, message);
+    }
+
+    /**
+     * Gets the zero-based position of the item in the request.
+     * @return The item index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the zero-based position of the item in the request.
+     * @param index The item index to set.
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Gets the outcome of the item.
+     * @return The item status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the outcome of the item.
+     * @param status The item status to set.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the identifier of the resource created or affected by the item.
+     * @return The resource ID, or null.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the identifier of the resource created or affected by the item.
+     * @param id The resource ID to set.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the reason why the item was not processed.
+     * @return The message, or null if the item succeeded.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Sets the reason why the item was not processed.
+     * @param message The message to set.
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -1,5 +1,9 @@
 package com.creditcard.management.credit_card_api.application.dto;
 
+import com.creditcard.management.credit_card_api.core.model.Money;
+
+import java.time.LocalDate;
+
 /**
  * Data Transfer Object (DTO) for Credit Card information.
  * This class is used to transfer credit card data between different layers of the application,
@@ -12,8 +16,8 @@ public class CreditCardDTO {
     // Credit card number (16 digits, typically masked for security purposes)
     private String cardNumber;
 
-    // Expiration date of the credit card in YYYY-MM-DD format
-    private String expirationDate;
+    // Expiration date of the credit card, written to JSON as YYYY-MM-DD
+    private LocalDate expirationDate;
 
     // Card Verification Value (3-digit security code)
     private String cvv;
@@ -22,14 +26,17 @@ public class CreditCardDTO {
     private String cardType;
 
     // Credit limit for the card (maximum amount of credit allowed)
-    private Double creditLimit;
+    private Money creditLimit;
 
     // Current balance on the credit card
-    private Double currentBalance;
+    private Money currentBalance;
 
     // Identifier for the customer to whom the card belongs
     private Long customerId;
 
+    // Version of the credit card, also sent as the ETag of the card
+    private Long version;
+
     // Getters and setters
 
     /**
@@ -68,15 +75,15 @@ public class CreditCardDTO {
      * Gets the expiration date of the credit card.
      * @return the expiration date
      */
-    public String getExpirationDate() {
+    public LocalDate getExpirationDate() {
         return expirationDate;
     }
 
     /**
      * Sets the expiration date of the credit card.
-     * @param expirationDate the expiration date to set (format: YYYY-MM-DD)
+     * @param expirationDate the expiration date to set
      */
-    public void setExpirationDate(String expirationDate) {
+    public void setExpirationDate(LocalDate expirationDate) {
         this.expirationDate = expirationDate;
     }
 
@@ -116,7 +123,7 @@ public class CreditCardDTO {
      * Gets the credit limit for the credit card.
      * @return the credit limit
      */
-    public Double getCreditLimit() {
+    public Money getCreditLimit() {
         return creditLimit;
     }
 
@@ -124,7 +131,7 @@ public class CreditCardDTO {
      * Sets the credit limit for the credit card.
      * @param creditLimit the credit limit to set
      */
-    public void setCreditLimit(Double creditLimit) {
+    public void setCreditLimit(Money creditLimit) {
         this.creditLimit = creditLimit;
     }
 
@@ -132,7 +139,7 @@ public class CreditCardDTO {
      * Gets the current balance on the credit card.
      * @return the current balance
      */
-    public Double getCurrentBalance() {
+    public Money getCurrentBalance() {
         return currentBalance;
     }
 
@@ -140,7 +147,7 @@ public class CreditCardDTO {
      * Sets the current balance on the credit card.
      * @param currentBalance the current balance to set
      */
-    public void setCurrentBalance(Double currentBalance) {
+    public void setCurrentBalance(Money currentBalance) {
         this.currentBalance = currentBalance;
     }
 
@@ -159,4 +166,20 @@ public class CreditCardDTO {
     public void setCustomerId(Long customerId) {
         this.customerId = customerId;
     }
+
+    /**
+     * Gets the version of the credit card, which changes with every update.
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the credit card.
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
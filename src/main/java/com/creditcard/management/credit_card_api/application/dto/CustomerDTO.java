@@ -24,6 +24,9 @@ public class CustomerDTO {
     // List of associated credit cards for the customer
     private List<CreditCardDTO> creditCards;
 
+    // Version of the customer, also sent as the ETag of the customer
+    private Long version;
+
     /**
      * Constructor to initialize a CustomerDTO with all its fields.
      * @param customerId   The unique identifier of the customer.
@@ -119,4 +122,20 @@ public class CustomerDTO {
     public void setCreditCards(List<CreditCardDTO> creditCards) {
         this.creditCards = creditCards;
     }
+
+    /**
+     * Gets the version of the customer, which changes with every update.
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the customer.
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,126 @@
+package com.creditcard.management.credit_card_api.application.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing a bulk import of customers and their credit cards.
+ * Row-level errors are reported as BatchItemResultDTO objects whose index is the line number in the file.
+ * Only the first errors are listed, so the report stays small for files with many invalid rows.
+ */
+public class CustomerImportReportDTO {
+
+    // Number of data rows read from the file, excluding the header
+    private long rowsRead;
+
+    // Number of customers created
+    private long customersCreated;
+
+    // Number of credit cards created
+    private long cardsCreated;
+
+    // Number of rows that were not imported
+    private long rowsRejected;
+
+    // First row-level errors, indexed by line number
+    private List<BatchItemResultDTO> errors = new ArrayList<>();
+
+    // True if more errors occurred than are listed
+    private boolean errorsTruncated;
+
+    /**
+     * Gets the number of data rows read from the file.
+     * @return The number of rows read.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Sets the number of data rows read from the file.
+     * @param rowsRead The number of rows read.
+     */
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    /**
+     * Gets the number of customers created.
+     * @return The number of customers created.
+     */
+    public long getCustomersCreated() {
+        return customersCreated;
+    }
+
+    /**
+     * Sets the number of customers created.
+     * @param customersCreated The number of customers created.
+     */
+    public void setCustomersCreated(long customersCreated) {
+        this.customersCreated = customersCreated;
+    }
+
+    /**
+     * Gets the number of credit cards created.
+     * @return The number of credit cards created.
+     */
+    public long getCardsCreated() {
+        return cardsCreated;
+    }
+
+    /**
+     * Sets the number of credit cards created.
+     * @param cardsCreated The number of credit cards created.
+     */
+    public void setCardsCreated(long cardsCreated) {
+        this.cardsCreated = cardsCreated;
+    }
+
+    /**
+     * Gets the number of rows that were not imported.
+     * @return The number of rejected rows.
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    /**
+     * Sets the number of rows that were not imported.
+     * @param rowsRejected The number of rejected rows.
+     */
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    /**
+     * Gets the listed row-level errors.
+     * @return The errors, indexed by line number.
+     */
+    public List<BatchItemResultDTO> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the listed row-level errors.
+     * @param errors The errors to set.
+     */
+    public void setErrors(List<BatchItemResultDTO> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Checks if more errors occurred than are listed.
+     * @return True if the error list is truncated.
+     */
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    /**
+     * Sets whether more errors occurred than are listed.
+     * @param errorsTruncated True if the error list is truncated.
+     */
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
@@ -0,0 +1,48 @@
+package com.creditcard.management.credit_card_api.application.dto;
+
+import com.creditcard.management.credit_card_api.core.model.Money;
+
+/**
+ * Data Transfer Object (DTO) for a posting to the balance of a credit card.
+ * A positive amount is a charge, a negative amount is a payment or a refund.
+ */
+public class PostingDTO {
+
+    // Identifier of the credit card, used by batch postings; single postings take it from the path
+    private Long cardId;
+
+    // Signed amount to add to the current balance
+    private Money amount;
+
+    /**
+     * Gets the identifier of the credit card.
+     * @return the card ID
+     */
+    public Long getCardId() {
+        return cardId;
+    }
+
+    /**
+     * Sets the identifier of the credit card.
+     * @param cardId the card ID to set
+     */
+    public void setCardId(Long cardId) {
+        this.cardId = cardId;
+    }
+
+    /**
+     * Gets the signed amount to add to the current balance.
+     * @return the amount
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the signed amount to add to the current balance.
+     * @param amount the amount to set
+     */
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,80 @@
+package com.creditcard.management.credit_card_api.application.dto;
+
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of a posting to the balance of a credit card.
+ */
+public class PostingResultDTO {
+
+    // Identifier of the credit card the posting was applied to
+    private Long cardId;
+
+    // Signed amount of the posting
+    private Money amount;
+
+    // Outcome of the posting, "APPROVED" or "DECLINED"
+    private PostingStatus status;
+
+    /**
+     * Constructor to initialize a PostingResultDTO with all its fields.
+     *
+     * @param cardId The identifier of the credit card.
+     * @param amount The signed amount of the posting.
+     * @param status The outcome of the posting.
+     */
+    public PostingResultDTO(Long cardId, Money amount, PostingStatus status) {
+        this.cardId = cardId;
+        this.amount = amount;
+        this.status = status;
+    }
+
+    /**
+     * Gets the identifier of the credit card the posting was applied to.
+     * @return The card ID.
+     */
+    public Long getCardId() {
+        return cardId;
+    }
+
+    /**
+     * Sets the identifier of the credit card the posting was applied to.
+     * @param cardId The card ID to set.
+     */
+    public void setCardId(Long cardId) {
+        this.cardId = cardId;
+    }
+
+    /**
+     * Gets the signed amount of the posting.
+     * @return The amount.
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the signed amount of the posting.
+     * @param amount The amount to set.
+     */
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the outcome of the posting.
+     * @return The posting status.
+     */
+    public PostingStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the outcome of the posting.
+     * @param status The posting status to set.
+     */
+    public void setStatus(PostingStatus status) {
+        this.status = status;
+    }
+}
@@ -1,11 +1,15 @@
 package com.creditcard.management.credit_card_api.application.mapper;
 
 import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPatchException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerEntity;
 
-import java.sql.Date;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Set;
 
 /**
  * Mapper class for converting between different representations of CreditCard data.
@@ -16,6 +20,10 @@ import java.sql.Date;
  */
 public class CreditCardMapper {
 
+    // Fields of a credit card that a merge patch may change
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "cardNumber", "expirationDate", "cvv", "cardType", "creditLimit", "currentBalance");
+
     /**
      * Converts a CreditCardEntity (persistence layer) to a CreditCard (domain model).
      *
@@ -28,14 +36,13 @@ public class CreditCardMapper {
         CreditCard creditCard = new CreditCard();
         creditCard.setId(entity.getCardId());
         creditCard.setCardNumber(entity.getCardNumber());
-        creditCard.setExpirationDate(entity.getExpirationDate() != null
-                ? entity.getExpirationDate().toString()
-                : null);
+        creditCard.setExpirationDate(entity.getExpirationDate());
         creditCard.setCvv(entity.getCvv());
         creditCard.setCardType(entity.getCardType());
         creditCard.setCreditLimit(entity.getCreditLimit());
         creditCard.setCurrentBalance(entity.getCurrentBalance());
         creditCard.setCustomerId(entity.getCustomer() != null ? entity.getCustomer().getCustomerId() : null);
+        creditCard.setVersion(entity.getVersion());
 
         return creditCard;
     }
@@ -52,13 +59,12 @@ public class CreditCardMapper {
         CreditCardEntity entity = new CreditCardEntity();
         entity.setCardId(creditCard.getId());
         entity.setCardNumber(creditCard.getCardNumber());
-        entity.setExpirationDate(creditCard.getExpirationDate() != null
-                ? Date.valueOf(creditCard.getExpirationDate())
-                : null);
+        entity.setExpirationDate(creditCard.getExpirationDate());
         entity.setCvv(creditCard.getCvv());
         entity.setCardType(creditCard.getCardType());
         entity.setCreditLimit(creditCard.getCreditLimit());
         entity.setCurrentBalance(creditCard.getCurrentBalance());
+        entity.setVersion(creditCard.getVersion());
 
         if (creditCard.getCustomerId() != null) {
             CustomerEntity customerEntity = new CustomerEntity();
@@ -87,6 +93,7 @@ public class CreditCardMapper {
         dto.setCreditLimit(creditCard.getCreditLimit());
         dto.setCurrentBalance(creditCard.getCurrentBalance());
         dto.setCustomerId(creditCard.getCustomerId());
+        dto.setVersion(creditCard.getVersion());
 
         return dto;
     }
@@ -109,7 +116,29 @@ public class CreditCardMapper {
         creditCard.setCreditLimit(dto.getCreditLimit());
         creditCard.setCurrentBalance(dto.getCurrentBalance());
         creditCard.setCustomerId(dto.getCustomerId());
+        creditCard.setVersion(dto.getVersion());
 
         return creditCard;
     }
+
+    /**
+     * Converts a JSON Merge Patch document to a CreditCardPatch (domain model).
+     * The identifier and the owner of a card cannot be patched.
+     *
+     * @param document The merge patch document.
+     * @return The corresponding CreditCardPatch, holding only the fields present in the document.
+     * @throws InvalidPatchException If the document names a field that cannot be changed or has an invalid value.
+     */
+    public static CreditCardPatch toPatch(JsonNode document) {
+        MergePatchReader reader = new MergePatchReader(document, PATCHABLE_FIELDS);
+
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCardNumber(reader.text("cardNumber"));
+        patch.setExpirationDate(reader.date("expirationDate"));
+        patch.setCvv(reader.text("cvv"));
+        patch.setCardType(reader.text("cardType"));
+        patch.setCreditLimit(reader.amount("creditLimit"));
+        patch.setCurrentBalance(reader.amount("currentBalance"));
+        return patch;
+    }
 }
@@ -1,12 +1,17 @@
 package com.creditcard.management.credit_card_api.application.mapper;
 
 import com.creditcard.management.credit_card_api.application.dto.CustomerDTO;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPatchException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
 import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerEntity;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +23,9 @@ import java.util.stream.Collectors;
  */
 public class CustomerMapper {
 
+    // Fields of a customer that a merge patch may change
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email");
+
     /**
      * Converts a CustomerEntity (persistence layer) to a Customer (domain model).
      *
@@ -27,11 +35,7 @@ public class CustomerMapper {
     public static Customer toDomain(CustomerEntity entity) {
         if (entity == null) return null;
 
-        Customer customer = new Customer();
-        customer.setId(entity.getCustomerId());
-        customer.setFirstName(entity.getFirstName());
-        customer.setLastName(entity.getLastName());
-        customer.setEmail(entity.getEmail());
+        Customer customer = toDomainWithoutCards(entity);
 
         // Map associated credit cards using CreditCardMapper
         if (entity.getCreditCards() != null) {
@@ -43,6 +47,26 @@ public class CustomerMapper {
         return customer;
     }
 
+    /**
+     * Converts a CustomerEntity (persistence layer) to a Customer (domain model) without its credit cards.
+     * The lazy creditCards collection is not touched, so no additional query is issued.
+     *
+     * @param entity The CustomerEntity to convert.
+     * @return The corresponding Customer domain object with no credit cards set, or null if the input is null.
+     */
+    public static Customer toDomainWithoutCards(CustomerEntity entity) {
+        if (entity == null) return null;
+
+        Customer customer = new Customer();
+        customer.setId(entity.getCustomerId());
+        customer.setFirstName(entity.getFirstName());
+        customer.setLastName(entity.getLastName());
+        customer.setEmail(entity.getEmail());
+        customer.setVersion(entity.getVersion());
+
+        return customer;
+    }
+
     /**
      * Converts a Customer (domain model) to a CustomerEntity (persistence layer).
      *
@@ -57,6 +81,7 @@ public class CustomerMapper {
         entity.setFirstName(customer.getFirstName());
         entity.setLastName(customer.getLastName());
         entity.setEmail(customer.getEmail());
+        entity.setVersion(customer.getVersion());
 
         // Map associated credit cards and set the relationship with the customer
         if (customer.getCreditCards() != null) {
@@ -82,7 +107,7 @@ public class CustomerMapper {
     public static CustomerDTO toDTO(Customer customer) {
         if (customer == null) return null;
 
-        return new CustomerDTO(
+        CustomerDTO dto = new CustomerDTO(
                 customer.getId(),
                 customer.getFirstName(),
                 customer.getLastName(),
@@ -93,6 +118,8 @@ public class CustomerMapper {
                                 .collect(Collectors.toList())
                         : null
         );
+        dto.setVersion(customer.getVersion());
+        return dto;
     }
 
     /**
@@ -109,6 +136,7 @@ public class CustomerMapper {
         customer.setFirstName(dto.getFirstName());
         customer.setLastName(dto.getLastName());
         customer.setEmail(dto.getEmail());
+        customer.setVersion(dto.getVersion());
 
         // Map associated credit cards using CreditCardMapper
         if (dto.getCreditCards() != null) {
@@ -123,4 +151,22 @@ public class CustomerMapper {
 
         return customer;
     }
+
+    /**
+     * Converts a JSON Merge Patch document to a CustomerPatch (domain model).
+     * The identifier and the credit cards of a customer cannot be patched.
+     *
+     * @param document The merge patch document.
+     * @return The corresponding CustomerPatch, holding only the fields present in the document.
+     * @throws InvalidPatchException If the document names a field that cannot be changed or has an invalid value.
+     */
+    public static CustomerPatch toPatch(JsonNode document) {
+        MergePatchReader reader = new MergePatchReader(document, PATCHABLE_FIELDS);
+
+        CustomerPatch patch = new CustomerPatch();
+        patch.setFirstName(reader.text("firstName"));
+        patch.setLastName(reader.text("lastName"));
+        patch.setEmail(reader.text("email"));
+        return patch;
+    }
 }
@@ -0,0 +1,104 @@
+package com.creditcard.management.credit_card_api.application.mapper;
+
+import com.creditcard.management.credit_card_api.core.exception.InvalidPatchException;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Helper for reading JSON Merge Patch (RFC 7396) documents into patch domain objects.
+ * Members absent from the document keep their current value. A null member would remove the field,
+ * which is rejected because every patchable field is required.
+ */
+final class MergePatchReader {
+
+    private final JsonNode document;
+
+    /**
+     * Constructor to validate a merge patch document against the fields it may change.
+     *
+     * @param document       The merge patch document.
+     * @param editableFields The names of the fields the patch may change.
+     * @throws InvalidPatchException If the document is not an object or names a field that cannot be changed.
+     */
+    MergePatchReader(JsonNode document, Set<String> editableFields) {
+        if (document == null || !document.isObject()) {
+            throw new InvalidPatchException("A merge patch must be a JSON object");
+        }
+        Iterator<String> names = document.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!editableFields.contains(name)) {
+                throw new InvalidPatchException("Field " + name + " cannot be changed with PATCH");
+            }
+            if (document.get(name).isNull()) {
+                throw new InvalidPatchException("Field " + name + " is required and cannot be removed");
+            }
+        }
+        this.document = document;
+    }
+
+    /**
+     * Reads a text field.
+     *
+     * @param name The field name.
+     * @return The non-blank value, or null if the field is absent.
+     * @throws InvalidPatchException If the value is not a non-blank string.
+     */
+    String text(String name) {
+        JsonNode value = document.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (!value.isTextual() || value.asText().isBlank()) {
+            throw new InvalidPatchException("Field " + name + " must be a non-empty string");
+        }
+        return value.asText();
+    }
+
+    /**
+     * Reads a date written as yyyy-MM-dd.
+     *
+     * @param name The field name.
+     * @return The date, or null if the field is absent.
+     * @throws InvalidPatchException If the value is not a string holding a valid date.
+     */
+    LocalDate date(String name) {
+        JsonNode value = document.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.isTextual() ? value.asText() : "", DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPatchException("Field " + name + " must be formatted as yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Reads an amount of money.
+     *
+     * @param name The field name.
+     * @return The value, or null if the field is absent.
+     * @throws InvalidPatchException If the value is not a number with at most two decimal places.
+     */
+    Money amount(String name) {
+        JsonNode value = document.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (!value.isNumber()) {
+            throw new InvalidPatchException("Field " + name + " must be a number");
+        }
+        try {
+            return Money.of(value.decimalValue());
+        } catch (ArithmeticException e) {
+            throw new InvalidPatchException("Field " + name + " must have at most " + Money.SCALE + " decimal places");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.creditcard.management.credit_card_api.application.mapper;
+
+import com.creditcard.management.credit_card_api.application.dto.PostingDTO;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+
+/**
+ * Mapper class for converting postings between their Data Transfer Object (PostingDTO)
+ * and domain model (Posting) representations.
+ */
+public class PostingMapper {
+
+    /**
+     * Converts a PostingDTO (Data Transfer Object) to a Posting (domain model).
+     *
+     * @param dto The PostingDTO to convert.
+     * @return The corresponding Posting domain object, or null if the input is null.
+     */
+    public static Posting toDomain(PostingDTO dto) {
+        if (dto == null) return null;
+
+        return new Posting(dto.getCardId(), dto.getAmount());
+    }
+}
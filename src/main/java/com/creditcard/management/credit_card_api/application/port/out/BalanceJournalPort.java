@@ -0,0 +1,77 @@
+package com.creditcard.management.credit_card_api.application.port.out;
+
+import java.io.IOException;
+
+/**
+ * Port interface for the durable local journal of the balance ledger.
+ * Every posting accepted in memory is appended to the journal before it is acknowledged, so that the
+ * postings not yet written to the database can be replayed after a crash. Entries are numbered with
+ * increasing sequence numbers; the database records the last sequence it has absorbed (the checkpoint),
+ * which makes replaying an entry twice harmless.
+ */
+public interface BalanceJournalPort {
+
+    /**
+     * Receives the entries of the journal during recovery.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+
+        /**
+         * Receives one journal entry.
+         *
+         * @param sequence    The sequence number of the entry.
+         * @param cardId      The identifier of the credit card.
+         * @param amountMinor The signed amount added to the balance, in minor units.
+         */
+        void accept(long sequence, long cardId, long amountMinor);
+    }
+
+    /**
+     * Opens the journal and replays the entries recorded after the checkpoint.
+     * Must be called once, before the first append. Entries that were only partially written
+     * (e.g. during a power loss) are discarded.
+     *
+     * @param checkpoint The last sequence number already absorbed by the database.
+     * @param consumer   Receives every entry with a greater sequence number, in order.
+     * @return The last sequence number of the journal, or the checkpoint if it is greater.
+     * @throws IOException If the journal cannot be read.
+     */
+    long recover(long checkpoint, EntryConsumer consumer) throws IOException;
+
+    /**
+     * Appends an entry and forces it to stable storage. Concurrent appends may share one write to storage.
+     *
+     * @param cardId      The identifier of the credit card.
+     * @param amountMinor The signed amount added to the balance, in minor units.
+     * @return The sequence number of the entry.
+     * @throws IOException If the entry cannot be written.
+     */
+    long append(long cardId, long amountMinor) throws IOException;
+
+    /**
+     * Gets the sequence number of the last appended entry.
+     *
+     * @return The last sequence number.
+     */
+    long lastSequence();
+
+    /**
+     * Starts a new part of the journal for the entries appended from now on, so that the entries appended
+     * so far can be discarded together once the database has absorbed them. Called when the pending postings
+     * are snapshotted, while no entry is being appended.
+     *
+     * @return The sequence number of the last entry appended so far.
+     * @throws IOException If the new part cannot be created; appends then continue in the current one.
+     */
+    long rotate() throws IOException;
+
+    /**
+     * Declares that the database has absorbed every entry up to a sequence number,
+     * which lets the journal reclaim their space.
+     *
+     * @param sequence The new checkpoint.
+     * @throws IOException If the journal cannot be compacted.
+     */
+    void discardThrough(long sequence) throws IOException;
+}
@@ -0,0 +1,31 @@
+package com.creditcard.management.credit_card_api.application.port.out;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Port interface for writing the balance ledger back to the database.
+ * Balance deltas and the journal checkpoint are written in one transaction, so that after a crash
+ * the journal is replayed from exactly the first posting the database has not absorbed.
+ */
+public interface BalanceLedgerStorePort {
+
+    /**
+     * Retrieves the checkpoint of a journal.
+     *
+     * @param journalId The identifier of the journal, unique per application instance.
+     * @return The last journal sequence number absorbed by the database, or 0 if none.
+     */
+    long findCheckpoint(String journalId);
+
+    /**
+     * Adds balance deltas to credit cards and advances the checkpoint of a journal, in one transaction.
+     * The deltas are added to the stored balances, never written over them.
+     *
+     * @param deltasMinor The signed deltas in minor units, by credit card ID.
+     * @param journalId   The identifier of the journal.
+     * @param checkpoint  The last journal sequence number included in the deltas.
+     * @return The IDs of the cards that no longer exist, whose deltas were dropped.
+     */
+    Set<Long> applyDeltas(Map<Long, Long> deltasMinor, String journalId, long checkpoint);
+}
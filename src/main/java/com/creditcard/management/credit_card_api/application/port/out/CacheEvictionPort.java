@@ -0,0 +1,29 @@
+package com.creditcard.management.credit_card_api.application.port.out;
+
+import java.util.Collection;
+
+/**
+ * Port interface for an in-process cache of credit cards or customers held below the repository ports.
+ * Used to drop the entries written by other instances of the application.
+ */
+public interface CacheEvictionPort {
+
+    /**
+     * Evicts credit cards, and the cached card lists of their owners.
+     *
+     * @param cardIds The IDs of the credit cards.
+     */
+    void evictCards(Collection<Long> cardIds);
+
+    /**
+     * Evicts customers, with and without their credit cards.
+     *
+     * @param customerIds The IDs of the customers.
+     */
+    void evictCustomers(Collection<Long> customerIds);
+
+    /**
+     * Evicts every cached credit card and customer.
+     */
+    void evictAll();
+}
@@ -0,0 +1,29 @@
+package com.creditcard.management.credit_card_api.application.port.out;
+
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Port interface for the bus carrying cache invalidations between the instances of the application.
+ * Every instance publishes the cards and customers written through it, and receives those written
+ * through the others, so that it can drop them from its in-process caches.
+ * Delivery is at least once and in no particular order; invalidations are idempotent.
+ */
+public interface CacheInvalidationPort {
+
+    /**
+     * Publishes a batch of invalidations to the other instances.
+     *
+     * @param invalidation The batch to publish.
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Registers a listener receiving the batches published by the other instances.
+     * Batches published by this instance are not delivered to it.
+     *
+     * @param listener The listener, called from a thread of the bus.
+     */
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
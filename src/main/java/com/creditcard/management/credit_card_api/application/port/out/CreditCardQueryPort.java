@@ -0,0 +1,114 @@
+package com.creditcard.management.credit_card_api.application.port.out;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Port interface for read-only Credit Card queries.
+ * Unlike CreditCardRepositoryPort, this contract returns response objects built directly
+ * from the query results, without going through persistence entities or domain models.
+ * It is meant for read traffic that never modifies the returned data.
+ */
+public interface CreditCardQueryPort {
+
+    /**
+     * Receives the available credit of one credit card.
+     */
+    @FunctionalInterface
+    interface AvailableCreditConsumer {
+
+        /**
+         * Accepts the available credit of a card.
+         *
+         * @param cardId         The unique identifier of the credit card.
+         * @param availableMinor The credit limit minus the current balance, in minor units.
+         */
+        void accept(long cardId, long availableMinor);
+    }
+
+    /**
+     * Retrieves a specific credit card by its unique identifier.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return An Optional containing the CreditCardDTO if found, or empty if not.
+     */
+    Optional<CreditCardDTO> findById(Long id);
+
+    /**
+     * Retrieves a specific credit card by its card number, which is unique.
+     *
+     * @param cardNumber The card number.
+     * @return An Optional containing the CreditCardDTO if found, or empty if not.
+     */
+    Optional<CreditCardDTO> findByCardNumber(String cardNumber);
+
+    /**
+     * Retrieves one page of credit cards ordered by their unique identifier.
+     * The page starts strictly after the given cursor, so the cost does not depend on the page depth.
+     *
+     * @param afterId The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit   The maximum number of credit cards to return.
+     * @return A CursorPage containing the CreditCardDTO objects and the cursor of the next page.
+     */
+    CursorPage<CreditCardDTO> findPage(Long afterId, int limit);
+
+    /**
+     * Retrieves one page of the credit cards of a customer in the given order, without loading the customer.
+     * The page starts strictly after the card whose ID is the cursor, in the sort order.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param sort       The order of the cards.
+     * @param afterId    The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit      The maximum number of credit cards to return.
+     * @return A CursorPage containing the CreditCardDTO objects and the cursor of the next page.
+     */
+    CursorPage<CreditCardDTO> findPageByCustomer(Long customerId, CreditCardSort sort, Long afterId, int limit);
+
+    /**
+     * Retrieves one page of the credit cards matching the given criteria, ordered by their unique identifier.
+     * All criteria are applied in a single query; the page starts strictly after the given cursor.
+     *
+     * @param criteria The filters of the search.
+     * @param afterId  The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit    The maximum number of credit cards to return.
+     * @return A CursorPage containing the matching CreditCardDTO objects and the cursor of the next page.
+     */
+    CursorPage<CreditCardDTO> search(CreditCardSearchCriteria criteria, Long afterId, int limit);
+
+    /**
+     * Counts the credit cards of the repository.
+     *
+     * @return The number of credit cards.
+     */
+    long count();
+
+    /**
+     * Passes the card number of every credit card to the given consumer one at a time.
+     * Implementations must not hold all numbers in memory at once; callers must run inside a transaction.
+     *
+     * @param consumer The consumer receiving each card number.
+     */
+    void forEachCardNumber(Consumer<String> consumer);
+
+    /**
+     * Passes the available credit of every credit card to the given consumer one at a time.
+     * Implementations must not hold all cards in memory at once; callers must run inside a transaction.
+     *
+     * @param consumer The consumer receiving each card ID and its available credit.
+     */
+    void forEachAvailableCredit(AvailableCreditConsumer consumer);
+
+    /**
+     * Retrieves the identifiers of the credit cards of a customer.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @return The card IDs, empty if the customer has no cards or does not exist.
+     */
+    List<Long> findIdsByCustomer(Long customerId);
+}
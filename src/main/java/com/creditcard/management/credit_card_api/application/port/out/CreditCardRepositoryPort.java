@@ -1,9 +1,15 @@
 package com.creditcard.management.credit_card_api.application.port.out;
 
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Port interface for Credit Card repository operations.
@@ -14,11 +20,12 @@ import java.util.Optional;
 public interface CreditCardRepositoryPort {
 
     /**
-     * Retrieves all credit cards from the repository.
+     * Passes every credit card of the repository, ordered by ID, to the given consumer one at a time.
+     * Implementations must not hold all cards in memory at once; callers must run inside a transaction.
      *
-     * @return A list of all CreditCard objects.
+     * @param consumer The consumer receiving each CreditCard.
      */
-    List<CreditCard> findAll();
+    void forEachCreditCard(Consumer<CreditCard> consumer);
 
     /**
      * Retrieves a specific credit card by its unique identifier.
@@ -39,11 +46,80 @@ public interface CreditCardRepositoryPort {
     CreditCard save(CreditCard creditCard);
 
     /**
-     * Deletes a credit card from the repository by its unique identifier.
+     * Overwrites the fields of an existing credit card in a single statement, without reading it first.
+     * The owner of the card is not changed.
+     *
+     * @param id         The unique identifier of the credit card to update.
+     * @param creditCard The CreditCard object holding the new values.
+     * @return An Optional containing the written state if the card exists, or empty if not.
+     */
+    Optional<CreditCard> update(Long id, CreditCard creditCard);
+
+    /**
+     * Applies a partial update to an existing credit card.
+     * Only the fields set in the patch are written, so the statement touches only the changed columns.
+     * If the patch carries an expected version, nothing is written unless the credit card still has it.
+     *
+     * @param id    The unique identifier of the credit card to update.
+     * @param patch The fields to change.
+     * @return An Optional containing the credit card after the update if it exists with the expected version,
+     *         or empty if not.
+     */
+    Optional<CreditCard> patch(Long id, CreditCardPatch patch);
+
+    /**
+     * Adds a signed amount to the balance of a credit card in a single conditional statement, without reading it first.
+     * A charge (positive amount) is only applied if the new balance stays within the credit limit;
+     * a payment (negative or zero amount) is always applied. Concurrent postings never overwrite each other.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The signed amount to add to the current balance.
+     * @return True if the balance was updated, false if the card does not exist or the charge exceeds the limit.
+     */
+    boolean addToBalance(Long id, Money amount);
+
+    /**
+     * Applies many postings in the given order with batched conditional statements.
+     * Each posting follows the rules of addToBalance. Implementations commit the postings in chunks,
+     * each in its own transaction, so a failure leaves the chunks committed before it applied.
+     *
+     * @param postings The postings to apply, each with a card ID and a non-null amount.
+     * @return For each posting, in the same order, true if the balance was updated, false otherwise.
+     */
+    boolean[] addToBalances(List<Posting> postings);
+
+    /**
+     * Saves several new credit cards in a single transaction.
+     * Implementations write the cards in chunks with batched inserts; if any card fails, none is saved.
+     *
+     * @param creditCards The CreditCard objects to create.
+     * @return The saved CreditCard objects, with their identifiers, in the same order as the input.
+     */
+    List<CreditCard> saveAll(List<CreditCard> creditCards);
+
+    /**
+     * Retrieves which of the given card numbers are already used by a stored credit card.
+     *
+     * @param cardNumbers The card numbers to check.
+     * @return The subset of card numbers that already exist.
+     */
+    Set<String> findExistingCardNumbers(Collection<String> cardNumbers);
+
+    /**
+     * Retrieves which of the given credit card IDs exist in the repository, without loading the cards.
+     *
+     * @param ids The credit card identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Deletes a credit card from the repository by its unique identifier with a single statement.
      *
      * @param id The unique identifier of the credit card to delete.
+     * @return The number of deleted credit cards: 1 if it existed, 0 otherwise.
      */
-    void deleteById(Long id);
+    int deleteById(Long id);
 
     /**
      * Checks if a credit card exists in the repository by its unique identifier.
@@ -1,9 +1,13 @@
 package com.creditcard.management.credit_card_api.application.port.out;
 
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
 import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Port interface for Customer repository operations.
@@ -14,19 +18,52 @@ import java.util.Optional;
 public interface CustomerRepositoryPort {
 
     /**
-     * Retrieves all customers from the repository.
+     * Retrieves one page of customers ordered by their unique identifier.
+     * When requested, the credit cards of the whole page are loaded together in a single query.
      *
-     * @return A list of all Customer objects.
+     * @param afterId   The identifier of the last customer of the previous page, or null to start from the beginning.
+     * @param limit     The maximum number of customers to return.
+     * @param withCards True to load the credit cards of the customers, false to leave them unset.
+     * @return A CursorPage containing the customers and the cursor of the next page.
      */
-    List<Customer> findAll();
+    CursorPage<Customer> findPage(Long afterId, int limit, boolean withCards);
 
     /**
-     * Retrieves a specific customer by its unique identifier.
+     * Retrieves a specific customer by its unique identifier together with their credit cards.
      *
      * @param id The unique identifier of the customer.
+     * @return An Optional containing the Customer with their credit cards if found, or empty if not.
+     */
+    Optional<Customer> findByIdWithCards(Long id);
+
+    /**
+     * Retrieves a specific customer by its unique identifier without their credit cards.
+     *
+     * @param id The unique identifier of the customer.
+     * @return An Optional containing the Customer with no credit cards set if found, or empty if not.
+     */
+    Optional<Customer> findByIdWithoutCards(Long id);
+
+    /**
+     * Retrieves a customer by their email address, ignoring case and surrounding whitespace.
+     * The credit cards of the customer are not loaded.
+     *
+     * @param email The email address.
      * @return An Optional containing the Customer if found, or empty if not.
      */
-    Optional<Customer> findById(Long id);
+    Optional<Customer> findByEmail(String email);
+
+    /**
+     * Applies a partial update to an existing customer.
+     * Only the fields set in the patch are written, so the statement touches only the changed columns.
+     * If the patch carries an expected version, nothing is written unless the customer still has it.
+     *
+     * @param id    The unique identifier of the customer to update.
+     * @param patch The fields to change.
+     * @return An Optional containing the customer after the update, without credit cards, if it exists with the expected version,
+     *         or empty if not.
+     */
+    Optional<Customer> patch(Long id, CustomerPatch patch);
 
     /**
      * Saves a customer to the repository.
@@ -39,11 +76,13 @@ public interface CustomerRepositoryPort {
     Customer save(Customer customer);
 
     /**
-     * Deletes a customer from the repository by its unique identifier.
+     * Deletes a customer and all their credit cards from the repository by its unique identifier.
+     * Implementations use set-based statements, so the cost does not depend on the number of cards.
      *
      * @param id The unique identifier of the customer to delete.
+     * @return The number of deleted customers: 1 if they existed, 0 otherwise.
      */
-    void deleteById(Long id);
+    int deleteById(Long id);
 
     /**
      * Checks if a customer exists in the repository by its unique identifier.
@@ -52,4 +91,29 @@ public interface CustomerRepositoryPort {
      * @return True if the customer exists, false otherwise.
      */
     boolean existsById(Long id);
+
+    /**
+     * Saves several new customers with their credit cards in a single transaction.
+     * Implementations use batched inserts; if any customer or card fails, none is saved.
+     *
+     * @param customers The Customer objects to create, with their credit cards.
+     * @return The saved Customer objects, with their identifiers, in the same order as the input.
+     */
+    List<Customer> saveAll(List<Customer> customers);
+
+    /**
+     * Retrieves which of the given email addresses are already used by a stored customer.
+     *
+     * @param emails The email addresses to check.
+     * @return The subset of email addresses that already exist.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Retrieves which of the given customer identifiers belong to existing customers.
+     *
+     * @param ids The customer identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
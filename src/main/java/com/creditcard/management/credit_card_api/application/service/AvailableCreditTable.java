@@ -0,0 +1,302 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent open-addressing hash table from card IDs to available credit in minor units.
+ * Keys and values are held in two primitive arrays, so an entry costs 16 bytes and no object:
+ * a table of millions of cards adds nothing for the garbage collector to trace.
+ *
+ * Lookups and debits are lock-free: a debit is a compare-and-set on the value slot of the card.
+ * Inserts, overwrites, removals and resizes are serialized on the table. A value is published before
+ * its key, so a reader that finds a key also sees its value. A removed card keeps its key slot with a
+ * tombstone value until the next resize. A resize freezes every old value slot before copying it, so
+ * a debit racing with the resize fails its compare-and-set and retries on the new table; no update is lost.
+ *
+ * Card IDs must be positive: zero marks an empty key slot.
+ */
+final class AvailableCreditTable {
+
+    // Returned by get for a card that is not in the table
+    static final long ABSENT = Long.MIN_VALUE;
+
+    // Value of a slot being copied by a resize
+    private static final long FROZEN = Long.MIN_VALUE;
+
+    // Value of the slot of a removed card
+    private static final long REMOVED = Long.MIN_VALUE + 1;
+
+    // Highest share of used key slots, tombstones included, before the table grows
+    private static final double MAX_LOAD = 0.75;
+
+    // Slots currently answering lookups; replaced by resizes
+    private volatile Slots slots;
+
+    // Key slots in use, tombstones included; guarded by this
+    private int used;
+
+    // Cards present in the table; guarded by this
+    private int size;
+
+    /**
+     * Constructor to initialize an empty table.
+     *
+     * @param expectedCards The number of cards the table holds without resizing.
+     */
+    AvailableCreditTable(int expectedCards) {
+        this.slots = new Slots(capacityFor(expectedCards));
+    }
+
+    /**
+     * Gets the available credit of a card.
+     *
+     * @param cardId The positive card ID.
+     * @return The available credit in minor units, or ABSENT if the card is not in the table.
+     */
+    long get(long cardId) {
+        Slots current = slots;
+        while (true) {
+            int index = current.find(cardId);
+            if (index < 0) {
+                return ABSENT;
+            }
+            long value = current.values.get(index);
+            if (value == FROZEN) {
+                current = awaitResize(current);
+            } else {
+                return value == REMOVED ? ABSENT : value;
+            }
+        }
+    }
+
+    /**
+     * Takes an amount from the available credit of a card if enough credit is available.
+     *
+     * @param cardId      The positive card ID.
+     * @param amountMinor The positive amount in minor units.
+     * @return APPROVED if the amount was taken, DECLINED if not enough credit is available,
+     *         or null if the card is not in the table.
+     */
+    PostingStatus debit(long cardId, long amountMinor) {
+        Slots current = slots;
+        while (true) {
+            int index = current.find(cardId);
+            if (index < 0) {
+                return null;
+            }
+            long value = current.values.get(index);
+            if (value == FROZEN) {
+                current = awaitResize(current);
+            } else if (value == REMOVED) {
+                return null;
+            } else if (value < amountMinor) {
+                return PostingStatus.DECLINED;
+            } else if (current.values.compareAndSet(index, value, value - amountMinor)) {
+                return PostingStatus.APPROVED;
+            }
+        }
+    }
+
+    /**
+     * Sets the available credit of a card, replacing any value it had.
+     *
+     * @param cardId         The positive card ID.
+     * @param availableMinor The available credit in minor units.
+     */
+    synchronized void put(long cardId, long availableMinor) {
+        insert(cardId, availableMinor, true);
+    }
+
+    /**
+     * Sets the available credit of a card unless the card is already in the table.
+     *
+     * @param cardId         The positive card ID.
+     * @param availableMinor The available credit in minor units.
+     */
+    synchronized void putIfAbsent(long cardId, long availableMinor) {
+        insert(cardId, availableMinor, false);
+    }
+
+    /**
+     * Removes a card from the table.
+     *
+     * @param cardId The positive card ID.
+     */
+    synchronized void remove(long cardId) {
+        Slots current = slots;
+        int index = current.find(cardId);
+        if (index >= 0 && current.values.getAndSet(index, REMOVED) != REMOVED) {
+            size--;
+        }
+    }
+
+    /**
+     * Gets the number of cards in the table.
+     *
+     * @return The number of cards.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Inserts or overwrites the value of a card. Must be called while holding the lock of the table.
+     *
+     * @param cardId         The positive card ID.
+     * @param availableMinor The available credit in minor units.
+     * @param overwrite      True to replace the value of a card already in the table.
+     */
+    private void insert(long cardId, long availableMinor, boolean overwrite) {
+        if (cardId <= 0) {
+            throw new IllegalArgumentException("Card IDs must be positive: " + cardId);
+        }
+        Slots current = slots;
+        int index = current.find(cardId);
+        if (index >= 0) {
+            long previous = current.values.get(index);
+            if (previous == REMOVED) {
+                size++;
+            } else if (!overwrite) {
+                return;
+            }
+            current.values.set(index, availableMinor);
+            return;
+        }
+        if (used + 1 > current.capacity() * MAX_LOAD) {
+            current = resize(current);
+        }
+        index = current.emptySlot(cardId);
+        current.values.set(index, availableMinor);
+        current.keys.set(index, cardId); // Published after the value
+        used++;
+        size++;
+    }
+
+    /**
+     * Copies the live entries into new slots sized for twice the number of cards, dropping tombstones,
+     * and publishes them. Must be called while holding the lock of the table.
+     *
+     * @param old The slots to replace.
+     * @return The new slots.
+     */
+    private Slots resize(Slots old) {
+        Slots next = new Slots(capacityFor(Math.max(size, 1) * 2));
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.keys.get(i);
+            if (key != 0) {
+                long value = old.values.getAndSet(i, FROZEN);
+                if (value != REMOVED) {
+                    int index = next.emptySlot(key);
+                    next.values.set(index, value);
+                    next.keys.set(index, key);
+                }
+            }
+        }
+        slots = next;
+        used = size;
+        return next;
+    }
+
+    /**
+     * Waits until a resize in progress has published its new slots.
+     *
+     * @param frozen The slots being copied.
+     * @return The slots that replaced them.
+     */
+    private Slots awaitResize(Slots frozen) {
+        Slots current;
+        while ((current = slots) == frozen) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+
+    /**
+     * Computes the power-of-two capacity that holds a number of cards below the maximum load.
+     *
+     * @param cards The number of cards.
+     * @return The capacity.
+     */
+    private static int capacityFor(int cards) {
+        long needed = (long) Math.ceil(Math.max(cards, 1) / MAX_LOAD) + 1;
+        if (needed > 1 << 30) {
+            throw new IllegalStateException("Too many cards for the available credit table: " + cards);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * Key and value arrays of one generation of the table, probed linearly.
+     */
+    private static final class Slots {
+
+        private final AtomicLongArray keys;
+        private final AtomicLongArray values;
+        private final int mask;
+
+        /**
+         * Constructor to initialize empty slots.
+         *
+         * @param capacity The power-of-two number of slots.
+         */
+        private Slots(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Gets the number of slots.
+         *
+         * @return The capacity.
+         */
+        private int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Finds the slot of a key.
+         *
+         * @param key The key.
+         * @return The index of the slot, or -1 if the key is not present.
+         */
+        private int find(long key) {
+            for (int i = home(key); ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key) {
+                    return i;
+                }
+                if (k == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Finds the first empty slot in the probe sequence of a key that is not present.
+         *
+         * @param key The key.
+         * @return The index of the empty slot.
+         */
+        private int emptySlot(long key) {
+            int i = home(key);
+            while (keys.get(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /**
+         * Computes the first slot probed for a key, spreading sequential IDs over the table.
+         *
+         * @param key The key.
+         * @return The index of the slot.
+         */
+        private int home(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
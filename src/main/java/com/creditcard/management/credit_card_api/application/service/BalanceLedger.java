@@ -0,0 +1,358 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.BalanceJournalPort;
+import com.creditcard.management.credit_card_api.application.port.out.BalanceLedgerStorePort;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory ledger of card balances with write-behind to the database.
+ * When enabled, postings are authorized against per-card accounts held in memory instead of one conditional
+ * UPDATE each, appended to a durable local journal, and written to the database in periodic batches.
+ * Authorization throughput then depends on memory and the journal, not on database write latency.
+ *
+ * Each card has its own account, so postings to different cards never contend with each other:
+ *  - the exposure (stored balance plus every accepted posting) is an AtomicLong, and a charge is accepted
+ *    with a compare-and-set only if it keeps the exposure within the credit limit
+ *  - the deltas not yet written are a LongAdder, which absorbs concurrent postings to a hot card without
+ *    a shared compare-and-set loop, and is drained by the flush
+ * Postings hold the read side of a read-write lock while they load an account and update it and the journal;
+ * the flush takes the write side only to snapshot the deltas and rotate the journal, so that the checkpoint
+ * it writes covers exactly the snapshotted postings.
+ *
+ * The ledger assumes that it is the only writer of balances while it is enabled: an account is loaded from
+ * the database on first use and then trusted. Card updates and deletes go through evict, which writes the
+ * pending deltas and drops the account. Running several instances against the same cards therefore requires
+ * routing each card to one instance; otherwise leave the ledger disabled.
+ */
+@Service
+public class BalanceLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceLedger.class);
+
+    private final CreditCardRepositoryPort creditCardRepositoryPort;
+    private final BalanceJournalPort balanceJournalPort;
+    private final BalanceLedgerStorePort balanceLedgerStorePort;
+    private final boolean enabled;
+    private final String journalId;
+    private final Duration flushInterval;
+
+    // Accounts of the cards posted to since they were last evicted, by card ID
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+
+    // Read side held by postings, write side by the flush while it snapshots the deltas
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    // Deltas of failed flushes, by card ID, written again by the next flush; guarded by this
+    private final Map<Long, Long> carriedDeltas = new HashMap<>();
+
+    // Flushes the ledger periodically, or null while the ledger is inactive
+    private volatile ScheduledExecutorService flusher;
+
+    /**
+     * Constructor to initialize the ledger.
+     *
+     * @param creditCardRepositoryPort The port interface used to load the balance and limit of a card.
+     * @param balanceJournalPort       The durable journal of accepted postings.
+     * @param balanceLedgerStorePort   The port interface used to write the deltas back to the database.
+     * @param enabled                  True to authorize postings in memory; false to post straight to the database.
+     * @param journalId                The identifier of the journal of this instance in the checkpoint table.
+     * @param flushInterval            The delay between two writes of the pending deltas to the database.
+     */
+    public BalanceLedger(CreditCardRepositoryPort creditCardRepositoryPort, BalanceJournalPort balanceJournalPort,
+                         BalanceLedgerStorePort balanceLedgerStorePort,
+                         @Value("${creditcard.ledger.enabled:false}") boolean enabled,
+                         @Value("${creditcard.ledger.journal-id:default}") String journalId,
+                         @Value("${creditcard.ledger.flush-interval:200ms}") Duration flushInterval) {
+        this.creditCardRepositoryPort = creditCardRepositoryPort;
+        this.balanceJournalPort = balanceJournalPort;
+        this.balanceLedgerStorePort = balanceLedgerStorePort;
+        this.enabled = enabled;
+        this.journalId = journalId;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Replays the journal into the database once the application is ready, then starts the periodic flush.
+     * Postings go straight to the database until this has completed.
+     *
+     * @throws IOException If the journal cannot be read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        if (!enabled || flusher != null) {
+            return;
+        }
+        long checkpoint = balanceLedgerStorePort.findCheckpoint(journalId);
+        Map<Long, Long> replayed = new HashMap<>();
+        long[] entries = {0};
+        long last = balanceJournalPort.recover(checkpoint, (sequence, cardId, amountMinor) -> {
+            replayed.merge(cardId, amountMinor, Math::addExact);
+            entries[0]++;
+        });
+        if (last > checkpoint) {
+            balanceLedgerStorePort.applyDeltas(replayed, journalId, last);
+            log.info("Balance ledger replayed {} journal entries after sequence {}", entries[0], checkpoint);
+        }
+        balanceJournalPort.discardThrough(last);
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toNanos();
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        flusher = executor;
+    }
+
+    /**
+     * Checks if postings are authorized by the ledger.
+     *
+     * @return True once the ledger is enabled and its journal has been replayed.
+     */
+    public boolean isActive() {
+        return flusher != null;
+    }
+
+    /**
+     * Authorizes a posting against the in-memory account of a card and records it in the journal.
+     * A charge is approved only if the exposure of the card stays within its credit limit; a payment
+     * is always approved. Approved postings reach the database with the next flush.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The signed, non-zero amount: positive for a charge, negative for a payment.
+     * @return An Optional containing APPROVED or DECLINED if the card exists, or empty if not.
+     * @throws UncheckedIOException If the posting cannot be written to the journal; it is then not applied.
+     */
+    public Optional<PostingStatus> post(Long id, Money amount) {
+        long amountMinor = amount.getMinorUnits();
+        snapshotLock.readLock().lock();
+        try {
+            Account account = accounts.computeIfAbsent(id, this::load);
+            if (account == null) {
+                return Optional.empty();
+            }
+            if (!account.reserve(amountMinor)) {
+                return Optional.of(PostingStatus.DECLINED);
+            }
+            try {
+                balanceJournalPort.append(id, amountMinor);
+            } catch (IOException e) {
+                account.exposureMinor.addAndGet(-amountMinor);
+                throw new UncheckedIOException("The posting could not be written to the balance journal", e);
+            }
+            account.pendingMinor.add(amountMinor);
+            return Optional.of(PostingStatus.APPROVED);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the pending deltas of every card to the database, with the journal checkpoint, in one transaction.
+     * If the write fails, the deltas are kept and written by the next flush.
+     */
+    public synchronized void flush() {
+        Map<Long, Long> deltas;
+        long checkpoint;
+        snapshotLock.writeLock().lock();
+        try {
+            deltas = drainDeltas();
+            checkpoint = rotateJournal();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        write(deltas, checkpoint);
+    }
+
+    /**
+     * Writes the pending deltas to the database and drops the account of a card, so that the next posting
+     * reloads its balance and limit. Must be called before the card is updated or deleted by other means.
+     * Postings wait while this runs, so none of them can load the card before its deltas are written.
+     *
+     * @param id The unique identifier of the credit card.
+     */
+    public synchronized void evict(Long id) {
+        if (!isActive()) {
+            return;
+        }
+        snapshotLock.writeLock().lock();
+        try {
+            Account removed = accounts.remove(id);
+            try {
+                write(drainDeltas(), rotateJournal());
+            } catch (RuntimeException e) {
+                if (removed != null) {
+                    accounts.put(id, removed);
+                }
+                throw e;
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes the remaining deltas when the application stops.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        flushQuietly();
+        flusher = null;
+    }
+
+    /**
+     * Loads the account of a card from the repository.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return The account, or null if the card does not exist.
+     */
+    private Account load(Long id) {
+        return creditCardRepositoryPort.findById(id)
+                .map(Account::new)
+                .orElse(null);
+    }
+
+    /**
+     * Takes the pending deltas of every account, together with the deltas of failed flushes.
+     * Must be called with the write lock held, so that no posting is between the journal and its account.
+     *
+     * @return The non-zero deltas by card ID.
+     */
+    private Map<Long, Long> drainDeltas() {
+        Map<Long, Long> deltas = new HashMap<>(carriedDeltas);
+        carriedDeltas.clear();
+        accounts.forEach((id, account) -> {
+            long delta = account.pendingMinor.sumThenReset();
+            if (delta != 0) {
+                deltas.merge(id, delta, Math::addExact);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * Rotates the journal, so that the entries of the snapshot can be discarded once written.
+     * Must be called with the write lock held. If the journal cannot rotate, its entries are kept
+     * until a later rotation succeeds.
+     *
+     * @return The last journal sequence number included in the snapshot.
+     */
+    private long rotateJournal() {
+        try {
+            return balanceJournalPort.rotate();
+        } catch (IOException e) {
+            log.warn("Could not rotate the balance journal", e);
+            return balanceJournalPort.lastSequence();
+        }
+    }
+
+    /**
+     * Writes deltas and the checkpoint covering them, then lets the journal reclaim the absorbed entries.
+     * Accounts of cards that no longer exist are dropped. On failure, the deltas are carried to the next write.
+     *
+     * @param deltas     The deltas by card ID.
+     * @param checkpoint The last journal sequence number included in the deltas.
+     */
+    private void write(Map<Long, Long> deltas, long checkpoint) {
+        try {
+            if (!deltas.isEmpty()) {
+                Set<Long> missing = balanceLedgerStorePort.applyDeltas(deltas, journalId, checkpoint);
+                missing.forEach(accounts::remove);
+            }
+            balanceJournalPort.discardThrough(checkpoint);
+        } catch (IOException e) {
+            log.warn("Could not compact the balance journal", e);
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> carriedDeltas.merge(id, delta, Math::addExact));
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes the ledger from the scheduler, logging failures instead of cancelling the schedule.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Balance ledger flush failed; the deltas will be written by the next flush", e);
+        }
+    }
+
+    /**
+     * In-memory account of one card.
+     */
+    private static final class Account {
+
+        // Credit limit of the card, in minor units
+        private final long limitMinor;
+
+        // Stored balance when the account was loaded plus every posting accepted since, in minor units
+        private final AtomicLong exposureMinor;
+
+        // Accepted postings not yet written to the database, in minor units
+        private final LongAdder pendingMinor = new LongAdder();
+
+        /**
+         * Constructor to initialize the account from the stored state of a card.
+         *
+         * @param creditCard The credit card.
+         */
+        private Account(CreditCard creditCard) {
+            this.limitMinor = creditCard.getCreditLimit().getMinorUnits();
+            this.exposureMinor = new AtomicLong(creditCard.getCurrentBalance().getMinorUnits());
+        }
+
+        /**
+         * Adds an amount to the exposure if it is a payment or keeps the exposure within the limit.
+         *
+         * @param amountMinor The signed amount in minor units.
+         * @return True if the amount was added.
+         */
+        private boolean reserve(long amountMinor) {
+            if (amountMinor <= 0) {
+                exposureMinor.addAndGet(amountMinor);
+                return true;
+            }
+            long current;
+            do {
+                current = exposureMinor.get();
+                if (current + amountMinor > limitMinor) {
+                    return false;
+                }
+            } while (!exposureMinor.compareAndSet(current, current + amountMinor));
+            return true;
+        }
+    }
+}
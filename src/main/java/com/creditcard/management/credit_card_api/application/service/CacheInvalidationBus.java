@@ -0,0 +1,286 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheInvalidationPort;
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the cards and customers written on this instance to the other instances, so that they drop them
+ * from their caches, and the card numbers written, so that they add them to their card number filters.
+ * The services report their writes here; nothing is sent immediately.
+ *
+ * Writes are coalesced: the IDs written since the last flush are collected in sets, so a card posted to
+ * a thousand times is published once. Every flush interval, the collected IDs are published in batches of
+ * at most max-batch-size IDs and card numbers. If more than max-pending of them are written between two
+ * flushes, e.g. by a bulk import, they are not collected any further and the next flush asks the other
+ * instances to drop everything and rebuild their card number filters.
+ * Writes made in a transaction are only collected once it completes, so that no instance reloads them
+ * before the commit.
+ *
+ * The other instances therefore see a write after the flush interval plus the delivery delay of the bus.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final CacheInvalidationPort cacheInvalidationPort;
+    private final Duration flushInterval;
+    private final int maxBatchSize;
+    private final int maxPending;
+
+    // Credit cards written since the last flush
+    private final Set<Long> pendingCards = ConcurrentHashMap.newKeySet();
+
+    // Customers written since the last flush
+    private final Set<Long> pendingCustomers = ConcurrentHashMap.newKeySet();
+
+    // Card numbers written since the last flush
+    private final Set<String> pendingCardNumbers = ConcurrentHashMap.newKeySet();
+
+    // Set when too many IDs were written since the last flush; the next flush then drops everything
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    // Flushes the bus periodically, or null before the application is ready
+    private volatile ScheduledExecutorService flusher;
+
+    /**
+     * Constructor to initialize the bus.
+     *
+     * @param cacheInvalidationPort The port interface carrying the batches to the other instances.
+     * @param flushInterval         The delay between two publications of the collected IDs.
+     * @param maxBatchSize          The maximum number of card and customer IDs and card numbers of a published batch.
+     * @param maxPending            The number of IDs and card numbers collected between two flushes above which
+     *                              everything is dropped instead.
+     */
+    public CacheInvalidationBus(CacheInvalidationPort cacheInvalidationPort,
+                                @Value("${creditcard.cache-invalidation.flush-interval:100ms}") Duration flushInterval,
+                                @Value("${creditcard.cache-invalidation.max-batch-size:1000}") int maxBatchSize,
+                                @Value("${creditcard.cache-invalidation.max-pending:100000}") int maxPending) {
+        this.cacheInvalidationPort = cacheInvalidationPort;
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Starts the periodic flush once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toNanos();
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        flusher = executor;
+    }
+
+    /**
+     * Records a credit card that was updated, posted to or deleted.
+     *
+     * @param cardId The ID of the credit card; null is ignored.
+     */
+    public void cardChanged(Long cardId) {
+        cardsChanged(Collections.singletonList(cardId));
+    }
+
+    /**
+     * Records credit cards that were updated, posted to or deleted.
+     *
+     * @param cardIds The IDs of the credit cards; nulls are ignored.
+     */
+    public void cardsChanged(Collection<Long> cardIds) {
+        record(pendingCards, cardIds);
+    }
+
+    /**
+     * Records a customer that was created, updated or deleted, or whose list of cards changed.
+     *
+     * @param customerId The ID of the customer; null is ignored.
+     */
+    public void customerChanged(Long customerId) {
+        customersChanged(Collections.singletonList(customerId));
+    }
+
+    /**
+     * Records customers that were created, updated or deleted, or whose list of cards changed.
+     *
+     * @param customerIds The IDs of the customers; nulls are ignored.
+     */
+    public void customersChanged(Collection<Long> customerIds) {
+        record(pendingCustomers, customerIds);
+    }
+
+    /**
+     * Records the card numbers of credit cards that were created or updated.
+     *
+     * @param cardNumbers The card numbers; nulls are ignored.
+     */
+    public void cardNumbersWritten(Collection<String> cardNumbers) {
+        record(pendingCardNumbers, cardNumbers);
+    }
+
+    /**
+     * Publishes the IDs and card numbers collected since the last flush, in batches of at most max-batch-size
+     * of them. If a batch cannot be published, it and the following ones are collected again for the next flush.
+     *
+     * @throws RuntimeException If the bus fails to publish a batch.
+     */
+    public synchronized void flush() {
+        if (overflowed.getAndSet(false)) {
+            pendingCards.clear();
+            pendingCustomers.clear();
+            pendingCardNumbers.clear();
+            try {
+                cacheInvalidationPort.publish(CacheInvalidation.everything());
+            } catch (RuntimeException e) {
+                overflowed.set(true);
+                throw e;
+            }
+            return;
+        }
+        List<Long> cards = drain(pendingCards);
+        List<Long> customers = drain(pendingCustomers);
+        List<String> cardNumbers = drain(pendingCardNumbers);
+        int cardIndex = 0;
+        int customerIndex = 0;
+        int cardNumberIndex = 0;
+        while (cardIndex < cards.size() || customerIndex < customers.size() || cardNumberIndex < cardNumbers.size()) {
+            int cardCount = Math.min(cards.size() - cardIndex, maxBatchSize);
+            int customerCount = Math.min(customers.size() - customerIndex, maxBatchSize - cardCount);
+            int cardNumberCount = Math.min(cardNumbers.size() - cardNumberIndex,
+                    maxBatchSize - cardCount - customerCount);
+            try {
+                cacheInvalidationPort.publish(new CacheInvalidation(
+                        Set.copyOf(cards.subList(cardIndex, cardIndex + cardCount)),
+                        Set.copyOf(customers.subList(customerIndex, customerIndex + customerCount)),
+                        Set.copyOf(cardNumbers.subList(cardNumberIndex, cardNumberIndex + cardNumberCount))));
+            } catch (RuntimeException e) {
+                add(pendingCards, cards.subList(cardIndex, cards.size()));
+                add(pendingCustomers, customers.subList(customerIndex, customers.size()));
+                add(pendingCardNumbers, cardNumbers.subList(cardNumberIndex, cardNumbers.size()));
+                throw e;
+            }
+            cardIndex += cardCount;
+            customerIndex += customerCount;
+            cardNumberIndex += cardNumberCount;
+        }
+    }
+
+    /**
+     * Stops the periodic flush and publishes the remaining IDs when the application stops.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        flushQuietly();
+        flusher = null;
+    }
+
+    /**
+     * Flushes the bus, logging a failure instead of throwing it; the IDs are published by the next flush.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidations could not be published; they will be retried", e);
+        }
+    }
+
+    /**
+     * Collects written IDs or card numbers now or, if a transaction is active, once it completes.
+     *
+     * @param pending The set collecting them.
+     * @param ids     The written IDs or card numbers.
+     * @param <T>     The type of the IDs or card numbers.
+     */
+    private <T> void record(Set<T> pending, Collection<T> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(pending, ids);
+            return;
+        }
+        List<T> written = new ArrayList<>(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                add(pending, written);
+            }
+        });
+    }
+
+    /**
+     * Adds IDs or card numbers to a pending set, unless too many of them are pending already.
+     *
+     * @param pending The set collecting them.
+     * @param ids     The IDs or card numbers to add.
+     * @param <T>     The type of the IDs or card numbers.
+     */
+    private <T> void add(Set<T> pending, Collection<T> ids) {
+        if (overflowed.get()) {
+            return;
+        }
+        for (T id : ids) {
+            if (id != null) {
+                pending.add(id);
+            }
+        }
+        if (pendingCards.size() + pendingCustomers.size() + pendingCardNumbers.size() > maxPending
+                && !overflowed.getAndSet(true)) {
+            pendingCards.clear();
+            pendingCustomers.clear();
+            pendingCardNumbers.clear();
+        }
+    }
+
+    /**
+     * Takes the IDs or card numbers of a pending set. Those added concurrently are either taken or left for
+     * the next flush.
+     *
+     * @param pending The set collecting them.
+     * @param <T>     The type of the IDs or card numbers.
+     * @return The IDs or card numbers taken.
+     */
+    private static <T> List<T> drain(Set<T> pending) {
+        List<T> drained = new ArrayList<>();
+        for (Iterator<T> iterator = pending.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+}
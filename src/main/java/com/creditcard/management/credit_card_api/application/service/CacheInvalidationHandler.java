@@ -0,0 +1,71 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheEvictionPort;
+import com.creditcard.management.credit_card_api.application.port.out.CacheInvalidationPort;
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Applies the cache invalidations published by the other instances of the application to the caches of
+ * this one: the caches below the repository ports, the in-memory authorization table and the email lookup cache.
+ * The card numbers written elsewhere are added to the card number filter, which would otherwise report them
+ * as unknown; when a batch drops everything, those numbers were not collected and the filter is rebuilt.
+ * The caches below the ports are evicted in their order, the innermost first, so that an outer cache
+ * evicted first cannot reload the entry from an inner cache that still holds the old state.
+ */
+@Service
+public class CacheInvalidationHandler {
+
+    private final List<CacheEvictionPort> cacheEvictionPorts;
+    private final CreditAuthorizationService creditAuthorizationService;
+    private final CustomerService customerService;
+    private final CardNumberFilter cardNumberFilter;
+
+    /**
+     * Constructor to initialize the handler and subscribe it to the bus.
+     *
+     * @param cacheInvalidationPort      The port interface delivering the batches of the other instances.
+     * @param cacheEvictionPorts         The caches below the repository ports, innermost first.
+     * @param creditAuthorizationService The in-memory authorization service, which drops the written cards.
+     * @param customerService            The customer service, which drops the written customers from its email cache.
+     * @param cardNumberFilter           The filter of known card numbers, told about the card numbers written elsewhere.
+     */
+    public CacheInvalidationHandler(CacheInvalidationPort cacheInvalidationPort,
+                                    List<CacheEvictionPort> cacheEvictionPorts,
+                                    CreditAuthorizationService creditAuthorizationService,
+                                    CustomerService customerService,
+                                    CardNumberFilter cardNumberFilter) {
+        this.cacheEvictionPorts = cacheEvictionPorts;
+        this.creditAuthorizationService = creditAuthorizationService;
+        this.customerService = customerService;
+        this.cardNumberFilter = cardNumberFilter;
+        cacheInvalidationPort.subscribe(this::apply);
+    }
+
+    /**
+     * Drops the cards and customers of a batch from every cache and adds its card numbers to the card number
+     * filter, or drops everything and rebuilds the filter if the batch asks so.
+     *
+     * @param invalidation The batch published by another instance.
+     */
+    public void apply(CacheInvalidation invalidation) {
+        if (invalidation.isEverything()) {
+            cacheEvictionPorts.forEach(CacheEvictionPort::evictAll);
+            creditAuthorizationService.clear();
+            customerService.evictAllFromEmailCache();
+            cardNumberFilter.rebuild();
+            return;
+        }
+        invalidation.getCardNumbers().forEach(cardNumberFilter::add);
+        if (!invalidation.getCardIds().isEmpty()) {
+            cacheEvictionPorts.forEach(port -> port.evictCards(invalidation.getCardIds()));
+            creditAuthorizationService.invalidateAll(invalidation.getCardIds());
+        }
+        if (!invalidation.getCustomerIds().isEmpty()) {
+            cacheEvictionPorts.forEach(port -> port.evictCustomers(invalidation.getCustomerIds()));
+            customerService.evictFromEmailCache(invalidation.getCustomerIds());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter of the card numbers known to the repository.
+ * A negative answer is definitive: the card number is not stored, so lookups and duplicate checks
+ * for it can skip the database. A positive answer may be a false positive and must be confirmed
+ * by the database.
+ *
+ * The filter is rebuilt from the repository when the application is ready and kept current by the
+ * services that write card numbers. Until the first build completes, every number is reported as
+ * possibly present. Card numbers that are deleted or changed stay in the filter until the next
+ * rebuild, which only costs an extra database lookup.
+ */
+@Service
+public class CardNumberFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(CardNumberFilter.class);
+
+    private final CreditCardQueryPort creditCardQueryPort;
+    private final boolean enabled;
+    private final long expectedCards;
+    private final double falsePositiveRate;
+
+    // Filter answering queries, or null before the first build
+    private volatile Bits current;
+
+    // Filter being built, which also receives the numbers written during the build
+    private volatile Bits building;
+
+    /**
+     * Constructor to initialize the filter with its sizing parameters.
+     *
+     * @param creditCardQueryPort The port interface used to read every card number on rebuild.
+     * @param enabled             False to disable the filter, which then reports every number as possibly present.
+     * @param expectedCards       The minimum number of card numbers the filter is sized for.
+     * @param falsePositiveRate   The target probability that an unknown number is reported as possibly present.
+     */
+    public CardNumberFilter(CreditCardQueryPort creditCardQueryPort,
+                            @Value("${creditcard.card-number-filter.enabled:true}") boolean enabled,
+                            @Value("${creditcard.card-number-filter.expected-cards:1000000}") long expectedCards,
+                            @Value("${creditcard.card-number-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.creditCardQueryPort = creditCardQueryPort;
+        this.enabled = enabled;
+        this.expectedCards = expectedCards;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Rebuilds the filter from every card number of the repository once the application is ready.
+     * The filter is sized for twice the current number of cards, so that it keeps its false-positive
+     * rate while the table grows. The transaction is deliberately not read-only: a replica may lag behind
+     * the primary, and a number missing from the filter would hide an existing card.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Bits next = new Bits(Math.max(expectedCards, 2 * creditCardQueryPort.count()), falsePositiveRate);
+        building = next;
+        long[] count = {0};
+        creditCardQueryPort.forEachCardNumber(cardNumber -> {
+            next.add(cardNumber);
+            count[0]++;
+        });
+        current = next;
+        building = null;
+        log.info("Card number filter rebuilt with {} numbers ({} KiB) in {} ms", count[0],
+                next.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Checks if a card number may be stored in the repository.
+     *
+     * @param cardNumber The card number to check.
+     * @return False if the card number is certainly not stored, true if it may be.
+     */
+    public boolean mightContain(String cardNumber) {
+        Bits bits = current;
+        return bits == null || cardNumber == null || bits.mightContain(cardNumber);
+    }
+
+    /**
+     * Records a card number written to the repository.
+     *
+     * @param cardNumber The card number, ignored if null.
+     */
+    public void add(String cardNumber) {
+        if (cardNumber == null) {
+            return;
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.add(cardNumber);
+        }
+        Bits next = building;
+        if (next != null) {
+            next.add(cardNumber);
+        }
+    }
+
+    /**
+     * Thread-safe bit array of a Bloom filter, indexed with double hashing.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        /**
+         * Sizes the bit array and the number of hash functions for the expected number of elements.
+         *
+         * @param expectedElements  The expected number of elements.
+         * @param falsePositiveRate The target false-positive rate.
+         */
+        Bits(long expectedElements, double falsePositiveRate) {
+            long n = Math.max(1, expectedElements);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        /**
+         * Sets the bits of an element.
+         *
+         * @param value The element.
+         */
+        void add(String value) {
+            long hash = hash(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        /**
+         * Checks if all the bits of an element are set.
+         *
+         * @param value The element.
+         * @return True if the element may have been added, false if it certainly was not.
+         */
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets the memory used by the bit array.
+         *
+         * @return The size of the bit array in bytes.
+         */
+        long sizeInBytes() {
+            return (long) words.length() * Long.BYTES;
+        }
+
+        /**
+         * Computes the 64-bit FNV-1a hash of a string.
+         *
+         * @param value The string.
+         * @return The hash.
+         */
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        /**
+         * Spreads the bits of a hash with the finalizer of MurmurHash3.
+         *
+         * @param hash The hash.
+         * @return The mixed hash.
+         */
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
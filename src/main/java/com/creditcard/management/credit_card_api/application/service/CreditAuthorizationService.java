@@ -0,0 +1,203 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory authorization of charges against the available credit of each card.
+ * The available credit (credit limit minus current balance) of every card is kept in a primitive table,
+ * so a decision is a hash lookup and a compare-and-set, without a database round trip. An approved
+ * authorization is a hold: it lowers the available credit in memory only, and the charge itself is
+ * posted to the balance later, typically when the transaction settles.
+ *
+ * The table is warmed from the repository when the application is ready; cards missing from it,
+ * e.g. cards created since, are loaded on their first authorization. The services that write cards
+ * reconcile it with the persisted state: a write that returns the card sets its available credit,
+ * a posting or a delete removes the card so that it is reloaded. Reconciling replaces the holds of the card.
+ *
+ * Each instance keeps its own table. Cards written through other instances are removed from it when their
+ * invalidations arrive on the cache invalidation bus; holds are still local, so with several instances,
+ * authorize each card on one instance.
+ */
+@Service
+public class CreditAuthorizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditAuthorizationService.class);
+
+    private final CreditCardQueryPort creditCardQueryPort;
+    private final int expectedCards;
+
+    // Available credit of the known cards, in minor units, by card ID
+    private volatile AvailableCreditTable table;
+
+    // Number of card writes reconciled so far, used to drop rows that may have been read before a write
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Constructor to initialize the service.
+     *
+     * @param creditCardQueryPort The port interface used to read the available credit of the cards.
+     * @param meterRegistry       The registry of the gauge reporting the number of cards in memory.
+     * @param expectedCards       The minimum number of cards the table is sized for.
+     */
+    public CreditAuthorizationService(CreditCardQueryPort creditCardQueryPort, MeterRegistry meterRegistry,
+                                      @Value("${creditcard.authorization.expected-cards:1024}") int expectedCards) {
+        this.creditCardQueryPort = creditCardQueryPort;
+        this.expectedCards = expectedCards;
+        this.table = new AvailableCreditTable(expectedCards);
+        Gauge.builder("creditcard.authorization.cards", this, service -> service.table.size())
+                .description("Credit cards whose available credit is held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the available credit of every card once the application is ready.
+     * The table is sized for twice the current number of cards and replaces the previous one once complete.
+     * If a card is written while it loads, the rows read may predate the write, so an empty table is used
+     * instead and cards are loaded on demand. The transaction is deliberately not read-only: a replica may
+     * lag behind the primary.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        long start = System.nanoTime();
+        long writesBefore = writes.get();
+        AvailableCreditTable next = new AvailableCreditTable(
+                (int) Math.min(Integer.MAX_VALUE / 4, Math.max(expectedCards, 2 * creditCardQueryPort.count())));
+        creditCardQueryPort.forEachAvailableCredit(next::put);
+        AvailableCreditTable previous = table;
+        table = next;
+        if (writes.get() != writesBefore) {
+            table = new AvailableCreditTable(expectedCards);
+            log.info("Credit authorization warm-up raced with card writes; cards will be loaded on demand");
+            return;
+        }
+        log.info("Credit authorization table warmed with {} cards in {} ms (replaced {} cards)", next.size(),
+                (System.nanoTime() - start) / 1_000_000, previous.size());
+    }
+
+    /**
+     * Authorizes a charge against the available credit of a card.
+     * The charge is approved only if it does not exceed the available credit, which it then reduces.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The positive amount of the charge.
+     * @return An Optional containing APPROVED or DECLINED if the card exists, or empty if not.
+     * @throws InvalidPostingException If the amount is missing or not positive.
+     */
+    public Optional<PostingStatus> authorize(Long id, Money amount) {
+        if (amount == null || amount.getMinorUnits() <= 0) {
+            throw new InvalidPostingException("amount is required and must be positive");
+        }
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        PostingStatus status = table.debit(id, amount.getMinorUnits());
+        return status != null ? Optional.of(status) : loadAndAuthorize(id, amount.getMinorUnits());
+    }
+
+    /**
+     * Sets the available credit of a card from its persisted state, dropping its holds.
+     * A card without a limit or balance is removed instead, and loaded again on its next authorization.
+     *
+     * @param creditCard The credit card as written to the repository.
+     */
+    public void reconcile(CreditCard creditCard) {
+        if (creditCard.getId() == null || creditCard.getId() <= 0) {
+            return;
+        }
+        if (creditCard.getCreditLimit() == null || creditCard.getCurrentBalance() == null) {
+            invalidate(creditCard.getId());
+            return;
+        }
+        writes.incrementAndGet(); // Before the table is read, so that a concurrent warm-up notices this write
+        table.put(creditCard.getId(),
+                creditCard.getCreditLimit().minus(creditCard.getCurrentBalance()).getMinorUnits());
+    }
+
+    /**
+     * Removes a card whose balance was changed or which was deleted, so that it is reloaded if authorized again.
+     *
+     * @param id The unique identifier of the credit card.
+     */
+    public void invalidate(Long id) {
+        writes.incrementAndGet();
+        if (id != null && id > 0) {
+            table.remove(id);
+        }
+    }
+
+    /**
+     * Removes several cards, e.g. those of a deleted customer.
+     *
+     * @param ids The unique identifiers of the credit cards.
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        ids.forEach(this::invalidate);
+    }
+
+    /**
+     * Removes every card, e.g. when another instance wrote too many cards to name them.
+     * Each card is loaded again on its next authorization.
+     */
+    public void clear() {
+        writes.incrementAndGet();
+        table = new AvailableCreditTable(expectedCards);
+    }
+
+    /**
+     * Retrieves the identifiers of the cards of a customer, to be invalidated once the customer is deleted.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @return The card IDs.
+     */
+    public List<Long> findCardIds(Long customerId) {
+        return creditCardQueryPort.findIdsByCustomer(customerId);
+    }
+
+    /**
+     * Loads the available credit of a card missing from the table and authorizes a charge against it.
+     * The loaded value is only kept if no card was written meanwhile, so that a concurrent write cannot be
+     * overtaken by the older row read here; otherwise the decision is made on the row and no hold is kept.
+     *
+     * @param id          The unique identifier of the credit card.
+     * @param amountMinor The positive amount of the charge in minor units.
+     * @return An Optional containing APPROVED or DECLINED if the card exists, or empty if not.
+     */
+    private Optional<PostingStatus> loadAndAuthorize(long id, long amountMinor) {
+        long writesBefore = writes.get();
+        Optional<CreditCardDTO> creditCard = creditCardQueryPort.findById(id);
+        if (creditCard.isEmpty()) {
+            return Optional.empty();
+        }
+        long availableMinor = creditCard.get().getCreditLimit().minus(creditCard.get().getCurrentBalance())
+                .getMinorUnits();
+        if (writes.get() == writesBefore) {
+            AvailableCreditTable current = table;
+            current.putIfAbsent(id, availableMinor);
+            PostingStatus status = current.debit(id, amountMinor);
+            if (status != null) {
+                return Optional.of(status);
+            }
+        }
+        return Optional.of(availableMinor >= amountMinor ? PostingStatus.APPROVED : PostingStatus.DECLINED);
+    }
+}
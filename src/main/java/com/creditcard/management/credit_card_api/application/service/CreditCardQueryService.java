@@ -0,0 +1,136 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.InvalidSearchCriteriaException;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Service class for read-only credit card queries.
+ * This class serves the GET endpoints through the CreditCardQueryPort,
+ * which builds response objects directly from the database rows.
+ */
+@Service
+public class CreditCardQueryService {
+
+    // Upper bound for the size of a single page of credit cards
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final CreditCardQueryPort creditCardQueryPort;
+    private final CardNumberFilter cardNumberFilter;
+    private final CustomerRepositoryPort customerRepositoryPort;
+
+    /**
+     * Constructor to initialize the service with the query port.
+     *
+     * @param creditCardQueryPort    The port interface for read-only credit card queries.
+     * @param cardNumberFilter       The filter of known card numbers, used to answer lookups of unknown numbers.
+     * @param customerRepositoryPort The port interface for customer repository operations, used to check owners.
+     */
+    public CreditCardQueryService(CreditCardQueryPort creditCardQueryPort, CardNumberFilter cardNumberFilter,
+                                  CustomerRepositoryPort customerRepositoryPort) {
+        this.creditCardQueryPort = creditCardQueryPort;
+        this.cardNumberFilter = cardNumberFilter;
+        this.customerRepositoryPort = customerRepositoryPort;
+    }
+
+    /**
+     * Retrieves one page of credit cards after the given cursor.
+     * The requested size is clamped between 1 and MAX_PAGE_SIZE.
+     *
+     * @param afterId The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit   The requested number of credit cards.
+     * @return A CursorPage containing the credit cards and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CreditCardDTO> getCreditCardPage(Long afterId, int limit) {
+        return creditCardQueryPort.findPage(afterId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Retrieves one page of the credit cards of a customer in the given order.
+     * The requested size is clamped between 1 and MAX_PAGE_SIZE. The customer is only checked for existence
+     * when the first page is empty, so listing the cards of an existing customer costs a single query.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param sort       The order of the cards.
+     * @param afterId    The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit      The requested number of credit cards.
+     * @return An Optional containing the CursorPage of credit cards, or empty if the customer does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CursorPage<CreditCardDTO>> getCustomerCreditCards(Long customerId, CreditCardSort sort,
+                                                                      Long afterId, int limit) {
+        CursorPage<CreditCardDTO> page = creditCardQueryPort.findPageByCustomer(customerId, sort, afterId,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (page.getItems().isEmpty() && afterId == null && !customerRepositoryPort.existsById(customerId)) {
+            return Optional.empty();
+        }
+        return Optional.of(page);
+    }
+
+    /**
+     * Searches the credit cards matching the given criteria, one page at a time.
+     * The requested size is clamped between 1 and MAX_PAGE_SIZE.
+     *
+     * @param criteria The filters of the search.
+     * @param afterId  The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit    The requested number of credit cards.
+     * @return A CursorPage containing the matching credit cards and the cursor of the next page.
+     * @throws InvalidSearchCriteriaException If a range has its lower bound above its upper bound,
+     *                                        or a utilization bound is negative.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CreditCardDTO> searchCreditCards(CreditCardSearchCriteria criteria, Long afterId, int limit) {
+        checkRange("minBalance", criteria.getMinBalance(), "maxBalance", criteria.getMaxBalance());
+        checkRange("minCreditLimit", criteria.getMinCreditLimit(), "maxCreditLimit", criteria.getMaxCreditLimit());
+        checkRange("minUtilization", criteria.getMinUtilization(), "maxUtilization", criteria.getMaxUtilization());
+        if ((criteria.getMinUtilization() != null && criteria.getMinUtilization() < 0)
+                || (criteria.getMaxUtilization() != null && criteria.getMaxUtilization() < 0)) {
+            throw new InvalidSearchCriteriaException("utilization bounds must not be negative");
+        }
+        if (criteria.getExpiresFrom() != null && criteria.getExpiresBefore() != null
+                && !criteria.getExpiresFrom().isBefore(criteria.getExpiresBefore())) {
+            throw new InvalidSearchCriteriaException("expiresFrom must be before expiresBefore");
+        }
+        return creditCardQueryPort.search(criteria, afterId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Retrieves a specific credit card by its card number.
+     * Numbers that the card number filter does not know are answered without querying the repository.
+     *
+     * @param cardNumber The card number.
+     * @return An Optional containing the CreditCardDTO if found, or empty if not.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CreditCardDTO> getCreditCardByNumber(String cardNumber) {
+        if (!cardNumberFilter.mightContain(cardNumber)) {
+            return Optional.empty();
+        }
+        return creditCardQueryPort.findByCardNumber(cardNumber);
+    }
+
+    /**
+     * Checks that the lower bound of a range does not exceed its upper bound.
+     *
+     * @param <T>     The type of the bounds.
+     * @param minName The name of the lower bound, used in the error message.
+     * @param min     The lower bound, or null.
+     * @param maxName The name of the upper bound, used in the error message.
+     * @param max     The upper bound, or null.
+     * @throws InvalidSearchCriteriaException If both bounds are set and min is greater than max.
+     */
+    private static <T extends Comparable<T>> void checkRange(String minName, T min, String maxName, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidSearchCriteriaException(minName + " must not be greater than " + maxName);
+        }
+    }
+}
@@ -1,11 +1,30 @@
 package com.creditcard.management.credit_card_api.application.service;
 
+import com.creditcard.management.credit_card_api.application.dto.BatchItemResultDTO;
 import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.DuplicateCardNumberException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing credit card operations.
@@ -16,23 +35,49 @@ import java.util.Optional;
 public class CreditCardService {
 
     private final CreditCardRepositoryPort creditCardRepositoryPort;
+    private final CustomerRepositoryPort customerRepositoryPort;
+    private final CardNumberFilter cardNumberFilter;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final BalanceLedger balanceLedger;
+    private final CreditAuthorizationService creditAuthorizationService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
-     * Constructor to initialize the service with the repository port.
+     * Constructor to initialize the service with the repository ports.
      *
-     * @param creditCardRepositoryPort The port interface for credit card repository operations.
+     * @param creditCardRepositoryPort   The port interface for credit card repository operations.
+     * @param customerRepositoryPort     The port interface for customer repository operations, used to validate batches.
+     * @param cardNumberFilter           The filter of known card numbers, used to skip duplicate checks for new numbers.
+     * @param optimisticLockRetry        The optimistic locking policy, used to count version conflicts.
+     * @param balanceLedger              The in-memory balance ledger, which takes the postings when it is active.
+     * @param creditAuthorizationService The in-memory authorization service, reconciled with every card write.
+     * @param cacheInvalidationBus       The bus telling the other instances which cards and customers were written.
      */
-    public CreditCardService(CreditCardRepositoryPort creditCardRepositoryPort) {
+    public CreditCardService(CreditCardRepositoryPort creditCardRepositoryPort,
+                             CustomerRepositoryPort customerRepositoryPort,
+                             CardNumberFilter cardNumberFilter,
+                             OptimisticLockRetry optimisticLockRetry,
+                             BalanceLedger balanceLedger,
+                             CreditAuthorizationService creditAuthorizationService,
+                             CacheInvalidationBus cacheInvalidationBus) {
         this.creditCardRepositoryPort = creditCardRepositoryPort;
+        this.customerRepositoryPort = customerRepositoryPort;
+        this.cardNumberFilter = cardNumberFilter;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.balanceLedger = balanceLedger;
+        this.creditAuthorizationService = creditAuthorizationService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     /**
-     * Retrieves all credit cards from the repository.
+     * Exports all credit cards, passing them one at a time to the given consumer.
+     * Runs in a read-only transaction that keeps the database cursor open for the whole export.
      *
-     * @return A list of all CreditCard objects.
+     * @param consumer The consumer receiving each CreditCard, typically writing it to a response stream.
      */
-    public List<CreditCard> getAllCreditCards() {
-        return creditCardRepositoryPort.findAll();
+    @Transactional(readOnly = true)
+    public void exportCreditCards(Consumer<CreditCard> consumer) {
+        creditCardRepositoryPort.forEachCreditCard(consumer);
     }
 
     /**
@@ -41,53 +86,308 @@ public class CreditCardService {
      * @param id The unique identifier of the credit card.
      * @return An Optional containing the CreditCard if found, or empty if not.
      */
+    @Transactional(readOnly = true)
     public Optional<CreditCard> getCreditCardById(Long id) {
         return creditCardRepositoryPort.findById(id);
     }
 
     /**
      * Creates a new credit card in the repository.
+     * The repository is only checked for a duplicate card number when the card number filter
+     * reports the number as possibly known.
+     * The other instances are told that the card list of the owner changed, and about the new card number.
      *
      * @param creditCard The CreditCard object to create.
      * @return The saved CreditCard object.
+     * @throws DuplicateCardNumberException If another credit card already uses the card number.
      */
     public CreditCard createCreditCard(CreditCard creditCard) {
-        return creditCardRepositoryPort.save(creditCard);
+        String cardNumber = creditCard.getCardNumber();
+        if (cardNumber != null && cardNumberFilter.mightContain(cardNumber)
+                && !creditCardRepositoryPort.findExistingCardNumbers(Set.of(cardNumber)).isEmpty()) {
+            throw new DuplicateCardNumberException("Card number already exists");
+        }
+        CreditCard saved = creditCardRepositoryPort.save(creditCard);
+        cardNumberFilter.add(saved.getCardNumber());
+        creditAuthorizationService.reconcile(saved);
+        cacheInvalidationBus.customerChanged(saved.getCustomerId());
+        cacheInvalidationBus.cardNumbersWritten(Collections.singletonList(saved.getCardNumber()));
+        return saved;
+    }
+
+    /**
+     * Creates several credit cards in one transaction and reports the outcome of each of them.
+     * Every card is validated first: required fields, duplicate card numbers (within the batch and in the
+     * repository) and unknown customers are rejected individually. The remaining cards are then saved together
+     * with batched inserts, so the repository is queried a constant number of times per batch.
+     * Only the card numbers that the card number filter reports as possibly known are checked in the repository.
+     *
+     * @param creditCards The CreditCard objects to create.
+     * @return One result per input card, in the same order, holding the new ID or the rejection reason.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> createCreditCards(List<CreditCard> creditCards) {
+        Set<String> knownCardNumbers = creditCards.stream().filter(Objects::nonNull)
+                .map(CreditCard::getCardNumber).filter(Objects::nonNull)
+                .filter(cardNumberFilter::mightContain).collect(Collectors.toSet());
+        Set<String> existingCardNumbers = knownCardNumbers.isEmpty()
+                ? Set.of()
+                : creditCardRepositoryPort.findExistingCardNumbers(knownCardNumbers);
+        Set<Long> existingCustomerIds = customerRepositoryPort.findExistingIds(creditCards.stream()
+                .filter(Objects::nonNull).map(CreditCard::getCustomerId).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[creditCards.size()];
+        List<CreditCard> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Set<String> batchCardNumbers = new HashSet<>();
+        for (int i = 0; i < creditCards.size(); i++) {
+            CreditCard creditCard = creditCards.get(i);
+            String error = validateNewCreditCard(creditCard, existingCardNumbers, existingCustomerIds, batchCardNumbers);
+            if (error != null) {
+                results[i] = BatchItemResultDTO.rejected(i, error);
+            } else {
+                creditCard.setId(null); // Identifiers are always generated
+                accepted.add(creditCard);
+                acceptedIndexes.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            List<CreditCard> saved = creditCardRepositoryPort.saveAll(accepted);
+            saved.forEach(creditCard -> {
+                cardNumberFilter.add(creditCard.getCardNumber());
+                creditAuthorizationService.reconcile(creditCard);
+            });
+            cacheInvalidationBus.customersChanged(saved.stream().map(CreditCard::getCustomerId)
+                    .collect(Collectors.toSet()));
+            cacheInvalidationBus.cardNumbersWritten(saved.stream().map(CreditCard::getCardNumber)
+                    .collect(Collectors.toList()));
+            for (int j = 0; j < saved.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = BatchItemResultDTO.created(index, saved.get(j).getId());
+            }
+        }
+        return Arrays.asList(results);
     }
 
     /**
      * Updates an existing credit card in the repository.
-     * If the credit card exists, its fields are updated and it is saved.
+     * The card is overwritten with a single statement; it is not read before the update.
+     * The owner of the card is not changed. The returned card carries the new version, for the ETag.
+     * If the card carries a version, the update only applies while the stored card still has that version;
+     * the existence check that tells a stale version from a missing card only runs when nothing was updated.
      *
      * @param id The unique identifier of the credit card to update.
-     * @param updatedCreditCard The updated CreditCard object containing new values.
+     * @param updatedCreditCard The updated CreditCard object containing new values and, optionally, the expected version.
      * @return An Optional containing the updated CreditCard if the ID exists, or empty if not.
+     * @throws VersionMismatchException If the card exists but no longer has the expected version.
      */
     public Optional<CreditCard> updateCreditCard(Long id, CreditCard updatedCreditCard) {
-        return creditCardRepositoryPort.findById(id).map(existingCreditCard -> {
-            // Update fields with the new values
-            existingCreditCard.setCardNumber(updatedCreditCard.getCardNumber());
-            existingCreditCard.setExpirationDate(updatedCreditCard.getExpirationDate());
-            existingCreditCard.setCvv(updatedCreditCard.getCvv());
-            existingCreditCard.setCardType(updatedCreditCard.getCardType());
-            existingCreditCard.setCreditLimit(updatedCreditCard.getCreditLimit());
-            existingCreditCard.setCurrentBalance(updatedCreditCard.getCurrentBalance());
-            // Save and return the updated credit card
-            return creditCardRepositoryPort.save(existingCreditCard);
+        balanceLedger.evict(id); // Write pending postings first, so the new balance and limit are not overtaken
+        Optional<CreditCard> updated = creditCardRepositoryPort.update(id, updatedCreditCard);
+        if (updated.isEmpty() && updatedCreditCard.getVersion() != null && creditCardRepositoryPort.existsById(id)) {
+            optimisticLockRetry.recordConflict("credit-card.update");
+            throw new VersionMismatchException("Credit card " + id + " no longer has version "
+                    + updatedCreditCard.getVersion());
+        }
+        updated.ifPresent(creditCard -> {
+            cardNumberFilter.add(creditCard.getCardNumber());
+            creditAuthorizationService.reconcile(creditCard);
+            cacheInvalidationBus.cardChanged(id);
+            cacheInvalidationBus.cardNumbersWritten(Collections.singletonList(creditCard.getCardNumber()));
         });
+        return updated;
+    }
+
+    /**
+     * Applies a partial update to an existing credit card.
+     * Only the fields set in the patch are written. If the patch carries an expected version, it only applies
+     * while the stored card still has that version, as for a full update.
+     *
+     * @param id    The unique identifier of the credit card to update.
+     * @param patch The fields to change and, optionally, the expected version.
+     * @return An Optional containing the updated CreditCard if the ID exists, or empty if not.
+     * @throws VersionMismatchException If the card exists but no longer has the expected version.
+     */
+    public Optional<CreditCard> patchCreditCard(Long id, CreditCardPatch patch) {
+        balanceLedger.evict(id);
+        Optional<CreditCard> patched = creditCardRepositoryPort.patch(id, patch);
+        if (patched.isEmpty() && patch.getExpectedVersion() != null && creditCardRepositoryPort.existsById(id)) {
+            optimisticLockRetry.recordConflict("credit-card.patch");
+            throw new VersionMismatchException("Credit card " + id + " no longer has version "
+                    + patch.getExpectedVersion());
+        }
+        patched.ifPresent(creditCard -> {
+            cardNumberFilter.add(creditCard.getCardNumber());
+            creditAuthorizationService.reconcile(creditCard);
+            cacheInvalidationBus.cardChanged(id);
+            cacheInvalidationBus.cardNumbersWritten(Collections.singletonList(creditCard.getCardNumber()));
+        });
+        return patched;
+    }
+
+    /**
+     * Posts a charge or a payment to the balance of a credit card.
+     * The balance is changed by one conditional statement in the database instead of being read, modified and
+     * written back, so concurrent postings to the same card are never lost. The card is only looked up when
+     * the posting was not applied, to tell a declined charge from a missing card.
+     * When the balance ledger is active, the posting is authorized in memory and written to the database later.
+     * An approved posting removes the card from the authorization service, which then reloads its balance,
+     * and from the caches of the other instances.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The signed amount: positive for a charge, negative for a payment.
+     * @return An Optional containing APPROVED or DECLINED if the card exists, or empty if not.
+     * @throws InvalidPostingException If the amount is missing or zero.
+     */
+    @Transactional
+    public Optional<PostingStatus> postToBalance(Long id, Money amount) {
+        if (amount == null || amount.getMinorUnits() == 0) {
+            throw new InvalidPostingException("amount is required and must not be zero");
+        }
+        if (balanceLedger.isActive()) {
+            Optional<PostingStatus> status = balanceLedger.post(id, amount);
+            if (status.orElse(null) == PostingStatus.APPROVED) {
+                creditAuthorizationService.invalidate(id);
+                cacheInvalidationBus.cardChanged(id);
+            }
+            return status;
+        }
+        if (creditCardRepositoryPort.addToBalance(id, amount)) {
+            creditAuthorizationService.invalidate(id);
+            cacheInvalidationBus.cardChanged(id);
+            return Optional.of(PostingStatus.APPROVED);
+        }
+        return creditCardRepositoryPort.existsById(id) ? Optional.of(PostingStatus.DECLINED) : Optional.empty();
+    }
+
+    /**
+     * Posts many charges and payments, e.g. from a settlement file, and reports the outcome of each of them.
+     * Postings without a card ID or with a missing or zero amount are rejected individually. The others are sorted
+     * by card ID, keeping the order of the postings of each card, so that concurrent batches lock rows in the same
+     * order and cannot deadlock, and are applied with batched conditional statements. The repository commits them
+     * in chunks, so this method deliberately runs without a transaction of its own. Cards whose postings were
+     * not applied are looked up once at the end to tell declined charges from unknown cards.
+     * When the balance ledger is active, the postings are authorized by it one by one, in request order.
+     * Cards with approved postings are removed from the authorization service, which then reloads their balance,
+     * and from the caches of the other instances; each card is published once, however many postings it took.
+     *
+     * @param postings The postings to apply.
+     * @return One result per input posting, in the same order: APPROVED or DECLINED with the card ID,
+     *         or REJECTED with the reason.
+     */
+    public List<BatchItemResultDTO> postToBalances(List<Posting> postings) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[postings.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < postings.size(); i++) {
+            Posting posting = postings.get(i);
+            if (posting == null || posting.getCardId() == null) {
+                results[i] = BatchItemResultDTO.rejected(i, "cardId is required");
+            } else if (posting.getAmount() == null || posting.getAmount().getMinorUnits() == 0) {
+                results[i] = BatchItemResultDTO.rejected(i, "amount is required and must not be zero");
+            } else {
+                accepted.add(i);
+            }
+        }
+        if (balanceLedger.isActive()) {
+            for (int index : accepted) {
+                Posting posting = postings.get(index);
+                Optional<PostingStatus> status = balanceLedger.post(posting.getCardId(), posting.getAmount());
+                if (status.orElse(null) == PostingStatus.APPROVED) {
+                    creditAuthorizationService.invalidate(posting.getCardId());
+                    cacheInvalidationBus.cardChanged(posting.getCardId());
+                }
+                results[index] = status
+                        .map(posted -> BatchItemResultDTO.posted(index, posting.getCardId(), posted))
+                        .orElseGet(() -> BatchItemResultDTO.rejected(index,
+                                "Credit card " + posting.getCardId() + " does not exist"));
+            }
+            return Arrays.asList(results);
+        }
+        accepted.sort(Comparator.comparing(index -> postings.get(index).getCardId())); // Stable: keeps per-card order
+
+        List<Posting> sorted = new ArrayList<>(accepted.size());
+        accepted.forEach(index -> sorted.add(postings.get(index)));
+        boolean[] applied = sorted.isEmpty() ? new boolean[0] : creditCardRepositoryPort.addToBalances(sorted);
+
+        Set<Long> notApplied = new HashSet<>();
+        for (int j = 0; j < applied.length; j++) {
+            if (!applied[j]) {
+                notApplied.add(sorted.get(j).getCardId());
+            }
+        }
+        Set<Long> existing = notApplied.isEmpty() ? Set.of() : creditCardRepositoryPort.findExistingIds(notApplied);
+        Set<Long> posted = new HashSet<>();
+        for (int j = 0; j < applied.length; j++) {
+            int index = accepted.get(j);
+            Long cardId = sorted.get(j).getCardId();
+            if (applied[j]) {
+                creditAuthorizationService.invalidate(cardId);
+                posted.add(cardId);
+                results[index] = BatchItemResultDTO.posted(index, cardId, PostingStatus.APPROVED);
+            } else if (existing.contains(cardId)) {
+                results[index] = BatchItemResultDTO.posted(index, cardId, PostingStatus.DECLINED);
+            } else {
+                results[index] = BatchItemResultDTO.rejected(index, "Credit card " + cardId + " does not exist");
+            }
+        }
+        cacheInvalidationBus.cardsChanged(posted);
+        return Arrays.asList(results);
     }
 
     /**
      * Deletes a credit card from the repository by its unique identifier.
+     * The affected row count of the delete tells whether the card existed, so no existence check is needed.
+     * Only the card ID is published: the other instances know the owner of every card they hold in a cached card
+     * list, so they drop that list without the owner being read here.
      *
      * @param id The unique identifier of the credit card to delete.
      * @return True if the credit card was successfully deleted, false if it does not exist.
      */
     public boolean deleteCreditCard(Long id) {
-        if (creditCardRepositoryPort.existsById(id)) {
-            creditCardRepositoryPort.deleteById(id);
-            return true;
+        balanceLedger.evict(id);
+        boolean deleted = creditCardRepositoryPort.deleteById(id) > 0;
+        creditAuthorizationService.invalidate(id);
+        if (deleted) {
+            cacheInvalidationBus.cardChanged(id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Validates a credit card of a batch before it is saved.
+     * Accepted card numbers are recorded so that duplicates later in the same batch are rejected.
+     *
+     * @param creditCard          The CreditCard to validate.
+     * @param existingCardNumbers The card numbers of the batch that already exist in the repository.
+     * @param existingCustomerIds The customer IDs of the batch that exist in the repository.
+     * @param batchCardNumbers    The card numbers accepted so far in the batch.
+     * @return The reason why the card is rejected, or null if it is valid.
+     */
+    private String validateNewCreditCard(CreditCard creditCard, Set<String> existingCardNumbers,
+                                         Set<Long> existingCustomerIds, Set<String> batchCardNumbers) {
+        if (creditCard == null) {
+            return "Credit card is required";
+        }
+        if (creditCard.getCardNumber() == null || creditCard.getCardNumber().isBlank()) {
+            return "cardNumber is required";
+        }
+        if (creditCard.getCvv() == null || creditCard.getCardType() == null
+                || creditCard.getCreditLimit() == null || creditCard.getCurrentBalance() == null) {
+            return "cvv, cardType, creditLimit and currentBalance are required";
+        }
+        if (creditCard.getExpirationDate() == null) {
+            return "expirationDate is required";
+        }
+        if (creditCard.getCustomerId() == null || !existingCustomerIds.contains(creditCard.getCustomerId())) {
+            return "Customer " + creditCard.getCustomerId() + " does not exist";
+        }
+        if (existingCardNumbers.contains(creditCard.getCardNumber())) {
+            return "Card number already exists";
+        }
+        if (!batchCardNumbers.add(creditCard.getCardNumber())) {
+            return "Card number is duplicated in the batch";
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,120 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.core.exception.InvalidImportFileException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal incremental reader for comma-separated values (RFC 4180).
+ * Records are read one at a time from the underlying reader, so only the current record is held in memory.
+ * Fields may be quoted with double quotes; quoted fields may contain commas, line breaks and escaped quotes ("").
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+
+    // Character read ahead of the current position, or -2 if none
+    private int pushedBack = -2;
+
+    // Line number (1-based) at which the next record starts
+    private long lineNumber = 1;
+
+    // Line number (1-based) at which the last returned record started
+    private long recordLineNumber;
+
+    /**
+     * Constructor to initialize the reader on a character stream.
+     *
+     * @param reader The character stream to read from, ideally buffered.
+     */
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The fields of the record, or null at the end of the stream.
+     * @throws IOException                If the stream cannot be read.
+     * @throws InvalidImportFileException If the stream ends inside a quoted field.
+     */
+    List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidImportFileException("Unterminated quoted field starting on line " + recordLineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Gets the line number on which the last returned record started.
+     *
+     * @return The 1-based line number.
+     */
+    long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Reads the next character, taking the pushed back character first.
+     *
+     * @return The next character, or -1 at the end of the stream.
+     * @throws IOException If the stream cannot be read.
+     */
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,430 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.dto.BatchItemResultDTO;
+import com.creditcard.management.credit_card_api.application.dto.CustomerImportReportDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.InvalidImportFileException;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for importing customers and their credit cards from CSV files.
+ *
+ * The file is read one record at a time and consecutive rows with the same email are grouped into one customer,
+ * each row optionally carrying one credit card. Customers are written in chunks of about creditcard.import.chunk-size
+ * rows, each chunk in its own transaction with batched inserts, so heap use depends on the chunk size and not on
+ * the file size. Invalid rows are reported individually and do not stop the import.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportService.class);
+
+    // Maximum number of row-level errors listed in the report
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Columns every file must contain
+    static final List<String> CUSTOMER_COLUMNS = List.of("first_name", "last_name", "email");
+
+    // Columns describing the optional credit card of a row
+    static final List<String> CARD_COLUMNS = List.of(
+            "card_number", "expiration_date", "cvv", "card_type", "credit_limit", "current_balance");
+
+    private final CustomerRepositoryPort customerRepositoryPort;
+    private final CreditCardRepositoryPort creditCardRepositoryPort;
+    private final CardNumberFilter cardNumberFilter;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final int chunkSize;
+
+    /**
+     * Constructor to initialize the service with the repository ports.
+     *
+     * @param customerRepositoryPort   The port interface for customer repository operations.
+     * @param creditCardRepositoryPort The port interface for credit card repository operations.
+     * @param cardNumberFilter         The filter of known card numbers, used to skip duplicate checks for new numbers.
+     * @param cacheInvalidationBus     The bus telling the other instances which customers were created.
+     * @param chunkSize                The number of rows written per transaction.
+     */
+    public CustomerImportService(CustomerRepositoryPort customerRepositoryPort,
+                                 CreditCardRepositoryPort creditCardRepositoryPort,
+                                 CardNumberFilter cardNumberFilter,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 @Value("${creditcard.import.chunk-size:1000}") int chunkSize) {
+        this.customerRepositoryPort = customerRepositoryPort;
+        this.creditCardRepositoryPort = creditCardRepositoryPort;
+        this.cardNumberFilter = cardNumberFilter;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports customers and their credit cards from a CSV file.
+     * The first record must be a header naming the columns; first_name, last_name and email are required,
+     * and card_number, expiration_date, cvv, card_type, credit_limit and current_balance describe an optional card.
+     * Chunks written before an error remain imported.
+     *
+     * @param reader The CSV content, ideally buffered.
+     * @return A report with the number of rows read, customers and cards created, and the rejected rows.
+     * @throws IOException                If the file cannot be read.
+     * @throws InvalidImportFileException If the file is empty or its header lacks required columns.
+     */
+    public CustomerImportReportDTO importCustomers(Reader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new InvalidImportFileException("The file is empty");
+        }
+        ImportRun run = new ImportRun(indexColumns(header));
+        try {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue; // Skip blank lines
+                }
+                run.addRow(record, csv.getRecordLineNumber());
+            }
+        } catch (InvalidImportFileException e) {
+            run.report.setRowsRead(run.report.getRowsRead() + 1);
+            run.reject(csv.getRecordLineNumber(), e.getMessage());
+        }
+        run.finish();
+        log.info("Customer import finished: {} rows read, {} customers and {} cards created, {} rows rejected",
+                run.report.getRowsRead(), run.report.getCustomersCreated(), run.report.getCardsCreated(),
+                run.report.getRowsRejected());
+        return run.report;
+    }
+
+    /**
+     * Maps the column names of the header to their positions.
+     *
+     * @param header The header record.
+     * @return The position of each known column present in the header.
+     * @throws InvalidImportFileException If a required column is missing.
+     */
+    private Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = CUSTOMER_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidImportFileException("Missing required columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /**
+     * State of one import: the customers of the current chunk and the report being built.
+     */
+    private class ImportRun {
+
+        private final Map<String, Integer> columns;
+        private final boolean hasCardColumns;
+        private final CustomerImportReportDTO report = new CustomerImportReportDTO();
+        private final List<PendingCustomer> chunk = new ArrayList<>();
+        private PendingCustomer current;
+        private int chunkRows;
+
+        /**
+         * Constructor to initialize a run for the given column layout.
+         *
+         * @param columns The position of each column in the records.
+         */
+        ImportRun(Map<String, Integer> columns) {
+            this.columns = columns;
+            this.hasCardColumns = columns.containsKey("card_number");
+        }
+
+        /**
+         * Validates a row and adds it to the current customer, or starts a new customer if its email differs.
+         *
+         * @param record The fields of the row.
+         * @param line   The line number of the row.
+         */
+        void addRow(List<String> record, long line) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            String firstName = field(record, "first_name");
+            String lastName = field(record, "last_name");
+            String email = field(record, "email");
+            if (firstName.isEmpty() || lastName.isEmpty() || email.isEmpty()) {
+                reject(line, "first_name, last_name and email are required");
+                return;
+            }
+
+            if (current == null || !current.customer.getEmail().equals(email)) {
+                endCustomer();
+                Customer customer = new Customer();
+                customer.setFirstName(firstName);
+                customer.setLastName(lastName);
+                customer.setEmail(email);
+                current = new PendingCustomer(customer);
+            }
+            chunkRows++;
+
+            if (!hasCardColumns || field(record, "card_number").isEmpty()) {
+                current.lines.add(line); // Row without a card
+                return;
+            }
+            try {
+                current.cards.add(new PendingCard(parseCard(record), line));
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+            }
+        }
+
+        /**
+         * Adds the current customer to the chunk and writes the chunk once it holds enough rows.
+         */
+        void endCustomer() {
+            if (current == null) {
+                return;
+            }
+            chunk.add(current);
+            current = null;
+            if (chunkRows >= chunkSize) {
+                writeChunk();
+            }
+        }
+
+        /**
+         * Writes the customers that are still pending at the end of the file.
+         */
+        void finish() {
+            endCustomer();
+            if (!chunk.isEmpty()) {
+                writeChunk();
+            }
+        }
+
+        /**
+         * Writes the customers of the chunk in one transaction.
+         * Customers whose email is already used and cards whose number is already used are rejected first;
+         * only the card numbers that the card number filter reports as possibly known are checked in the repository.
+         * If the transaction still fails, the customers are retried one by one so that a single bad row
+         * does not reject the whole chunk.
+         */
+        void writeChunk() {
+            Set<String> existingEmails = customerRepositoryPort.findExistingEmails(chunk.stream()
+                    .map(pending -> pending.customer.getEmail()).collect(Collectors.toSet()));
+            Set<String> knownCardNumbers = chunk.stream()
+                    .flatMap(pending -> pending.cards.stream())
+                    .map(pending -> pending.card.getCardNumber())
+                    .filter(cardNumberFilter::mightContain).collect(Collectors.toSet());
+            Set<String> existingCardNumbers = knownCardNumbers.isEmpty()
+                    ? Set.of()
+                    : creditCardRepositoryPort.findExistingCardNumbers(knownCardNumbers);
+
+            List<PendingCustomer> accepted = new ArrayList<>();
+            Set<String> chunkEmails = new HashSet<>();
+            Set<String> chunkCardNumbers = new HashSet<>();
+            for (PendingCustomer pending : chunk) {
+                String email = pending.customer.getEmail();
+                if (existingEmails.contains(email)) {
+                    rejectCustomer(pending, "Customer email already exists");
+                    continue;
+                }
+                if (!chunkEmails.add(email)) {
+                    rejectCustomer(pending, "Rows of customer " + email + " are not consecutive");
+                    continue;
+                }
+                Iterator<PendingCard> cards = pending.cards.iterator();
+                while (cards.hasNext()) {
+                    PendingCard card = cards.next();
+                    String cardNumber = card.card.getCardNumber();
+                    if (existingCardNumbers.contains(cardNumber) || !chunkCardNumbers.add(cardNumber)) {
+                        reject(card.line, "Card number already exists");
+                        cards.remove();
+                    }
+                }
+                accepted.add(pending);
+            }
+
+            if (!accepted.isEmpty()) {
+                try {
+                    save(accepted);
+                } catch (RuntimeException e) {
+                    // Isolate the failing customers; the other ones are saved individually
+                    log.warn("Customer import chunk failed, retrying its {} customers one by one", accepted.size(), e);
+                    for (PendingCustomer pending : accepted) {
+                        try {
+                            save(List.of(pending));
+                        } catch (RuntimeException individualFailure) {
+                            rejectCustomer(pending, "Customer could not be saved");
+                        }
+                    }
+                }
+            }
+
+            chunk.clear();
+            chunkRows = 0;
+            log.info("Customer import progress: {} rows read, {} customers and {} cards created, {} rows rejected",
+                    report.getRowsRead(), report.getCustomersCreated(), report.getCardsCreated(),
+                    report.getRowsRejected());
+        }
+
+        /**
+         * Saves customers with their cards in one transaction and counts them in the report.
+         * The new customers and card numbers go to the cache invalidation bus, which coalesces them into a few batches.
+         *
+         * @param pendingCustomers The customers to save.
+         */
+        void save(List<PendingCustomer> pendingCustomers) {
+            List<Customer> customers = pendingCustomers.stream().map(PendingCustomer::toCustomer)
+                    .collect(Collectors.toList());
+            List<Customer> saved = customerRepositoryPort.saveAll(customers);
+            cacheInvalidationBus.customersChanged(saved.stream().map(Customer::getId).collect(Collectors.toList()));
+            List<String> cardNumbers = customers.stream().flatMap(customer -> customer.getCreditCards().stream())
+                    .map(CreditCard::getCardNumber).collect(Collectors.toList());
+            cardNumbers.forEach(cardNumberFilter::add);
+            cacheInvalidationBus.cardNumbersWritten(cardNumbers);
+            report.setCustomersCreated(report.getCustomersCreated() + customers.size());
+            report.setCardsCreated(report.getCardsCreated()
+                    + customers.stream().mapToLong(customer -> customer.getCreditCards().size()).sum());
+        }
+
+        /**
+         * Rejects every row of a customer.
+         *
+         * @param pending The customer to reject.
+         * @param message The reason for the rejection.
+         */
+        void rejectCustomer(PendingCustomer pending, String message) {
+            pending.lines.forEach(line -> reject(line, message));
+            pending.cards.forEach(card -> reject(card.line, message));
+        }
+
+        /**
+         * Records a rejected row, listing it in the report while the error limit is not reached.
+         *
+         * @param line    The line number of the row.
+         * @param message The reason for the rejection.
+         */
+        void reject(long line, String message) {
+            report.setRowsRejected(report.getRowsRejected() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(BatchItemResultDTO.rejected((int) line, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        /**
+         * Parses the credit card of a row.
+         *
+         * @param record The fields of the row.
+         * @return The parsed CreditCard.
+         * @throws IllegalArgumentException If a card field is missing or malformed.
+         */
+        CreditCard parseCard(List<String> record) {
+            for (String column : CARD_COLUMNS) {
+                if (field(record, column).isEmpty()) {
+                    throw new IllegalArgumentException(column + " is required when card_number is set");
+                }
+            }
+            CreditCard card = new CreditCard();
+            card.setCardNumber(field(record, "card_number"));
+            try {
+                card.setExpirationDate(LocalDate.parse(field(record, "expiration_date")));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("expiration_date must be formatted as yyyy-MM-dd");
+            }
+            card.setCvv(field(record, "cvv"));
+            card.setCardType(field(record, "card_type"));
+            try {
+                card.setCreditLimit(Money.parse(field(record, "credit_limit")));
+                card.setCurrentBalance(Money.parse(field(record, "current_balance")));
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException(
+                        "credit_limit and current_balance must be numbers with at most 2 decimal places");
+            }
+            return card;
+        }
+
+        /**
+         * Reads a trimmed field of a row by column name.
+         *
+         * @param record The fields of the row.
+         * @param column The column name.
+         * @return The trimmed value, or an empty string if the column or value is absent.
+         */
+        String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < record.size() ? record.get(index).trim() : "";
+        }
+    }
+
+    /**
+     * A customer read from the file and not yet written, with the lines it came from.
+     */
+    private static class PendingCustomer {
+
+        private final Customer customer;
+
+        // Lines of the rows of this customer that carry no card
+        private final List<Long> lines = new ArrayList<>();
+
+        // Cards of this customer with the line of each of them
+        private final List<PendingCard> cards = new ArrayList<>();
+
+        /**
+         * Constructor to initialize a pending customer.
+         *
+         * @param customer The customer read from the file.
+         */
+        PendingCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        /**
+         * Builds the Customer to save, with its remaining cards.
+         *
+         * @return The Customer with its credit cards set.
+         */
+        Customer toCustomer() {
+            customer.setCreditCards(cards.stream().map(pending -> pending.card).collect(Collectors.toList()));
+            return customer;
+        }
+    }
+
+    /**
+     * A credit card read from the file and not yet written, with its line number.
+     */
+    private static class PendingCard {
+
+        private final CreditCard card;
+        private final long line;
+
+        /**
+         * Constructor to initialize a pending card.
+         *
+         * @param card The card read from the file.
+         * @param line The line number of the row.
+         */
+        PendingCard(CreditCard card, long line) {
+            this.card = card;
+            this.line = line;
+        }
+    }
+}
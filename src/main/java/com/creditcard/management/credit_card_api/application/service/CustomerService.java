@@ -1,11 +1,33 @@
 package com.creditcard.management.credit_card_api.application.service;
 
 import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.UpdateConflictException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
 import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing customer operations.
@@ -15,56 +37,201 @@ import java.util.Optional;
 @Service
 public class CustomerService {
 
+    // Upper bound for the size of a single page of customers
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Name of the full customer update in the optimistic locking metrics
+    private static final String UPDATE_OPERATION = "customer.update";
+
     private final CustomerRepositoryPort customerRepositoryPort;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final CreditAuthorizationService creditAuthorizationService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CardNumberFilter cardNumberFilter;
+
+    // Read-write transaction the email cache is loaded in, so that it reads the primary and never a lagging replica
+    private final TransactionTemplate primaryTransaction;
+
+    // Customers without their credit cards, keyed by normalized email; misses are not cached
+    private final Cache<String, Customer> customersByEmail;
+
+    // Normalized email under which each customer of the email cache is cached, by customer ID
+    private final Map<Long, String> emailKeysById = new ConcurrentHashMap<>();
+
+    // Normalized emails whose lookup is running; a write evicts them as well, once the lookup completes
+    private final Set<String> emailsLoading = ConcurrentHashMap.newKeySet();
 
     /**
-     * Constructor to initialize the service with the repository port.
+     * Constructor to initialize the service with the repository port and the email lookup cache.
      *
-     * @param customerRepositoryPort The port interface for customer repository operations.
+     * @param customerRepositoryPort     The port interface for customer repository operations.
+     * @param optimisticLockRetry        The retry policy of updates that conflict with concurrent writers.
+     * @param creditAuthorizationService The in-memory authorization service, told about deleted cards.
+     * @param cacheInvalidationBus       The bus telling the other instances which customers and cards were written.
+     * @param cardNumberFilter           The filter of known card numbers, told about the cards created with a customer.
+     * @param transactionManager         The transaction manager of the transactions the email cache is loaded in.
+     * @param emailCacheMaxSize          The maximum number of customers kept in the email lookup cache.
+     * @param emailCacheTtl              How long a cached customer is served before being read again.
      */
-    public CustomerService(CustomerRepositoryPort customerRepositoryPort) {
+    public CustomerService(CustomerRepositoryPort customerRepositoryPort,
+                           OptimisticLockRetry optimisticLockRetry,
+                           CreditAuthorizationService creditAuthorizationService,
+                           CacheInvalidationBus cacheInvalidationBus,
+                           CardNumberFilter cardNumberFilter,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${creditcard.customer-email-cache.max-size:10000}") long emailCacheMaxSize,
+                           @Value("${creditcard.customer-email-cache.ttl:10m}") Duration emailCacheTtl) {
         this.customerRepositoryPort = customerRepositoryPort;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.creditAuthorizationService = creditAuthorizationService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cardNumberFilter = cardNumberFilter;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryTransaction.setReadOnly(false);
+        this.customersByEmail = Caffeine.newBuilder()
+                .maximumSize(emailCacheMaxSize)
+                .expireAfterWrite(emailCacheTtl)
+                .<String, Customer>evictionListener((email, customer, cause) -> {
+                    if (customer != null) {
+                        emailKeysById.remove(customer.getId(), email);
+                    }
+                })
+                .build();
     }
 
     /**
-     * Retrieves all customers from the repository.
+     * Retrieves one page of customers after the given cursor.
+     * The requested size is clamped between 1 and MAX_PAGE_SIZE.
      *
-     * @return A list of all Customer objects.
+     * @param afterId      The identifier of the last customer of the previous page, or null to start from the beginning.
+     * @param limit        The requested number of customers.
+     * @param includeCards True to load the credit cards of the customers in the page.
+     * @return A CursorPage containing the customers and the cursor of the next page.
      */
-    public List<Customer> getAllCustomers() {
-        return customerRepositoryPort.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Customer> getCustomerPage(Long afterId, int limit, boolean includeCards) {
+        return customerRepositoryPort.findPage(afterId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), includeCards);
     }
 
     /**
      * Retrieves a specific customer by their unique identifier.
      *
-     * @param id The unique identifier of the customer.
+     * @param id           The unique identifier of the customer.
+     * @param includeCards True to load the credit cards of the customer, false to leave them unset.
      * @return An Optional containing the Customer if found, or empty if not.
      */
-    public Optional<Customer> getCustomerById(Long id) {
-        return customerRepositoryPort.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<Customer> getCustomerById(Long id, boolean includeCards) {
+        return includeCards
+                ? customerRepositoryPort.findByIdWithCards(id)
+                : customerRepositoryPort.findByIdWithoutCards(id);
+    }
+
+    /**
+     * Retrieves a customer by their email address, ignoring case and surrounding whitespace.
+     * Hits are served from the in-process cache; a miss costs one indexed query and is not cached,
+     * so a customer created afterwards is found immediately. The key of a loaded customer is remembered by ID,
+     * so that a write evicts exactly that key. Customers are loaded in a read-write transaction, which reads
+     * the primary: a row read from a lagging replica would be served until it expires, even after the eviction
+     * of the write it missed.
+     *
+     * @param email The email address.
+     * @return An Optional containing the Customer, without credit cards, if found, or empty if not.
+     */
+    public Optional<Customer> getCustomerByEmail(String email) {
+        String key = Customer.normalizeEmail(email);
+        if (key == null || key.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(customersByEmail.get(key, this::loadByEmail));
+    }
+
+    /**
+     * Loads a customer of the email cache and remembers the key they are cached under.
+     *
+     * @param normalizedEmail The normalized email.
+     * @return The customer, or null if no customer has the email.
+     */
+    private Customer loadByEmail(String normalizedEmail) {
+        emailsLoading.add(normalizedEmail);
+        try {
+            Customer customer = primaryTransaction.execute(status ->
+                    customerRepositoryPort.findByEmail(normalizedEmail).orElse(null));
+            if (customer != null) {
+                emailKeysById.put(customer.getId(), normalizedEmail);
+            }
+            return customer;
+        } finally {
+            emailsLoading.remove(normalizedEmail);
+        }
     }
 
     /**
      * Creates a new customer in the repository.
+     * The other instances are told as well, since they may have cached that no customer had the email.
+     * The numbers of the credit cards created with the customer are added to the card number filter,
+     * here and on the other instances, so that they are found by number.
      *
      * @param customer The Customer object to create.
      * @return The saved Customer object.
      */
     public Customer createCustomer(Customer customer) {
-        return customerRepositoryPort.save(customer);
+        Customer saved = customerRepositoryPort.save(customer);
+        if (saved.getCreditCards() != null) {
+            List<String> cardNumbers = saved.getCreditCards().stream().map(CreditCard::getCardNumber)
+                    .collect(Collectors.toList());
+            cardNumbers.forEach(cardNumberFilter::add);
+            cacheInvalidationBus.cardNumbersWritten(cardNumbers);
+        }
+        cacheInvalidationBus.customerChanged(saved.getId());
+        return saved;
     }
 
     /**
      * Updates an existing customer in the repository.
-     * If the customer exists, their fields are updated and saved.
+     * If the customer exists, their fields are updated and saved. The save checks the versions of the customer
+     * and of their cards, so it fails if any of them changed since they were read.
+     *
+     * With an expected version (from an If-Match header), a conflict is reported to the caller, who decides
+     * what to write. Without one, the read-modify-write is retried on fresh data with jittered backoff.
      *
      * @param id The unique identifier of the customer to update.
      * @param updatedCustomer The Customer object containing updated values.
+     * @param expectedVersion The version the customer must still have, or null to update the current version.
      * @return An Optional containing the updated Customer if the ID exists, or empty if not.
+     * @throws VersionMismatchException If the customer no longer has the expected version.
+     * @throws UpdateConflictException  If the update kept conflicting with concurrent writers.
      */
-    public Optional<Customer> updateCustomer(Long id, Customer updatedCustomer) {
-        return customerRepositoryPort.findById(id).map(existingCustomer -> {
+    public Optional<Customer> updateCustomer(Long id, Customer updatedCustomer, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return optimisticLockRetry.run(UPDATE_OPERATION, () -> applyUpdate(id, updatedCustomer, null));
+        }
+        try {
+            return applyUpdate(id, updatedCustomer, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            optimisticLockRetry.recordConflict(UPDATE_OPERATION);
+            throw new VersionMismatchException("Customer " + id + " no longer has version " + expectedVersion);
+        }
+    }
+
+    /**
+     * Reads a customer with their cards, overwrites their fields and saves them once.
+     *
+     * @param id              The unique identifier of the customer to update.
+     * @param updatedCustomer The Customer object containing updated values.
+     * @param expectedVersion The version the customer must have, or null to accept the version read.
+     * @return An Optional containing the updated Customer if the ID exists, or empty if not.
+     * @throws OptimisticLockingFailureException If the customer does not have the expected version,
+     *                                           or if they or their cards changed before the save.
+     */
+    private Optional<Customer> applyUpdate(Long id, Customer updatedCustomer, Long expectedVersion) {
+        return customerRepositoryPort.findByIdWithCards(id).map(existingCustomer -> {
+            if (expectedVersion != null && !expectedVersion.equals(existingCustomer.getVersion())) {
+                throw new OptimisticLockingFailureException("Customer " + id + " has version "
+                        + existingCustomer.getVersion());
+            }
+
             // Update fields of the existing customer
             existingCustomer.setFirstName(updatedCustomer.getFirstName());
             existingCustomer.setLastName(updatedCustomer.getLastName());
@@ -74,21 +241,94 @@ public class CustomerService {
             existingCustomer.setCreditCards(existingCustomer.getCreditCards());
 
             // Save and return the updated customer
-            return customerRepositoryPort.save(existingCustomer);
+            Customer saved = customerRepositoryPort.save(existingCustomer);
+            evictFromEmailCache(List.of(id));
+            cacheInvalidationBus.customerChanged(id);
+            return saved;
         });
     }
 
     /**
-     * Deletes a customer from the repository by their unique identifier.
+     * Applies a partial update to an existing customer.
+     * Only the fields set in the patch are written; the credit cards of the customer are not loaded.
+     * If the patch carries an expected version, it only applies while the customer still has that version.
+     *
+     * @param id    The unique identifier of the customer to update.
+     * @param patch The fields to change and, optionally, the expected version.
+     * @return An Optional containing the updated Customer, without credit cards, if the ID exists, or empty if not.
+     * @throws VersionMismatchException If the customer exists but no longer has the expected version.
+     */
+    public Optional<Customer> patchCustomer(Long id, CustomerPatch patch) {
+        Optional<Customer> patched = customerRepositoryPort.patch(id, patch);
+        if (patched.isEmpty() && patch.getExpectedVersion() != null && customerRepositoryPort.existsById(id)) {
+            optimisticLockRetry.recordConflict("customer.patch");
+            throw new VersionMismatchException("Customer " + id + " no longer has version "
+                    + patch.getExpectedVersion());
+        }
+        evictFromEmailCache(List.of(id));
+        if (patched.isPresent()) {
+            cacheInvalidationBus.customerChanged(id);
+        }
+        return patched;
+    }
+
+    /**
+     * Deletes a customer and their credit cards from the repository by their unique identifier.
+     * The affected row count of the delete tells whether the customer existed, so no lookup is needed.
+     * The IDs of the cards are read first, so that they can be removed from the authorization service
+     * and from the caches of the other instances.
      *
      * @param id The unique identifier of the customer to delete.
      * @return True if the customer was successfully deleted, false if they do not exist.
      */
     public boolean deleteCustomer(Long id) {
-        if (customerRepositoryPort.existsById(id)) {
-            customerRepositoryPort.deleteById(id);
-            return true;
+        List<Long> cardIds = creditAuthorizationService.findCardIds(id);
+        boolean deleted = customerRepositoryPort.deleteById(id) > 0;
+        creditAuthorizationService.invalidateAll(cardIds);
+        evictFromEmailCache(List.of(id));
+        if (deleted) {
+            cacheInvalidationBus.customerChanged(id);
+            cacheInvalidationBus.cardsChanged(cardIds);
         }
-        return false;
+        return deleted;
+    }
+
+    /**
+     * Removes customers from the email lookup cache, whatever email they were cached under, now and, if a
+     * transaction is active, again after it completes.
+     * The keys of the customers are found by ID. The lookups running at that moment are evicted too once they
+     * complete, since they may have read a customer before the write and not be remembered by ID yet.
+     *
+     * @param ids The unique identifiers of the customers.
+     */
+    public void evictFromEmailCache(Collection<Long> ids) {
+        Runnable eviction = () -> {
+            List<String> keys = new ArrayList<>(emailsLoading);
+            for (Long id : ids) {
+                String key = emailKeysById.remove(id);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+            customersByEmail.invalidateAll(keys);
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Empties the email lookup cache, e.g. when another instance wrote too many customers to name them.
+     */
+    public void evictAllFromEmailCache() {
+        emailKeysById.clear();
+        customersByEmail.invalidateAll();
+        customersByEmail.invalidateAll(new ArrayList<>(emailsLoading));
     }
 }
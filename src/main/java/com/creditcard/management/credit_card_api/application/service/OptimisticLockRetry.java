@@ -0,0 +1,114 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.core.exception.UpdateConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write updates that rely on optimistic locking, retrying them when a concurrent writer
+ * changed the same row first. Each retry waits for a random delay below an exponentially growing bound
+ * (full jitter), so writers that collided do not collide again in lockstep.
+ *
+ * Contention is published as Micrometer counters tagged with the name of the operation:
+ * creditcard.optimistic_lock.conflicts, creditcard.optimistic_lock.retries and creditcard.optimistic_lock.give_ups.
+ * The action must run in its own transaction, so that every attempt reads fresh data.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    /**
+     * Constructor to initialize the retry policy.
+     *
+     * @param meterRegistry  The registry the contention counters are published to.
+     * @param maxAttempts    The maximum number of attempts, including the first one.
+     * @param initialBackoff The upper bound of the delay before the first retry; it doubles on every retry.
+     * @param maxBackoff     The upper bound of the delay before any retry.
+     */
+    public OptimisticLockRetry(MeterRegistry meterRegistry,
+                               @Value("${creditcard.optimistic-lock.max-attempts:5}") int maxAttempts,
+                               @Value("${creditcard.optimistic-lock.initial-backoff:5ms}") Duration initialBackoff,
+                               @Value("${creditcard.optimistic-lock.max-backoff:200ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    /**
+     * Runs an update, retrying it while it fails with an optimistic locking conflict.
+     *
+     * @param operation The name of the operation, used as the metric tag, e.g. "customer.update".
+     * @param action    The update to run, in its own transaction.
+     * @param <T>       The type of the result.
+     * @return The result of the first attempt that did not conflict.
+     * @throws UpdateConflictException If every attempt conflicted.
+     */
+    public <T> T run(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                recordConflict(operation);
+                if (attempt >= maxAttempts) {
+                    counter("creditcard.optimistic_lock.give_ups", operation).increment();
+                    throw new UpdateConflictException("The update conflicted with concurrent changes "
+                            + attempt + " times; please retry");
+                }
+                counter("creditcard.optimistic_lock.retries", operation).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Records a conflict that is not retried, e.g. an If-Match precondition that failed.
+     *
+     * @param operation The name of the operation, used as the metric tag.
+     */
+    public void recordConflict(String operation) {
+        counter("creditcard.optimistic_lock.conflicts", operation).increment();
+    }
+
+    /**
+     * Waits before the next attempt for a random delay between zero and initialBackoff * 2^(attempt - 1),
+     * capped at maxBackoff.
+     *
+     * @param attempt The number of the attempt that just failed, starting at 1.
+     */
+    private void backOff(int attempt) {
+        long bound = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (bound <= 0) {
+            return;
+        }
+        long delay = ThreadLocalRandom.current().nextLong(bound);
+        try {
+            Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpdateConflictException("Interrupted while waiting to retry the update");
+        }
+    }
+
+    /**
+     * Gets the counter of an event for an operation, registering it on first use.
+     *
+     * @param name      The metric name.
+     * @param operation The operation tag.
+     * @return The counter.
+     */
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+}
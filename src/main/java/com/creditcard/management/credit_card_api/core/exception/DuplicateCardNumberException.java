@@ -0,0 +1,16 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when a credit card is created with a card number that is already used by another card.
+ */
+public class DuplicateCardNumberException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public DuplicateCardNumberException(String message) {
+        super(message);
+    }
+}
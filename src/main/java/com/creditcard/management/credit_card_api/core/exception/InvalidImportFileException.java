@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when an import file cannot be parsed, for example because
+ * its header is missing required columns or a quoted field is never closed.
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
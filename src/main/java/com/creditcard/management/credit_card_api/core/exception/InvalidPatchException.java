@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when a patch document cannot be applied, for example because it
+ * names an unknown field, removes a required field or gives a value of the wrong type.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
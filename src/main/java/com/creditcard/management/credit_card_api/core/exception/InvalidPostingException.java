@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when a posting cannot be applied as requested, for example because
+ * its amount is missing or zero.
+ */
+public class InvalidPostingException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public InvalidPostingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when the filters of a search are inconsistent, for example a range
+ * whose lower bound is greater than its upper bound.
+ */
+public class InvalidSearchCriteriaException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public InvalidSearchCriteriaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when an update keeps conflicting with concurrent writers and is given up
+ * after the configured number of attempts.
+ */
+public class UpdateConflictException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public UpdateConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.creditcard.management.credit_card_api.core.exception;
+
+/**
+ * Exception thrown when a conditional update names a version that is no longer the current one,
+ * for example because the If-Match header of a PUT request holds an outdated ETag.
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    /**
+     * Constructor to initialize the exception with a description of the problem.
+     *
+     * @param message The description of the problem.
+     */
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
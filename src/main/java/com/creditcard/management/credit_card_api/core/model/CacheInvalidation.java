@@ -0,0 +1,109 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import java.util.Set;
+
+/**
+ * Domain model class representing one batch of cache invalidations sent between application instances.
+ * A batch names the credit cards and customers written since the previous one, and the card numbers
+ * written, which the other instances add to their card number filters. It asks every cache to be dropped,
+ * and the filters to be rebuilt, when too many of them were written to be named.
+ */
+public class CacheInvalidation {
+
+    // Batch asking every cached card and customer to be dropped
+    private static final CacheInvalidation EVERYTHING = new CacheInvalidation(Set.of(), Set.of(), Set.of(), true);
+
+    // Credit cards that were updated, posted to or deleted
+    private final Set<Long> cardIds;
+
+    // Customers that were created, updated or deleted, or whose list of cards changed
+    private final Set<Long> customerIds;
+
+    // Card numbers of the credit cards that were created or updated
+    private final Set<String> cardNumbers;
+
+    // True if every cached card and customer must be dropped
+    private final boolean everything;
+
+    /**
+     * Constructor to initialize a batch naming the written cards and customers.
+     *
+     * @param cardIds     The IDs of the written credit cards.
+     * @param customerIds The IDs of the written customers.
+     */
+    public CacheInvalidation(Set<Long> cardIds, Set<Long> customerIds) {
+        this(cardIds, customerIds, Set.of(), false);
+    }
+
+    /**
+     * Constructor to initialize a batch naming the written cards, customers and card numbers.
+     *
+     * @param cardIds     The IDs of the written credit cards.
+     * @param customerIds The IDs of the written customers.
+     * @param cardNumbers The written card numbers.
+     */
+    public CacheInvalidation(Set<Long> cardIds, Set<Long> customerIds, Set<String> cardNumbers) {
+        this(cardIds, customerIds, cardNumbers, false);
+    }
+
+    /**
+     * Constructor to initialize a batch.
+     *
+     * @param cardIds     The IDs of the written credit cards.
+     * @param customerIds The IDs of the written customers.
+     * @param cardNumbers The written card numbers.
+     * @param everything  True if every cached card and customer must be dropped.
+     */
+    private CacheInvalidation(Set<Long> cardIds, Set<Long> customerIds, Set<String> cardNumbers,
+                              boolean everything) {
+        this.cardIds = cardIds;
+        this.customerIds = customerIds;
+        this.cardNumbers = cardNumbers;
+        this.everything = everything;
+    }
+
+    /**
+     * Gets the batch asking every cached card and customer to be dropped.
+     *
+     * @return The batch.
+     */
+    public static CacheInvalidation everything() {
+        return EVERYTHING;
+    }
+
+    /**
+     * Gets the IDs of the written credit cards.
+     *
+     * @return The card IDs, empty for a batch that drops everything.
+     */
+    public Set<Long> getCardIds() {
+        return cardIds;
+    }
+
+    /**
+     * Gets the IDs of the written customers.
+     *
+     * @return The customer IDs, empty for a batch that drops everything.
+     */
+    public Set<Long> getCustomerIds() {
+        return customerIds;
+    }
+
+    /**
+     * Gets the written card numbers.
+     *
+     * @return The card numbers, empty for a batch that drops everything.
+     */
+    public Set<String> getCardNumbers() {
+        return cardNumbers;
+    }
+
+    /**
+     * Checks if every cached card and customer must be dropped.
+     *
+     * @return True if the batch drops everything, false if it names the written cards and customers.
+     */
+    public boolean isEverything() {
+        return everything;
+    }
+}
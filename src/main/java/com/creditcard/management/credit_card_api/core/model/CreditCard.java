@@ -1,5 +1,7 @@
 package com.creditcard.management.credit_card_api.core.model;
 
+import java.time.LocalDate;
+
 /**
  * Domain model class representing a Credit Card.
  * This class encapsulates the core business logic attributes for a credit card,
@@ -13,8 +15,8 @@ public class CreditCard {
     // Credit card number (16 digits, typically masked for security purposes)
     private String cardNumber;
 
-    // Expiration date of the credit card in YYYY-MM-DD format
-    private String expirationDate;
+    // Expiration date of the credit card
+    private LocalDate expirationDate;
 
     // Card Verification Value (CVV) - a 3-digit security code
     private String cvv;
@@ -23,14 +25,17 @@ public class CreditCard {
     private String cardType;
 
     // Maximum credit limit for the card
-    private Double creditLimit;
+    private Money creditLimit;
 
     // Current balance on the credit card
-    private Double currentBalance;
+    private Money currentBalance;
 
     // Identifier of the customer who owns the credit card
     private Long customerId;
 
+    // Version of the credit card, used for optimistic locking
+    private Long version;
+
     /**
      * Default constructor for creating an empty CreditCard object.
      */
@@ -77,18 +82,18 @@ public class CreditCard {
     /**
      * Gets the expiration date of the credit card.
      *
-     * @return The expiration date in YYYY-MM-DD format.
+     * @return The expiration date.
      */
-    public String getExpirationDate() {
+    public LocalDate getExpirationDate() {
         return expirationDate;
     }
 
     /**
      * Sets the expiration date of the credit card.
      *
-     * @param expirationDate The expiration date to set (format: YYYY-MM-DD).
+     * @param expirationDate The expiration date to set.
      */
-    public void setExpirationDate(String expirationDate) {
+    public void setExpirationDate(LocalDate expirationDate) {
         this.expirationDate = expirationDate;
     }
 
@@ -133,7 +138,7 @@ public class CreditCard {
      *
      * @return The credit limit.
      */
-    public Double getCreditLimit() {
+    public Money getCreditLimit() {
         return creditLimit;
     }
 
@@ -142,7 +147,7 @@ public class CreditCard {
      *
      * @param creditLimit The credit limit to set.
      */
-    public void setCreditLimit(Double creditLimit) {
+    public void setCreditLimit(Money creditLimit) {
         this.creditLimit = creditLimit;
     }
 
@@ -151,7 +156,7 @@ public class CreditCard {
      *
      * @return The current balance.
      */
-    public Double getCurrentBalance() {
+    public Money getCurrentBalance() {
         return currentBalance;
     }
 
@@ -160,7 +165,7 @@ public class CreditCard {
      *
      * @param currentBalance The current balance to set.
      */
-    public void setCurrentBalance(Double currentBalance) {
+    public void setCurrentBalance(Money currentBalance) {
         this.currentBalance = currentBalance;
     }
 
@@ -181,4 +186,22 @@ public class CreditCard {
     public void setCustomerId(Long customerId) {
         this.customerId = customerId;
     }
+
+    /**
+     * Gets the optimistic locking version of the credit card.
+     *
+     * @return The version, or null if unknown.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic locking version of the credit card.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,176 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import java.time.LocalDate;
+
+/**
+ * Domain model class representing a partial update of a Credit Card.
+ * Only the non-null fields are written; every other field keeps its current value.
+ */
+public class CreditCardPatch {
+
+    // New credit card number, or null to keep the current value
+    private String cardNumber;
+
+    // New expiration date, or null to keep the current value
+    private LocalDate expirationDate;
+
+    // New Card Verification Value (CVV), or null to keep the current value
+    private String cvv;
+
+    // New type of the card, or null to keep the current value
+    private String cardType;
+
+    // New credit limit, or null to keep the current value
+    private Money creditLimit;
+
+    // New current balance, or null to keep the current value
+    private Money currentBalance;
+
+    // Version the card must still have for the patch to apply, or null to patch any version
+    private Long expectedVersion;
+
+    /**
+     * Default constructor for creating an empty CreditCardPatch, which changes nothing.
+     */
+    public CreditCardPatch() {}
+
+    /**
+     * Checks if the patch changes no field.
+     *
+     * @return True if every field is null, false otherwise.
+     */
+    public boolean isEmpty() {
+        return cardNumber == null
+                && expirationDate == null
+                && cvv == null
+                && cardType == null
+                && creditLimit == null
+                && currentBalance == null;
+    }
+
+    /**
+     * Gets the new card number.
+     *
+     * @return The new card number, or null if it is not changed.
+     */
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    /**
+     * Sets the new card number.
+     *
+     * @param cardNumber The new card number, or null to keep the current value.
+     */
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+    }
+
+    /**
+     * Gets the new expiration date.
+     *
+     * @return The new expiration date, or null if it is not changed.
+     */
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    /**
+     * Sets the new expiration date.
+     *
+     * @param expirationDate The new expiration date, or null to keep the current value.
+     */
+    public void setExpirationDate(LocalDate expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    /**
+     * Gets the new CVV.
+     *
+     * @return The new CVV, or null if it is not changed.
+     */
+    public String getCvv() {
+        return cvv;
+    }
+
+    /**
+     * Sets the new CVV.
+     *
+     * @param cvv The new CVV, or null to keep the current value.
+     */
+    public void setCvv(String cvv) {
+        this.cvv = cvv;
+    }
+
+    /**
+     * Gets the new card type.
+     *
+     * @return The new card type, or null if it is not changed.
+     */
+    public String getCardType() {
+        return cardType;
+    }
+
+    /**
+     * Sets the new card type.
+     *
+     * @param cardType The new card type, or null to keep the current value.
+     */
+    public void setCardType(String cardType) {
+        this.cardType = cardType;
+    }
+
+    /**
+     * Gets the new credit limit.
+     *
+     * @return The new credit limit, or null if it is not changed.
+     */
+    public Money getCreditLimit() {
+        return creditLimit;
+    }
+
+    /**
+     * Sets the new credit limit.
+     *
+     * @param creditLimit The new credit limit, or null to keep the current value.
+     */
+    public void setCreditLimit(Money creditLimit) {
+        this.creditLimit = creditLimit;
+    }
+
+    /**
+     * Gets the new current balance.
+     *
+     * @return The new current balance, or null if it is not changed.
+     */
+    public Money getCurrentBalance() {
+        return currentBalance;
+    }
+
+    /**
+     * Sets the new current balance.
+     *
+     * @param currentBalance The new current balance, or null to keep the current value.
+     */
+    public void setCurrentBalance(Money currentBalance) {
+        this.currentBalance = currentBalance;
+    }
+
+    /**
+     * Gets the version the card must still have for the patch to apply.
+     *
+     * @return The expected version, or null if any version is patched.
+     */
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Sets the version the card must still have for the patch to apply.
+     *
+     * @param expectedVersion The expected version, or null to patch any version.
+     */
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+}
@@ -0,0 +1,225 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import java.time.LocalDate;
+
+/**
+ * Domain model class representing the filters of a credit card search.
+ * Every field is optional; a null field does not restrict the search, and the set fields are combined with AND.
+ */
+public class CreditCardSearchCriteria {
+
+    // Type of the card (e.g., "Credit"), or null for any type
+    private String cardType;
+
+    // Lowest current balance, inclusive, or null for no lower bound
+    private Money minBalance;
+
+    // Highest current balance, inclusive, or null for no upper bound
+    private Money maxBalance;
+
+    // Lowest credit limit, inclusive, or null for no lower bound
+    private Money minCreditLimit;
+
+    // Highest credit limit, inclusive, or null for no upper bound
+    private Money maxCreditLimit;
+
+    // Lowest ratio of current balance to credit limit (0.8 for 80%), inclusive, or null for no lower bound
+    private Double minUtilization;
+
+    // Highest ratio of current balance to credit limit, inclusive, or null for no upper bound
+    private Double maxUtilization;
+
+    // First expiration date of the window, inclusive, or null for no lower bound
+    private LocalDate expiresFrom;
+
+    // End of the expiration window, exclusive, or null for no upper bound
+    private LocalDate expiresBefore;
+
+    // Owner of the cards, or null for any customer
+    private Long customerId;
+
+    /**
+     * Default constructor for creating criteria that match every credit card.
+     */
+    public CreditCardSearchCriteria() {}
+
+    /**
+     * Gets the type of the card.
+     *
+     * @return The type of the card, or null if not filtered.
+     */
+    public String getCardType() {
+        return cardType;
+    }
+
+    /**
+     * Sets the type of the card.
+     *
+     * @param cardType The type of the card, or null to not filter on it.
+     */
+    public void setCardType(String cardType) {
+        this.cardType = cardType;
+    }
+
+    /**
+     * Gets the lowest current balance, inclusive.
+     *
+     * @return The lowest current balance, inclusive, or null if not filtered.
+     */
+    public Money getMinBalance() {
+        return minBalance;
+    }
+
+    /**
+     * Sets the lowest current balance, inclusive.
+     *
+     * @param minBalance The lowest current balance, inclusive, or null to not filter on it.
+     */
+    public void setMinBalance(Money minBalance) {
+        this.minBalance = minBalance;
+    }
+
+    /**
+     * Gets the highest current balance, inclusive.
+     *
+     * @return The highest current balance, inclusive, or null if not filtered.
+     */
+    public Money getMaxBalance() {
+        return maxBalance;
+    }
+
+    /**
+     * Sets the highest current balance, inclusive.
+     *
+     * @param maxBalance The highest current balance, inclusive, or null to not filter on it.
+     */
+    public void setMaxBalance(Money maxBalance) {
+        this.maxBalance = maxBalance;
+    }
+
+    /**
+     * Gets the lowest credit limit, inclusive.
+     *
+     * @return The lowest credit limit, inclusive, or null if not filtered.
+     */
+    public Money getMinCreditLimit() {
+        return minCreditLimit;
+    }
+
+    /**
+     * Sets the lowest credit limit, inclusive.
+     *
+     * @param minCreditLimit The lowest credit limit, inclusive, or null to not filter on it.
+     */
+    public void setMinCreditLimit(Money minCreditLimit) {
+        this.minCreditLimit = minCreditLimit;
+    }
+
+    /**
+     * Gets the highest credit limit, inclusive.
+     *
+     * @return The highest credit limit, inclusive, or null if not filtered.
+     */
+    public Money getMaxCreditLimit() {
+        return maxCreditLimit;
+    }
+
+    /**
+     * Sets the highest credit limit, inclusive.
+     *
+     * @param maxCreditLimit The highest credit limit, inclusive, or null to not filter on it.
+     */
+    public void setMaxCreditLimit(Money maxCreditLimit) {
+        this.maxCreditLimit = maxCreditLimit;
+    }
+
+    /**
+     * Gets the lowest utilization ratio, inclusive.
+     *
+     * @return The lowest utilization ratio, inclusive, or null if not filtered.
+     */
+    public Double getMinUtilization() {
+        return minUtilization;
+    }
+
+    /**
+     * Sets the lowest utilization ratio, inclusive.
+     *
+     * @param minUtilization The lowest utilization ratio, inclusive, or null to not filter on it.
+     */
+    public void setMinUtilization(Double minUtilization) {
+        this.minUtilization = minUtilization;
+    }
+
+    /**
+     * Gets the highest utilization ratio, inclusive.
+     *
+     * @return The highest utilization ratio, inclusive, or null if not filtered.
+     */
+    public Double getMaxUtilization() {
+        return maxUtilization;
+    }
+
+    /**
+     * Sets the highest utilization ratio, inclusive.
+     *
+     * @param maxUtilization The highest utilization ratio, inclusive, or null to not filter on it.
+     */
+    public void setMaxUtilization(Double maxUtilization) {
+        this.maxUtilization = maxUtilization;
+    }
+
+    /**
+     * Gets the first expiration date of the window, inclusive.
+     *
+     * @return The first expiration date of the window, inclusive, or null if not filtered.
+     */
+    public LocalDate getExpiresFrom() {
+        return expiresFrom;
+    }
+
+    /**
+     * Sets the first expiration date of the window, inclusive.
+     *
+     * @param expiresFrom The first expiration date of the window, inclusive, or null to not filter on it.
+     */
+    public void setExpiresFrom(LocalDate expiresFrom) {
+        this.expiresFrom = expiresFrom;
+    }
+
+    /**
+     * Gets the end of the expiration window, exclusive.
+     *
+     * @return The end of the expiration window, exclusive, or null if not filtered.
+     */
+    public LocalDate getExpiresBefore() {
+        return expiresBefore;
+    }
+
+    /**
+     * Sets the end of the expiration window, exclusive.
+     *
+     * @param expiresBefore The end of the expiration window, exclusive, or null to not filter on it.
+     */
+    public void setExpiresBefore(LocalDate expiresBefore) {
+        this.expiresBefore = expiresBefore;
+    }
+
+    /**
+     * Gets the identifier of the owner of the cards.
+     *
+     * @return The identifier of the owner of the cards, or null if not filtered.
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Sets the identifier of the owner of the cards.
+     *
+     * @param customerId The identifier of the owner of the cards, or null to not filter on it.
+     */
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+}
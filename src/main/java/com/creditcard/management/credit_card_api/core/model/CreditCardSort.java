@@ -0,0 +1,93 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import com.creditcard.management.credit_card_api.core.exception.InvalidSearchCriteriaException;
+
+/**
+ * Domain model class representing the order of a list of credit cards.
+ * Cards with equal sort values are ordered by ID in the same direction, so that the order is total
+ * and a page can always be continued from the ID of its last card.
+ */
+public class CreditCardSort {
+
+    /**
+     * Fields credit cards can be sorted by.
+     */
+    public enum Field {
+        CARD_ID("cardId"),
+        EXPIRATION_DATE("expirationDate"),
+        CURRENT_BALANCE("currentBalance");
+
+        // Name of the field in the API
+        private final String apiName;
+
+        Field(String apiName) {
+            this.apiName = apiName;
+        }
+
+        /**
+         * Gets the name of the field in the API.
+         *
+         * @return The API name, e.g. "expirationDate".
+         */
+        public String getApiName() {
+            return apiName;
+        }
+    }
+
+    // Sort by ID, ascending
+    public static final CreditCardSort DEFAULT = new CreditCardSort(Field.CARD_ID, false);
+
+    private final Field field;
+    private final boolean descending;
+
+    /**
+     * Constructor to initialize the sort with its field and direction.
+     *
+     * @param field      The field to sort by.
+     * @param descending True for descending order, false for ascending order.
+     */
+    public CreditCardSort(Field field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    /**
+     * Parses a sort expression: the API name of a field, prefixed with "-" for descending order.
+     *
+     * @param expression The expression, e.g. "expirationDate" or "-currentBalance", or null for the default order.
+     * @return The corresponding CreditCardSort.
+     * @throws InvalidSearchCriteriaException If the field is unknown.
+     */
+    public static CreditCardSort parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return DEFAULT;
+        }
+        boolean descending = expression.startsWith("-");
+        String name = descending ? expression.substring(1) : expression;
+        for (Field field : Field.values()) {
+            if (field.getApiName().equals(name)) {
+                return new CreditCardSort(field, descending);
+            }
+        }
+        throw new InvalidSearchCriteriaException("Cannot sort by " + name
+                + "; use cardId, expirationDate or currentBalance, prefixed with - for descending order");
+    }
+
+    /**
+     * Gets the field to sort by.
+     *
+     * @return The sort field.
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Checks if the order is descending.
+     *
+     * @return True for descending order, false for ascending order.
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+}
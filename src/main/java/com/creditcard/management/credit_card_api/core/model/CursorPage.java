@@ -0,0 +1,88 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Domain model class representing one page of a keyset (cursor) paginated result.
+ * The cursor is the identifier of the last element of the page; the next page
+ * starts strictly after it, so fetching a page costs the same no matter how deep it is.
+ *
+ * @param <T> The type of the elements in the page.
+ */
+public class CursorPage<T> {
+
+    // Elements of the current page, in cursor order
+    private final List<T> items;
+
+    // Cursor to request the next page with, or null if this is the last page
+    private final Long nextCursor;
+
+    /**
+     * Constructor to initialize a CursorPage with its elements and next cursor.
+     *
+     * @param items      The elements of the page.
+     * @param nextCursor The cursor of the next page, or null if there are no more elements.
+     */
+    public CursorPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a result fetched with one extra row (limit + 1).
+     * The extra row only signals that another page exists and is not returned.
+     *
+     * @param fetched  The fetched rows, at most limit + 1 of them, in cursor order.
+     * @param limit    The requested page size.
+     * @param cursorOf The function extracting the cursor value from an element.
+     * @param <T>      The type of the elements in the page.
+     * @return The CursorPage holding at most limit elements.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<? super T, Long> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Gets the elements of the page.
+     *
+     * @return The list of elements.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor of the next page.
+     *
+     * @return The next cursor, or null if this is the last page.
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks if there is a page after this one.
+     *
+     * @return True if a next page exists, false otherwise.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Converts the elements of the page, keeping the same cursor.
+     *
+     * @param mapper The function to apply to each element.
+     * @param <R>    The type of the converted elements.
+     * @return A new CursorPage containing the converted elements.
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
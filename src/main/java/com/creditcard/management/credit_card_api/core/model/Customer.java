@@ -1,6 +1,7 @@
 package com.creditcard.management.credit_card_api.core.model;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Domain model class representing a Customer.
@@ -24,6 +25,9 @@ public class Customer {
     // List of credit cards associated with the customer
     private List<CreditCard> creditCards;
 
+    // Version of the customer, used for optimistic locking
+    private Long version;
+
     /**
      * Default constructor for creating an empty Customer object.
      */
@@ -118,4 +122,33 @@ public class Customer {
     public void setCreditCards(List<CreditCard> creditCards) {
         this.creditCards = creditCards;
     }
+
+    /**
+     * Normalizes an email address for case-insensitive lookups: surrounding whitespace is removed
+     * and the address is lower-cased.
+     *
+     * @param email The email address, possibly null.
+     * @return The normalized email address, or null if the input is null.
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Gets the optimistic locking version of the customer.
+     *
+     * @return The version, or null if unknown.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic locking version of the customer.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
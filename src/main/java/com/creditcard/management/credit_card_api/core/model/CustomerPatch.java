@@ -0,0 +1,108 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+/**
+ * Domain model class representing a partial update of a Customer.
+ * Only the non-null fields are written; every other field keeps its current value.
+ */
+public class CustomerPatch {
+
+    // New first name, or null to keep the current value
+    private String firstName;
+
+    // New last name, or null to keep the current value
+    private String lastName;
+
+    // New email address, or null to keep the current value
+    private String email;
+
+    // Version the customer must still have for the patch to apply, or null to patch any version
+    private Long expectedVersion;
+
+    /**
+     * Default constructor for creating an empty CustomerPatch, which changes nothing.
+     */
+    public CustomerPatch() {}
+
+    /**
+     * Checks if the patch changes no field.
+     *
+     * @return True if every field is null, false otherwise.
+     */
+    public boolean isEmpty() {
+        return firstName == null
+                && lastName == null
+                && email == null;
+    }
+
+    /**
+     * Gets the new first name.
+     *
+     * @return The new first name, or null if it is not changed.
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Sets the new first name.
+     *
+     * @param firstName The new first name, or null to keep the current value.
+     */
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    /**
+     * Gets the new last name.
+     *
+     * @return The new last name, or null if it is not changed.
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Sets the new last name.
+     *
+     * @param lastName The new last name, or null to keep the current value.
+     */
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    /**
+     * Gets the new email address.
+     *
+     * @return The new email address, or null if it is not changed.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Sets the new email address.
+     *
+     * @param email The new email address, or null to keep the current value.
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Gets the version the customer must still have for the patch to apply.
+     *
+     * @return The expected version, or null if any version is patched.
+     */
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Sets the version the customer must still have for the patch to apply.
+     *
+     * @param expectedVersion The expected version, or null to patch any version.
+     */
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+}
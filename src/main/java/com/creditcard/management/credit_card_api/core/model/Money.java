@@ -0,0 +1,175 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Domain value class representing an amount of money as a whole number of minor units (cents).
+ * Amounts are exact: arithmetic is done on a primitive long, overflow raises an ArithmeticException,
+ * and conversions from decimal values reject fractions of a cent instead of rounding them.
+ *
+ * Instances are immutable. Code summing or comparing many amounts can work on the minor units directly
+ * with the static helpers, which allocate nothing.
+ */
+public final class Money implements Comparable<Money> {
+
+    // Number of decimal places of an amount
+    public static final int SCALE = 2;
+
+    // Amount of zero
+    public static final Money ZERO = new Money(0);
+
+    // Amount in minor units (cents)
+    private final long minorUnits;
+
+    /**
+     * Constructor to initialize an amount from its minor units.
+     *
+     * @param minorUnits The amount in minor units.
+     */
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Creates an amount from a number of minor units.
+     *
+     * @param minorUnits The amount in minor units, e.g. 1050 for 10.50.
+     * @return The Money instance.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Creates an amount from a decimal value.
+     *
+     * @param amount The amount, e.g. 10.5; null is passed through.
+     * @return The Money instance, or null if the amount is null.
+     * @throws ArithmeticException If the amount has more than two decimal places or does not fit in a long.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses an amount written as a decimal number, e.g. "5000" or "10.50".
+     *
+     * @param amount The text of the amount; null is passed through.
+     * @return The Money instance, or null if the text is null.
+     * @throws NumberFormatException If the text is not a decimal number.
+     * @throws ArithmeticException   If the amount has more than two decimal places or does not fit in a long.
+     */
+    public static Money parse(String amount) {
+        return amount == null ? null : of(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * Gets the amount in minor units.
+     *
+     * @return The number of cents.
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Converts the amount to a decimal value with two decimal places.
+     *
+     * @return The amount as a BigDecimal.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Adds an amount to this one.
+     *
+     * @param other The amount to add.
+     * @return The sum.
+     * @throws ArithmeticException If the sum overflows.
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Subtracts an amount from this one.
+     *
+     * @param other The amount to subtract.
+     * @return The difference.
+     * @throws ArithmeticException If the difference overflows.
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Checks if the amount is below zero.
+     *
+     * @return True if the amount is negative.
+     */
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * Sums amounts given in minor units, without allocating.
+     *
+     * @param minorUnits The amounts in minor units.
+     * @return The exact sum in minor units.
+     * @throws ArithmeticException If the sum overflows.
+     */
+    public static long sumMinor(long[] minorUnits) {
+        long sum = 0;
+        for (long amount : minorUnits) {
+            sum = Math.addExact(sum, amount);
+        }
+        return sum;
+    }
+
+    /**
+     * Compares two amounts.
+     *
+     * @param other The amount to compare with.
+     * @return A negative number, zero or a positive number if this amount is smaller, equal or greater.
+     */
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Checks if another object is the same amount.
+     *
+     * @param o The object to compare with.
+     * @return True if the object is a Money with the same minor units.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).minorUnits == minorUnits);
+    }
+
+    /**
+     * Computes the hash code of the amount.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Formats the amount with two decimal places, e.g. "10.50".
+     *
+     * @return The amount as plain text.
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
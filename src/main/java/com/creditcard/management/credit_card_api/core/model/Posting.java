@@ -0,0 +1,66 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+/**
+ * Domain model class representing a posting: a signed amount to add to the balance of a credit card.
+ * A positive amount is a charge, a negative amount is a payment or a refund.
+ */
+public class Posting {
+
+    // Identifier of the credit card the posting applies to
+    private Long cardId;
+
+    // Signed amount to add to the current balance
+    private Money amount;
+
+    /**
+     * Default constructor for creating an empty Posting object.
+     */
+    public Posting() {}
+
+    /**
+     * Constructor to initialize a Posting with all its fields.
+     *
+     * @param cardId The identifier of the credit card.
+     * @param amount The signed amount to add to the current balance.
+     */
+    public Posting(Long cardId, Money amount) {
+        this.cardId = cardId;
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the identifier of the credit card the posting applies to.
+     *
+     * @return The card ID.
+     */
+    public Long getCardId() {
+        return cardId;
+    }
+
+    /**
+     * Sets the identifier of the credit card the posting applies to.
+     *
+     * @param cardId The card ID to set.
+     */
+    public void setCardId(Long cardId) {
+        this.cardId = cardId;
+    }
+
+    /**
+     * Gets the signed amount to add to the current balance.
+     *
+     * @return The amount.
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the signed amount to add to the current balance.
+     *
+     * @param amount The amount to set.
+     */
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,13 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+/**
+ * Outcome of a posting (a charge or a payment) applied to the balance of a credit card.
+ */
+public enum PostingStatus {
+
+    // The amount was added to the balance
+    APPROVED,
+
+    // The balance was left unchanged because the charge would exceed the credit limit
+    DECLINED
+}
@@ -0,0 +1,109 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
+
+import com.creditcard.management.credit_card_api.core.exception.DuplicateCardNumberException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidImportFileException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPatchException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidSearchCriteriaException;
+import com.creditcard.management.credit_card_api.core.exception.UpdateConflictException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates domain exceptions raised while handling API requests into HTTP responses.
+ * The body of each error response is a plain-text description of the problem.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Handles import files that cannot be parsed.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 400 Bad Request and the description of the problem.
+     */
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<String> handleInvalidImportFile(InvalidImportFileException e) {
+        return badRequest(e.getMessage());
+    }
+
+    /**
+     * Handles patch documents that cannot be applied.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 400 Bad Request and the description of the problem.
+     */
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<String> handleInvalidPatch(InvalidPatchException e) {
+        return badRequest(e.getMessage());
+    }
+
+    /**
+     * Handles search filters that are inconsistent.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 400 Bad Request and the description of the problem.
+     */
+    @ExceptionHandler(InvalidSearchCriteriaException.class)
+    public ResponseEntity<String> handleInvalidSearchCriteria(InvalidSearchCriteriaException e) {
+        return badRequest(e.getMessage());
+    }
+
+    /**
+     * Handles postings that cannot be applied as requested.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 400 Bad Request and the description of the problem.
+     */
+    @ExceptionHandler(InvalidPostingException.class)
+    public ResponseEntity<String> handleInvalidPosting(InvalidPostingException e) {
+        return badRequest(e.getMessage());
+    }
+
+    /**
+     * Handles credit cards created with a card number that is already used.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 409 Conflict and the description of the problem.
+     */
+    @ExceptionHandler(DuplicateCardNumberException.class)
+    public ResponseEntity<String> handleDuplicateCardNumber(DuplicateCardNumberException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    /**
+     * Handles conditional updates whose If-Match header no longer names the current version of the resource.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 412 Precondition Failed and the description of the problem.
+     */
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<String> handleVersionMismatch(VersionMismatchException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    /**
+     * Handles updates given up after conflicting repeatedly with concurrent writers.
+     *
+     * @param e The exception describing the problem.
+     * @return A ResponseEntity with 409 Conflict and the description of the problem.
+     */
+    @ExceptionHandler(UpdateConflictException.class)
+    public ResponseEntity<String> handleUpdateConflict(UpdateConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    /**
+     * Builds a 400 Bad Request response with a plain-text message.
+     *
+     * @param message The description of the problem.
+     * @return The ResponseEntity.
+     */
+    private ResponseEntity<String> badRequest(String message) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(message);
+    }
+}
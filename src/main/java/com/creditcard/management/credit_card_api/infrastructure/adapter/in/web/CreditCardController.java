@@ -1,13 +1,39 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
 
 
+import com.creditcard.management.credit_card_api.application.dto.BatchItemResultDTO;
 import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.dto.PostingDTO;
+import com.creditcard.management.credit_card_api.application.dto.PostingResultDTO;
 import com.creditcard.management.credit_card_api.application.mapper.CreditCardMapper;
+import com.creditcard.management.credit_card_api.application.mapper.PostingMapper;
+import com.creditcard.management.credit_card_api.application.service.CreditAuthorizationService;
+import com.creditcard.management.credit_card_api.application.service.CreditCardQueryService;
 import com.creditcard.management.credit_card_api.application.service.CreditCardService;
+import com.creditcard.management.credit_card_api.core.exception.InvalidSearchCriteriaException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,32 +45,141 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/credit-cards")
 public class CreditCardController {
 
+    // Response header carrying the cursor of the next page
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Maximum number of credit cards accepted by a single batch request
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    // Maximum number of postings accepted by a single batch request
+    static final int MAX_POSTING_BATCH_SIZE = 100_000;
+
+    // Media type of JSON Merge Patch documents (RFC 7396)
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final CreditCardService creditCardService;
+    private final CreditCardQueryService creditCardQueryService;
+    private final CreditAuthorizationService creditAuthorizationService;
+    private final ObjectWriter ndjsonWriter;
 
     /**
      * Constructor to initialize the CreditCardController with the service layer.
      *
-     * @param creditCardService The service layer for handling credit card business logic.
+     * @param creditCardService          The service layer for handling credit card business logic.
+     * @param creditCardQueryService     The service layer for read-only credit card queries.
+     * @param creditAuthorizationService The service layer for in-memory authorizations.
+     * @param objectMapper               The application ObjectMapper, used to serialize the streaming export.
      */
-    public CreditCardController(CreditCardService creditCardService) {
+    public CreditCardController(CreditCardService creditCardService, CreditCardQueryService creditCardQueryService,
+                                CreditAuthorizationService creditAuthorizationService, ObjectMapper objectMapper) {
         this.creditCardService = creditCardService;
+        this.creditCardQueryService = creditCardQueryService;
+        this.creditAuthorizationService = creditAuthorizationService;
+        this.ndjsonWriter = objectMapper.writerFor(CreditCardDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
-     * Retrieves all credit cards.
+     * Retrieves one page of credit cards ordered by ID.
+     * The cursor of the next page is returned in the X-Next-Cursor header; it is absent on the last page.
      *
+     * @param after The ID of the last card of the previous page, or null to start from the beginning.
+     * @param limit The maximum number of credit cards to return.
      * @return A ResponseEntity containing a list of CreditCardDTO objects.
      */
     @GetMapping
-    public ResponseEntity<List<CreditCardDTO>> getAllCreditCards() {
-        List<CreditCardDTO> creditCards = creditCardService.getAllCreditCards().stream()
-                .map(CreditCardMapper::toDTO) // Convert domain objects to DTOs
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(creditCards);
+    public ResponseEntity<List<CreditCardDTO>> getAllCreditCards(@RequestParam(required = false) Long after,
+                                                                 @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<CreditCardDTO> page = creditCardQueryService.getCreditCardPage(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Searches credit cards with optional filters, combined with AND, one page at a time ordered by ID.
+     * The cursor of the next page is returned in the X-Next-Cursor header; it is absent on the last page.
+     *
+     * @param cardType       The type of the cards.
+     * @param minBalance     The lowest current balance, inclusive.
+     * @param maxBalance     The highest current balance, inclusive.
+     * @param minCreditLimit The lowest credit limit, inclusive.
+     * @param maxCreditLimit The highest credit limit, inclusive.
+     * @param minUtilization The lowest ratio of current balance to credit limit, inclusive.
+     * @param maxUtilization The highest ratio of current balance to credit limit, inclusive.
+     * @param expiresFrom    The first expiration date of the window (yyyy-MM-dd), inclusive.
+     * @param expiresBefore  The end of the expiration window (yyyy-MM-dd), exclusive.
+     * @param customerId     The owner of the cards.
+     * @param after          The ID of the last card of the previous page, or null to start from the beginning.
+     * @param limit          The maximum number of credit cards to return.
+     * @return A ResponseEntity containing the matching CreditCardDTO objects, or 400 Bad Request for inconsistent filters.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CreditCardDTO>> searchCreditCards(
+            @RequestParam(required = false) String cardType,
+            @RequestParam(required = false) BigDecimal minBalance,
+            @RequestParam(required = false) BigDecimal maxBalance,
+            @RequestParam(required = false) BigDecimal minCreditLimit,
+            @RequestParam(required = false) BigDecimal maxCreditLimit,
+            @RequestParam(required = false) Double minUtilization,
+            @RequestParam(required = false) Double maxUtilization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresBefore,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        CreditCardSearchCriteria criteria = new CreditCardSearchCriteria();
+        criteria.setCardType(cardType);
+        criteria.setMinBalance(toMoney("minBalance", minBalance));
+        criteria.setMaxBalance(toMoney("maxBalance", maxBalance));
+        criteria.setMinCreditLimit(toMoney("minCreditLimit", minCreditLimit));
+        criteria.setMaxCreditLimit(toMoney("maxCreditLimit", maxCreditLimit));
+        criteria.setMinUtilization(minUtilization);
+        criteria.setMaxUtilization(maxUtilization);
+        criteria.setExpiresFrom(expiresFrom);
+        criteria.setExpiresBefore(expiresBefore);
+        criteria.setCustomerId(customerId);
+
+        CursorPage<CreditCardDTO> page = creditCardQueryService.searchCreditCards(criteria, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Exports all credit cards as newline-delimited JSON.
+     * Each card is written to the response as soon as it is read from the database,
+     * so memory use does not depend on the number of cards.
+     *
+     * @return A ResponseEntity streaming one CreditCardDTO per line.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCreditCards() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = ndjsonWriter.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // Lines are terminated explicitly below
+            creditCardService.exportCreditCards(creditCard -> {
+                try {
+                    ndjsonWriter.writeValue(generator, CreditCardMapper.toDTO(creditCard));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * Retrieves a specific credit card by its ID.
+     * The version of the card is returned as the ETag header, to be sent back in the If-Match header of a PUT.
+     * The card is read through the repository port, so hot cards are served from the repository cache.
      *
      * @param id The unique identifier of the credit card.
      * @return A ResponseEntity containing the CreditCardDTO if found, or 404 Not Found if not.
@@ -52,7 +187,20 @@ public class CreditCardController {
     @GetMapping("/{id}")
     public ResponseEntity<CreditCardDTO> getCreditCardById(@PathVariable Long id) {
         return creditCardService.getCreditCardById(id)
-                .map(CreditCardMapper::toDTO) // Convert domain object to DTO
+                .map(CreditCardMapper::toDTO)
+                .map(CreditCardController::withETag)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves a specific credit card by its card number.
+     *
+     * @param number The card number.
+     * @return A ResponseEntity containing the CreditCardDTO if found, or 404 Not Found if not.
+     */
+    @GetMapping("/by-number/{number}")
+    public ResponseEntity<CreditCardDTO> getCreditCardByNumber(@PathVariable String number) {
+        return creditCardQueryService.getCreditCardByNumber(number)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -70,22 +218,128 @@ public class CreditCardController {
         return ResponseEntity.ok(CreditCardMapper.toDTO(createdCreditCard));
     }
 
+    /**
+     * Creates several credit cards in a single transaction.
+     * Invalid cards are rejected individually while the valid ones are inserted with batched statements.
+     *
+     * @param creditCardDTOs The CreditCardDTO objects to create.
+     * @return A ResponseEntity containing one BatchItemResultDTO per card, in request order,
+     *         or 413 Payload Too Large if the batch exceeds the maximum size.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> createCreditCards(@RequestBody List<CreditCardDTO> creditCardDTOs) {
+        if (creditCardDTOs.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        List<CreditCard> creditCards = creditCardDTOs.stream()
+                .map(CreditCardMapper::toDomainFromDTO) // Convert DTOs to domain
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(creditCardService.createCreditCards(creditCards));
+    }
+
     /**
      * Updates an existing credit card by its ID.
+     * With an If-Match header holding the ETag of the card, the update only applies if the card was not changed
+     * since. The new ETag is returned in either case. The version in the body is ignored.
      *
      * @param id The unique identifier of the credit card to update.
+     * @param ifMatch The ETag the card must still have, or null to update it unconditionally.
      * @param creditCardDTO The CreditCardDTO object containing updated details.
-     * @return A ResponseEntity containing the updated CreditCardDTO if successful, or 404 Not Found if not.
+     * @return A ResponseEntity containing the updated CreditCardDTO and its new ETag if successful, 404 Not Found if
+     *         the card does not exist, or 412 Precondition Failed if it was changed since the ETag was issued.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<CreditCardDTO> updateCreditCard(@PathVariable Long id, @RequestBody CreditCardDTO creditCardDTO) {
+    public ResponseEntity<CreditCardDTO> updateCreditCard(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestBody CreditCardDTO creditCardDTO) {
         CreditCard updatedCreditCard = CreditCardMapper.toDomainFromDTO(creditCardDTO); // Convert DTO to domain
+        updatedCreditCard.setVersion(EntityTags.expectedVersion(ifMatch));
         return creditCardService.updateCreditCard(id, updatedCreditCard)
                 .map(CreditCardMapper::toDTO) // Convert updated domain object to DTO
+                .map(CreditCardController::withETag)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Partially updates a credit card with a JSON Merge Patch document.
+     * Only the fields present in the document are written, e.g. {"currentBalance": 1250.0}
+     * produces an UPDATE of the current_balance column alone.
+     * As for a PUT, an If-Match header makes the patch apply only if the card was not changed since.
+     *
+     * @param id      The unique identifier of the credit card to update.
+     * @param ifMatch The ETag the card must still have, or null to patch it unconditionally.
+     * @param patch   The merge patch document.
+     * @return A ResponseEntity containing the updated CreditCardDTO and its new ETag if successful,
+     *         404 Not Found if the card does not exist, 400 Bad Request if the patch is invalid,
+     *         or 412 Precondition Failed if it was changed since the ETag was issued.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<CreditCardDTO> patchCreditCard(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody JsonNode patch) {
+        CreditCardPatch creditCardPatch = CreditCardMapper.toPatch(patch);
+        creditCardPatch.setExpectedVersion(EntityTags.expectedVersion(ifMatch));
+        return creditCardService.patchCreditCard(id, creditCardPatch)
+                .map(CreditCardMapper::toDTO) // Convert updated domain object to DTO
+                .map(CreditCardController::withETag)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Posts a charge (positive amount) or a payment (negative amount) to the balance of a credit card,
+     * e.g. {"amount": 125.50}. The balance is updated atomically in the database; a charge that would
+     * exceed the credit limit is declined and leaves the balance unchanged.
+     *
+     * @param id         The unique identifier of the credit card.
+     * @param postingDTO The posting holding the signed amount.
+     * @return A ResponseEntity containing the PostingResultDTO with status APPROVED or DECLINED,
+     *         404 Not Found if the card does not exist, or 400 Bad Request if the amount is missing or zero.
+     */
+    @PostMapping("/{id}/postings")
+    public ResponseEntity<PostingResultDTO> postToBalance(@PathVariable Long id, @RequestBody PostingDTO postingDTO) {
+        return creditCardService.postToBalance(id, postingDTO.getAmount())
+                .map(status -> new PostingResultDTO(id, postingDTO.getAmount(), status))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Authorizes a charge against the available credit of a credit card, e.g. {"amount": 125.50}.
+     * The decision is made in memory: an approved charge is held against the available credit until the
+     * card is next written, typically by the posting of the settled charge; the balance is not changed.
+     *
+     * @param id         The unique identifier of the credit card.
+     * @param postingDTO The charge holding the positive amount.
+     * @return A ResponseEntity containing the PostingResultDTO with status APPROVED or DECLINED,
+     *         404 Not Found if the card does not exist, or 400 Bad Request if the amount is missing or not positive.
+     */
+    @PostMapping("/{id}/authorize")
+    public ResponseEntity<PostingResultDTO> authorize(@PathVariable Long id, @RequestBody PostingDTO postingDTO) {
+        return creditAuthorizationService.authorize(id, postingDTO.getAmount())
+                .map(status -> new PostingResultDTO(id, postingDTO.getAmount(), status))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Posts many charges and payments at once, e.g. a settlement file, as [{"cardId": 1, "amount": 125.50}, ...].
+     * The postings are applied with batched statements in chunked transactions.
+     *
+     * @param postingDTOs The postings, each with a card ID and a signed amount.
+     * @return A ResponseEntity containing one BatchItemResultDTO per posting, in request order,
+     *         or 413 Payload Too Large if the batch exceeds the maximum size.
+     */
+    @PostMapping("/postings/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> postToBalances(@RequestBody List<PostingDTO> postingDTOs) {
+        if (postingDTOs.size() > MAX_POSTING_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        List<Posting> postings = postingDTOs.stream()
+                .map(PostingMapper::toDomain) // Convert DTOs to domain
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(creditCardService.postToBalances(postings));
+    }
+
     /**
      * Deletes a credit card by its ID.
      *
@@ -99,4 +353,32 @@ public class CreditCardController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * Converts an amount filter to Money.
+     *
+     * @param name   The name of the query parameter, used in the error message.
+     * @param amount The amount, possibly null.
+     * @return The Money instance, or null if the amount is null.
+     * @throws InvalidSearchCriteriaException If the amount has more than two decimal places.
+     */
+    private static Money toMoney(String name, BigDecimal amount) {
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new InvalidSearchCriteriaException(name + " must have at most " + Money.SCALE + " decimal places");
+        }
+    }
+
+    /**
+     * Builds a 200 OK response for a credit card, with its version as the ETag header when it is known.
+     *
+     * @param creditCard The CreditCardDTO to return.
+     * @return The ResponseEntity.
+     */
+    private static ResponseEntity<CreditCardDTO> withETag(CreditCardDTO creditCard) {
+        return creditCard.getVersion() != null
+                ? ResponseEntity.ok().eTag(EntityTags.of(creditCard.getVersion())).body(creditCard)
+                : ResponseEntity.ok(creditCard);
+    }
 }
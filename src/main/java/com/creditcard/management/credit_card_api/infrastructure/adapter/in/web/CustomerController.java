@@ -1,14 +1,30 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
 
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
 import com.creditcard.management.credit_card_api.application.dto.CustomerDTO;
+import com.creditcard.management.credit_card_api.application.dto.CustomerImportReportDTO;
 import com.creditcard.management.credit_card_api.application.mapper.CustomerMapper;
+import com.creditcard.management.credit_card_api.application.service.CreditCardQueryService;
+import com.creditcard.management.credit_card_api.application.service.CustomerImportService;
 import com.creditcard.management.credit_card_api.application.service.CustomerService;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
 import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for managing Customer operations.
@@ -18,44 +34,114 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/customers")
 public class CustomerController {
 
+    // Response header carrying the cursor of the next page
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Media type of CSV import bodies
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    // Media type of JSON Merge Patch documents (RFC 7396)
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final CreditCardQueryService creditCardQueryService;
 
     /**
      * Constructor to initialize the CustomerController with the service layer.
      *
-     * @param customerService The service layer for handling customer business logic.
+     * @param customerService        The service layer for handling customer business logic.
+     * @param customerImportService  The service layer for bulk imports of customers.
+     * @param creditCardQueryService The service layer for read-only credit card queries.
      */
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerImportService customerImportService,
+                              CreditCardQueryService creditCardQueryService) {
         this.customerService = customerService;
+        this.customerImportService = customerImportService;
+        this.creditCardQueryService = creditCardQueryService;
     }
 
     /**
-     * Retrieves all customers.
+     * Retrieves one page of customers ordered by ID.
+     * Credit cards are only included when requested, and are then loaded for the whole page at once.
+     * The cursor of the next page is returned in the X-Next-Cursor header; it is absent on the last page.
      *
+     * @param after        The ID of the last customer of the previous page, or null to start from the beginning.
+     * @param limit        The maximum number of customers to return.
+     * @param includeCards True to include the credit cards of each customer.
      * @return A ResponseEntity containing a list of CustomerDTO objects.
      */
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        List<CustomerDTO> customers = customerService.getAllCustomers().stream()
-                .map(CustomerMapper::toDTO) // Convert domain objects to DTOs
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<List<CustomerDTO>> getAllCustomers(@RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = "50") int limit,
+                                                             @RequestParam(defaultValue = "false") boolean includeCards) {
+        CursorPage<CustomerDTO> page = customerService.getCustomerPage(after, limit, includeCards)
+                .map(CustomerMapper::toDTO); // Convert domain objects to DTOs
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
     }
 
     /**
-     * Retrieves a specific customer by their ID.
+     * Retrieves a specific customer by their email address, ignoring case.
+     * The credit cards of the customer are not included.
      *
-     * @param id The unique identifier of the customer.
+     * @param email The email address of the customer.
      * @return A ResponseEntity containing the CustomerDTO if found, or 404 Not Found if not.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
-        return customerService.getCustomerById(id)
+    @GetMapping("/by-email")
+    public ResponseEntity<CustomerDTO> getCustomerByEmail(@RequestParam String email) {
+        return customerService.getCustomerByEmail(email)
                 .map(CustomerMapper::toDTO) // Convert domain object to DTO
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves a specific customer by their ID.
+     *
+     * @param id           The unique identifier of the customer.
+     * @param includeCards True (default) to include the credit cards of the customer.
+     * @return A ResponseEntity containing the CustomerDTO if found, with its version as the ETag header,
+     *         or 404 Not Found if not.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "true") boolean includeCards) {
+        return customerService.getCustomerById(id, includeCards)
+                .map(CustomerMapper::toDTO) // Convert domain object to DTO
+                .map(CustomerController::withETag)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves one page of the credit cards of a customer, without loading the customer.
+     * The cursor of the next page is returned in the X-Next-Cursor header; it is absent on the last page.
+     *
+     * @param id    The unique identifier of the customer.
+     * @param sort  The order: cardId (default), expirationDate or currentBalance, prefixed with - for descending.
+     * @param after The ID of the last card of the previous page, or null to start from the beginning.
+     * @param limit The maximum number of credit cards to return.
+     * @return A ResponseEntity containing a list of CreditCardDTO objects, or 404 Not Found if the customer does not exist.
+     */
+    @GetMapping("/{id}/credit-cards")
+    public ResponseEntity<List<CreditCardDTO>> getCustomerCreditCards(@PathVariable Long id,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(required = false) Long after,
+                                                                      @RequestParam(defaultValue = "50") int limit) {
+        return creditCardQueryService.getCustomerCreditCards(id, CreditCardSort.parse(sort), after, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.hasNext()) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+                    }
+                    return response.body(page.getItems());
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Creates a new customer.
      *
@@ -69,24 +155,84 @@ public class CustomerController {
         return ResponseEntity.ok(CustomerMapper.toDTO(createdCustomer));
     }
 
+    /**
+     * Imports customers and their credit cards from a CSV file uploaded as multipart/form-data.
+     * The upload is spooled to disk by the servlet container and parsed incrementally.
+     *
+     * @param file The CSV file, in the "file" part.
+     * @return A ResponseEntity containing the import report.
+     * @throws IOException If the file cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CustomerImportReportDTO> importCustomers(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        return importCustomers(file.getInputStream());
+    }
+
+    /**
+     * Imports customers and their credit cards from a CSV request body.
+     * The body is parsed while it is received, without being buffered.
+     *
+     * @param body The CSV content.
+     * @return A ResponseEntity containing the import report.
+     * @throws IOException If the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<CustomerImportReportDTO> importCustomers(InputStream body) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok(customerImportService.importCustomers(reader));
+        }
+    }
+
     /**
      * Updates an existing customer by their ID.
      * Only updates the fields: firstName, lastName, and email. Associated credit cards remain unchanged.
+     * With an If-Match header holding the ETag of the customer, the update only applies if the customer was not
+     * changed since; without one, an update that races with another writer is retried on fresh data.
      *
      * @param id The unique identifier of the customer to update.
+     * @param ifMatch The ETag the customer must still have, or null to update them unconditionally.
      * @param customerDTO The CustomerDTO object containing updated details.
-     * @return A ResponseEntity containing the updated CustomerDTO if successful, or 404 Not Found if not.
+     * @return A ResponseEntity containing the updated CustomerDTO and its new ETag if successful, 404 Not Found if
+     *         the customer does not exist, 412 Precondition Failed if they were changed since the ETag was issued,
+     *         or 409 Conflict if the update kept racing with other writers.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
+    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody CustomerDTO customerDTO) {
         Customer updatedCustomer = new Customer();
         updatedCustomer.setFirstName(customerDTO.getFirstName());
         updatedCustomer.setLastName(customerDTO.getLastName());
         updatedCustomer.setEmail(customerDTO.getEmail());
 
-        return customerService.updateCustomer(id, updatedCustomer)
+        return customerService.updateCustomer(id, updatedCustomer, EntityTags.expectedVersion(ifMatch))
                 .map(CustomerMapper::toDTO) // Convert updated domain object to DTO
-                .map(ResponseEntity::ok)
+                .map(CustomerController::withETag)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Partially updates a customer with a JSON Merge Patch document.
+     * Only the fields present in the document (firstName, lastName, email) are written.
+     * As for a PUT, an If-Match header makes the patch apply only if the customer was not changed since.
+     *
+     * @param id      The unique identifier of the customer to update.
+     * @param ifMatch The ETag the customer must still have, or null to patch them unconditionally.
+     * @param patch   The merge patch document.
+     * @return A ResponseEntity containing the updated CustomerDTO, without credit cards, and its new ETag if
+     *         successful, 404 Not Found if the customer does not exist, 400 Bad Request if the patch is invalid,
+     *         or 412 Precondition Failed if they were changed since the ETag was issued.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestBody JsonNode patch) {
+        CustomerPatch customerPatch = CustomerMapper.toPatch(patch);
+        customerPatch.setExpectedVersion(EntityTags.expectedVersion(ifMatch));
+        return customerService.patchCustomer(id, customerPatch)
+                .map(CustomerMapper::toDTO) // Convert updated domain object to DTO
+                .map(CustomerController::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -103,4 +249,16 @@ public class CustomerController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * Builds a 200 OK response for a customer, with their version as the ETag header when it is known.
+     *
+     * @param customer The CustomerDTO to return.
+     * @return The ResponseEntity.
+     */
+    private static ResponseEntity<CustomerDTO> withETag(CustomerDTO customer) {
+        return customer.getVersion() != null
+                ? ResponseEntity.ok().eTag(EntityTags.of(customer.getVersion())).body(customer)
+                : ResponseEntity.ok(customer);
+    }
 }
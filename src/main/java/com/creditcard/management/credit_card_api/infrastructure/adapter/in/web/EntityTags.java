@@ -0,0 +1,52 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
+
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
+
+/**
+ * Conversions between the optimistic locking version of a resource and its entity tag.
+ * The ETag of a card or customer is its version in quotes, e.g. "3"; a client sends it back in the
+ * If-Match header of a PUT or PATCH to update the resource only if nobody changed it in the meantime.
+ */
+final class EntityTags {
+
+    // If-Match value that matches any current version
+    private static final String ANY = "*";
+
+    /**
+     * Utility class; not instantiable.
+     */
+    private EntityTags() {}
+
+    /**
+     * Formats a version as a strong entity tag.
+     *
+     * @param version The version of the resource.
+     * @return The entity tag, e.g. "3" in quotes.
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version expected by an If-Match header.
+     *
+     * @param ifMatch The header value, or null if the request has none.
+     * @return The expected version, or null if the header is absent or is "*".
+     * @throws VersionMismatchException If the header does not hold a single entity tag issued by this API,
+     *                                  which can therefore never match the current version.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the mismatch below
+            }
+        }
+        throw new VersionMismatchException("If-Match " + tag + " does not match the current version");
+    }
+}
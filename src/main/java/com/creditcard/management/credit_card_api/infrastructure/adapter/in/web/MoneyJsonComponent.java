@@ -0,0 +1,71 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
+
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * JSON serialization of Money amounts as plain decimal numbers with two decimal places, e.g. 1250.50.
+ * Amounts are read from JSON numbers or numeric strings; values with more than two decimal places are rejected.
+ */
+@JsonComponent
+public class MoneyJsonComponent {
+
+    /**
+     * Writes an amount as a JSON number.
+     */
+    public static class Serializer extends JsonSerializer<Money> {
+
+        /**
+         * Writes the amount without going through a floating-point value.
+         *
+         * @param money     The amount.
+         * @param generator The JSON generator.
+         * @param provider  The serializer provider.
+         * @throws IOException If writing fails.
+         */
+        @Override
+        public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(money.toBigDecimal());
+        }
+    }
+
+    /**
+     * Reads an amount from a JSON number or numeric string.
+     */
+    public static class Deserializer extends JsonDeserializer<Money> {
+
+        /**
+         * Reads the amount from its decimal text, without going through a floating-point value.
+         *
+         * @param parser  The JSON parser.
+         * @param context The deserialization context.
+         * @return The Money instance.
+         * @throws IOException If the value is not a number with at most two decimal places.
+         */
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            try {
+                if (token.isNumeric()) {
+                    return Money.of(parser.getDecimalValue());
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return Money.parse(parser.getText());
+                }
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw context.weirdStringException(parser.getText(), Money.class,
+                        "amount must be a number with at most " + Money.SCALE + " decimal places");
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
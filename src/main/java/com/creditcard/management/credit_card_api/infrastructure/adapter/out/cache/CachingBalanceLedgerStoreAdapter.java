@@ -0,0 +1,63 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.cache;
+
+import com.creditcard.management.credit_card_api.application.port.out.BalanceLedgerStorePort;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.BalanceLedgerStoreAdapter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorator of the balance ledger store that evicts the cards whose balances the ledger writes back.
+ * The ledger updates balances with its own statements rather than through the CreditCardRepositoryPort,
+ * so without it cached cards would keep their old balance until they expire.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "creditcard.repository-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingBalanceLedgerStoreAdapter implements BalanceLedgerStorePort {
+
+    private final BalanceLedgerStoreAdapter delegate;
+    private final RepositoryCache repositoryCache;
+
+    /**
+     * Constructor to initialize the decorator.
+     *
+     * @param delegate        The persistence adapter doing the actual work.
+     * @param repositoryCache The caches of cards and customers.
+     */
+    public CachingBalanceLedgerStoreAdapter(BalanceLedgerStoreAdapter delegate, RepositoryCache repositoryCache) {
+        this.delegate = delegate;
+        this.repositoryCache = repositoryCache;
+    }
+
+    /**
+     * Retrieves the checkpoint of a journal from the persistence adapter.
+     *
+     * @param journalId The identifier of the journal.
+     * @return The last journal sequence number absorbed by the database, or 0 if none.
+     */
+    @Override
+    public long findCheckpoint(String journalId) {
+        return delegate.findCheckpoint(journalId);
+    }
+
+    /**
+     * Adds the balance deltas and advances the checkpoint, then evicts every card of the deltas at once.
+     *
+     * @param deltasMinor The signed deltas in minor units, by credit card ID.
+     * @param journalId   The identifier of the journal.
+     * @param checkpoint  The last journal sequence number included in the deltas.
+     * @return The IDs of the cards that no longer exist, whose deltas were dropped.
+     */
+    @Override
+    public Set<Long> applyDeltas(Map<Long, Long> deltasMinor, String journalId, long checkpoint) {
+        try {
+            return delegate.applyDeltas(deltasMinor, journalId, checkpoint);
+        } finally {
+            repositoryCache.evictCards(deltasMinor.keySet());
+        }
+    }
+}
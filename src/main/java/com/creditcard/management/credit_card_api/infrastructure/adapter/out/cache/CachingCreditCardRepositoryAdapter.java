@@ -0,0 +1,218 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.cache;
+
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepositoryAdapter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Caching decorator of the credit card persistence adapter.
+ * Lookups by ID are served from the RepositoryCache; every other read goes to the persistence adapter.
+ * Every write is delegated first, then evicts the written cards and the card lists of their owners,
+ * even if the write failed, so that a retry reads the current state.
+ * Being the primary CreditCardRepositoryPort, it is what the application services receive.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "creditcard.repository-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingCreditCardRepositoryAdapter implements CreditCardRepositoryPort {
+
+    private final CreditCardRepositoryAdapter delegate;
+    private final RepositoryCache repositoryCache;
+
+    /**
+     * Constructor to initialize the decorator.
+     *
+     * @param delegate        The persistence adapter doing the actual work.
+     * @param repositoryCache The caches of cards and customers.
+     */
+    public CachingCreditCardRepositoryAdapter(CreditCardRepositoryAdapter delegate, RepositoryCache repositoryCache) {
+        this.delegate = delegate;
+        this.repositoryCache = repositoryCache;
+    }
+
+    /**
+     * Streams every credit card from the persistence adapter; the cards are not cached.
+     *
+     * @param consumer The consumer receiving each CreditCard.
+     */
+    @Override
+    public void forEachCreditCard(Consumer<CreditCard> consumer) {
+        delegate.forEachCreditCard(consumer);
+    }
+
+    /**
+     * Retrieves a credit card from the cache, loading it on a miss.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return An Optional containing a copy of the CreditCard if found, or empty if not.
+     */
+    @Override
+    public Optional<CreditCard> findById(Long id) {
+        return repositoryCache.findCard(id);
+    }
+
+    /**
+     * Saves a credit card, then evicts it and the card list of its owner.
+     *
+     * @param creditCard The CreditCard object to save.
+     * @return The saved CreditCard object.
+     */
+    @Override
+    public CreditCard save(CreditCard creditCard) {
+        CreditCard saved = delegate.save(creditCard);
+        repositoryCache.evictCard(saved.getId(), saved.getCustomerId());
+        return saved;
+    }
+
+    /**
+     * Overwrites a credit card, then evicts it and the card list of its owner.
+     *
+     * @param id         The unique identifier of the credit card to update.
+     * @param creditCard The CreditCard object holding the new values.
+     * @return An Optional containing the written state if the card exists, or empty if not.
+     */
+    @Override
+    public Optional<CreditCard> update(Long id, CreditCard creditCard) {
+        try {
+            return delegate.update(id, creditCard);
+        } finally {
+            repositoryCache.evictCards(List.of(id)); // The customer ID of the values is not necessarily the owner
+        }
+    }
+
+    /**
+     * Partially updates a credit card, then evicts it and the card list of its owner.
+     *
+     * @param id    The unique identifier of the credit card to update.
+     * @param patch The fields to change.
+     * @return An Optional containing the credit card after the update if it exists, or empty if not.
+     */
+    @Override
+    public Optional<CreditCard> patch(Long id, CreditCardPatch patch) {
+        try {
+            return delegate.patch(id, patch);
+        } finally {
+            repositoryCache.evictCards(List.of(id));
+        }
+    }
+
+    /**
+     * Posts to the balance of a credit card, then evicts it and the card list of its owner if it was applied.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The signed amount to add to the current balance.
+     * @return True if the balance was updated, false if the card does not exist or the charge exceeds the limit.
+     */
+    @Override
+    public boolean addToBalance(Long id, Money amount) {
+        boolean applied = delegate.addToBalance(id, amount);
+        if (applied) {
+            repositoryCache.evictCards(List.of(id));
+        }
+        return applied;
+    }
+
+    /**
+     * Applies many postings, then evicts every card whose balance changed, all at once.
+     * If the postings fail midway, every card of the batch is evicted, since earlier chunks may be committed.
+     *
+     * @param postings The postings to apply.
+     * @return For each posting, in the same order, true if the balance was updated, false otherwise.
+     */
+    @Override
+    public boolean[] addToBalances(List<Posting> postings) {
+        boolean[] applied;
+        try {
+            applied = delegate.addToBalances(postings);
+        } catch (RuntimeException e) {
+            repositoryCache.evictCards(postings.stream().map(Posting::getCardId).collect(Collectors.toSet()));
+            throw e;
+        }
+        Set<Long> changed = new HashSet<>();
+        for (int i = 0; i < applied.length; i++) {
+            if (applied[i]) {
+                changed.add(postings.get(i).getCardId());
+            }
+        }
+        repositoryCache.evictCards(changed);
+        return applied;
+    }
+
+    /**
+     * Saves several new credit cards, then evicts the card lists of their owners.
+     *
+     * @param creditCards The CreditCard objects to create.
+     * @return The saved CreditCard objects, in the same order as the input.
+     */
+    @Override
+    public List<CreditCard> saveAll(List<CreditCard> creditCards) {
+        List<CreditCard> saved = delegate.saveAll(creditCards);
+        repositoryCache.evictOwnedCards(saved.stream()
+                .filter(creditCard -> creditCard.getCustomerId() != null)
+                .collect(Collectors.toMap(CreditCard::getId, CreditCard::getCustomerId, (first, second) -> first)));
+        return saved;
+    }
+
+    /**
+     * Retrieves which of the given card numbers already exist, from the persistence adapter.
+     *
+     * @param cardNumbers The card numbers to check.
+     * @return The subset of card numbers that already exist.
+     */
+    @Override
+    public Set<String> findExistingCardNumbers(Collection<String> cardNumbers) {
+        return delegate.findExistingCardNumbers(cardNumbers);
+    }
+
+    /**
+     * Retrieves which of the given credit card IDs exist, from the persistence adapter.
+     *
+     * @param ids The credit card identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return delegate.findExistingIds(ids);
+    }
+
+    /**
+     * Deletes a credit card, then evicts it and the card list of its owner.
+     *
+     * @param id The unique identifier of the credit card to delete.
+     * @return The number of deleted credit cards.
+     */
+    @Override
+    public int deleteById(Long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            repositoryCache.evictCards(List.of(id));
+        }
+    }
+
+    /**
+     * Checks if a credit card exists, from the persistence adapter.
+     * Existence checks follow failed conditional writes, so they must not be answered from a stale cache.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return True if the credit card exists, false otherwise.
+     */
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+}
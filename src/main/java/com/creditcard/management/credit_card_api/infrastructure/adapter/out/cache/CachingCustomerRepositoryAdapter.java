@@ -0,0 +1,202 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.cache;
+
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerRepositoryAdapter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Caching decorator of the customer persistence adapter.
+ * Lookups by ID, with or without cards, are served from the RepositoryCache; every other read goes to the
+ * persistence adapter. Every write is delegated first, then evicts the written customers and their cards,
+ * even if the write failed, so that a retry after an optimistic locking failure reads the current state.
+ * Being the primary CustomerRepositoryPort, it is what the application services receive.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "creditcard.repository-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingCustomerRepositoryAdapter implements CustomerRepositoryPort {
+
+    private final CustomerRepositoryAdapter delegate;
+    private final RepositoryCache repositoryCache;
+
+    /**
+     * Constructor to initialize the decorator.
+     *
+     * @param delegate        The persistence adapter doing the actual work.
+     * @param repositoryCache The caches of cards and customers.
+     */
+    public CachingCustomerRepositoryAdapter(CustomerRepositoryAdapter delegate, RepositoryCache repositoryCache) {
+        this.delegate = delegate;
+        this.repositoryCache = repositoryCache;
+    }
+
+    /**
+     * Retrieves one page of customers from the persistence adapter; the result is not cached.
+     *
+     * @param afterId   The identifier of the last customer of the previous page, or null to start from the beginning.
+     * @param limit     The maximum number of customers to return.
+     * @param withCards True to load the credit cards of the customers, false to leave them unset.
+     * @return A CursorPage containing the customers and the cursor of the next page.
+     */
+    @Override
+    public CursorPage<Customer> findPage(Long afterId, int limit, boolean withCards) {
+        return delegate.findPage(afterId, limit, withCards);
+    }
+
+    /**
+     * Retrieves a customer with their credit cards from the cache, loading them on a miss.
+     *
+     * @param id The unique identifier of the customer.
+     * @return An Optional containing a copy of the Customer with their credit cards if found, or empty if not.
+     */
+    @Override
+    public Optional<Customer> findByIdWithCards(Long id) {
+        return repositoryCache.findCustomer(id, true);
+    }
+
+    /**
+     * Retrieves a customer without their credit cards from the cache, loading them on a miss.
+     *
+     * @param id The unique identifier of the customer.
+     * @return An Optional containing a copy of the Customer with no credit cards set if found, or empty if not.
+     */
+    @Override
+    public Optional<Customer> findByIdWithoutCards(Long id) {
+        return repositoryCache.findCustomer(id, false);
+    }
+
+    /**
+     * Retrieves a customer by their email address from the persistence adapter.
+     *
+     * @param email The email address.
+     * @return An Optional containing the Customer if found, or empty if not.
+     */
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    /**
+     * Partially updates a customer, then evicts them.
+     *
+     * @param id    The unique identifier of the customer to update.
+     * @param patch The fields to change.
+     * @return An Optional containing the customer after the update, without credit cards, if it exists, or empty if not.
+     */
+    @Override
+    public Optional<Customer> patch(Long id, CustomerPatch patch) {
+        try {
+            return delegate.patch(id, patch);
+        } finally {
+            repositoryCache.evictCustomer(id);
+        }
+    }
+
+    /**
+     * Saves a customer, then evicts them and the credit cards saved with them.
+     *
+     * @param customer The Customer object to save.
+     * @return The saved Customer object.
+     */
+    @Override
+    public Customer save(Customer customer) {
+        Customer saved = null;
+        try {
+            saved = delegate.save(customer);
+            return saved;
+        } finally {
+            evictCustomerAndCards(customer);
+            if (saved != null) {
+                evictCustomerAndCards(saved);
+            }
+        }
+    }
+
+    /**
+     * Deletes a customer with their credit cards, then evicts them and every cached card they owned.
+     *
+     * @param id The unique identifier of the customer to delete.
+     * @return The number of deleted customers: 1 if they existed, 0 otherwise.
+     */
+    @Override
+    public int deleteById(Long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            repositoryCache.evictCustomerAndCards(id);
+        }
+    }
+
+    /**
+     * Checks if a customer exists, from the persistence adapter.
+     *
+     * @param id The unique identifier of the customer.
+     * @return True if the customer exists, false otherwise.
+     */
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    /**
+     * Saves several new customers with their credit cards. New customers cannot be cached yet, so nothing is evicted.
+     *
+     * @param customers The Customer objects to create, with their credit cards.
+     * @return The saved Customer objects, with their identifiers, in the same order as the input.
+     */
+    @Override
+    public List<Customer> saveAll(List<Customer> customers) {
+        return delegate.saveAll(customers);
+    }
+
+    /**
+     * Retrieves which of the given email addresses are already used, from the persistence adapter.
+     *
+     * @param emails The email addresses to check.
+     * @return The subset of email addresses that already exist.
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+
+    /**
+     * Retrieves which of the given customer identifiers exist, from the persistence adapter.
+     *
+     * @param ids The customer identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return delegate.findExistingIds(ids);
+    }
+
+    /**
+     * Evicts a customer and the credit cards they hold.
+     *
+     * @param customer The customer, possibly not saved yet.
+     */
+    private void evictCustomerAndCards(Customer customer) {
+        if (customer.getId() == null) {
+            return;
+        }
+        repositoryCache.evictCustomer(customer.getId());
+        if (customer.getCreditCards() != null) {
+            repositoryCache.evictOwnedCards(customer.getCreditCards().stream()
+                    .filter(card -> card.getId() != null)
+                    .collect(Collectors.toMap(CreditCard::getId, card -> customer.getId(), (first, second) -> first)));
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.cache;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheEvictionPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepositoryAdapter;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerRepositoryAdapter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process caches of credit cards and customers by ID, shared by the caching repository adapters.
+ * Entries are loaded from the persistence adapters on a miss, refreshed in the background once they are older
+ * than the refresh delay (the stale value is served meanwhile), and expire after the expiry delay in any case.
+ * Missing rows are not cached. Entries are loaded in their own read-write transaction, so that they are read from
+ * the primary even when the caller is in a read-only transaction routed to a replica: an entry loaded from a lagging
+ * replica would be served to every caller, including those that must read their own writes, until it expires.
+ * A load therefore takes a second connection while the caller holds one; size the primary pool accordingly.
+ *
+ * The domain objects are mutable, so the caches keep private copies: every read returns a new copy,
+ * and nothing a caller does to it reaches the cache.
+ *
+ * Writes evict the affected entries immediately and again once the surrounding transaction completes,
+ * so that a concurrent read that loaded the row before the commit cannot keep the old state.
+ * A card write also evicts the customer-with-cards entry of its owner. Owners never change, so they are
+ * remembered per card, for every card of a cached customer: when an owner is forgotten to make room, the customer
+ * is evicted too. A card whose owner is unknown is thus in no cached customer, and no customer has to be scanned.
+ * The writes of other instances evict the same entries through the CacheEvictionPort.
+ */
+@Component
+@ConditionalOnProperty(name = "creditcard.repository-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryCache implements CacheEvictionPort {
+
+    // Number of card owners remembered per cached entry
+    private static final int OWNERS_PER_ENTRY = 4;
+
+    // Credit cards by card ID
+    private final LoadingCache<Long, CreditCard> cards;
+
+    // Customers with their credit cards, by customer ID
+    private final LoadingCache<Long, Customer> customersWithCards;
+
+    // Customers without their credit cards, by customer ID
+    private final LoadingCache<Long, Customer> customersWithoutCards;
+
+    // Customer ID owning each recently seen card, by card ID
+    private final Cache<Long, Long> cardOwners;
+
+    /**
+     * Constructor to initialize the caches and register their statistics as metrics.
+     *
+     * @param creditCardRepositoryAdapter The persistence adapter loading credit cards.
+     * @param customerRepositoryAdapter   The persistence adapter loading customers.
+     * @param transactionManager          The transaction manager of the transactions the entries are loaded in.
+     * @param meterRegistry               The registry of the hit, miss and eviction metrics, tagged by cache name.
+     * @param maxSize                     The maximum number of entries of each cache.
+     * @param expireAfterWrite            How long an entry is served at most after it was loaded.
+     * @param refreshAfterWrite           How long after it was loaded an entry is reloaded in the background on access.
+     */
+    public RepositoryCache(CreditCardRepositoryAdapter creditCardRepositoryAdapter,
+                           CustomerRepositoryAdapter customerRepositoryAdapter,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${creditcard.repository-cache.max-size:10000}") long maxSize,
+                           @Value("${creditcard.repository-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                           @Value("${creditcard.repository-cache.refresh-after-write:1m}") Duration refreshAfterWrite) {
+        TransactionTemplate primaryTransaction = new TransactionTemplate(transactionManager);
+        primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        primaryTransaction.setReadOnly(false);
+        this.cardOwners = Caffeine.newBuilder()
+                .maximumSize(maxSize * OWNERS_PER_ENTRY)
+                .<Long, Long>removalListener((cardId, customerId, cause) -> {
+                    if (cause.wasEvicted()) {
+                        forgetOwner(customerId);
+                    }
+                })
+                .build();
+        this.cards = builder(maxSize, expireAfterWrite, refreshAfterWrite)
+                .build(id -> primaryTransaction.execute(status -> creditCardRepositoryAdapter.findById(id)
+                        .map(this::rememberOwner)
+                        .orElse(null)));
+        this.customersWithCards = builder(maxSize, expireAfterWrite, refreshAfterWrite)
+                .build(id -> primaryTransaction.execute(status -> customerRepositoryAdapter.findByIdWithCards(id)
+                        .map(this::rememberOwners)
+                        .orElse(null)));
+        this.customersWithoutCards = builder(maxSize, expireAfterWrite, refreshAfterWrite)
+                .build(id -> primaryTransaction.execute(status ->
+                        customerRepositoryAdapter.findByIdWithoutCards(id).orElse(null)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "credit-cards");
+        CaffeineCacheMetrics.monitor(meterRegistry, customersWithCards, "customers-with-cards");
+        CaffeineCacheMetrics.monitor(meterRegistry, customersWithoutCards, "customers-without-cards");
+    }
+
+    /**
+     * Gets a credit card, loading it on a miss.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return An Optional containing a copy of the credit card, or empty if it does not exist.
+     */
+    public Optional<CreditCard> findCard(Long id) {
+        return Optional.ofNullable(cards.get(id)).map(RepositoryCache::copy);
+    }
+
+    /**
+     * Gets a customer, loading them on a miss.
+     *
+     * @param id        The unique identifier of the customer.
+     * @param withCards True to get the customer with their credit cards.
+     * @return An Optional containing a copy of the customer, or empty if they do not exist.
+     */
+    public Optional<Customer> findCustomer(Long id, boolean withCards) {
+        Customer customer = withCards ? customersWithCards.get(id) : customersWithoutCards.get(id);
+        return Optional.ofNullable(customer).map(RepositoryCache::copy);
+    }
+
+    /**
+     * Evicts a credit card and the cached card list of its owner.
+     *
+     * @param cardId     The unique identifier of the credit card.
+     * @param customerId The owner of the card, or null if the caller does not know it.
+     */
+    public void evictCard(Long cardId, Long customerId) {
+        if (customerId != null) {
+            cardOwners.put(cardId, customerId);
+        }
+        evictCards(List.of(cardId));
+    }
+
+    /**
+     * Evicts credit cards whose owners are known, e.g. new ones, and the cached card lists of their owners.
+     *
+     * @param ownersByCardId The owner of each credit card, by card ID.
+     */
+    public void evictOwnedCards(Map<Long, Long> ownersByCardId) {
+        cardOwners.putAll(ownersByCardId);
+        evictCards(ownersByCardId.keySet());
+    }
+
+    /**
+     * Evicts credit cards and the cached card lists of their owners, with one synchronization for all of them.
+     * A card whose owner is not remembered is in no cached customer, so only remembered owners are evicted.
+     *
+     * @param cardIds The unique identifiers of the credit cards.
+     */
+    @Override
+    public void evictCards(Collection<Long> cardIds) {
+        evictNowAndAfterCompletion(() -> {
+            cards.invalidateAll(cardIds);
+            customersWithCards.invalidateAll(cardOwners.getAllPresent(cardIds).values());
+        });
+    }
+
+    /**
+     * Evicts a customer, with and without their credit cards.
+     *
+     * @param customerId The unique identifier of the customer.
+     */
+    public void evictCustomer(Long customerId) {
+        evictNowAndAfterCompletion(() -> {
+            customersWithCards.invalidate(customerId);
+            customersWithoutCards.invalidate(customerId);
+        });
+    }
+
+    /**
+     * Evicts customers, with and without their credit cards.
+     *
+     * @param customerIds The unique identifiers of the customers.
+     */
+    @Override
+    public void evictCustomers(Collection<Long> customerIds) {
+        evictNowAndAfterCompletion(() -> {
+            customersWithCards.invalidateAll(customerIds);
+            customersWithoutCards.invalidateAll(customerIds);
+        });
+    }
+
+    /**
+     * Evicts a customer and every cached credit card they own, e.g. when they are deleted with their cards.
+     *
+     * @param customerId The unique identifier of the customer.
+     */
+    public void evictCustomerAndCards(Long customerId) {
+        evictNowAndAfterCompletion(() -> {
+            customersWithCards.invalidate(customerId);
+            customersWithoutCards.invalidate(customerId);
+            cards.asMap().values().removeIf(card -> customerId.equals(card.getCustomerId()));
+        });
+    }
+
+    /**
+     * Evicts every entry.
+     */
+    @Override
+    public void evictAll() {
+        cards.invalidateAll();
+        customersWithCards.invalidateAll();
+        customersWithoutCards.invalidateAll();
+    }
+
+    /**
+     * Runs an eviction now and, if a transaction is active, again after it completes.
+     *
+     * @param eviction The eviction to run.
+     */
+    private static void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates a cache builder with the common size, expiry and refresh settings and statistics enabled.
+     *
+     * @param maxSize           The maximum number of entries.
+     * @param expireAfterWrite  The expiry delay.
+     * @param refreshAfterWrite The refresh delay.
+     * @return The builder.
+     */
+    private static Caffeine<Object, Object> builder(long maxSize, Duration expireAfterWrite,
+                                                    Duration refreshAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats();
+    }
+
+    /**
+     * Evicts a customer with their credit cards once the owner of one of their cards is forgotten,
+     * so that every card of a cached customer keeps a remembered owner.
+     *
+     * @param customerId The unique identifier of the customer.
+     */
+    private void forgetOwner(Long customerId) {
+        customersWithCards.invalidate(customerId);
+    }
+
+    /**
+     * Remembers the owner of a loaded credit card.
+     *
+     * @param creditCard The credit card.
+     * @return The same credit card.
+     */
+    private CreditCard rememberOwner(CreditCard creditCard) {
+        if (creditCard.getCustomerId() != null) {
+            cardOwners.put(creditCard.getId(), creditCard.getCustomerId());
+        }
+        return creditCard;
+    }
+
+    /**
+     * Remembers the customer as the owner of each of their loaded credit cards.
+     *
+     * @param customer The customer with their credit cards.
+     * @return The same customer.
+     */
+    private Customer rememberOwners(Customer customer) {
+        if (customer.getCreditCards() != null) {
+            customer.getCreditCards().forEach(card -> cardOwners.put(card.getId(), customer.getId()));
+        }
+        return customer;
+    }
+
+    /**
+     * Copies a credit card.
+     *
+     * @param creditCard The credit card.
+     * @return A new CreditCard with the same fields.
+     */
+    static CreditCard copy(CreditCard creditCard) {
+        CreditCard copy = new CreditCard();
+        copy.setId(creditCard.getId());
+        copy.setCardNumber(creditCard.getCardNumber());
+        copy.setExpirationDate(creditCard.getExpirationDate());
+        copy.setCvv(creditCard.getCvv());
+        copy.setCardType(creditCard.getCardType());
+        copy.setCreditLimit(creditCard.getCreditLimit());
+        copy.setCurrentBalance(creditCard.getCurrentBalance());
+        copy.setCustomerId(creditCard.getCustomerId());
+        copy.setVersion(creditCard.getVersion());
+        return copy;
+    }
+
+    /**
+     * Copies a customer and their loaded credit cards.
+     *
+     * @param customer The customer.
+     * @return A new Customer with the same fields and copies of the cards, or no cards if they were not loaded.
+     */
+    static Customer copy(Customer customer) {
+        Customer copy = new Customer();
+        copy.setId(customer.getId());
+        copy.setFirstName(customer.getFirstName());
+        copy.setLastName(customer.getLastName());
+        copy.setEmail(customer.getEmail());
+        copy.setVersion(customer.getVersion());
+        if (customer.getCreditCards() != null) {
+            List<CreditCard> cards = new ArrayList<>(customer.getCreditCards().size());
+            customer.getCreditCards().forEach(card -> cards.add(copy(card)));
+            copy.setCreditCards(cards);
+        }
+        return copy;
+    }
+}
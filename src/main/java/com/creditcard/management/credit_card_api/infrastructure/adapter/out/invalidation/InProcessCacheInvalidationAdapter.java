@@ -0,0 +1,77 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.invalidation;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheInvalidationPort;
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process implementation of the cache invalidation bus, the default for a single instance.
+ * Each adapter is one node of a group held in memory; a batch is delivered synchronously to the listeners
+ * of the other nodes of the group. The adapter created by Spring is alone in its group, so nothing is delivered;
+ * tests add nodes with join to run several instances in one JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "creditcard.cache-invalidation.bus", havingValue = "in-process", matchIfMissing = true)
+public class InProcessCacheInvalidationAdapter implements CacheInvalidationPort {
+
+    // Nodes of the group, this one included
+    private final List<InProcessCacheInvalidationAdapter> group;
+
+    // Listeners of this node
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor to initialize the adapter as the only node of a new group.
+     */
+    public InProcessCacheInvalidationAdapter() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Constructor to initialize the adapter as a new node of a group.
+     *
+     * @param group The nodes of the group, to which the adapter adds itself.
+     */
+    private InProcessCacheInvalidationAdapter(List<InProcessCacheInvalidationAdapter> group) {
+        this.group = group;
+        group.add(this);
+    }
+
+    /**
+     * Creates another node in the group of this adapter, standing for another instance of the application.
+     *
+     * @return The new node.
+     */
+    public InProcessCacheInvalidationAdapter join() {
+        return new InProcessCacheInvalidationAdapter(group);
+    }
+
+    /**
+     * Delivers a batch to the listeners of every other node of the group, on the calling thread.
+     *
+     * @param invalidation The batch to publish.
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (InProcessCacheInvalidationAdapter node : group) {
+            if (node != this) {
+                node.listeners.forEach(listener -> listener.accept(invalidation));
+            }
+        }
+    }
+
+    /**
+     * Registers a listener receiving the batches published by the other nodes of the group.
+     *
+     * @param listener The listener.
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,311 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.invalidation;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheInvalidationPort;
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Database implementation of the cache invalidation bus, for several instances sharing one database.
+ * Each published batch is one row of the cache_invalidation table, with its IDs and card numbers as
+ * comma-separated lists; every instance polls the rows inserted
+ * since its last poll and delivers those of the other instances to its listeners. Only plain SQL is used,
+ * so any database of the application works, without a broker.
+ *
+ * Row IDs are allocated when a row is inserted but become visible when it commits, so a poll can see a row
+ * while an older one is still being committed. The cursor therefore stops before a missing ID and waits
+ * for it for MAX_GAP_POLLS polls, after which it is taken as a failed insert; rows after the gap are
+ * delivered as soon as they are seen, and only once. Rows older than the retention are deleted;
+ * keep it well above the poll interval and the expiry of the caches.
+ */
+@Component
+@ConditionalOnProperty(name = "creditcard.cache-invalidation.bus", havingValue = "jdbc")
+public class JdbcCacheInvalidationAdapter implements CacheInvalidationPort {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcCacheInvalidationAdapter.class);
+
+    // Number of rows read by a poll
+    static final int POLL_ROWS = 500;
+
+    // Number of polls a missing row ID is waited for before the cursor moves past it
+    static final int MAX_GAP_POLLS = 20;
+
+    // Delay between two deletions of old rows
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private static final String INSERT_SQL = "INSERT INTO cache_invalidation "
+            + "(origin, evict_all, card_ids, customer_ids, card_numbers, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String POLL_SQL = "SELECT invalidation_id, origin, evict_all, card_ids, customer_ids, "
+            + "card_numbers "
+            + "FROM cache_invalidation WHERE invalidation_id > ? ORDER BY invalidation_id "
+            + "FETCH FIRST " + POLL_ROWS + " ROWS ONLY";
+
+    private static final String LAST_ID_SQL = "SELECT COALESCE(MAX(invalidation_id), 0) FROM cache_invalidation";
+
+    private static final String PURGE_SQL = "DELETE FROM cache_invalidation WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pollInterval;
+    private final Duration retention;
+
+    // Identifier of this instance, written with its batches so that it skips them
+    private final String origin = UUID.randomUUID().toString();
+
+    // Listeners of this instance
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    // ID of the last row before which no row is missing, guarded by this
+    private long cursor;
+
+    // IDs of the rows after the cursor that were already delivered, guarded by this
+    private final Set<Long> deliveredAfterCursor = new HashSet<>();
+
+    // Number of polls the cursor has waited for a missing row, guarded by this
+    private int gapPolls;
+
+    // Time of the last deletion of old rows, from System.nanoTime, guarded by this
+    private long lastPurge;
+
+    // Polls the table periodically, or null before the application is ready
+    private volatile ScheduledExecutorService poller;
+
+    /**
+     * Constructor to initialize the adapter.
+     *
+     * @param jdbcTemplate The JdbcTemplate used to insert and poll the batches.
+     * @param pollInterval The delay between two polls of the table.
+     * @param retention    How long a batch is kept in the table.
+     */
+    public JdbcCacheInvalidationAdapter(JdbcTemplate jdbcTemplate,
+                                        @Value("${creditcard.cache-invalidation.poll-interval:500ms}") Duration pollInterval,
+                                        @Value("${creditcard.cache-invalidation.retention:1h}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+    /**
+     * Starts polling once the application is ready, from the last row of the table: the caches of this
+     * instance are empty, so older batches do not concern it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        Long last = jdbcTemplate.queryForObject(LAST_ID_SQL, Long.class);
+        cursor = last != null ? last : 0;
+        lastPurge = System.nanoTime();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = pollInterval.toNanos();
+        executor.scheduleWithFixedDelay(this::pollQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        poller = executor;
+    }
+
+    /**
+     * Inserts a batch as one row, committed on its own.
+     *
+     * @param invalidation The batch to publish.
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        jdbcTemplate.update(INSERT_SQL, origin, invalidation.isEverything(), join(invalidation.getCardIds()),
+                join(invalidation.getCustomerIds()), join(invalidation.getCardNumbers()), Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Registers a listener receiving the batches published by the other instances.
+     *
+     * @param listener The listener, called from the polling thread.
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reads the rows inserted after the cursor and delivers those of the other instances, in ID order.
+     * A listener that fails is logged and does not stop the delivery to the others.
+     */
+    public synchronized void poll() {
+        List<Row> rows = jdbcTemplate.query(POLL_SQL, (resultSet, rowNum) -> new Row(
+                resultSet.getLong("invalidation_id"),
+                resultSet.getString("origin"),
+                resultSet.getBoolean("evict_all"),
+                resultSet.getString("card_ids"),
+                resultSet.getString("customer_ids"),
+                resultSet.getString("card_numbers")), cursor);
+        boolean waiting = false;
+        for (Row row : rows) {
+            if (!waiting) {
+                if (row.id == cursor + 1 || gapPolls >= MAX_GAP_POLLS) {
+                    cursor = row.id;
+                    gapPolls = 0;
+                } else {
+                    waiting = true;
+                }
+            }
+            if (!deliveredAfterCursor.contains(row.id) && !origin.equals(row.origin)) {
+                deliver(row.toInvalidation());
+            }
+            if (waiting) {
+                deliveredAfterCursor.add(row.id);
+            }
+        }
+        if (waiting) {
+            gapPolls++;
+        }
+        deliveredAfterCursor.removeIf(id -> id <= cursor);
+        purgeIfDue();
+    }
+
+    /**
+     * Stops polling when the application stops.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        ScheduledExecutorService executor = poller;
+        if (executor != null) {
+            executor.shutdown();
+            poller = null;
+        }
+    }
+
+    /**
+     * Polls the table, logging a failure instead of throwing it; the rows are read again by the next poll.
+     */
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidations could not be polled; they will be read again", e);
+        }
+    }
+
+    /**
+     * Delivers a batch to every listener.
+     *
+     * @param invalidation The batch.
+     */
+    private void deliver(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("A cache invalidation listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the rows older than the retention, at most once per purge interval.
+     */
+    private void purgeIfDue() {
+        long now = System.nanoTime();
+        if (now - lastPurge < PURGE_INTERVAL.toNanos()) {
+            return;
+        }
+        lastPurge = now;
+        jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now().minus(retention)));
+    }
+
+    /**
+     * Formats IDs or card numbers as a comma-separated list.
+     *
+     * @param ids The IDs or card numbers.
+     * @return The list, empty if there are none.
+     */
+    private static String join(Set<?> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Parses a comma-separated list of IDs.
+     *
+     * @param ids The list, possibly empty.
+     * @return The IDs.
+     */
+    private static Set<Long> split(String ids) {
+        return splitNumbers(ids).stream().map(Long::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Parses a comma-separated list of card numbers.
+     *
+     * @param cardNumbers The list, possibly empty or null for a row written before the column existed.
+     * @return The card numbers.
+     */
+    private static Set<String> splitNumbers(String cardNumbers) {
+        return cardNumbers == null || cardNumbers.isEmpty()
+                ? Set.of()
+                : Arrays.stream(cardNumbers.split(",")).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * One row of the cache_invalidation table.
+     */
+    private static class Row {
+
+        private final long id;
+        private final String origin;
+        private final boolean evictAll;
+        private final String cardIds;
+        private final String customerIds;
+        private final String cardNumbers;
+
+        /**
+         * Constructor to initialize a row.
+         *
+         * @param id          The ID of the row.
+         * @param origin      The identifier of the publishing instance.
+         * @param evictAll    True if every cached card and customer must be dropped.
+         * @param cardIds     The comma-separated card IDs.
+         * @param customerIds The comma-separated customer IDs.
+         * @param cardNumbers The comma-separated card numbers.
+         */
+        Row(long id, String origin, boolean evictAll, String cardIds, String customerIds, String cardNumbers) {
+            this.id = id;
+            this.origin = origin;
+            this.evictAll = evictAll;
+            this.cardIds = cardIds;
+            this.customerIds = customerIds;
+            this.cardNumbers = cardNumbers;
+        }
+
+        /**
+         * Converts the row to the batch it holds.
+         *
+         * @return The batch.
+         */
+        CacheInvalidation toInvalidation() {
+            return evictAll ? CacheInvalidation.everything() : new CacheInvalidation(split(cardIds), split(customerIds), splitNumbers(cardNumbers));
+        }
+    }
+}
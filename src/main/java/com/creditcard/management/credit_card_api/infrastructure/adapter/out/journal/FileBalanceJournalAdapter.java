@@ -0,0 +1,456 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.journal;
+
+import com.creditcard.management.credit_card_api.application.port.out.BalanceJournalPort;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file implementation of the balance ledger journal.
+ * Each entry is a fixed-size binary record: sequence number, card ID and amount in minor units (three longs),
+ * followed by a CRC-32 of those 24 bytes, so that a record torn by a crash is detected and dropped on recovery.
+ *
+ * Appends are group-committed: each caller queues its record in memory and waits. The first waiter finding
+ * no write in progress writes every queued record with one write and forces them to the device with one force,
+ * then releases all the callers of the batch together; the callers that queued meanwhile form the next batch.
+ * A force therefore serves every posting that arrived while the previous one ran, instead of one posting each.
+ * Records are only forced if creditcard.ledger.journal-sync is true. After a failed write or force the journal
+ * refuses further appends, since the file may no longer hold what was acknowledged; a restart recovers it.
+ *
+ * The journal is a sequence of segment files next to the configured path, named after it with the sequence
+ * number of their first entry (e.g. balance-ledger.journal.00000000000000000001). Appends go to the last segment.
+ * The ledger rotates to a new segment each time it snapshots the postings for a flush, and the closed segments
+ * at or below the checkpoint are deleted once the database has absorbed them, however busy the journal is.
+ * The files are only opened by recover, so nothing touches the disk while the ledger is disabled.
+ */
+@Component
+public class FileBalanceJournalAdapter implements BalanceJournalPort {
+
+    private static final Logger log = LoggerFactory.getLogger(FileBalanceJournalAdapter.class);
+
+    // Size of a record: three longs and a CRC-32
+    static final int RECORD_SIZE = 3 * Long.BYTES + Integer.BYTES;
+
+    // Number of records read per call while recovering, and initial capacity of the queue of records
+    private static final int RECORD_BATCH = 4096;
+
+    // Format of the suffix of a segment file: the sequence number of its first entry, padded to sort by name
+    private static final String SEGMENT_SUFFIX_FORMAT = ".%020d";
+
+    private final Path path;
+    private final boolean sync;
+
+    // Reused checksum of the records being queued, guarded by this
+    private final CRC32 crc = new CRC32();
+
+    // Records queued for the next write, guarded by this
+    private ByteBuffer queued = ByteBuffer.allocate(RECORD_SIZE * RECORD_BATCH);
+
+    // Buffer handed to the next writer, or null while a write is in progress, guarded by this
+    private ByteBuffer spare = ByteBuffer.allocate(RECORD_SIZE * RECORD_BATCH);
+
+    // Closed segments, oldest first, guarded by this
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+
+    // Open last segment, or null before recovery, guarded by this
+    private FileChannel channel;
+
+    // Sequence number of the first entry of the open segment, guarded by this
+    private long segmentFirstSequence;
+
+    // Sequence number of the last entry written to the open segment, guarded by this
+    private long writtenSequence;
+
+    // Failure of a write or force, after which appends are refused, guarded by this
+    private IOException failure;
+
+    // Sequence number of the last appended entry
+    private volatile long lastSequence;
+
+    /**
+     * Constructor to initialize the journal with its files.
+     *
+     * @param path The base path of the segment files; missing parent directories are created on recovery.
+     * @param sync False to skip forcing the appends to the device, trading crash safety for throughput.
+     */
+    public FileBalanceJournalAdapter(@Value("${creditcard.ledger.journal-path:balance-ledger.journal}") Path path,
+                                     @Value("${creditcard.ledger.journal-sync:true}") boolean sync) {
+        this.path = path.toAbsolutePath();
+        this.sync = sync;
+    }
+
+    /**
+     * Opens the journal and replays the complete records of every segment after the checkpoint.
+     * Each segment is truncated after its last complete record, dropping a record torn by a crash; segments
+     * left empty are deleted. The existing segments are closed and appends go to a new one.
+     *
+     * @param checkpoint The last sequence number already absorbed by the database.
+     * @param consumer   Receives every entry with a greater sequence number, in order.
+     * @return The last sequence number of the journal, or the checkpoint if it is greater.
+     * @throws IOException If the journal cannot be opened or read.
+     */
+    @Override
+    public synchronized long recover(long checkpoint, EntryConsumer consumer) throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("The journal " + path + " is already open");
+        }
+        Files.createDirectories(path.getParent());
+        long last = checkpoint;
+        for (Path segment : listSegments()) {
+            long segmentLast = recoverSegment(segment, checkpoint, consumer);
+            if (segmentLast == 0) {
+                Files.delete(segment);
+            } else {
+                closedSegments.addLast(new Segment(segment, segmentLast));
+                last = Math.max(last, segmentLast);
+            }
+        }
+        lastSequence = last;
+        writtenSequence = last;
+        channel = openSegment(last + 1);
+        return last;
+    }
+
+    /**
+     * Appends an entry at the end of the journal and waits until it is written, and forced to the device
+     * if sync is enabled, together with the entries appended meanwhile by other callers.
+     *
+     * @param cardId      The identifier of the credit card.
+     * @param amountMinor The signed amount added to the balance, in minor units.
+     * @return The sequence number of the entry.
+     * @throws IOException If the entry cannot be written, or an earlier write failed.
+     */
+    @Override
+    public long append(long cardId, long amountMinor) throws IOException {
+        long sequence;
+        synchronized (this) {
+            if (channel == null) {
+                throw new IllegalStateException("The journal " + path + " must be recovered before it is appended to");
+            }
+            checkNotFailed();
+            sequence = lastSequence + 1;
+            queue(sequence, cardId, amountMinor);
+            lastSequence = sequence;
+        }
+        awaitWritten(sequence);
+        return sequence;
+    }
+
+    /**
+     * Gets the sequence number of the last appended entry.
+     *
+     * @return The last sequence number.
+     */
+    @Override
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Closes the open segment and starts a new one, once the queued entries are written.
+     * Nothing is done if the open segment holds no entry.
+     *
+     * @return The sequence number of the last entry of the closed segment, which is the last appended entry.
+     * @throws IOException If the new segment cannot be created; the open segment is then kept.
+     */
+    @Override
+    public synchronized long rotate() throws IOException {
+        if (channel == null) {
+            return lastSequence;
+        }
+        while (spare == null || (queued.position() > 0 && failure == null)) {
+            awaitUninterruptibly();
+        }
+        checkNotFailed();
+        if (writtenSequence >= segmentFirstSequence) {
+            long first = segmentFirstSequence;
+            FileChannel next = openSegment(writtenSequence + 1);
+            FileChannel previous = channel;
+            channel = next;
+            closedSegments.addLast(new Segment(segmentPath(first), writtenSequence));
+            previous.close();
+        }
+        return writtenSequence;
+    }
+
+    /**
+     * Deletes the closed segments whose entries have all been absorbed by the database.
+     * The open segment is kept; its entries are discarded once a rotation has closed it.
+     *
+     * @param sequence The new checkpoint.
+     * @throws IOException If a segment cannot be deleted; it is then deleted by the next call.
+     */
+    @Override
+    public synchronized void discardThrough(long sequence) throws IOException {
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence <= sequence) {
+            Files.deleteIfExists(closedSegments.peekFirst().path);
+            closedSegments.removeFirst();
+        }
+    }
+
+    /**
+     * Closes the journal when the application stops, once the queued entries are written.
+     *
+     * @throws IOException If the open segment cannot be closed.
+     */
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            while (spare == null || (queued.position() > 0 && failure == null)) {
+                awaitUninterruptibly();
+            }
+            channel.close();
+            channel = null;
+            closedSegments.clear();
+        }
+    }
+
+    /**
+     * Queues a record for the next write, growing the queue if needed. Must be called with this locked.
+     *
+     * @param sequence    The sequence number of the entry.
+     * @param cardId      The identifier of the credit card.
+     * @param amountMinor The signed amount added to the balance, in minor units.
+     */
+    private void queue(long sequence, long cardId, long amountMinor) {
+        if (queued.remaining() < RECORD_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(queued.capacity() * 2);
+            queued.flip();
+            larger.put(queued);
+            queued = larger;
+        }
+        int start = queued.position();
+        queued.putLong(sequence).putLong(cardId).putLong(amountMinor);
+        crc.reset();
+        crc.update(queued.array(), start, RECORD_SIZE - Integer.BYTES);
+        queued.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Waits until an entry is written. If no write is in progress, the caller writes the queued records itself,
+     * without holding the lock, so that the entries of the next batch keep queueing meanwhile.
+     *
+     * @param sequence The sequence number of the entry.
+     * @throws IOException If the write of the entry, or an earlier one, failed.
+     */
+    private void awaitWritten(long sequence) throws IOException {
+        ByteBuffer batch;
+        long batchLast;
+        FileChannel target;
+        synchronized (this) {
+            while (writtenSequence < sequence && spare == null && failure == null) {
+                awaitUninterruptibly();
+            }
+            checkNotFailed();
+            if (writtenSequence >= sequence) {
+                return;
+            }
+            batch = queued;
+            queued = spare;
+            spare = null;
+            batchLast = lastSequence;
+            target = channel;
+        }
+
+        IOException batchFailure = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                target.write(batch);
+            }
+            if (sync) {
+                target.force(false);
+            }
+        } catch (IOException e) {
+            batchFailure = e;
+        }
+
+        synchronized (this) {
+            batch.clear();
+            spare = batch;
+            if (batchFailure == null) {
+                writtenSequence = batchLast;
+            } else {
+                failure = batchFailure;
+            }
+            notifyAll();
+        }
+        if (batchFailure != null) {
+            throw batchFailure;
+        }
+    }
+
+    /**
+     * Throws the failure of an earlier write, if any. Must be called with this locked.
+     *
+     * @throws IOException If an earlier write or force failed.
+     */
+    private void checkNotFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("The journal " + path + " failed and must be recovered", failure);
+        }
+    }
+
+    /**
+     * Waits to be notified of the end of a write, ignoring interrupts, which are restored afterwards:
+     * a caller whose entry is queued must learn whether it was written. Must be called with this locked.
+     */
+    private void awaitUninterruptibly() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                wait();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replays the complete records of a segment and truncates it after the last one.
+     *
+     * @param segment    The segment file.
+     * @param checkpoint The last sequence number already absorbed by the database.
+     * @param consumer   Receives every entry with a greater sequence number, in order.
+     * @return The sequence number of the last complete record, or 0 if there is none.
+     * @throws IOException If the segment cannot be read or truncated.
+     */
+    private long recoverSegment(Path segment, long checkpoint, EntryConsumer consumer) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * RECORD_BATCH);
+            CRC32 check = new CRC32();
+            long last = 0;
+            long validBytes = 0;
+            boolean torn = false;
+            while (!torn && file.read(buffer, validBytes + buffer.position()) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    long sequence = buffer.getLong();
+                    long cardId = buffer.getLong();
+                    long amountMinor = buffer.getLong();
+                    int storedCrc = buffer.getInt();
+                    check.reset();
+                    check.update(buffer.array(), buffer.position() - RECORD_SIZE, RECORD_SIZE - Integer.BYTES);
+                    if ((int) check.getValue() != storedCrc || sequence <= last) {
+                        torn = true;
+                        break;
+                    }
+                    if (sequence > checkpoint) {
+                        consumer.accept(sequence, cardId, amountMinor);
+                    }
+                    last = sequence;
+                    validBytes += RECORD_SIZE;
+                }
+                buffer.compact();
+            }
+            if (file.size() > validBytes) {
+                log.warn("Dropping {} bytes of incomplete records at the end of the journal segment {}",
+                        file.size() - validBytes, segment);
+                file.truncate(validBytes);
+                if (sync) {
+                    file.force(false);
+                }
+            }
+            return last;
+        }
+    }
+
+    /**
+     * Lists the segment files of the journal.
+     *
+     * @return The segment files, oldest first.
+     * @throws IOException If the directory cannot be read.
+     */
+    private List<Path> listSegments() throws IOException {
+        String prefix = path.getFileName().toString() + ".";
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (suffix.length() == 20 && suffix.chars().allMatch(Character::isDigit)) {
+                    segments.add(file);
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Creates the segment starting at a sequence number and makes it the open segment.
+     * With sync, the directory is forced too, so that the new file survives a crash.
+     *
+     * @param firstSequence The sequence number of its first entry.
+     * @return The channel of the new segment, positioned at its end.
+     * @throws IOException If the segment cannot be created.
+     */
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        FileChannel segment = FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (sync) {
+            forceDirectory();
+        }
+        segmentFirstSequence = firstSequence;
+        return segment;
+    }
+
+    /**
+     * Gets the path of the segment starting at a sequence number.
+     *
+     * @param firstSequence The sequence number of its first entry.
+     * @return The path of the segment file.
+     */
+    private Path segmentPath(long firstSequence) {
+        return path.resolveSibling(path.getFileName() + String.format(SEGMENT_SUFFIX_FORMAT, firstSequence));
+    }
+
+    /**
+     * Forces the directory of the journal to the device, where the platform allows opening directories.
+     */
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Could not force the journal directory {}", path.getParent(), e);
+        }
+    }
+
+    /**
+     * A closed segment file with the sequence number of its last entry.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long lastSequence;
+
+        /**
+         * Constructor to initialize a closed segment.
+         *
+         * @param path         The segment file.
+         * @param lastSequence The sequence number of its last entry.
+         */
+        Segment(Path path, long lastSequence) {
+            this.path = path;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.application.port.out.BalanceLedgerStorePort;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Adapter writing the balance ledger back to the database.
+ * Implements the BalanceLedgerStorePort interface with one JDBC batch of relative balance updates
+ * and an update of the journal checkpoint, committed together.
+ */
+@Component
+public class BalanceLedgerStoreAdapter implements BalanceLedgerStorePort {
+
+    // Unconditional relative balance update; the limit was already checked by the ledger
+    private static final String ADD_DELTA_SQL =
+            "UPDATE creditcard SET current_balance = current_balance + ?, version = version + 1 WHERE card_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor to initialize the adapter.
+     *
+     * @param jdbcTemplate               The JdbcTemplate used to send the balance updates as one batch.
+     * @param ledgerCheckpointRepository The JPA repository for LedgerCheckpointEntity.
+     * @param entityManager              The shared EntityManager, used to evict the updated cards from the
+     *                                   second-level cache.
+     */
+    public BalanceLedgerStoreAdapter(JdbcTemplate jdbcTemplate, LedgerCheckpointRepository ledgerCheckpointRepository,
+                                     EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Retrieves the checkpoint of a journal. The read goes to the primary, since the journal must not be
+     * replayed from a checkpoint a replica has not caught up with.
+     *
+     * @param journalId The identifier of the journal.
+     * @return The last absorbed sequence number, or 0 if the journal has no checkpoint yet.
+     */
+    @Override
+    @Transactional
+    public long findCheckpoint(String journalId) {
+        return ledgerCheckpointRepository.findById(journalId)
+                .map(LedgerCheckpointEntity::getLastSequence)
+                .orElse(0L);
+    }
+
+    /**
+     * Adds the deltas to the balances and advances the checkpoint in one transaction.
+     * The cards are updated in ascending ID order, like batched postings, so the two cannot deadlock.
+     * They are evicted from the second-level cache, now and once the transaction completes.
+     *
+     * @param deltasMinor The signed deltas in minor units, by credit card ID.
+     * @param journalId   The identifier of the journal.
+     * @param checkpoint  The last journal sequence number included in the deltas.
+     * @return The IDs of the cards that no longer exist.
+     */
+    @Override
+    @Transactional
+    public Set<Long> applyDeltas(Map<Long, Long> deltasMinor, String journalId, long checkpoint) {
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>(new TreeMap<>(deltasMinor).entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(ADD_DELTA_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setBigDecimal(1, BigDecimal.valueOf(deltas.get(i).getValue(), Money.SCALE));
+                statement.setLong(2, deltas.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(deltas.get(i).getKey());
+            }
+        }
+
+        EntityCacheEviction.evictCreditCards(entityManager, List.copyOf(deltasMinor.keySet()));
+
+        LedgerCheckpointEntity entity = ledgerCheckpointRepository.findById(journalId)
+                .orElseGet(() -> new LedgerCheckpointEntity(journalId, 0));
+        entity.setLastSequence(Math.max(entity.getLastSequence(), checkpoint));
+        ledgerCheckpointRepository.save(entity);
+        return missing;
+    }
+}
@@ -0,0 +1,116 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing the cache_invalidation table in the database.
+ * Each row is one batch of cache invalidations published by an application instance; the other instances
+ * poll the table in ID order. Rows are written and read with JDBC by the JdbcCacheInvalidationAdapter;
+ * the entity declares the table so that it is created with the rest of the schema.
+ */
+@Entity
+@Table(name = "cache_invalidation")
+public class CacheInvalidationEntity {
+
+    // Unique identifier of the batch (Primary Key), increasing in insertion order
+    // Generated by the database on each insert; batches are inserted one at a time with JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "invalidation_id")
+    private Long invalidationId;
+
+    // Identifier of the instance that published the batch, which skips it when polling
+    @Column(name = "origin", nullable = false, length = 36)
+    private String origin;
+
+    // True if every cached card and customer must be dropped
+    @Column(name = "evict_all", nullable = false)
+    private boolean evictAll;
+
+    // Comma-separated IDs of the written credit cards
+    @Column(name = "card_ids", nullable = false, columnDefinition = "text")
+    private String cardIds;
+
+    // Comma-separated IDs of the written customers
+    @Column(name = "customer_ids", nullable = false, columnDefinition = "text")
+    private String customerIds;
+
+    // Comma-separated card numbers of the created or updated credit cards; nullable so that the column can be
+    // added to an existing table
+    @Column(name = "card_numbers", columnDefinition = "text")
+    private String cardNumbers;
+
+    // Time the batch was published, used to delete old batches
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Default constructor for creating an empty CacheInvalidationEntity object.
+     */
+    public CacheInvalidationEntity() {}
+
+    /**
+     * Gets the unique identifier of the batch.
+     *
+     * @return The batch ID.
+     */
+    public Long getInvalidationId() {
+        return invalidationId;
+    }
+
+    /**
+     * Gets the identifier of the instance that published the batch.
+     *
+     * @return The origin.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Checks if every cached card and customer must be dropped.
+     *
+     * @return True if the batch drops everything.
+     */
+    public boolean isEvictAll() {
+        return evictAll;
+    }
+
+    /**
+     * Gets the comma-separated IDs of the written credit cards.
+     *
+     * @return The card IDs.
+     */
+    public String getCardIds() {
+        return cardIds;
+    }
+
+    /**
+     * Gets the comma-separated IDs of the written customers.
+     *
+     * @return The customer IDs.
+     */
+    public String getCustomerIds() {
+        return customerIds;
+    }
+
+    /**
+     * Gets the comma-separated card numbers of the created or updated credit cards.
+     *
+     * @return The card numbers, or null for a batch written before the column existed.
+     */
+    public String getCardNumbers() {
+        return cardNumbers;
+    }
+
+    /**
+     * Gets the time the batch was published.
+     *
+     * @return The publication time.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,20 +1,41 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
+import com.creditcard.management.credit_card_api.core.model.Money;
 import jakarta.persistence.*;
-import java.util.Date;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDate;
 
 /**
  * Entity class representing the CreditCard table in the database.
  * This class maps to the "creditcard" table and provides fields
  * for credit card details and their relationships.
+ * Cards are kept in the second-level cache, so lookups by ID do not reach the database.
  */
 @Entity
-@Table(name = "creditcard")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CreditCardEntity.CACHE_REGION)
+@Table(name = "creditcard", indexes = {
+        // Serves searches by owner and the cards of a customer, in keyset order
+        @Index(name = "idx_creditcard_customer_card", columnList = "customer_id, card_id"),
+        // Serves the cards of a customer ordered by expiration date
+        @Index(name = "idx_creditcard_customer_expiration", columnList = "customer_id, expiration_date, card_id"),
+        // Serves searches by card type with an expiration window and a balance range
+        @Index(name = "idx_creditcard_type_expiration_balance", columnList = "card_type, expiration_date, current_balance"),
+        // Serves searches by expiration window alone, e.g. cards expiring this month
+        @Index(name = "idx_creditcard_expiration_balance", columnList = "expiration_date, current_balance")
+})
 public class CreditCardEntity {
 
+    // Second-level cache region of the credit cards
+    public static final String CACHE_REGION = "creditcard";
+
     // Unique identifier for the credit card (Primary Key)
+    // Generated from a pooled sequence so that Hibernate can batch inserts (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "creditcard_seq")
+    @SequenceGenerator(name = "creditcard_seq", sequenceName = "creditcard_seq", allocationSize = 50)
     @Column(name = "card_id")
     private Long cardId;
 
@@ -24,8 +45,7 @@ public class CreditCardEntity {
 
     // Expiration date of the credit card
     @Column(name = "expiration_date", nullable = false)
-    @Temporal(TemporalType.DATE)
-    private Date expirationDate;
+    private LocalDate expirationDate;
 
     // CVV (Card Verification Value) - a 3-digit security code
     @Column(name = "cvv", nullable = false, length = 3)
@@ -35,17 +55,25 @@ public class CreditCardEntity {
     @Column(name = "card_type", nullable = false)
     private String cardType;
 
-    // Maximum credit limit allowed on the card
-    @Column(name = "credit_limit", nullable = false)
-    private Double creditLimit;
+    // Maximum credit limit allowed on the card, stored exactly as NUMERIC(19, 2)
+    @Column(name = "credit_limit", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money creditLimit;
+
+    // Current balance on the card, stored exactly as NUMERIC(19, 2)
+    @Column(name = "current_balance", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money currentBalance;
 
-    // Current balance on the card
-    @Column(name = "current_balance", nullable = false)
-    private Double currentBalance;
+    // Optimistic locking version, incremented by every write to the row
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 
     // Many-to-One relationship with the Customer entity
-    // Each credit card is linked to one customer
-    @ManyToOne
+    // Each credit card is linked to one customer; loaded lazily since mapping only needs its ID
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private CustomerEntity customer;
 
@@ -97,7 +125,7 @@ public class CreditCardEntity {
      *
      * @return The expiration date.
      */
-    public Date getExpirationDate() {
+    public LocalDate getExpirationDate() {
         return expirationDate;
     }
 
@@ -106,7 +134,7 @@ public class CreditCardEntity {
      *
      * @param expirationDate The expiration date to set.
      */
-    public void setExpirationDate(Date expirationDate) {
+    public void setExpirationDate(LocalDate expirationDate) {
         this.expirationDate = expirationDate;
     }
 
@@ -151,7 +179,7 @@ public class CreditCardEntity {
      *
      * @return The credit limit.
      */
-    public Double getCreditLimit() {
+    public Money getCreditLimit() {
         return creditLimit;
     }
 
@@ -160,7 +188,7 @@ public class CreditCardEntity {
      *
      * @param creditLimit The credit limit to set.
      */
-    public void setCreditLimit(Double creditLimit) {
+    public void setCreditLimit(Money creditLimit) {
         this.creditLimit = creditLimit;
     }
 
@@ -169,7 +197,7 @@ public class CreditCardEntity {
      *
      * @return The current balance.
      */
-    public Double getCurrentBalance() {
+    public Money getCurrentBalance() {
         return currentBalance;
     }
 
@@ -178,7 +206,7 @@ public class CreditCardEntity {
      *
      * @param currentBalance The current balance to set.
      */
-    public void setCurrentBalance(Double currentBalance) {
+    public void setCurrentBalance(Money currentBalance) {
         this.currentBalance = currentBalance;
     }
 
@@ -199,4 +227,22 @@ public class CreditCardEntity {
     public void setCustomer(CustomerEntity customer) {
         this.customer = customer;
     }
+
+    /**
+     * Gets the optimistic locking version of the credit card.
+     *
+     * @return The version.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic locking version of the credit card.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
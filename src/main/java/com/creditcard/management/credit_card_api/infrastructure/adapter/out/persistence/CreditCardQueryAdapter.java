@@ -0,0 +1,278 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Adapter implementing CreditCardQueryPort with plain JDBC.
+ * Rows of the "creditcard" table are mapped straight to CreditCardDTO objects:
+ * no managed entity, persistence-context snapshot or intermediate domain object is created.
+ */
+@Component
+public class CreditCardQueryAdapter implements CreditCardQueryPort {
+
+    // Columns selected by every query of this adapter
+    private static final String SELECT_COLUMNS = "SELECT card_id, card_number, expiration_date, cvv, card_type, "
+            + "credit_limit, current_balance, customer_id, version FROM creditcard";
+
+    // Maps one row of the "creditcard" table to a CreditCardDTO
+    private static final RowMapper<CreditCardDTO> ROW_MAPPER = (rs, rowNum) -> {
+        CreditCardDTO dto = new CreditCardDTO();
+        dto.setCardId(rs.getLong("card_id"));
+        dto.setCardNumber(rs.getString("card_number"));
+        dto.setExpirationDate(rs.getObject("expiration_date", LocalDate.class));
+        dto.setCvv(rs.getString("cvv"));
+        dto.setCardType(rs.getString("card_type"));
+        dto.setCreditLimit(Money.of(rs.getBigDecimal("credit_limit")));
+        dto.setCurrentBalance(Money.of(rs.getBigDecimal("current_balance")));
+        dto.setCustomerId(rs.getLong("customer_id"));
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    // Number of card numbers fetched per round trip while streaming them
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor to initialize the adapter with the JDBC template.
+     *
+     * @param jdbcTemplate The JdbcTemplate bound to the application DataSource.
+     */
+    public CreditCardQueryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves a specific credit card by its ID with a primary key lookup.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return An Optional containing the CreditCardDTO if found, or empty if not.
+     */
+    @Override
+    public Optional<CreditCardDTO> findById(Long id) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE card_id = ?", ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Retrieves a specific credit card by its card number with a lookup on the unique index.
+     *
+     * @param cardNumber The card number.
+     * @return An Optional containing the CreditCardDTO if found, or empty if not.
+     */
+    @Override
+    public Optional<CreditCardDTO> findByCardNumber(String cardNumber) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE card_number = ?", ROW_MAPPER, cardNumber)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Retrieves one page of credit cards with an indexed range scan on the primary key.
+     * One extra row is fetched to know whether a next page exists without issuing a count query.
+     *
+     * @param afterId The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit   The maximum number of credit cards to return.
+     * @return A CursorPage of CreditCardDTO objects.
+     */
+    @Override
+    public CursorPage<CreditCardDTO> findPage(Long afterId, int limit) {
+        List<CreditCardDTO> fetched = jdbcTemplate.query(
+                SELECT_COLUMNS + " WHERE card_id > ? ORDER BY card_id LIMIT ?",
+                ROW_MAPPER, afterId != null ? afterId : 0L, limit + 1);
+        return CursorPage.of(fetched, limit, CreditCardDTO::getCardId);
+    }
+
+    /**
+     * Retrieves one page of the cards of a customer from the creditcard table alone; the customer row is never read.
+     * The ID order is a range scan of the (customer_id, card_id) index and the expiration order one of
+     * (customer_id, expiration_date, card_id). For other orders, the cards of the customer are found through
+     * the customer index and sorted. Pages after the first compare (sort column, card_id) with the values of
+     * the cursor card, read by primary key in a subquery; if the cursor card was deleted, the page is empty.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param sort       The order of the cards.
+     * @param afterId    The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit      The maximum number of credit cards to return.
+     * @return A CursorPage of CreditCardDTO objects.
+     */
+    @Override
+    public CursorPage<CreditCardDTO> findPageByCustomer(Long customerId, CreditCardSort sort, Long afterId,
+                                                        int limit) {
+        String column = sortColumn(sort.getField());
+        String direction = sort.isDescending() ? " DESC" : " ASC";
+        String comparison = sort.isDescending() ? " < " : " > ";
+
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" WHERE customer_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(customerId);
+        if (afterId != null) {
+            if (sort.getField() == CreditCardSort.Field.CARD_ID) {
+                sql.append(" AND card_id").append(comparison).append("?");
+            } else {
+                sql.append(" AND (").append(column).append(", card_id)").append(comparison)
+                        .append("((SELECT ").append(column).append(" FROM creditcard WHERE card_id = ?), ?)");
+                args.add(afterId);
+            }
+            args.add(afterId);
+        }
+        if (sort.getField() != CreditCardSort.Field.CARD_ID) {
+            sql.append(" ORDER BY ").append(column).append(direction).append(", card_id").append(direction);
+        } else {
+            sql.append(" ORDER BY card_id").append(direction);
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<CreditCardDTO> fetched = jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+        return CursorPage.of(fetched, limit, CreditCardDTO::getCardId);
+    }
+
+    /**
+     * Gets the column of the "creditcard" table holding a sort field.
+     *
+     * @param field The sort field.
+     * @return The column name.
+     */
+    private static String sortColumn(CreditCardSort.Field field) {
+        switch (field) {
+            case EXPIRATION_DATE:
+                return "expiration_date";
+            case CURRENT_BALANCE:
+                return "current_balance";
+            default:
+                return "card_id";
+        }
+    }
+
+    /**
+     * Retrieves one page of matching credit cards with a single parameterized query.
+     * Each set criterion adds one predicate; the utilization bounds are compared as
+     * current_balance against ratio * credit_limit so that no division is evaluated per row.
+     * The composite indexes of CreditCardEntity serve the usual combinations (customer, and card type with
+     * expiration date and balance); the keyset on card_id bounds the work of each page.
+     *
+     * @param criteria The filters of the search.
+     * @param afterId  The identifier of the last card of the previous page, or null to start from the beginning.
+     * @param limit    The maximum number of credit cards to return.
+     * @return A CursorPage of CreditCardDTO objects.
+     */
+    @Override
+    public CursorPage<CreditCardDTO> search(CreditCardSearchCriteria criteria, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" WHERE card_id > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId != null ? afterId : 0L);
+        addPredicate(sql, args, "customer_id = ?", criteria.getCustomerId());
+        addPredicate(sql, args, "card_type = ?", criteria.getCardType());
+        addPredicate(sql, args, "expiration_date >= ?", criteria.getExpiresFrom());
+        addPredicate(sql, args, "expiration_date < ?", criteria.getExpiresBefore());
+        addPredicate(sql, args, "current_balance >= ?", decimal(criteria.getMinBalance()));
+        addPredicate(sql, args, "current_balance <= ?", decimal(criteria.getMaxBalance()));
+        addPredicate(sql, args, "credit_limit >= ?", decimal(criteria.getMinCreditLimit()));
+        addPredicate(sql, args, "credit_limit <= ?", decimal(criteria.getMaxCreditLimit()));
+        addPredicate(sql, args, "current_balance >= ? * credit_limit", criteria.getMinUtilization());
+        addPredicate(sql, args, "current_balance <= ? * credit_limit", criteria.getMaxUtilization());
+        sql.append(" ORDER BY card_id LIMIT ?");
+        args.add(limit + 1);
+
+        List<CreditCardDTO> fetched = jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+        return CursorPage.of(fetched, limit, CreditCardDTO::getCardId);
+    }
+
+    /**
+     * Appends a predicate and its parameter to a query if the criterion is set.
+     *
+     * @param sql       The query being built.
+     * @param args      The parameters of the query.
+     * @param predicate The predicate, with a single parameter placeholder.
+     * @param value     The value of the criterion, or null to skip the predicate.
+     */
+    private static void addPredicate(StringBuilder sql, List<Object> args, String predicate, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(predicate);
+            args.add(value);
+        }
+    }
+
+    /**
+     * Converts an amount to the value bound to a NUMERIC column.
+     *
+     * @param money The amount, possibly null.
+     * @return The amount as a BigDecimal, or null.
+     */
+    private static BigDecimal decimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    /**
+     * Counts the credit cards of the "creditcard" table.
+     *
+     * @return The number of credit cards.
+     */
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM creditcard", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Streams the card numbers with a server-side cursor, reading STREAM_FETCH_SIZE rows per round trip.
+     *
+     * @param consumer The consumer receiving each card number.
+     */
+    @Override
+    public void forEachCardNumber(Consumer<String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT card_number FROM creditcard");
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+
+    /**
+     * Streams the card IDs and their available credit with a server-side cursor, reading STREAM_FETCH_SIZE
+     * rows per round trip. The subtraction is done by the database, so only two numbers are read per card.
+     *
+     * @param consumer The consumer receiving each card ID and its available credit.
+     */
+    @Override
+    public void forEachAvailableCredit(AvailableCreditConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT card_id, credit_limit - current_balance FROM creditcard");
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), Money.of(rs.getBigDecimal(2)).getMinorUnits()));
+    }
+
+    /**
+     * Retrieves the IDs of the cards of a customer with a scan of the (customer_id, card_id) index.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @return The card IDs in ascending order.
+     */
+    @Override
+    public List<Long> findIdsByCustomer(Long customerId) {
+        return jdbcTemplate.queryForList("SELECT card_id FROM creditcard WHERE customer_id = ? ORDER BY card_id",
+                Long.class, customerId);
+    }
+}
@@ -1,9 +1,20 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
-
+import com.creditcard.management.credit_card_api.core.model.Money;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for CreditCardEntity.
  * Extends JpaRepository to provide CRUD operations and database interaction for the CreditCardEntity.
@@ -17,4 +28,101 @@ public interface CreditCardRepository extends JpaRepository<CreditCardEntity, Lo
     // - save(CreditCardEntity entity)
     // - deleteById(Long id)
     // - existsById(Long id)
+
+    /**
+     * Retrieves the credit cards of several customers in a single query (WHERE customer_id IN (...)).
+     *
+     * @param customerIds The IDs of the customers whose cards are loaded.
+     * @return A list of CreditCardEntity objects ordered by ID.
+     */
+    List<CreditCardEntity> findByCustomerCustomerIdInOrderByCardIdAsc(Collection<Long> customerIds);
+
+    /**
+     * Streams all credit cards ordered by ID through a forward-only cursor.
+     * Rows are fetched from the database in chunks of the configured fetch size and loaded read-only,
+     * so no dirty-checking snapshot is kept. The second-level cache is bypassed, so that a full scan does not
+     * evict the hot cards. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A Stream of CreditCardEntity objects ordered by ID.
+     */
+    @Query("SELECT c FROM CreditCardEntity c ORDER BY c.cardId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<CreditCardEntity> streamAllOrderByCardId();
+
+    /**
+     * Retrieves which of the given card numbers already exist, using the unique index on card_number.
+     *
+     * @param cardNumbers The card numbers to check.
+     * @return The subset of card numbers that are already stored.
+     */
+    @Query("SELECT c.cardNumber FROM CreditCardEntity c WHERE c.cardNumber IN :cardNumbers")
+    List<String> findExistingCardNumbers(@Param("cardNumbers") Collection<String> cardNumbers);
+
+    /**
+     * Retrieves which of the given credit card IDs exist, without loading the cards.
+     *
+     * @param cardIds The credit card IDs to check.
+     * @return The subset of IDs that belong to existing credit cards.
+     */
+    @Query("SELECT c.cardId FROM CreditCardEntity c WHERE c.cardId IN :cardIds")
+    List<Long> findExistingIds(@Param("cardIds") Collection<Long> cardIds);
+
+    /**
+     * Overwrites the editable fields of a credit card with a single UPDATE statement, without loading it.
+     * The owner of the card is not changed. Must be called inside a transaction.
+     *
+     * @param id             The unique identifier of the credit card.
+     * @param cardNumber     The new card number.
+     * @param expirationDate The new expiration date.
+     * @param cvv            The new CVV.
+     * @param cardType       The new card type.
+     * @param creditLimit    The new credit limit.
+     * @param currentBalance The new current balance.
+     * @param version        The version the card must still have, or null to update it unconditionally.
+     * @return The number of updated rows: 1 if the card exists (with the expected version), 0 otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CreditCardEntity c SET c.cardNumber = :cardNumber, c.expirationDate = :expirationDate, "
+            + "c.cvv = :cvv, c.cardType = :cardType, c.creditLimit = :creditLimit, "
+            + "c.currentBalance = :currentBalance, c.version = c.version + 1 "
+            + "WHERE c.cardId = :id AND (:version IS NULL OR c.version = :version)")
+    int updateCardFields(@Param("id") Long id, @Param("cardNumber") String cardNumber,
+                         @Param("expirationDate") LocalDate expirationDate, @Param("cvv") String cvv,
+                         @Param("cardType") String cardType, @Param("creditLimit") Money creditLimit,
+                         @Param("currentBalance") Money currentBalance, @Param("version") Long version);
+
+    /**
+     * Retrieves the version of a credit card, without loading the card.
+     *
+     * @param cardId The unique identifier of the credit card.
+     * @return The version, or null if the card does not exist.
+     */
+    @Query("SELECT c.version FROM CreditCardEntity c WHERE c.cardId = :cardId")
+    Long findVersionByCardId(@Param("cardId") Long cardId);
+
+    /**
+     * Deletes a credit card with a single DELETE statement, without loading it.
+     * Must be called inside a transaction.
+     *
+     * @param id The unique identifier of the credit card.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CreditCardEntity c WHERE c.cardId = :id")
+    int deleteByCardId(@Param("id") Long id);
+
+    /**
+     * Deletes all credit cards of a customer with a single DELETE statement, without loading them.
+     * Must be called inside a transaction.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CreditCardEntity c WHERE c.customer.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
 }
@@ -3,10 +3,30 @@ package com.creditcard.management.credit_card_api.infrastructure.adapter.out.per
 import com.creditcard.management.credit_card_api.application.mapper.CreditCardMapper;
 import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Adapter class for the CreditCardRepository.
@@ -20,27 +40,64 @@ import java.util.stream.Collectors;
 @Component
 public class CreditCardRepositoryAdapter implements CreditCardRepositoryPort {
 
+    // Number of streamed rows after which the persistence context is cleared
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
+    // Maximum number of values bound to a single IN clause
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    // Conditional balance update of one posting: charges beyond the credit limit update no row
+    private static final String ADD_TO_BALANCE_SQL = "UPDATE creditcard SET current_balance = current_balance + ?, "
+            + "version = version + 1 WHERE card_id = ? AND (? <= 0 OR current_balance + ? <= credit_limit)";
+
     private final CreditCardRepository creditCardRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
+    private final int postingChunkSize;
 
     /**
      * Constructor to initialize the adapter with the JPA repository.
      *
      * @param creditCardRepository The JPA repository for CreditCardEntity.
+     * @param entityManager        The shared EntityManager, used to clear the persistence context while streaming
+     *                             and to flush batched inserts.
+     * @param jdbcTemplate         The JdbcTemplate used to send batched postings.
+     * @param transactionManager   The transaction manager used to commit batched postings chunk by chunk.
+     * @param batchChunkSize       The number of cards persisted between two flushes in saveAll.
+     * @param postingChunkSize     The number of postings applied in each transaction of addToBalances.
      */
-    public CreditCardRepositoryAdapter(CreditCardRepository creditCardRepository) {
+    public CreditCardRepositoryAdapter(CreditCardRepository creditCardRepository, EntityManager entityManager,
+                                       JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       @Value("${creditcard.batch.chunk-size:500}") int batchChunkSize,
+                                       @Value("${creditcard.posting.chunk-size:1000}") int postingChunkSize) {
         this.creditCardRepository = creditCardRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchChunkSize = batchChunkSize;
+        this.postingChunkSize = postingChunkSize;
     }
 
     /**
-     * Retrieves all credit cards from the database and converts them to domain models.
+     * Streams all credit cards through a database cursor, converting each one to a domain model.
+     * The persistence context is cleared periodically so that memory use stays flat regardless of the table size.
      *
-     * @return A list of CreditCard domain objects.
+     * @param consumer The consumer receiving each CreditCard domain object.
      */
     @Override
-    public List<CreditCard> findAll() {
-        return creditCardRepository.findAll().stream()
-                .map(CreditCardMapper::toDomain) // Convert persistence entities to domain models
-                .collect(Collectors.toList());
+    public void forEachCreditCard(Consumer<CreditCard> consumer) {
+        try (Stream<CreditCardEntity> entities = creditCardRepository.streamAllOrderByCardId()) {
+            Iterator<CreditCardEntity> iterator = entities.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(CreditCardMapper.toDomain(iterator.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear(); // Release the entities already written
+                }
+            }
+        }
     }
 
     /**
@@ -59,25 +116,228 @@ public class CreditCardRepositoryAdapter implements CreditCardRepositoryPort {
      * Saves a credit card in the database.
      * Converts the domain model to a persistence entity before saving,
      * and then converts the saved entity back to a domain model.
+     * The owner is referenced through a proxy, so Hibernate neither loads it nor checks its version.
      *
      * @param creditCard The CreditCard domain object to save.
      * @return The saved CreditCard domain object.
      */
     @Override
+    @Transactional
     public CreditCard save(CreditCard creditCard) {
-        return CreditCardMapper.toDomain(
-                creditCardRepository.save(CreditCardMapper.toEntity(creditCard)) // Save and convert
-        );
+        CreditCardEntity entity = CreditCardMapper.toEntity(creditCard);
+        if (creditCard.getCustomerId() != null) {
+            entity.setCustomer(entityManager.getReference(CustomerEntity.class, creditCard.getCustomerId()));
+        }
+        return CreditCardMapper.toDomain(creditCardRepository.save(entity)); // Save and convert
+    }
+
+    /**
+     * Overwrites the fields of an existing credit card with one UPDATE statement.
+     * The affected row count tells whether the card exists, so the card is never loaded or merged.
+     * The returned state is built from the written values; its customer ID is the one given by the caller.
+     * If the card carries a version, the row is only updated if it still has that version, and the returned
+     * state carries the incremented version. Otherwise the new version is read back in the same transaction,
+     * while the row is still locked by the update, so that it is exactly the version that was written.
+     *
+     * @param id         The unique identifier of the credit card to update.
+     * @param creditCard The CreditCard domain object holding the new values and, optionally, the expected version.
+     * @return An Optional containing the written state if the card exists with the expected version, or empty if not.
+     */
+    @Override
+    @Transactional
+    public Optional<CreditCard> update(Long id, CreditCard creditCard) {
+        CreditCardEntity values = CreditCardMapper.toEntity(creditCard); // Convert the values to their column types
+        int updated = creditCardRepository.updateCardFields(id, values.getCardNumber(), values.getExpirationDate(),
+                values.getCvv(), values.getCardType(), values.getCreditLimit(), values.getCurrentBalance(),
+                values.getVersion());
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        values.setCardId(id);
+        values.setVersion(values.getVersion() != null
+                ? values.getVersion() + 1
+                : creditCardRepository.findVersionByCardId(id));
+        return Optional.of(CreditCardMapper.toDomain(values));
+    }
+
+    /**
+     * Applies a partial update to an existing credit card.
+     * One UPDATE statement sets only the patched columns, then the new state is read back from the database.
+     * If the patch carries an expected version, the row is only updated if it still has that version.
+     * An empty patch issues no UPDATE.
+     *
+     * @param id    The unique identifier of the credit card to update.
+     * @param patch The fields to change and, optionally, the expected version.
+     * @return An Optional containing the credit card after the update if it exists with the expected version,
+     *         or empty if not.
+     */
+    @Override
+    @Transactional
+    public Optional<CreditCard> patch(Long id, CreditCardPatch patch) {
+        PartialUpdate update = new PartialUpdate("CreditCardEntity", "cardId")
+                .set("cardNumber", patch.getCardNumber())
+                .set("expirationDate", patch.getExpirationDate())
+                .set("cvv", patch.getCvv())
+                .set("cardType", patch.getCardType())
+                .set("creditLimit", patch.getCreditLimit())
+                .set("currentBalance", patch.getCurrentBalance())
+                .expectVersion(patch.getExpectedVersion());
+        if (!update.isEmpty()) {
+            if (update.execute(entityManager, id) == 0) {
+                return Optional.empty();
+            }
+            entityManager.clear(); // Drop any copy loaded before the bulk update
+            return Optional.ofNullable(entityManager.find(CreditCardEntity.class, id, PartialUpdate.BYPASS_CACHE))
+                    .map(CreditCardMapper::toDomain);
+        }
+        return findById(id).filter(creditCard -> patch.getExpectedVersion() == null
+                || patch.getExpectedVersion().equals(creditCard.getVersion()));
+    }
+
+    /**
+     * Adds a signed amount to the balance of a credit card with one conditional UPDATE statement.
+     * The database evaluates the limit check and the addition on the current row, so concurrent postings
+     * are serialized by the row lock of the statement alone. Payments (amounts of zero or less) are always
+     * applied. An applied posting increments the version of the card, so that conditional updates based on
+     * an older read fail. The statement is sent through JDBC and only the posted card is evicted from the
+     * second-level cache; Hibernate would evict every cached card for a native statement.
+     *
+     * @param id     The unique identifier of the credit card.
+     * @param amount The signed amount to add to the current balance.
+     * @return True if the balance was updated, false if the card does not exist or the charge exceeds the limit.
+     */
+    @Override
+    @Transactional
+    public boolean addToBalance(Long id, Money amount) {
+        BigDecimal value = amount.toBigDecimal();
+        boolean applied = jdbcTemplate.update(ADD_TO_BALANCE_SQL, value, id, value, value) > 0;
+        if (applied) {
+            entityManager.clear(); // Drop any copy loaded before the update
+            EntityCacheEviction.evictCreditCards(entityManager, List.of(id));
+        }
+        return applied;
+    }
+
+    /**
+     * Applies many postings with JDBC-batched conditional UPDATE statements, bypassing the persistence context.
+     * The postings are split into chunks of creditcard.posting.chunk-size; each chunk is sent as one JDBC batch
+     * and committed in its own transaction, which keeps transactions and lock sets short. Callers should sort
+     * the postings by card ID so that concurrent batches lock rows in the same order and cannot deadlock.
+     * The updated cards are evicted from the second-level cache once their chunk is committed.
+     *
+     * @param postings The postings to apply, each with a card ID and a non-null amount.
+     * @return For each posting, in the same order, true if the balance was updated, false otherwise.
+     */
+    @Override
+    public boolean[] addToBalances(List<Posting> postings) {
+        boolean[] applied = new boolean[postings.size()];
+        for (int from = 0; from < postings.size(); from += postingChunkSize) {
+            List<Posting> chunk = postings.subList(from, Math.min(from + postingChunkSize, postings.size()));
+            int[] counts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            BigDecimal amount = chunk.get(i).getAmount().toBigDecimal();
+                            statement.setBigDecimal(1, amount);
+                            statement.setLong(2, chunk.get(i).getCardId());
+                            statement.setBigDecimal(3, amount);
+                            statement.setBigDecimal(4, amount);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }));
+            List<Long> updatedIds = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                applied[from + i] = counts[i] > 0;
+                if (applied[from + i]) {
+                    updatedIds.add(chunk.get(i).getCardId());
+                }
+            }
+            EntityCacheEviction.evictCreditCards(entityManager, updatedIds); // The chunk is committed already
+        }
+        return applied;
+    }
+
+    /**
+     * Saves several new credit cards in a single transaction.
+     * Cards are persisted in chunks; each chunk is flushed, which Hibernate sends as JDBC batches of
+     * hibernate.jdbc.batch_size inserts, and then cleared so the persistence context stays small.
+     * Customers are attached by reference, so no customer row is read.
+     *
+     * @param creditCards The CreditCard domain objects to create.
+     * @return The saved CreditCard domain objects, in the same order as the input.
+     */
+    @Override
+    @Transactional
+    public List<CreditCard> saveAll(List<CreditCard> creditCards) {
+        List<CreditCard> saved = new ArrayList<>(creditCards.size());
+        for (CreditCard creditCard : creditCards) {
+            CreditCardEntity entity = CreditCardMapper.toEntity(creditCard);
+            if (creditCard.getCustomerId() != null) {
+                entity.setCustomer(entityManager.getReference(CustomerEntity.class, creditCard.getCustomerId()));
+            }
+            entityManager.persist(entity); // The identifier is assigned from the pooled sequence here
+            saved.add(CreditCardMapper.toDomain(entity));
+            if (saved.size() % batchChunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    /**
+     * Retrieves which of the given card numbers already exist in the database.
+     * Large inputs are checked in several IN queries to stay within the driver limits on bind parameters.
+     *
+     * @param cardNumbers The card numbers to check.
+     * @return The subset of card numbers that already exist.
+     */
+    @Override
+    public Set<String> findExistingCardNumbers(Collection<String> cardNumbers) {
+        List<String> numbers = new ArrayList<>(cardNumbers);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < numbers.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = numbers.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, numbers.size()));
+            existing.addAll(creditCardRepository.findExistingCardNumbers(chunk));
+        }
+        return existing;
+    }
+
+    /**
+     * Retrieves which of the given credit card IDs exist in the database, without loading the cards.
+     * Large inputs are checked in several IN queries to stay within the driver limits on bind parameters.
+     *
+     * @param ids The credit card identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        List<Long> cardIds = new ArrayList<>(ids);
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < cardIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, cardIds.size()));
+            existing.addAll(creditCardRepository.findExistingIds(chunk));
+        }
+        return existing;
     }
 
     /**
-     * Deletes a credit card from the database by its ID.
+     * Deletes a credit card from the database by its ID with one DELETE statement.
+     * Unlike JpaRepository.deleteById, the card is not loaded first.
      *
      * @param id The unique identifier of the credit card to delete.
+     * @return The number of deleted credit cards.
      */
     @Override
-    public void deleteById(Long id) {
-        creditCardRepository.deleteById(id);
+    @Transactional
+    public int deleteById(Long id) {
+        return creditCardRepository.deleteByCardId(id);
     }
 
     /**
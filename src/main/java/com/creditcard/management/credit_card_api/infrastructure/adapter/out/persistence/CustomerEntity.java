@@ -1,20 +1,37 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
+import com.creditcard.management.credit_card_api.core.model.Customer;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Entity class representing the Customer table in the database.
  * This class maps to the "customer" table and provides fields for customer details and their relationships.
+ * Customers are kept in the second-level cache. Their credit card collections are not: the collection is
+ * the inverse side of the relationship, and a cached copy goes stale whenever a card is inserted or deleted
+ * without going through it, e.g. when a customer and their cards are inserted in one transaction.
  */
 @Entity
-@Table(name = "customer")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CustomerEntity.CACHE_REGION)
+@Table(name = "customer", indexes = {
+        // Serves case-insensitive lookups by email
+        @Index(name = "idx_customer_email_normalized", columnList = "email_normalized")
+})
 public class CustomerEntity {
 
+    // Second-level cache region of the customers
+    public static final String CACHE_REGION = "customer";
+
     // Unique identifier for the customer (Primary Key)
+    // Generated from a pooled sequence so that Hibernate can batch inserts during imports
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @Column(name = "customer_id")
     private Long customerId;
 
@@ -30,6 +47,16 @@ public class CustomerEntity {
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
+    // Trimmed, lower-cased copy of the email address, kept in sync by setEmail
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    // Optimistic locking version, incremented by every write to the row
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     // One-to-Many relationship with CreditCardEntity
     // Each customer can have multiple credit cards
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -101,12 +128,22 @@ public class CustomerEntity {
     }
 
     /**
-     * Sets the email address of the customer.
+     * Sets the email address of the customer and its normalized copy.
      *
      * @param email The email address to set.
      */
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = Customer.normalizeEmail(email);
+    }
+
+    /**
+     * Gets the normalized email address of the customer.
+     *
+     * @return The trimmed, lower-cased email address.
+     */
+    public String getEmailNormalized() {
+        return emailNormalized;
     }
 
     /**
@@ -126,4 +163,22 @@ public class CustomerEntity {
     public void setCreditCards(List<CreditCardEntity> creditCards) {
         this.creditCards = creditCards;
     }
+
+    /**
+     * Gets the optimistic locking version of the customer.
+     *
+     * @return The version.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic locking version of the customer.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,8 +1,20 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for CustomerEntity.
  * Extends JpaRepository to provide CRUD operations and database interaction for the CustomerEntity.
@@ -16,4 +28,65 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
     // - save(CustomerEntity entity)
     // - deleteById(Long id)
     // - existsById(Long id)
+
+    /**
+     * Retrieves the customers whose ID is greater than the given cursor, ordered by ID.
+     * Runs as an indexed range scan on the primary key (WHERE customer_id > ? ORDER BY customer_id LIMIT ?).
+     *
+     * @param customerId The cursor; only customers with a greater ID are returned.
+     * @param pageable   The page request bounding the number of customers returned (no count query is issued).
+     * @return A list of CustomerEntity objects ordered by ID.
+     */
+    List<CustomerEntity> findByCustomerIdGreaterThanOrderByCustomerIdAsc(Long customerId, Pageable pageable);
+
+    /**
+     * Retrieves a customer with their credit cards fetched in the same query (LEFT JOIN FETCH).
+     *
+     * @param id The unique identifier of the customer.
+     * @return An Optional containing the CustomerEntity with its initialized creditCards collection, or empty if not found.
+     */
+    @EntityGraph(attributePaths = "creditCards")
+    @Query("SELECT c FROM CustomerEntity c WHERE c.customerId = :id")
+    Optional<CustomerEntity> findWithCreditCardsByCustomerId(@Param("id") Long id);
+
+    /**
+     * Retrieves a customer by their normalized email address, using the index on email_normalized.
+     * Should several customers share it, the one with the lowest ID is returned.
+     * The result is kept in the query cache, which Hibernate invalidates on any write to the customer table,
+     * and the customer itself is then read from the second-level cache.
+     *
+     * @param emailNormalized The trimmed, lower-cased email address.
+     * @return An Optional containing the CustomerEntity if found, or empty if not.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<CustomerEntity> findFirstByEmailNormalizedOrderByCustomerIdAsc(String emailNormalized);
+
+    /**
+     * Retrieves which of the given customer IDs exist, without loading the customers.
+     *
+     * @param customerIds The customer IDs to check.
+     * @return The subset of IDs that belong to existing customers.
+     */
+    @Query("SELECT c.customerId FROM CustomerEntity c WHERE c.customerId IN :customerIds")
+    List<Long> findExistingIds(@Param("customerIds") Collection<Long> customerIds);
+
+    /**
+     * Retrieves which of the given email addresses are already used, using the unique index on email.
+     *
+     * @param emails The email addresses to check.
+     * @return The subset of email addresses that are already stored.
+     */
+    @Query("SELECT c.email FROM CustomerEntity c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Deletes a customer with a single DELETE statement, without loading it or its credit cards.
+     * The cards of the customer must be deleted first. Must be called inside a transaction.
+     *
+     * @param id The unique identifier of the customer.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CustomerEntity c WHERE c.customerId = :id")
+    int deleteByCustomerId(@Param("id") Long id);
 }
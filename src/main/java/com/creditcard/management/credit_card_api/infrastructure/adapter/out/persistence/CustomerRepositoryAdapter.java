@@ -1,11 +1,23 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
+import com.creditcard.management.credit_card_api.application.mapper.CreditCardMapper;
 import com.creditcard.management.credit_card_api.application.mapper.CustomerMapper;
 import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
 import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,39 +32,139 @@ import java.util.stream.Collectors;
 @Component
 public class CustomerRepositoryAdapter implements CustomerRepositoryPort {
 
+    // Maximum number of values bound to a single IN clause
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final CustomerRepository customerRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final EntityManager entityManager;
 
     /**
-     * Constructor to initialize the adapter with the JPA repository.
+     * Constructor to initialize the adapter with the JPA repositories.
      *
-     * @param customerRepository The JPA repository for CustomerEntity.
+     * @param customerRepository   The JPA repository for CustomerEntity.
+     * @param creditCardRepository The JPA repository for CreditCardEntity, used to batch-load cards.
+     * @param entityManager        The shared EntityManager, used to persist and flush batched inserts.
      */
-    public CustomerRepositoryAdapter(CustomerRepository customerRepository) {
+    public CustomerRepositoryAdapter(CustomerRepository customerRepository, CreditCardRepository creditCardRepository,
+                                     EntityManager entityManager) {
         this.customerRepository = customerRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.entityManager = entityManager;
     }
 
     /**
-     * Retrieves all customers from the database and converts them to domain models.
+     * Retrieves one page of customers after the given cursor and converts them to domain models.
+     * Customers are mapped without touching their lazy card collections; when cards are requested,
+     * they are loaded for the whole page with a single IN query instead of one query per customer.
      *
-     * @return A list of Customer domain objects.
+     * @param afterId   The identifier of the last customer of the previous page, or null to start from the beginning.
+     * @param limit     The maximum number of customers to return.
+     * @param withCards True to load the credit cards of the customers, false to leave them unset.
+     * @return A CursorPage of Customer domain objects.
      */
     @Override
-    public List<Customer> findAll() {
-        return customerRepository.findAll().stream()
-                .map(CustomerMapper::toDomain) // Convert persistence entities to domain models
+    public CursorPage<Customer> findPage(Long afterId, int limit, boolean withCards) {
+        List<Customer> fetched = customerRepository
+                .findByCustomerIdGreaterThanOrderByCustomerIdAsc(afterId != null ? afterId : 0L, PageRequest.ofSize(limit + 1))
+                .stream()
+                .map(CustomerMapper::toDomainWithoutCards) // Convert without initializing the card collections
                 .collect(Collectors.toList());
+        CursorPage<Customer> page = CursorPage.of(fetched, limit, Customer::getId);
+
+        if (withCards && !page.getItems().isEmpty()) {
+            List<Long> customerIds = page.getItems().stream().map(Customer::getId).collect(Collectors.toList());
+            Map<Long, List<CreditCard>> cardsByCustomer = creditCardRepository
+                    .findByCustomerCustomerIdInOrderByCardIdAsc(customerIds).stream()
+                    .map(CreditCardMapper::toDomain)
+                    .collect(Collectors.groupingBy(CreditCard::getCustomerId));
+            page.getItems().forEach(customer ->
+                    customer.setCreditCards(cardsByCustomer.getOrDefault(customer.getId(), new ArrayList<>())));
+        }
+        return page;
     }
 
     /**
-     * Retrieves a specific customer by their ID and converts it to a domain model.
+     * Retrieves a specific customer by their ID with their credit cards and converts it to a domain model.
+     * A customer missing from the second-level cache is loaded with their cards in a single join-fetch query.
+     * A cached one is read from the cache and only their cards are queried: a fetch graph is not applied to
+     * a cached customer, whose collection would then be initialized empty, and the collection is not cached.
      *
      * @param id The unique identifier of the customer.
      * @return An Optional containing the Customer domain object if found, or empty if not.
      */
     @Override
-    public Optional<Customer> findById(Long id) {
+    @Transactional(readOnly = true)
+    public Optional<Customer> findByIdWithCards(Long id) {
+        if (!entityManager.getEntityManagerFactory().getCache().contains(CustomerEntity.class, id)) {
+            return customerRepository.findWithCreditCardsByCustomerId(id)
+                    .map(CustomerMapper::toDomain); // Convert persistence entity to domain model
+        }
+        return customerRepository.findById(id).map(entity -> {
+            Customer customer = CustomerMapper.toDomainWithoutCards(entity);
+            customer.setCreditCards(creditCardRepository.findByCustomerCustomerIdInOrderByCardIdAsc(List.of(id))
+                    .stream()
+                    .map(CreditCardMapper::toDomain)
+                    .collect(Collectors.toList()));
+            return customer;
+        });
+    }
+
+    /**
+     * Retrieves a specific customer by their ID without their credit cards and converts it to a domain model.
+     *
+     * @param id The unique identifier of the customer.
+     * @return An Optional containing the Customer domain object with no credit cards set if found, or empty if not.
+     */
+    @Override
+    public Optional<Customer> findByIdWithoutCards(Long id) {
         return customerRepository.findById(id)
-                .map(CustomerMapper::toDomain); // Convert persistence entity to domain model
+                .map(CustomerMapper::toDomainWithoutCards); // Convert without initializing the card collection
+    }
+
+    /**
+     * Retrieves a customer by their email address, without their credit cards, with one indexed query.
+     *
+     * @param email The email address, in any case.
+     * @return An Optional containing the Customer if found, or empty if not.
+     */
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        return customerRepository.findFirstByEmailNormalizedOrderByCustomerIdAsc(Customer.normalizeEmail(email))
+                .map(CustomerMapper::toDomainWithoutCards); // Convert without initializing the card collection
+    }
+
+    /**
+     * Applies a partial update to an existing customer.
+     * One UPDATE statement sets only the patched columns, then the customer is read back from the database
+     * without their cards.
+     * If the patch carries an expected version, the row is only updated if it still has that version.
+     * An empty patch issues no UPDATE.
+     *
+     * @param id    The unique identifier of the customer to update.
+     * @param patch The fields to change and, optionally, the expected version.
+     * @return An Optional containing the customer after the update if they exist with the expected version,
+     *         or empty if not.
+     */
+    @Override
+    @Transactional
+    public Optional<Customer> patch(Long id, CustomerPatch patch) {
+        PartialUpdate update = new PartialUpdate("CustomerEntity", "customerId")
+                .set("firstName", patch.getFirstName())
+                .set("lastName", patch.getLastName())
+                .set("email", patch.getEmail())
+                .set("emailNormalized", Customer.normalizeEmail(patch.getEmail()))
+                .expectVersion(patch.getExpectedVersion());
+        if (!update.isEmpty()) {
+            if (update.execute(entityManager, id) == 0) {
+                return Optional.empty();
+            }
+            entityManager.clear(); // Drop any copy loaded before the bulk update
+            return Optional.ofNullable(entityManager.find(CustomerEntity.class, id, PartialUpdate.BYPASS_CACHE))
+                    .map(CustomerMapper::toDomainWithoutCards);
+        }
+        return findByIdWithoutCards(id).filter(customer -> patch.getExpectedVersion() == null
+                || patch.getExpectedVersion().equals(customer.getVersion()));
     }
 
     /**
@@ -71,13 +183,59 @@ public class CustomerRepositoryAdapter implements CustomerRepositoryPort {
     }
 
     /**
-     * Deletes a customer from the database by their ID.
+     * Saves several new customers with their credit cards in a single transaction.
+     * Customers are persisted directly (their cards by cascade) rather than merged, and the inserts are
+     * flushed together so Hibernate sends them as JDBC batches. The persistence context is cleared afterwards;
+     * callers are expected to pass bounded chunks.
+     *
+     * @param customers The Customer domain objects to create, with their credit cards.
+     * @return The saved Customer domain objects, in the same order as the input.
+     */
+    @Override
+    @Transactional
+    public List<Customer> saveAll(List<Customer> customers) {
+        List<Customer> saved = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            CustomerEntity entity = CustomerMapper.toEntity(customer);
+            entityManager.persist(entity); // Identifiers are assigned from the pooled sequences here
+            saved.add(CustomerMapper.toDomain(entity));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    /**
+     * Retrieves which of the given email addresses are already used in the database.
+     * Large inputs are checked in several IN queries to stay within the driver limits on bind parameters.
+     *
+     * @param emails The email addresses to check.
+     * @return The subset of email addresses that already exist.
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> values = new ArrayList<>(emails);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = values.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, values.size()));
+            existing.addAll(customerRepository.findExistingEmails(chunk));
+        }
+        return existing;
+    }
+
+    /**
+     * Deletes a customer and their credit cards from the database by their ID.
+     * Two set-based DELETE statements run in one transaction, one for the cards and one for the customer,
+     * instead of loading the customer and removing each card through orphan removal.
      *
      * @param id The unique identifier of the customer to delete.
+     * @return The number of deleted customers.
      */
     @Override
-    public void deleteById(Long id) {
-        customerRepository.deleteById(id);
+    @Transactional
+    public int deleteById(Long id) {
+        creditCardRepository.deleteByCustomerId(id);
+        return customerRepository.deleteByCustomerId(id);
     }
 
     /**
@@ -90,4 +248,22 @@ public class CustomerRepositoryAdapter implements CustomerRepositoryPort {
     public boolean existsById(Long id) {
         return customerRepository.existsById(id);
     }
+
+    /**
+     * Retrieves which of the given customer IDs exist in the database, without loading the customers.
+     * Large inputs are checked in several IN queries to stay within the driver limits on bind parameters.
+     *
+     * @param ids The customer identifiers to check.
+     * @return The subset of identifiers that exist.
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        List<Long> customerIds = new ArrayList<>(ids);
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < customerIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = customerIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, customerIds.size()));
+            existing.addAll(customerRepository.findExistingIds(chunk));
+        }
+        return existing;
+    }
 }
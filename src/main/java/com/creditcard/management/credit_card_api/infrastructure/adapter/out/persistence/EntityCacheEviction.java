@@ -0,0 +1,41 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Evicts rows written with plain JDBC from the Hibernate second-level cache.
+ * Hibernate keeps the cache in step with the writes it runs itself, including bulk JPQL statements,
+ * but does not see statements sent through the JdbcTemplate.
+ */
+final class EntityCacheEviction {
+
+    private EntityCacheEviction() {
+    }
+
+    /**
+     * Evicts credit cards now and, if a transaction is active, again after it completes, so that a
+     * concurrent load of the row as it was before the commit is not kept.
+     * The card collections of the customers are not cached.
+     *
+     * @param entityManager The EntityManager whose factory owns the cache.
+     * @param cardIds       The IDs of the written credit cards.
+     */
+    static void evictCreditCards(EntityManager entityManager, Collection<Long> cardIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Runnable eviction = () -> cardIds.forEach(id -> cache.evict(CreditCardEntity.class, id));
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheEvictionPort;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Adapter evicting the writes of other instances from the Hibernate second-level cache and query cache.
+ * Hibernate only keeps the cache in step with the writes of this instance.
+ * It is the innermost cache, so it is ordered first. While the second-level cache is disabled, every eviction
+ * is a no-op.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EntityCacheEvictionAdapter implements CacheEvictionPort {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructor to initialize the adapter.
+     *
+     * @param entityManagerFactory The EntityManagerFactory owning the second-level cache.
+     */
+    public EntityCacheEvictionAdapter(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Evicts credit cards. The card collections of the customers are not cached, so nothing else holds them.
+     *
+     * @param cardIds The IDs of the credit cards.
+     */
+    @Override
+    public void evictCards(Collection<Long> cardIds) {
+        Cache cache = cache();
+        cardIds.forEach(id -> cache.evictEntityData(CreditCardEntity.class, id));
+    }
+
+    /**
+     * Evicts customers and the cached query results, which include
+     * the lookups by email: a customer may have been created with an email that was looked up in vain.
+     *
+     * @param customerIds The IDs of the customers.
+     */
+    @Override
+    public void evictCustomers(Collection<Long> customerIds) {
+        Cache cache = cache();
+        customerIds.forEach(id -> cache.evictEntityData(CustomerEntity.class, id));
+        cache.evictDefaultQueryRegion();
+    }
+
+    /**
+     * Evicts every region.
+     */
+    @Override
+    public void evictAll() {
+        cache().evictAllRegions();
+    }
+
+    /**
+     * Gets the second-level cache.
+     *
+     * @return The Hibernate cache of the session factory.
+     */
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,64 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity class representing the balance_ledger_checkpoint table in the database.
+ * Each row records how far the database has absorbed the local journal of one application instance.
+ */
+@Entity
+@Table(name = "balance_ledger_checkpoint")
+public class LedgerCheckpointEntity {
+
+    // Identifier of the journal (Primary Key), unique per application instance
+    @Id
+    @Column(name = "journal_id", length = 100)
+    private String journalId;
+
+    // Last journal sequence number whose balance delta is included in the creditcard table
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    /**
+     * Default constructor for creating an empty LedgerCheckpointEntity object.
+     */
+    public LedgerCheckpointEntity() {}
+
+    /**
+     * Constructor to initialize the checkpoint of a journal.
+     *
+     * @param journalId    The identifier of the journal.
+     * @param lastSequence The last absorbed sequence number.
+     */
+    public LedgerCheckpointEntity(String journalId, long lastSequence) {
+        this.journalId = journalId;
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Gets the identifier of the journal.
+     *
+     * @return The journal ID.
+     */
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Gets the last journal sequence number absorbed by the database.
+     *
+     * @return The last sequence number.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Sets the last journal sequence number absorbed by the database.
+     *
+     * @param lastSequence The last sequence number to set.
+     */
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
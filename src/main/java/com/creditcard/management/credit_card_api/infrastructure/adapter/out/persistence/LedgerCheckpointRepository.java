@@ -0,0 +1,11 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for LedgerCheckpointEntity, keyed by journal ID.
+ */
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpointEntity, String> {
+}
@@ -0,0 +1,37 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.core.model.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * JPA converter storing Money amounts in NUMERIC(19, 2) columns.
+ * Values are exchanged with the database as BigDecimal, so no binary floating point is involved.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    /**
+     * Converts an amount to its column value.
+     *
+     * @param money The amount, possibly null.
+     * @return The amount with two decimal places, or null.
+     */
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    /**
+     * Converts a column value to an amount.
+     *
+     * @param amount The column value, possibly null.
+     * @return The Money instance, or null.
+     */
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return Money.of(amount);
+    }
+}
@@ -0,0 +1,105 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builder for a JPQL bulk UPDATE that sets only the attributes that were given a value.
+ * Attribute names come from the adapters, never from clients, so they are safe to concatenate.
+ * Bulk updates bypass Hibernate's versioning, so the statement increments the version attribute itself.
+ */
+final class PartialUpdate {
+
+    // Name of the optimistic locking attribute of the entities
+    static final String VERSION_ATTRIBUTE = "version";
+
+    // Hints of a read-back after the update: the second-level cache only drops the old row once the
+    // transaction completes, so it is neither read nor filled in the meantime
+    static final Map<String, Object> BYPASS_CACHE = Map.of(
+            SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS,
+            SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+
+    private final String entityName;
+    private final String idAttribute;
+
+    // New values by attribute name, in the order they were set
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    // Version the entity must still have to be updated, or null to update any version
+    private Long expectedVersion;
+
+    /**
+     * Constructor to start an UPDATE of one entity type.
+     *
+     * @param entityName  The JPQL name of the entity.
+     * @param idAttribute The name of the identifier attribute.
+     */
+    PartialUpdate(String entityName, String idAttribute) {
+        this.entityName = entityName;
+        this.idAttribute = idAttribute;
+    }
+
+    /**
+     * Adds an attribute to the SET clause if it has a value.
+     *
+     * @param attribute The attribute name.
+     * @param value     The new value, or null to leave the attribute out of the statement.
+     * @return This builder.
+     */
+    PartialUpdate set(String attribute, Object value) {
+        if (value != null) {
+            values.put(attribute, value);
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the UPDATE to an entity that still has the given version.
+     *
+     * @param version The expected version, or null to update any version.
+     * @return This builder.
+     */
+    PartialUpdate expectVersion(Long version) {
+        this.expectedVersion = version;
+        return this;
+    }
+
+    /**
+     * Checks if no attribute was set, in which case there is nothing to update.
+     *
+     * @return True if the SET clause would be empty.
+     */
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Runs the UPDATE on the entity with the given identifier. Must be called inside a transaction.
+     *
+     * @param entityManager The EntityManager to run the statement with.
+     * @param id            The identifier of the entity to update.
+     * @return The number of updated rows: 0 if the entity does not exist or no longer has the expected version.
+     */
+    int execute(EntityManager entityManager, Object id) {
+        String assignments = values.keySet().stream()
+                .map(attribute -> "e." + attribute + " = :" + attribute)
+                .collect(Collectors.joining(", "));
+        Query query = entityManager.createQuery("UPDATE " + entityName + " e SET " + assignments
+                + ", e." + VERSION_ATTRIBUTE + " = e." + VERSION_ATTRIBUTE + " + 1"
+                + " WHERE e." + idAttribute + " = :id"
+                + (expectedVersion != null ? " AND e." + VERSION_ATTRIBUTE + " = :expectedVersion" : ""));
+        values.forEach(query::setParameter);
+        query.setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+}
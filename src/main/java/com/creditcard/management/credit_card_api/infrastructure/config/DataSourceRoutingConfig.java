@@ -0,0 +1,123 @@
+package com.creditcard.management.credit_card_api.infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration class for read/write splitting between the primary database and a read replica.
+ * Only active when creditcard.datasource.replica.jdbc-url is set; otherwise the application uses
+ * the single DataSource auto-configured by Spring Boot.
+ *
+ * Read-only transactions (@Transactional(readOnly = true)) are served by the replica pool, all other
+ * work by the primary pool, which keeps using the standard spring.datasource.* properties.
+ * Transactions routed to the replica read the second-level cache but do not fill it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "creditcard.datasource.replica", name = "jdbc-url")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Creates the connection pool of the primary database from the spring.datasource.* properties.
+     *
+     * @param properties The standard DataSource properties of Spring Boot.
+     * @return The primary HikariDataSource.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the connection pool of the read replica from the creditcard.datasource.replica.* properties
+     * (jdbc-url, username, password, maximum-pool-size and any other Hikari setting).
+     *
+     * @return The replica HikariDataSource.
+     */
+    @Bean
+    @ConfigurationProperties("creditcard.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Creates the DataSource used by JPA, routing each transaction to the primary or the replica.
+     * The lazy proxy delays the choice until the first statement, when the read-only flag of the
+     * transaction is known.
+     *
+     * @param primary The primary DataSource.
+     * @param replica The replica DataSource.
+     * @return The routing DataSource.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Creates the JPA transaction manager, with a dialect that keeps the reads of the replica out of the
+     * second-level cache and the query cache. The transaction manager customizers of Spring Boot are applied.
+     *
+     * @param transactionManagerCustomizers The customizers of Spring Boot, if any.
+     * @return The transaction manager.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet(); // Takes the dialect of the EntityManagerFactory, replaced below
+                setJpaDialect(new ReplicaCacheModeJpaDialect());
+            }
+        };
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Registers the read-your-writes filter, which pins a client to the primary for a short window after
+     * each of its writes. A window of zero disables the filter.
+     *
+     * @param window How long a client reads from the primary after a write.
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${creditcard.datasource.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window, Clock.systemUTC()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(!window.isZero() && !window.isNegative());
+        return registration;
+    }
+}
@@ -0,0 +1,104 @@
+package com.creditcard.management.credit_card_api.infrastructure.config;
+
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerEntity;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the Hibernate second-level cache and query cache.
+ * Customers and credit cards are cached with the read-write strategy in a JCache CacheManager backed by Caffeine;
+ * the card collections of the customers are always read from the database. Every region is created here with
+ * a bounded size, and Hibernate is told to fail rather than create an unbounded region for anything else.
+ *
+ * The update timestamps region, which tells whether a cached query result is older than the last write to
+ * one of its tables, holds one entry per table and must never lose one, so it is neither bounded nor expired.
+ */
+@Configuration
+@ConditionalOnProperty(name = "creditcard.entity-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    // Regions holding cached entities and query results, all bounded alike
+    private static final List<String> BOUNDED_REGIONS = List.of(
+            CustomerEntity.CACHE_REGION,
+            CreditCardEntity.CACHE_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    /**
+     * Creates the JCache CacheManager holding the second-level cache regions, and registers the hit, miss and
+     * eviction metrics of each region when a MeterRegistry is available.
+     * Each application context gets its own provider, so that contexts never share regions.
+     *
+     * @param meterRegistry    The registry of the cache metrics, tagged by region, if any.
+     * @param maxSize          The maximum number of entries of each entity and query region.
+     * @param expireAfterWrite How long an entry is kept at most after it was written.
+     * @return The CacheManager.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${creditcard.entity-cache.max-size:10000}") long maxSize,
+            @Value("${creditcard.entity-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (String region : BOUNDED_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = regionConfiguration();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.NANOSECONDS.convert(expireAfterWrite)));
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+            meterRegistry.ifAvailable(registry -> JCacheMetrics.monitor(registry, cache, Tags.empty()));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, regionConfiguration());
+        return cacheManager;
+    }
+
+    /**
+     * Enables the second-level cache and the query cache in Hibernate, on the regions of the entity CacheManager.
+     *
+     * @param entityCacheManager The CacheManager holding the regions.
+     * @return The customizer applied to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Creates the configuration shared by all regions: statistics on, and entries stored by reference, since
+     * Hibernate already stores disassembled copies of the entities.
+     *
+     * @return A new region configuration.
+     */
+    private static CaffeineConfiguration<Object, Object> regionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,60 @@
+package com.creditcard.management.credit_card_api.infrastructure.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends read-only transactions to the replica and everything else to the primary.
+ *
+ * The route is chosen when a physical connection is first requested, so this DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy: the transaction manager then binds the read-only flag before any statement runs.
+ * A thread can be pinned to the primary, which is how read-your-writes stickiness is applied to a request.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Target data sources of the routing.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // True while the current thread must read from the primary
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Pins or unpins the current thread to the primary, regardless of the read-only flag of its transactions.
+     *
+     * @param pinned True to send every connection of the current thread to the primary.
+     */
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    /**
+     * Checks if a transaction started now on the current thread is routed to the replica.
+     *
+     * @param readOnly True if the transaction is read-only.
+     * @return True for a read-only transaction of an unpinned thread.
+     */
+    public static boolean routesToReplica(boolean readOnly) {
+        return readOnly && !PINNED_TO_PRIMARY.get();
+    }
+
+    /**
+     * Chooses the target of the connection being opened.
+     *
+     * @return REPLICA inside a read-only transaction of an unpinned thread, PRIMARY otherwise.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routesToReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+}
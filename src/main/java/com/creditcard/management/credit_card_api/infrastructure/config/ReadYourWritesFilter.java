@@ -0,0 +1,96 @@
+package com.creditcard.management.credit_card_api.infrastructure.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Filter giving clients read-your-writes consistency when reads are served by a lagging replica.
+ *
+ * Every write request (POST, PUT, PATCH, DELETE) receives a cookie holding the time until which the client is
+ * pinned to the primary. Requests carrying an unexpired cookie run with ReadWriteRoutingDataSource pinned to the
+ * primary, so the client sees its own writes even before they reach the replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    // Name of the cookie holding the end of the pinning window, in epoch milliseconds
+    static final String COOKIE_NAME = "primary-until";
+
+    // HTTP methods that modify data
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Duration window;
+    private final Clock clock;
+
+    /**
+     * Constructor to initialize the filter with the length of the pinning window.
+     *
+     * @param window How long a client reads from the primary after a write.
+     * @param clock  The clock used to compute and check the window.
+     */
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Pins the request to the primary if its client wrote recently, and starts a new window on writes.
+     *
+     * @param request     The current request.
+     * @param response    The current response.
+     * @param filterChain The rest of the filter chain.
+     * @throws ServletException If the chain fails.
+     * @throws IOException      If the chain fails.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        boolean write = WRITE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the handler runs, while the response is not committed yet
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+
+        ReadWriteRoutingDataSource.pinToPrimary(write || pinnedUntil(request) > now);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.pinToPrimary(false);
+        }
+    }
+
+    /**
+     * Reads the end of the pinning window from the request cookie.
+     *
+     * @param request The current request.
+     * @return The end of the window in epoch milliseconds, or 0 if the cookie is absent or malformed.
+     */
+    private long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
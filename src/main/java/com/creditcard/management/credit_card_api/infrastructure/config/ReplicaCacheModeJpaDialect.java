@@ -0,0 +1,95 @@
+package com.creditcard.management.credit_card_api.infrastructure.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Hibernate JPA dialect that keeps the reads of the replica out of the second-level cache and the query cache.
+ * A transaction routed to the replica may read rows that lag behind the primary; cached, they would be served
+ * to every client, including those pinned to the primary to read their own writes, until evicted or expired.
+ * Such transactions therefore run with the GET cache mode: they are served from the caches, which only ever
+ * hold rows read from or written to the primary, but put nothing into them. The store mode of the session is
+ * set to BYPASS as well, since a lookup passing JPA properties (e.g. query hints) derives its cache mode from it.
+ */
+public class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    /**
+     * Begins a transaction, switching the session to the GET cache mode if the transaction is routed to the replica.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param definition    The definition of the transaction.
+     * @return The data needed to clean up the transaction.
+     * @throws PersistenceException If the transaction cannot be begun.
+     * @throws SQLException         If the connection cannot be prepared.
+     * @throws TransactionException If the definition is not supported.
+     */
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!ReadWriteRoutingDataSource.routesToReplica(definition.isReadOnly())) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        ReplicaTransactionData replicaData = new ReplicaTransactionData(transactionData, session,
+                session.getCacheMode(), session.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE));
+        session.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        session.setCacheMode(CacheMode.GET);
+        return replicaData;
+    }
+
+    /**
+     * Restores the cache mode and store mode of the session, which outlives the transaction when it is opened in view.
+     *
+     * @param transactionData The data returned by beginTransaction.
+     */
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData replicaData) {
+            if (replicaData.session.isOpen()) {
+                replicaData.session.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE,
+                        replicaData.previousStoreMode != null ? replicaData.previousStoreMode : CacheStoreMode.USE);
+                replicaData.session.setCacheMode(replicaData.previousCacheMode);
+            }
+            super.cleanupTransaction(replicaData.transactionData);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    /**
+     * Cleanup data of a transaction routed to the replica.
+     */
+    private static final class ReplicaTransactionData {
+
+        private final Object transactionData;
+        private final Session session;
+        private final CacheMode previousCacheMode;
+        private final Object previousStoreMode;
+
+        /**
+         * Constructor to initialize the cleanup data.
+         *
+         * @param transactionData   The cleanup data of the Hibernate dialect.
+         * @param session           The session of the transaction.
+         * @param previousCacheMode The cache mode of the session before the transaction.
+         * @param previousStoreMode The store mode property of the session before the transaction, or null.
+         */
+        ReplicaTransactionData(Object transactionData, Session session, CacheMode previousCacheMode,
+                               Object previousStoreMode) {
+            this.transactionData = transactionData;
+            this.session = session;
+            this.previousCacheMode = previousCacheMode;
+            this.previousStoreMode = previousStoreMode;
+        }
+    }
+}
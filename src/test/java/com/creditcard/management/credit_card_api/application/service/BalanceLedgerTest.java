@@ -0,0 +1,171 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.BalanceLedgerStorePort;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.journal.FileBalanceJournalAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the BalanceLedger class.
+ * The repository and the store are mocked; the journal is a real file in a temporary directory,
+ * so that recovery after a crash can be exercised.
+ */
+class BalanceLedgerTest {
+
+    @Mock
+    private CreditCardRepositoryPort creditCardRepositoryPort; // Mocked repository, source of the accounts
+
+    @Mock
+    private BalanceLedgerStorePort balanceLedgerStorePort; // Mocked store receiving the flushed deltas
+
+    @TempDir
+    private Path directory; // Holds the journal file
+
+    private BalanceLedger balanceLedger; // Ledger under test
+
+    /**
+     * Creates card 1 with a limit of 100.00 and a balance of 20.00, and starts a ledger on an empty journal.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        CreditCard card = new CreditCard();
+        card.setId(1L);
+        card.setCreditLimit(Money.parse("100"));
+        card.setCurrentBalance(Money.parse("20"));
+        when(creditCardRepositoryPort.findById(1L)).thenReturn(Optional.of(card));
+        when(creditCardRepositoryPort.findById(2L)).thenReturn(Optional.empty());
+        when(balanceLedgerStorePort.applyDeltas(anyMap(), eq("test"), anyLong())).thenReturn(Set.of());
+
+        balanceLedger = newLedger();
+        balanceLedger.start();
+    }
+
+    /**
+     * Stops the ledger after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        balanceLedger.stop();
+    }
+
+    /**
+     * Tests authorizing postings in memory.
+     * Verifies that charges are declined beyond the limit, payments free up credit, and unknown cards are reported.
+     */
+    @Test
+    void testPost_EnforcesLimitInMemory() {
+        // Act & Assert: 20.00 + 80.00 reaches the limit, one more cent does not fit
+        assertEquals(Optional.of(PostingStatus.APPROVED), balanceLedger.post(1L, Money.parse("80")));
+        assertEquals(Optional.of(PostingStatus.DECLINED), balanceLedger.post(1L, Money.parse("0.01")));
+        assertEquals(Optional.of(PostingStatus.APPROVED), balanceLedger.post(1L, Money.parse("-30")));
+        assertEquals(Optional.of(PostingStatus.APPROVED), balanceLedger.post(1L, Money.parse("30")));
+        assertTrue(balanceLedger.post(2L, Money.parse("1")).isEmpty());
+
+        // Assert: The account was loaded once and nothing was written yet
+        verify(creditCardRepositoryPort, times(1)).findById(1L);
+        verify(balanceLedgerStorePort, never()).applyDeltas(anyMap(), anyString(), anyLong());
+    }
+
+    /**
+     * Tests flushing the ledger.
+     * Verifies that the accepted postings are written as one delta per card with the journal checkpoint.
+     */
+    @Test
+    void testFlush_WritesNetDeltaAndCheckpoint() {
+        // Arrange: Three approved postings and one declined
+        balanceLedger.post(1L, Money.parse("50"));
+        balanceLedger.post(1L, Money.parse("-10"));
+        balanceLedger.post(1L, Money.parse("500"));
+        balanceLedger.post(1L, Money.parse("0.25"));
+
+        // Act
+        balanceLedger.flush();
+        balanceLedger.flush();
+
+        // Assert: 40.25 written once, covering journal entries 1 to 3; the second flush had nothing to write
+        verify(balanceLedgerStorePort, times(1)).applyDeltas(Map.of(1L, 4_025L), "test", 3L);
+    }
+
+    /**
+     * Tests recovery after a crash.
+     * Verifies that postings journaled but never flushed are written when a new ledger starts.
+     */
+    @Test
+    void testStart_ReplaysJournalAfterCheckpoint() throws Exception {
+        // Arrange: Three postings, the first of which the database already absorbed, and no flush (a crash)
+        balanceLedger.post(1L, Money.parse("10"));
+        balanceLedger.post(1L, Money.parse("15"));
+        balanceLedger.post(1L, Money.parse("5"));
+        when(balanceLedgerStorePort.findCheckpoint("test")).thenReturn(1L);
+        BalanceLedger restarted = newLedger();
+
+        // Act
+        restarted.start();
+
+        // Assert: Entries 2 and 3 are replayed
+        verify(balanceLedgerStorePort).applyDeltas(Map.of(1L, 2_000L), "test", 3L);
+        restarted.stop();
+    }
+
+    /**
+     * Tests concurrent charges to one card.
+     * Forty charges of 5.00 race for 80.00 of available credit: exactly sixteen must be approved.
+     */
+    @Test
+    void testPost_ConcurrentChargesNeverExceedLimit() throws Exception {
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<PostingStatus>>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            results.add(executor.submit(() -> balanceLedger.post(1L, Money.parse("5"))));
+        }
+        executor.shutdown();
+        int approved = 0;
+        for (Future<Optional<PostingStatus>> result : results) {
+            if (result.get(10, TimeUnit.SECONDS).orElseThrow() == PostingStatus.APPROVED) {
+                approved++;
+            }
+        }
+        balanceLedger.flush();
+
+        // Assert
+        assertEquals(16, approved);
+        verify(balanceLedgerStorePort).applyDeltas(Map.of(1L, 8_000L), "test", 16L);
+    }
+
+    /**
+     * Creates a ledger on the journal of the temporary directory, with a flush interval long enough
+     * that only explicit flushes run during a test.
+     *
+     * @return The ledger, not started.
+     */
+    private BalanceLedger newLedger() {
+        return new BalanceLedger(creditCardRepositoryPort,
+                new FileBalanceJournalAdapter(directory.resolve("ledger.journal"), false),
+                balanceLedgerStorePort, true, "test", Duration.ofHours(1));
+    }
+}
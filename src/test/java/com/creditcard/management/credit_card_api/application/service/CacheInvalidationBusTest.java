@@ -0,0 +1,271 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CacheEvictionPort;
+import com.creditcard.management.credit_card_api.application.port.out.CacheInvalidationPort;
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CacheInvalidationBus, which publishes the writes of this instance,
+ * and the CacheInvalidationHandler, which applies those of the other instances.
+ * The bus port records the published batches instead of sending them.
+ */
+class CacheInvalidationBusTest {
+
+    @Mock
+    private CacheEvictionPort innerCache; // Mocked cache below the repository ports, evicted first
+
+    @Mock
+    private CacheEvictionPort outerCache; // Mocked cache above it
+
+    @Mock
+    private CreditAuthorizationService creditAuthorizationService; // Mocked authorization service
+
+    @Mock
+    private CustomerService customerService; // Mocked customer service holding the email cache
+
+    @Mock
+    private CardNumberFilter cardNumberFilter; // Mocked filter of known card numbers
+
+    private final List<CacheInvalidation> published = new ArrayList<>(); // Batches published by the bus
+
+    private boolean failing; // True to make the port fail
+
+    private Consumer<CacheInvalidation> subscriber; // Listener registered by the handler
+
+    private CacheInvalidationBus cacheInvalidationBus; // Bus under test, with batches of 3 IDs and 10 pending IDs
+
+    /**
+     * Creates the bus over a recording port.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        CacheInvalidationPort port = new CacheInvalidationPort() {
+            @Override
+            public void publish(CacheInvalidation invalidation) {
+                if (failing) {
+                    throw new IllegalStateException("bus unavailable");
+                }
+                published.add(invalidation);
+            }
+
+            @Override
+            public void subscribe(Consumer<CacheInvalidation> listener) {
+                subscriber = listener;
+            }
+        };
+        cacheInvalidationBus = new CacheInvalidationBus(port, Duration.ofHours(1), 3, 10);
+        new CacheInvalidationHandler(port, List.of(innerCache, outerCache), creditAuthorizationService,
+                customerService, cardNumberFilter);
+    }
+
+    /**
+     * Clears the transaction synchronization a test may have started.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Tests that repeated writes of the same IDs are published once, and that an empty flush publishes nothing.
+     */
+    @Test
+    void testFlush_CoalescesWrites() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            cacheInvalidationBus.cardChanged(1L);
+        }
+        cacheInvalidationBus.customerChanged(7L);
+        cacheInvalidationBus.customerChanged(null);
+        cacheInvalidationBus.flush();
+        cacheInvalidationBus.flush();
+
+        // Assert
+        assertEquals(1, published.size());
+        assertEquals(Set.of(1L), published.get(0).getCardIds());
+        assertEquals(Set.of(7L), published.get(0).getCustomerIds());
+        assertFalse(published.get(0).isEverything());
+    }
+
+    /**
+     * Tests that the IDs of a flush are split into batches of at most max-batch-size IDs.
+     */
+    @Test
+    void testFlush_SplitsIntoBatches() {
+        // Act
+        cacheInvalidationBus.cardsChanged(List.of(1L, 2L, 3L, 4L));
+        cacheInvalidationBus.customersChanged(List.of(10L, 11L));
+        cacheInvalidationBus.cardNumbersWritten(List.of("4000000000000001", "4000000000000002"));
+        cacheInvalidationBus.flush();
+
+        // Assert
+        assertEquals(3, published.size());
+        assertTrue(published.stream().allMatch(batch -> batch.getCardIds().size() + batch.getCustomerIds().size()
+                + batch.getCardNumbers().size() <= 3));
+        assertEquals(Set.of(1L, 2L, 3L, 4L), published.stream().flatMap(batch -> batch.getCardIds().stream())
+                .collect(Collectors.toSet()));
+        assertEquals(Set.of(10L, 11L), published.stream().flatMap(batch -> batch.getCustomerIds().stream())
+                .collect(Collectors.toSet()));
+        assertEquals(Set.of("4000000000000001", "4000000000000002"), published.stream()
+                .flatMap(batch -> batch.getCardNumbers().stream()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Tests that a bulk write beyond max-pending IDs is published as a single batch dropping everything,
+     * and that the following flushes name the IDs again.
+     */
+    @Test
+    void testFlush_OverflowDropsEverything() {
+        // Act
+        cacheInvalidationBus.customersChanged(LongStream.rangeClosed(1, 50).boxed().collect(Collectors.toList()));
+        cacheInvalidationBus.cardChanged(99L);
+        cacheInvalidationBus.flush();
+        cacheInvalidationBus.cardChanged(5L);
+        cacheInvalidationBus.flush();
+
+        // Assert
+        assertEquals(2, published.size());
+        assertTrue(published.get(0).isEverything());
+        assertEquals(Set.of(5L), published.get(1).getCardIds());
+    }
+
+    /**
+     * Tests that the IDs of a batch that could not be published are published by the next flush.
+     */
+    @Test
+    void testFlush_FailureKeepsIds() {
+        // Arrange
+        cacheInvalidationBus.cardsChanged(List.of(1L, 2L));
+        failing = true;
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> cacheInvalidationBus.flush());
+        failing = false;
+        cacheInvalidationBus.flush();
+
+        // Assert
+        assertEquals(1, published.size());
+        assertEquals(Set.of(1L, 2L), published.get(0).getCardIds());
+    }
+
+    /**
+     * Tests that writes made in a transaction are only published once it completes.
+     */
+    @Test
+    void testRecord_WaitsForTransactionCompletion() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        cacheInvalidationBus.cardChanged(1L);
+
+        // Act & Assert: Not collected before the commit
+        cacheInvalidationBus.flush();
+        assertTrue(published.isEmpty());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cacheInvalidationBus.flush();
+        assertEquals(Set.of(1L), published.get(0).getCardIds());
+    }
+
+    /**
+     * Tests that a batch received from another instance evicts its cards and customers from every cache,
+     * the innermost cache first, and adds its card numbers to the card number filter.
+     */
+    @Test
+    void testHandler_EvictsNamedEntries() {
+        // Act
+        subscriber.accept(new CacheInvalidation(Set.of(1L, 2L), Set.of(7L), Set.of("4000000000000001")));
+
+        // Assert
+        InOrder inOrder = inOrder(innerCache, outerCache);
+        inOrder.verify(innerCache).evictCards(Set.of(1L, 2L));
+        inOrder.verify(outerCache).evictCards(Set.of(1L, 2L));
+        inOrder.verify(innerCache).evictCustomers(Set.of(7L));
+        inOrder.verify(outerCache).evictCustomers(Set.of(7L));
+        verify(creditAuthorizationService).invalidateAll(Set.of(1L, 2L));
+        verify(customerService).evictFromEmailCache(Set.of(7L));
+        verify(cardNumberFilter).add("4000000000000001");
+        verify(cardNumberFilter, never()).rebuild();
+        verify(innerCache, never()).evictAll();
+    }
+
+    /**
+     * Tests that a batch dropping everything empties every cache and rebuilds the card number filter.
+     */
+    @Test
+    void testHandler_DropsEverything() {
+        // Act
+        subscriber.accept(CacheInvalidation.everything());
+
+        // Assert
+        verify(innerCache).evictAll();
+        verify(outerCache).evictAll();
+        verify(creditAuthorizationService).clear();
+        verify(customerService).evictAllFromEmailCache();
+        verify(cardNumberFilter).rebuild();
+        verify(innerCache, never()).evictCards(any());
+    }
+
+    /**
+     * Tests that IDs written concurrently with flushes are all published.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     */
+    @Test
+    void testFlush_ConcurrentWritesAreNotLost() throws InterruptedException {
+        // Arrange: Room for every ID
+        cacheInvalidationBus = new CacheInvalidationBus(new CacheInvalidationPort() {
+            @Override
+            public void publish(CacheInvalidation invalidation) {
+                published.add(invalidation);
+            }
+
+            @Override
+            public void subscribe(Consumer<CacheInvalidation> listener) {
+            }
+        }, Duration.ofHours(1), 100, 100_000);
+        Thread writer = new Thread(() -> {
+            for (long id = 1; id <= 20_000; id++) {
+                cacheInvalidationBus.cardChanged(id);
+            }
+        });
+
+        // Act
+        writer.start();
+        while (writer.isAlive()) {
+            cacheInvalidationBus.flush();
+        }
+        writer.join();
+        cacheInvalidationBus.flush();
+
+        // Assert
+        Set<Long> ids = new HashSet<>();
+        published.forEach(batch -> ids.addAll(batch.getCardIds()));
+        assertEquals(20_000, ids.size());
+    }
+}
@@ -0,0 +1,117 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CardNumberFilter class.
+ * The query port is mocked to feed the card numbers of the rebuild.
+ */
+class CardNumberFilterTest {
+
+    @Mock
+    private CreditCardQueryPort creditCardQueryPort; // Mocked query port
+
+    private CardNumberFilter cardNumberFilter; // Filter under test
+
+    /**
+     * Creates a filter sized for 10,000 numbers with a 1% false-positive rate,
+     * whose rebuild reads 5,000 stored card numbers.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(creditCardQueryPort.count()).thenReturn(5_000L);
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for (int i = 0; i < 5_000; i++) {
+                consumer.accept(cardNumber(i));
+            }
+            return null;
+        }).when(creditCardQueryPort).forEachCardNumber(any(Consumer.class));
+        cardNumberFilter = new CardNumberFilter(creditCardQueryPort, true, 10_000, 0.01);
+    }
+
+    /**
+     * Tests that every number is possibly known until the filter is built.
+     */
+    @Test
+    void testMightContain_BeforeRebuild() {
+        assertTrue(cardNumberFilter.mightContain(cardNumber(99_999)));
+    }
+
+    /**
+     * Tests that stored numbers are always found after a rebuild, and that unknown numbers
+     * are rejected except for a rate of false positives close to the configured one.
+     */
+    @Test
+    void testRebuild_NoFalseNegatives() {
+        // Act
+        cardNumberFilter.rebuild();
+
+        // Assert: No stored number is missed
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(cardNumberFilter.mightContain(cardNumber(i)));
+        }
+        // Assert: Few unknown numbers are reported as possibly known
+        int falsePositives = 0;
+        for (int i = 5_000; i < 105_000; i++) {
+            if (cardNumberFilter.mightContain(cardNumber(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    /**
+     * Tests that numbers written after the rebuild are found.
+     */
+    @Test
+    void testAdd_AfterRebuild() {
+        // Arrange
+        cardNumberFilter.rebuild();
+        assertFalse(cardNumberFilter.mightContain("9999999999999999"));
+
+        // Act
+        cardNumberFilter.add("9999999999999999");
+
+        // Assert
+        assertTrue(cardNumberFilter.mightContain("9999999999999999"));
+    }
+
+    /**
+     * Tests that a disabled filter never reads the repository and reports every number as possibly known.
+     */
+    @Test
+    void testDisabled() {
+        // Arrange
+        CardNumberFilter disabled = new CardNumberFilter(creditCardQueryPort, false, 10_000, 0.01);
+
+        // Act
+        disabled.rebuild();
+
+        // Assert
+        assertTrue(disabled.mightContain("9999999999999999"));
+        verify(creditCardQueryPort, never()).forEachCardNumber(any());
+    }
+
+    /**
+     * Builds a 16-digit card number from an index.
+     *
+     * @param index The index.
+     * @return The card number.
+     */
+    private static String cardNumber(int index) {
+        return String.format("4%015d", index);
+    }
+}
@@ -0,0 +1,170 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CreditAuthorizationService class and its AvailableCreditTable.
+ * The query port is mocked to feed the warm-up and the on-demand loads.
+ */
+class CreditAuthorizationServiceTest {
+
+    @Mock
+    private CreditCardQueryPort creditCardQueryPort; // Mocked query port
+
+    private SimpleMeterRegistry meterRegistry; // In-memory registry holding the gauge
+
+    private CreditAuthorizationService creditAuthorizationService; // Service under test
+
+    /**
+     * Creates a service whose warm-up reads cards 1 and 2, with 100.00 and 10.00 of available credit.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(creditCardQueryPort.count()).thenReturn(2L);
+        doAnswer(invocation -> {
+            CreditCardQueryPort.AvailableCreditConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L, 10_000L);
+            consumer.accept(2L, 1_000L);
+            return null;
+        }).when(creditCardQueryPort).forEachAvailableCredit(any());
+        meterRegistry = new SimpleMeterRegistry();
+        creditAuthorizationService = new CreditAuthorizationService(creditCardQueryPort, meterRegistry, 4);
+    }
+
+    /**
+     * Tests that warmed cards are authorized in memory until their available credit is used up.
+     */
+    @Test
+    void testAuthorize_AfterWarmUp() {
+        // Act
+        creditAuthorizationService.warmUp();
+
+        // Assert: 60 + 40 uses up card 1 exactly; the next cent is declined
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditAuthorizationService.authorize(1L, Money.parse("60")));
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditAuthorizationService.authorize(1L, Money.parse("40")));
+        assertEquals(Optional.of(PostingStatus.DECLINED), creditAuthorizationService.authorize(1L, Money.ofMinor(1)));
+        assertEquals(Optional.of(PostingStatus.DECLINED), creditAuthorizationService.authorize(2L, Money.parse("10.01")));
+        assertEquals(2.0, meterRegistry.get("creditcard.authorization.cards").gauge().value());
+        verify(creditCardQueryPort, never()).findById(any());
+    }
+
+    /**
+     * Tests that a card missing from the table is loaded once, and that an unknown card is reported as such.
+     */
+    @Test
+    void testAuthorize_LoadsMissingCard() {
+        // Arrange: Card 3 has 5000.00 - 4990.00 available, card 4 does not exist
+        CreditCardDTO card = new CreditCardDTO();
+        card.setCardId(3L);
+        card.setCreditLimit(Money.parse("5000"));
+        card.setCurrentBalance(Money.parse("4990"));
+        when(creditCardQueryPort.findById(3L)).thenReturn(Optional.of(card));
+        when(creditCardQueryPort.findById(4L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditAuthorizationService.authorize(3L, Money.parse("6")));
+        assertEquals(Optional.of(PostingStatus.DECLINED), creditAuthorizationService.authorize(3L, Money.parse("6")));
+        assertTrue(creditAuthorizationService.authorize(4L, Money.parse("6")).isEmpty());
+        verify(creditCardQueryPort, times(1)).findById(3L);
+    }
+
+    /**
+     * Tests that reconciling a written card replaces its holds, and that an invalidated card is reloaded.
+     */
+    @Test
+    void testReconcileAndInvalidate() {
+        creditAuthorizationService.warmUp();
+        creditAuthorizationService.authorize(2L, Money.parse("10"));
+
+        // Act: The card is written with a higher limit
+        CreditCard written = new CreditCard();
+        written.setId(2L);
+        written.setCreditLimit(Money.parse("50"));
+        written.setCurrentBalance(Money.parse("20"));
+        creditAuthorizationService.reconcile(written);
+
+        // Assert: 30.00 available again
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditAuthorizationService.authorize(2L, Money.parse("30")));
+
+        // Act: The card is deleted
+        when(creditCardQueryPort.findById(2L)).thenReturn(Optional.empty());
+        creditAuthorizationService.invalidate(2L);
+
+        // Assert
+        assertTrue(creditAuthorizationService.authorize(2L, Money.parse("1")).isEmpty());
+    }
+
+    /**
+     * Tests that amounts that are not positive are rejected.
+     */
+    @Test
+    void testAuthorize_InvalidAmount() {
+        assertThrows(InvalidPostingException.class, () -> creditAuthorizationService.authorize(1L, null));
+        assertThrows(InvalidPostingException.class, () -> creditAuthorizationService.authorize(1L, Money.parse("-5")));
+    }
+
+    /**
+     * Tests that concurrent authorizations never overspend a card: 100.00 covers exactly 100 of the 400
+     * charges of 1.00 made by 16 threads, while the table grows under them as other cards are added.
+     */
+    @Test
+    void testAuthorize_Concurrent() throws Exception {
+        creditAuthorizationService.warmUp();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger approved = new AtomicInteger();
+        try {
+            // Act
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        if (creditAuthorizationService.authorize(1L, Money.parse("1"))
+                                .orElseThrow() == PostingStatus.APPROVED) {
+                            approved.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (long id = 10; id < 10_010; id++) {
+                CreditCard card = new CreditCard();
+                card.setId(id);
+                card.setCreditLimit(Money.parse("1"));
+                card.setCurrentBalance(Money.ZERO);
+                creditAuthorizationService.reconcile(card);
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(100, approved.get());
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditAuthorizationService.authorize(10_009L, Money.parse("1")));
+        assertEquals(10_002.0, meterRegistry.get("creditcard.authorization.cards").gauge().value());
+    }
+}
@@ -0,0 +1,183 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.InvalidSearchCriteriaException;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CreditCardQueryService class.
+ * Utilizes Mockito for mocking the query port.
+ */
+class CreditCardQueryServiceTest {
+
+    @Mock
+    private CreditCardQueryPort creditCardQueryPort; // Mocked query port
+
+    @Mock
+    private CardNumberFilter cardNumberFilter; // Mocked filter of known card numbers
+
+    @Mock
+    private CustomerRepositoryPort customerRepositoryPort; // Mocked customer port, used to check owners
+
+    @InjectMocks
+    private CreditCardQueryService creditCardQueryService; // Service under test
+
+    /**
+     * Initializes Mockito annotations before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests the retrieval of a page of credit cards.
+     * Verifies that the requested page size is clamped to the maximum allowed.
+     */
+    @Test
+    void testGetCreditCardPage_ClampsLimit() {
+        // Arrange: Simulate query port behavior
+        when(creditCardQueryPort.findPage(10L, CreditCardQueryService.MAX_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(Arrays.asList(new CreditCardDTO()), null));
+
+        // Act: Request more cards than allowed
+        CursorPage<CreditCardDTO> page = creditCardQueryService.getCreditCardPage(10L, 100_000);
+
+        // Assert: Verify the port was queried with the clamped size
+        assertEquals(1, page.getItems().size());
+        verify(creditCardQueryPort, times(1)).findPage(10L, CreditCardQueryService.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Tests that a non-positive page size is raised to one.
+     */
+    @Test
+    void testGetCreditCardPage_MinimumLimit() {
+        // Arrange
+        when(creditCardQueryPort.findPage(null, 1)).thenReturn(new CursorPage<>(Arrays.asList(), null));
+
+        // Act
+        creditCardQueryService.getCreditCardPage(null, 0);
+
+        // Assert
+        verify(creditCardQueryPort, times(1)).findPage(null, 1);
+    }
+
+    /**
+     * Tests that a lookup by a card number unknown to the filter does not query the port.
+     */
+    @Test
+    void testGetCreditCardByNumber_UnknownNumber() {
+        // Arrange
+        when(cardNumberFilter.mightContain("4000000000000001")).thenReturn(false);
+
+        // Act
+        Optional<CreditCardDTO> result = creditCardQueryService.getCreditCardByNumber("4000000000000001");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(creditCardQueryPort, never()).findByCardNumber(any());
+    }
+
+    /**
+     * Tests that a lookup by a card number the filter may know is answered by the port.
+     */
+    @Test
+    void testGetCreditCardByNumber_KnownNumber() {
+        // Arrange
+        CreditCardDTO card = new CreditCardDTO();
+        when(cardNumberFilter.mightContain("4000000000000001")).thenReturn(true);
+        when(creditCardQueryPort.findByCardNumber("4000000000000001")).thenReturn(Optional.of(card));
+
+        // Act
+        Optional<CreditCardDTO> result = creditCardQueryService.getCreditCardByNumber("4000000000000001");
+
+        // Assert
+        assertSame(card, result.orElseThrow());
+    }
+
+    /**
+     * Tests that a search with consistent filters is passed to the port with a clamped page size.
+     */
+    @Test
+    void testSearchCreditCards() {
+        // Arrange
+        CreditCardSearchCriteria criteria = new CreditCardSearchCriteria();
+        criteria.setMinBalance(Money.parse("100.0"));
+        criteria.setMaxBalance(Money.parse("100.0"));
+        when(creditCardQueryPort.search(criteria, null, CreditCardQueryService.MAX_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(Arrays.asList(new CreditCardDTO()), null));
+
+        // Act
+        CursorPage<CreditCardDTO> page = creditCardQueryService.searchCreditCards(criteria, null, 100_000);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+    }
+
+    /**
+     * Tests that inconsistent search filters are rejected without querying the port.
+     */
+    @Test
+    void testSearchCreditCards_InvalidRange() {
+        // Arrange
+        CreditCardSearchCriteria criteria = new CreditCardSearchCriteria();
+        criteria.setMinUtilization(0.9);
+        criteria.setMaxUtilization(0.5);
+
+        // Act & Assert
+        InvalidSearchCriteriaException e = assertThrows(InvalidSearchCriteriaException.class,
+                () -> creditCardQueryService.searchCreditCards(criteria, null, 10));
+        assertEquals("minUtilization must not be greater than maxUtilization", e.getMessage());
+        verify(creditCardQueryPort, never()).search(any(), any(), anyInt());
+    }
+
+    /**
+     * Tests listing the cards of a customer.
+     * Verifies that a non-empty page does not check whether the customer exists.
+     */
+    @Test
+    void testGetCustomerCreditCards() {
+        // Arrange
+        when(creditCardQueryPort.findPageByCustomer(7L, CreditCardSort.DEFAULT, null, 20))
+                .thenReturn(new CursorPage<>(Arrays.asList(new CreditCardDTO()), null));
+
+        // Act
+        Optional<CursorPage<CreditCardDTO>> page =
+                creditCardQueryService.getCustomerCreditCards(7L, CreditCardSort.DEFAULT, null, 20);
+
+        // Assert
+        assertEquals(1, page.orElseThrow().getItems().size());
+        verify(customerRepositoryPort, never()).existsById(any());
+    }
+
+    /**
+     * Tests listing the cards of a customer who does not exist.
+     */
+    @Test
+    void testGetCustomerCreditCards_UnknownCustomer() {
+        // Arrange
+        when(creditCardQueryPort.findPageByCustomer(7L, CreditCardSort.DEFAULT, null, 20))
+                .thenReturn(new CursorPage<>(Arrays.asList(), null));
+        when(customerRepositoryPort.existsById(7L)).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(creditCardQueryService.getCustomerCreditCards(7L, CreditCardSort.DEFAULT, null, 20).isEmpty());
+    }
+}
@@ -1,18 +1,28 @@
 package com.creditcard.management.credit_card_api.application.service;
 
+import com.creditcard.management.credit_card_api.application.dto.BatchItemResultDTO;
 import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.DuplicateCardNumberException;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +36,24 @@ class CreditCardServiceTest {
     @Mock
     private CreditCardRepositoryPort creditCardRepositoryPort; // Mocked repository port
 
+    @Mock
+    private CustomerRepositoryPort customerRepositoryPort; // Mocked customer port, used to validate batches
+
+    @Mock
+    private CardNumberFilter cardNumberFilter; // Mocked filter of known card numbers
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry; // Mocked optimistic locking policy, used to count conflicts
+
+    @Mock
+    private BalanceLedger balanceLedger; // Mocked balance ledger, inactive unless a test activates it
+
+    @Mock
+    private CreditAuthorizationService creditAuthorizationService; // Mocked authorization service
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus; // Mocked bus publishing the writes to other instances
+
     @InjectMocks
     private CreditCardService creditCardService; // Service under test
 
@@ -38,36 +66,16 @@ class CreditCardServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(cardNumberFilter.mightContain(any())).thenReturn(true); // Every number may be known by default
 
         // Create a test credit card object
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        String formattedDate = dateFormat.format(new Date());
 
         testCard = new CreditCard();
         testCard.setCardNumber("1234567890123456");
-        testCard.setExpirationDate(formattedDate);
+        testCard.setExpirationDate(LocalDate.now());
         testCard.setCvv("123");
-        testCard.setCreditLimit(5000.0);
-        testCard.setCurrentBalance(1000.0);
-    }
-
-    /**
-     * Tests the retrieval of all credit cards.
-     * Verifies that the service interacts with the repository and returns the expected results.
-     */
-    @Test
-    void testGetAllCreditCards() {
-        // Arrange: Simulate repository behavior
-        when(creditCardRepositoryPort.findAll()).thenReturn(Arrays.asList(testCard));
-
-        // Act: Call the service method
-        List<CreditCard> cards = creditCardService.getAllCreditCards();
-
-        // Assert: Verify results
-        assertFalse(cards.isEmpty());
-        assertEquals(1, cards.size());
-        assertEquals("1234567890123456", cards.get(0).getCardNumber());
-        verify(creditCardRepositoryPort, times(1)).findAll();
+        testCard.setCreditLimit(Money.parse("5000.0"));
+        testCard.setCurrentBalance(Money.parse("1000.0"));
     }
 
     /**
@@ -120,24 +128,108 @@ class CreditCardServiceTest {
         verify(creditCardRepositoryPort, times(1)).save(testCard);
     }
 
+    /**
+     * Tests that a card number unknown to the filter is created without a duplicate check,
+     * and is recorded in the filter afterwards.
+     */
+    @Test
+    void testCreateCreditCard_UnknownNumberSkipsDuplicateCheck() {
+        // Arrange: The filter does not know the number
+        when(cardNumberFilter.mightContain("1234567890123456")).thenReturn(false);
+        when(creditCardRepositoryPort.save(testCard)).thenReturn(testCard);
+
+        // Act
+        creditCardService.createCreditCard(testCard);
+
+        // Assert: The repository was not asked for duplicates
+        verify(creditCardRepositoryPort, never()).findExistingCardNumbers(anyCollection());
+        verify(cardNumberFilter, times(1)).add("1234567890123456");
+    }
+
+    /**
+     * Tests that creating a card with a number already in use is rejected before saving.
+     */
+    @Test
+    void testCreateCreditCard_DuplicateNumber() {
+        // Arrange: The filter may know the number and the repository confirms it
+        when(creditCardRepositoryPort.findExistingCardNumbers(Set.of("1234567890123456")))
+                .thenReturn(Set.of("1234567890123456"));
+
+        // Act & Assert
+        assertThrows(DuplicateCardNumberException.class, () -> creditCardService.createCreditCard(testCard));
+        verify(creditCardRepositoryPort, never()).save(any());
+    }
+
+    /**
+     * Tests creating a batch of credit cards.
+     * Verifies that invalid cards are rejected individually and only the valid ones are saved, in one call.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateCreditCards_RejectsInvalidItems() {
+        // Arrange: A valid card, a duplicate of it, a card of an unknown customer and an existing card number
+        testCard.setCardType("Credit");
+        testCard.setCustomerId(1L);
+        CreditCard duplicate = copyOf(testCard);
+        CreditCard unknownCustomer = copyOf(testCard);
+        unknownCustomer.setCardNumber("1111222233334444");
+        unknownCustomer.setCustomerId(99L);
+        CreditCard existing = copyOf(testCard);
+        existing.setCardNumber("9999888877776666");
+
+        when(creditCardRepositoryPort.findExistingCardNumbers(anyCollection())).thenReturn(Set.of("9999888877776666"));
+        when(customerRepositoryPort.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(creditCardRepositoryPort.saveAll(anyList())).thenAnswer(invocation -> {
+            List<CreditCard> cards = invocation.getArgument(0);
+            cards.forEach(card -> card.setId(42L));
+            return cards;
+        });
+
+        // Act
+        List<BatchItemResultDTO> results = creditCardService.createCreditCards(
+                Arrays.asList(testCard, duplicate, unknownCustomer, existing));
+
+        // Assert: Only the first card is created and every item has a result in request order
+        assertEquals(4, results.size());
+        assertEquals(BatchItemResultDTO.CREATED, results.get(0).getStatus());
+        assertEquals(42L, results.get(0).getId());
+        for (int i = 1; i < 4; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(BatchItemResultDTO.REJECTED, results.get(i).getStatus());
+            assertNotNull(results.get(i).getMessage());
+        }
+        verify(creditCardRepositoryPort, times(1)).saveAll(List.of(testCard));
+    }
+
+    /**
+     * Tests that a null item of a batch is rejected on its own instead of failing the whole batch.
+     */
+    @Test
+    void testCreateCreditCards_RejectsNullItem() {
+        // Act
+        List<BatchItemResultDTO> results = creditCardService.createCreditCards(Arrays.asList((CreditCard) null));
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(BatchItemResultDTO.REJECTED, results.get(0).getStatus());
+        verify(creditCardRepositoryPort, never()).saveAll(anyList());
+    }
+
     /**
      * Tests updating an existing credit card successfully.
+     * Verifies that the update goes through the single-statement port method, without reading the card.
      */
     @Test
     void testUpdateCreditCard_Success() {
-        // Arrange: Simulate finding and updating a credit card
-        when(creditCardRepositoryPort.findById(1L)).thenReturn(Optional.of(testCard));
-        when(creditCardRepositoryPort.save(any(CreditCard.class))).thenReturn(testCard);
-
+        // Arrange: Simulate the repository updating one row
         CreditCard updatedCard = new CreditCard();
         updatedCard.setCardNumber("6543210987654321");
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        String formattedDate = dateFormat.format(new Date());
-        updatedCard.setExpirationDate(formattedDate);
+        updatedCard.setExpirationDate(LocalDate.now());
         updatedCard.setCvv("456");
-        updatedCard.setCreditLimit(10000.0);
-        updatedCard.setCurrentBalance(2000.0);
+        updatedCard.setCreditLimit(Money.parse("10000.0"));
+        updatedCard.setCurrentBalance(Money.parse("2000.0"));
+        when(creditCardRepositoryPort.update(1L, updatedCard)).thenReturn(Optional.of(updatedCard));
 
         // Act: Call the service method
         Optional<CreditCard> result = creditCardService.updateCreditCard(1L, updatedCard);
@@ -145,8 +237,152 @@ class CreditCardServiceTest {
         // Assert: Verify the card was updated correctly
         assertTrue(result.isPresent());
         assertEquals("6543210987654321", result.get().getCardNumber());
-        verify(creditCardRepositoryPort, times(1)).findById(1L);
-        verify(creditCardRepositoryPort, times(1)).save(any(CreditCard.class));
+        verify(creditCardRepositoryPort, times(1)).update(1L, updatedCard);
+        verify(creditCardRepositoryPort, never()).findById(anyLong());
+        verify(creditCardRepositoryPort, never()).save(any(CreditCard.class));
+        verify(creditAuthorizationService).reconcile(updatedCard);
+    }
+
+    /**
+     * Tests updating a credit card that does not exist.
+     */
+    @Test
+    void testUpdateCreditCard_NotFound() {
+        // Arrange: Simulate the repository updating no row
+        when(creditCardRepositoryPort.update(eq(1L), any(CreditCard.class))).thenReturn(Optional.empty());
+
+        // Act
+        Optional<CreditCard> result = creditCardService.updateCreditCard(1L, testCard);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Tests a conditional update of a credit card that was changed since the expected version.
+     * Verifies that the card is only looked up because the update affected no row, and that the conflict is counted.
+     */
+    @Test
+    void testUpdateCreditCard_VersionMismatch() {
+        // Arrange: The conditional update affects no row, but the card exists
+        testCard.setVersion(3L);
+        when(creditCardRepositoryPort.update(1L, testCard)).thenReturn(Optional.empty());
+        when(creditCardRepositoryPort.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(VersionMismatchException.class, () -> creditCardService.updateCreditCard(1L, testCard));
+        verify(optimisticLockRetry).recordConflict("credit-card.update");
+    }
+
+    /**
+     * Tests a conditional partial update of a credit card that was changed since the expected version.
+     */
+    @Test
+    void testPatchCreditCard_VersionMismatch() {
+        // Arrange: The conditional update affects no row, but the card exists
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCardType("Debit");
+        patch.setExpectedVersion(3L);
+        when(creditCardRepositoryPort.patch(1L, patch)).thenReturn(Optional.empty());
+        when(creditCardRepositoryPort.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(VersionMismatchException.class, () -> creditCardService.patchCreditCard(1L, patch));
+        verify(optimisticLockRetry).recordConflict("credit-card.patch");
+        verify(cacheInvalidationBus, never()).cardChanged(anyLong());
+    }
+
+    /**
+     * Tests that postings are authorized by the balance ledger when it is active, without touching the database.
+     */
+    @Test
+    void testPostToBalance_ThroughLedger() {
+        // Arrange
+        Money amount = Money.parse("10.00");
+        when(balanceLedger.isActive()).thenReturn(true);
+        when(balanceLedger.post(1L, amount)).thenReturn(Optional.of(PostingStatus.APPROVED));
+        when(balanceLedger.post(2L, amount)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<PostingStatus> single = creditCardService.postToBalance(1L, amount);
+        List<BatchItemResultDTO> batch = creditCardService.postToBalances(
+                List.of(new Posting(1L, amount), new Posting(2L, amount)));
+
+        // Assert
+        assertEquals(Optional.of(PostingStatus.APPROVED), single);
+        assertEquals(PostingStatus.APPROVED.name(), batch.get(0).getStatus());
+        assertEquals(BatchItemResultDTO.REJECTED, batch.get(1).getStatus());
+        verifyNoInteractions(creditCardRepositoryPort);
+        verify(creditAuthorizationService, times(2)).invalidate(1L);
+        verify(creditAuthorizationService, never()).invalidate(2L);
+    }
+
+    /**
+     * Tests posting to the balance of a card.
+     * Verifies that an applied posting is approved without a lookup, and that a posting that was not
+     * applied is declined if the card exists and reported as missing otherwise.
+     */
+    @Test
+    void testPostToBalance() {
+        // Arrange: The first card accepts the posting, the second declines it, the third does not exist
+        Money amount = Money.parse("125.50");
+        when(creditCardRepositoryPort.addToBalance(1L, amount)).thenReturn(true);
+        when(creditCardRepositoryPort.addToBalance(2L, amount)).thenReturn(false);
+        when(creditCardRepositoryPort.existsById(2L)).thenReturn(true);
+        when(creditCardRepositoryPort.addToBalance(3L, amount)).thenReturn(false);
+        when(creditCardRepositoryPort.existsById(3L)).thenReturn(false);
+
+        // Act & Assert
+        assertEquals(Optional.of(PostingStatus.APPROVED), creditCardService.postToBalance(1L, amount));
+        assertEquals(Optional.of(PostingStatus.DECLINED), creditCardService.postToBalance(2L, amount));
+        assertTrue(creditCardService.postToBalance(3L, amount).isEmpty());
+        verify(creditCardRepositoryPort, never()).existsById(1L);
+    }
+
+    /**
+     * Tests that postings without an amount or with a zero amount are rejected before reaching the repository.
+     */
+    @Test
+    void testPostToBalance_InvalidAmount() {
+        // Act & Assert
+        assertThrows(InvalidPostingException.class, () -> creditCardService.postToBalance(1L, null));
+        assertThrows(InvalidPostingException.class, () -> creditCardService.postToBalance(1L, Money.ZERO));
+        verify(creditCardRepositoryPort, never()).addToBalance(anyLong(), any());
+    }
+
+    /**
+     * Tests posting a batch of charges and payments.
+     * Verifies that invalid postings are rejected individually, that the others reach the repository sorted by
+     * card ID with the order of each card kept, and that unapplied postings are told apart with one lookup.
+     */
+    @Test
+    void testPostToBalances() {
+        // Arrange: Card 3 accepts both postings, card 1 declines its charge, card 9 does not exist
+        List<Posting> postings = Arrays.asList(
+                new Posting(3L, Money.parse("10")),
+                new Posting(1L, Money.parse("5000")),
+                new Posting(null, Money.parse("1")),
+                new Posting(3L, Money.parse("-4")),
+                new Posting(9L, Money.parse("1")),
+                new Posting(1L, Money.ZERO));
+        when(creditCardRepositoryPort.addToBalances(anyList())).thenReturn(new boolean[]{false, true, true, false});
+        when(creditCardRepositoryPort.findExistingIds(Set.of(1L, 9L))).thenReturn(Set.of(1L));
+
+        // Act
+        List<BatchItemResultDTO> results = creditCardService.postToBalances(postings);
+
+        // Assert: Sorted by card ID, with the two postings of card 3 in request order
+        ArgumentCaptor<List<Posting>> sorted = ArgumentCaptor.forClass(List.class);
+        verify(creditCardRepositoryPort).addToBalances(sorted.capture());
+        assertEquals(List.of(1L, 3L, 3L, 9L), sorted.getValue().stream().map(Posting::getCardId).toList());
+        assertEquals(Money.parse("10"), sorted.getValue().get(1).getAmount());
+
+        // Assert: One result per posting, in request order
+        assertEquals(List.of("APPROVED", "DECLINED", "REJECTED", "APPROVED", "REJECTED", "REJECTED"),
+                results.stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals(3L, results.get(0).getId());
+        assertEquals("Credit card 9 does not exist", results.get(4).getMessage());
+        assertEquals(5, results.get(5).getIndex());
     }
 
     /**
@@ -154,17 +390,33 @@ class CreditCardServiceTest {
      */
     @Test
     void testDeleteCreditCard_Success() {
-        // Arrange: Simulate repository confirming card existence
-        when(creditCardRepositoryPort.existsById(1L)).thenReturn(true);
-        doNothing().when(creditCardRepositoryPort).deleteById(1L);
+        // Arrange: Simulate repository deleting one row
+        when(creditCardRepositoryPort.deleteById(1L)).thenReturn(1);
 
         // Act: Call the service method
         boolean result = creditCardService.deleteCreditCard(1L);
 
-        // Assert: Verify the card was deleted
+        // Assert: Verify the card was deleted without a separate existence check
         assertTrue(result);
-        verify(creditCardRepositoryPort, times(1)).existsById(1L);
         verify(creditCardRepositoryPort, times(1)).deleteById(1L);
+        verify(creditCardRepositoryPort, never()).existsById(anyLong());
+    }
+
+    /**
+     * Tests that deleting a card tells the other instances about the card without reading it first.
+     */
+    @Test
+    void testDeleteCreditCard_PublishesCardWithoutReadingIt() {
+        // Arrange
+        when(creditCardRepositoryPort.deleteById(1L)).thenReturn(1);
+
+        // Act
+        creditCardService.deleteCreditCard(1L);
+
+        // Assert
+        verify(cacheInvalidationBus).cardChanged(1L);
+        verify(cacheInvalidationBus, never()).customerChanged(any());
+        verify(creditCardRepositoryPort, never()).findById(anyLong());
     }
 
     /**
@@ -172,15 +424,32 @@ class CreditCardServiceTest {
      */
     @Test
     void testDeleteCreditCard_NotFound() {
-        // Arrange: Simulate repository confirming card does not exist
-        when(creditCardRepositoryPort.existsById(1L)).thenReturn(false);
+        // Arrange: Simulate repository deleting no row
+        when(creditCardRepositoryPort.deleteById(1L)).thenReturn(0);
 
         // Act
         boolean result = creditCardService.deleteCreditCard(1L);
 
         // Assert
         assertFalse(result);
-        verify(creditCardRepositoryPort, times(1)).existsById(1L);
-        verify(creditCardRepositoryPort, never()).deleteById(1L);
+        verify(creditCardRepositoryPort, times(1)).deleteById(1L);
+    }
+
+    /**
+     * Creates a copy of a credit card, so that batch items are distinct objects.
+     *
+     * @param source The credit card to copy.
+     * @return A new CreditCard with the same field values.
+     */
+    private CreditCard copyOf(CreditCard source) {
+        CreditCard copy = new CreditCard();
+        copy.setCardNumber(source.getCardNumber());
+        copy.setExpirationDate(source.getExpirationDate());
+        copy.setCvv(source.getCvv());
+        copy.setCardType(source.getCardType());
+        copy.setCreditLimit(source.getCreditLimit());
+        copy.setCurrentBalance(source.getCurrentBalance());
+        copy.setCustomerId(source.getCustomerId());
+        return copy;
     }
 }
@@ -0,0 +1,265 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.application.port.out.CustomerRepositoryPort;
+import com.creditcard.management.credit_card_api.core.exception.UpdateConflictException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CustomerService class.
+ * Utilizes Mockito for mocking the repository port and focuses on the email lookup cache
+ * and on updates that conflict with concurrent writers.
+ */
+class CustomerServiceTest {
+
+    @Mock
+    private CustomerRepositoryPort customerRepositoryPort; // Mocked repository port
+
+    @Mock
+    private CreditAuthorizationService creditAuthorizationService; // Mocked authorization service
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus; // Mocked bus publishing the writes to other instances
+
+    @Mock
+    private CardNumberFilter cardNumberFilter; // Mocked filter of known card numbers
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Mocked transaction manager of the email cache loads
+
+    private CustomerService customerService; // Service under test
+
+    private SimpleMeterRegistry meterRegistry; // Collects the optimistic locking metrics
+
+    private Customer testCustomer; // Test customer object
+
+    /**
+     * Initializes Mockito annotations and creates the service with a small email cache.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        customerService = new CustomerService(customerRepositoryPort,
+                new OptimisticLockRetry(meterRegistry, 3, Duration.ZERO, Duration.ZERO), creditAuthorizationService,
+                cacheInvalidationBus, cardNumberFilter, transactionManager, 100, Duration.ofMinutes(10));
+
+        testCustomer = new Customer();
+        testCustomer.setId(1L);
+        testCustomer.setFirstName("Ann");
+        testCustomer.setLastName("Lee");
+        testCustomer.setEmail("Ann.Lee@example.com");
+    }
+
+    /**
+     * Tests that the email cache is loaded in a new read-write transaction, which reads the primary.
+     */
+    @Test
+    void testGetCustomerByEmail_LoadedInReadWriteTransaction() {
+        // Arrange
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        customerService.getCustomerByEmail("ann.lee@example.com");
+
+        // Assert
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * Tests that repeated email lookups, in any case, query the repository once.
+     */
+    @Test
+    void testGetCustomerByEmail_CachedByNormalizedEmail() {
+        // Arrange
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        Optional<Customer> first = customerService.getCustomerByEmail("Ann.Lee@example.com");
+        Optional<Customer> second = customerService.getCustomerByEmail(" ANN.LEE@EXAMPLE.COM");
+
+        // Assert
+        assertEquals(1L, first.orElseThrow().getId());
+        assertEquals(1L, second.orElseThrow().getId());
+        verify(customerRepositoryPort, times(1)).findByEmail(anyString());
+    }
+
+    /**
+     * Tests that unknown emails are not cached, so a customer created later is found.
+     */
+    @Test
+    void testGetCustomerByEmail_MissNotCached() {
+        // Arrange: Unknown at first, then created
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testCustomer));
+
+        // Act & Assert
+        assertTrue(customerService.getCustomerByEmail("ann.lee@example.com").isEmpty());
+        assertTrue(customerService.getCustomerByEmail("ann.lee@example.com").isPresent());
+    }
+
+    /**
+     * Tests that patching a customer evicts them from the email cache, even when the email changes.
+     */
+    @Test
+    void testPatchCustomer_EvictsEmailCache() {
+        // Arrange: Cache the customer
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.of(testCustomer));
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        when(customerRepositoryPort.patch(eq(1L), any(CustomerPatch.class))).thenReturn(Optional.of(testCustomer));
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        customerService.patchCustomer(1L, new CustomerPatch());
+
+        // Assert: The old address is read again and no longer found
+        assertTrue(customerService.getCustomerByEmail("ann.lee@example.com").isEmpty());
+    }
+
+    /**
+     * Tests that a write evicts only the customer it concerns from the email cache.
+     */
+    @Test
+    void testPatchCustomer_EvictsOnlyItsEmail() {
+        // Arrange: Cache two customers
+        Customer other = new Customer();
+        other.setId(2L);
+        other.setEmail("bob@example.com");
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.of(testCustomer));
+        when(customerRepositoryPort.findByEmail("bob@example.com")).thenReturn(Optional.of(other));
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        customerService.getCustomerByEmail("bob@example.com");
+        when(customerRepositoryPort.patch(eq(1L), any(CustomerPatch.class))).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        customerService.patchCustomer(1L, new CustomerPatch());
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        customerService.getCustomerByEmail("bob@example.com");
+
+        // Assert
+        verify(customerRepositoryPort, times(2)).findByEmail("ann.lee@example.com");
+        verify(customerRepositoryPort, times(1)).findByEmail("bob@example.com");
+    }
+
+    /**
+     * Tests that a write made while a lookup of the customer is running evicts the result of that lookup.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     */
+    @Test
+    void testPatchCustomer_EvictsRunningLookup() throws InterruptedException {
+        // Arrange: The lookup reads the customer, then the patch is made before the lookup completes
+        CountDownLatch patched = new CountDownLatch(1);
+        when(customerRepositoryPort.patch(eq(1L), any(CustomerPatch.class))).thenAnswer(invocation -> {
+            patched.countDown();
+            return Optional.of(testCustomer);
+        });
+        Thread writer = new Thread(() -> customerService.patchCustomer(1L, new CustomerPatch()));
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenAnswer(invocation -> {
+            writer.start();
+            assertTrue(patched.await(10, TimeUnit.SECONDS));
+            return Optional.of(testCustomer);
+        }).thenReturn(Optional.empty());
+
+        // Act
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        writer.join();
+
+        // Assert: The customer read before the patch is not served
+        assertTrue(customerService.getCustomerByEmail("ann.lee@example.com").isEmpty());
+    }
+
+    /**
+     * Tests that deleting a customer evicts them from the email cache and their cards from the authorization service.
+     */
+    @Test
+    void testDeleteCustomer_EvictsEmailCache() {
+        // Arrange: Cache the customer
+        when(customerRepositoryPort.findByEmail("ann.lee@example.com")).thenReturn(Optional.of(testCustomer));
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        when(customerRepositoryPort.deleteById(1L)).thenReturn(1);
+        when(creditAuthorizationService.findCardIds(1L)).thenReturn(List.of(7L, 8L));
+
+        // Act
+        assertTrue(customerService.deleteCustomer(1L));
+
+        // Assert: The next lookup goes to the repository again
+        customerService.getCustomerByEmail("ann.lee@example.com");
+        verify(customerRepositoryPort, times(2)).findByEmail("ann.lee@example.com");
+        verify(creditAuthorizationService).invalidateAll(List.of(7L, 8L));
+    }
+
+    /**
+     * Tests that an unconditional update losing a race is retried on a fresh read and then succeeds.
+     */
+    @Test
+    void testUpdateCustomer_RetriedOnConflict() {
+        // Arrange: The first save conflicts, the second one succeeds
+        testCustomer.setVersion(4L);
+        when(customerRepositoryPort.findByIdWithCards(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepositoryPort.save(any(Customer.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"))
+                .thenReturn(testCustomer);
+        Customer changes = new Customer();
+        changes.setLastName("Park");
+
+        // Act
+        Optional<Customer> updated = customerService.updateCustomer(1L, changes, null);
+
+        // Assert: Read and saved twice, with one conflict and one retry recorded
+        assertEquals("Park", updated.orElseThrow().getLastName());
+        verify(customerRepositoryPort, times(2)).findByIdWithCards(1L);
+        assertEquals(1.0, meterRegistry.counter("creditcard.optimistic_lock.conflicts", "operation", "customer.update").count());
+        assertEquals(1.0, meterRegistry.counter("creditcard.optimistic_lock.retries", "operation", "customer.update").count());
+    }
+
+    /**
+     * Tests that an update that keeps conflicting is given up after the configured number of attempts.
+     */
+    @Test
+    void testUpdateCustomer_GivesUp() {
+        // Arrange: Every save conflicts
+        when(customerRepositoryPort.findByIdWithCards(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepositoryPort.save(any(Customer.class))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        // Act & Assert
+        assertThrows(UpdateConflictException.class, () -> customerService.updateCustomer(1L, new Customer(), null));
+        verify(customerRepositoryPort, times(3)).save(any(Customer.class));
+        assertEquals(1.0, meterRegistry.counter("creditcard.optimistic_lock.give_ups", "operation", "customer.update").count());
+    }
+
+    /**
+     * Tests that a conditional update naming an outdated version is rejected without saving or retrying.
+     */
+    @Test
+    void testUpdateCustomer_VersionMismatch() {
+        // Arrange: The stored customer is at version 5
+        testCustomer.setVersion(5L);
+        when(customerRepositoryPort.findByIdWithCards(1L)).thenReturn(Optional.of(testCustomer));
+
+        // Act & Assert
+        assertThrows(VersionMismatchException.class, () -> customerService.updateCustomer(1L, new Customer(), 4L));
+        verify(customerRepositoryPort, times(1)).findByIdWithCards(1L);
+        verify(customerRepositoryPort, never()).save(any(Customer.class));
+    }
+}
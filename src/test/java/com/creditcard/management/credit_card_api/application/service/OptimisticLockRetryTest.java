@@ -0,0 +1,97 @@
+package com.creditcard.management.credit_card_api.application.service;
+
+import com.creditcard.management.credit_card_api.core.exception.UpdateConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OptimisticLockRetry class.
+ * These tests verify the number of attempts and the metrics recorded for them.
+ */
+class OptimisticLockRetryTest {
+
+    private SimpleMeterRegistry meterRegistry; // Collects the metrics
+
+    private OptimisticLockRetry optimisticLockRetry; // Retry policy under test
+
+    /**
+     * Creates a policy of three attempts with short backoffs.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticLockRetry = new OptimisticLockRetry(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    /**
+     * Tests that an action succeeding at once is run once and records nothing.
+     */
+    @Test
+    void testRun_NoConflict() {
+        // Act
+        String result = optimisticLockRetry.run("test", () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(0.0, count("creditcard.optimistic_lock.conflicts"));
+    }
+
+    /**
+     * Tests that an action is retried until it stops conflicting.
+     */
+    @Test
+    void testRun_RetriesUntilSuccess() {
+        // Arrange: Conflicts twice, then succeeds
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        int result = optimisticLockRetry.run("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return attempts.get();
+        });
+
+        // Assert
+        assertEquals(3, result);
+        assertEquals(2.0, count("creditcard.optimistic_lock.conflicts"));
+        assertEquals(2.0, count("creditcard.optimistic_lock.retries"));
+        assertEquals(0.0, count("creditcard.optimistic_lock.give_ups"));
+    }
+
+    /**
+     * Tests that an action conflicting on every attempt is given up after the maximum number of attempts.
+     */
+    @Test
+    void testRun_GivesUp() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(UpdateConflictException.class, () -> optimisticLockRetry.run("test", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        }));
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, count("creditcard.optimistic_lock.conflicts"));
+        assertEquals(2.0, count("creditcard.optimistic_lock.retries"));
+        assertEquals(1.0, count("creditcard.optimistic_lock.give_ups"));
+    }
+
+    /**
+     * Gets the value of a counter of the "test" operation.
+     *
+     * @param name The metric name.
+     * @return The count.
+     */
+    private double count(String name) {
+        return meterRegistry.counter(name, "operation", "test").count();
+    }
+}
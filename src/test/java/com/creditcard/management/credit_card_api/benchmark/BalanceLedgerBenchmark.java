@@ -0,0 +1,92 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.application.service.CreditCardService;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures postings to a few hot cards from eight threads, with the balance ledger disabled
+ * (one conditional UPDATE per posting, serialized by the row locks of the hot cards) and enabled
+ * (in-memory authorization and a journal append per posting, written to the database in the background).
+ *
+ * The journal is forced to the device, as in production; concurrent postings share a force. Run with e.g.:
+ *   java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *       com.creditcard.management.credit_card_api.benchmark.BalanceLedgerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BalanceLedgerBenchmark {
+
+    // Number of hot cards the postings are spread over
+    private static final int HOT_CARDS = 4;
+
+    @Param({"false", "true"})
+    public boolean ledgerEnabled;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService creditCardService;
+    private Path journalDirectory;
+    private long[] cardIds;
+
+    /**
+     * Starts the application with or without the ledger and seeds the hot cards once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("balance-ledger");
+        context = BenchmarkContext.start("ledger_benchmark_" + ledgerEnabled,
+                "--creditcard.ledger.enabled=" + ledgerEnabled,
+                "--creditcard.ledger.journal-path=" + journalDirectory.resolve("ledger.journal"));
+        cardIds = BenchmarkContext.seedCreditCards(context, HOT_CARDS);
+        creditCardService = context.getBean(CreditCardService.class);
+    }
+
+    /**
+     * Stops the application and deletes the journal segments at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+
+    /**
+     * Posts a charge or a payment of 0.01 to a random hot card; the balances stay well within their limits.
+     */
+    @Benchmark
+    public Object post() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return creditCardService.postToBalance(cardIds[random.nextInt(HOT_CARDS)],
+                Money.ofMinor(random.nextBoolean() ? 1 : -1));
+    }
+
+    /**
+     * Runs this benchmark. Standard JMH command line options are accepted.
+     *
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BalanceLedgerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
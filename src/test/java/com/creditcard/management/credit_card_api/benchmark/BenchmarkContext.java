@@ -0,0 +1,87 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.CreditCardManagementApplication;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepository;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerEntity;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper for benchmarks that need the application wired against a database.
+ * Starts the Spring context on an in-memory H2 database and seeds it with credit cards.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    /**
+     * Starts the application on a private in-memory H2 database, without SQL logging.
+     *
+     * @param databaseName The name of the in-memory database, unique per benchmark.
+     * @param properties   Additional properties, e.g. "--creditcard.ledger.enabled=true".
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        // Passed as command line arguments so that they override application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--server.port=0",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(CreditCardManagementApplication.class).run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Seeds the database with one customer without credit cards.
+     *
+     * @param context The started application context.
+     * @return The saved customer.
+     */
+    static CustomerEntity seedCustomer(ConfigurableApplicationContext context) {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("bench.mark@example.com");
+        return context.getBean(CustomerRepository.class).save(customer);
+    }
+
+    /**
+     * Seeds the database with one customer owning the given number of credit cards.
+     *
+     * @param context The started application context.
+     * @param cards   The number of credit cards to create.
+     * @return The IDs of the created credit cards, in ascending order.
+     */
+    static long[] seedCreditCards(ConfigurableApplicationContext context, int cards) {
+        CustomerEntity customer = seedCustomer(context);
+
+        List<CreditCardEntity> entities = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            CreditCardEntity card = new CreditCardEntity();
+            card.setCardNumber(String.format("4%015d", i));
+            card.setExpirationDate(LocalDate.now());
+            card.setCvv("123");
+            card.setCardType(i % 2 == 0 ? "Credit" : "Debit");
+            card.setCreditLimit(Money.parse("5000.0"));
+            card.setCurrentBalance(Money.ofMinor(100L * (i % 5000)));
+            card.setCustomer(customer);
+            entities.add(card);
+        }
+        return context.getBean(CreditCardRepository.class).saveAll(entities).stream()
+                .mapToLong(CreditCardEntity::getCardId)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,124 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.application.service.CreditAuthorizationService;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares authorization decisions from eight threads:
+ *  - database: the card is read by primary key and its limit compared with its balance
+ *  - memory: the decision is taken by CreditAuthorizationService, a lookup and a compare-and-set
+ *
+ * Charges of 0.01 go to random cards among CARDS. Before each iteration the cards are given a credit limit
+ * high enough for every charge of the iteration to be approved, so the compare-and-set path is measured
+ * rather than declines. Run with e.g.:
+ *   java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *       com.creditcard.management.credit_card_api.benchmark.CreditAuthorizationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CreditAuthorizationBenchmark {
+
+    // Number of cards seeded in the database and authorized against
+    private static final int CARDS = 100_000;
+
+    // Amount of every charge
+    private static final Money CHARGE = Money.ofMinor(1);
+
+    private ConfigurableApplicationContext context;
+    private CreditAuthorizationService creditAuthorizationService;
+    private CreditCardQueryPort creditCardQueryPort;
+    private long[] cardIds;
+
+    /**
+     * Starts the application, seeds the cards and loads them into the authorization table once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("authorization_benchmark");
+        cardIds = BenchmarkContext.seedCreditCards(context, CARDS);
+        creditAuthorizationService = context.getBean(CreditAuthorizationService.class);
+        creditCardQueryPort = context.getBean(CreditCardQueryPort.class);
+        creditAuthorizationService.warmUp();
+    }
+
+    /**
+     * Gives every card a limit of 10,000,000.00 in memory, far more than an iteration can use up.
+     */
+    @Setup(Level.Iteration)
+    public void resetAvailableCredit() {
+        CreditCard card = new CreditCard();
+        card.setCreditLimit(Money.ofMinor(1_000_000_000L));
+        card.setCurrentBalance(Money.ZERO);
+        for (long id : cardIds) {
+            card.setId(id);
+            creditAuthorizationService.reconcile(card);
+        }
+    }
+
+    /**
+     * Stops the application at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Decides on a charge by reading the card from the database.
+     */
+    @Benchmark
+    public PostingStatus database() {
+        CreditCardDTO card = creditCardQueryPort.findById(randomCard()).orElseThrow();
+        return card.getCreditLimit().minus(card.getCurrentBalance()).compareTo(CHARGE) >= 0
+                ? PostingStatus.APPROVED
+                : PostingStatus.DECLINED;
+    }
+
+    /**
+     * Decides on a charge in memory.
+     */
+    @Benchmark
+    public PostingStatus memory() {
+        return creditAuthorizationService.authorize(randomCard(), CHARGE).orElseThrow();
+    }
+
+    /**
+     * Picks a random seeded card.
+     *
+     * @return The card ID.
+     */
+    private long randomCard() {
+        return cardIds[ThreadLocalRandom.current().nextInt(CARDS)];
+    }
+
+    /**
+     * Runs this benchmark. Standard JMH command line options are accepted.
+     *
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CreditAuthorizationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.application.service.CreditCardService;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting credit cards one request at a time with the batch endpoint:
+ *  - per-card path: one CreditCardService.createCreditCard call (and transaction) per card
+ *  - batch path: one CreditCardService.createCreditCards call for the whole batch, using JDBC batching
+ *
+ * Each operation inserts BATCH_SIZE cards, so the scores are directly comparable, e.g.:
+ *   java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *       com.creditcard.management.credit_card_api.benchmark.CreditCardBatchInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardBatchInsertBenchmark {
+
+    // Number of cards inserted by each benchmark operation
+    private static final int BATCH_SIZE = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService creditCardService;
+    private Long customerId;
+    private long nextCardNumber;
+
+    /**
+     * Starts the application and creates the customer owning the cards once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("batch_insert_benchmark");
+        customerId = BenchmarkContext.seedCustomer(context).getCustomerId();
+        creditCardService = context.getBean(CreditCardService.class);
+    }
+
+    /**
+     * Stops the application at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Builds the next cards to insert, with card numbers never used before.
+     *
+     * @return BATCH_SIZE new CreditCard objects.
+     */
+    private List<CreditCard> nextCards() {
+        List<CreditCard> cards = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            CreditCard card = new CreditCard();
+            card.setCardNumber(String.format("5%015d", nextCardNumber++));
+            card.setExpirationDate(LocalDate.of(2030, 12, 31));
+            card.setCvv("123");
+            card.setCardType("Credit");
+            card.setCreditLimit(Money.parse("5000.0"));
+            card.setCurrentBalance(Money.parse("0.0"));
+            card.setCustomerId(customerId);
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    /**
+     * Inserts the cards one at a time, as repeated calls to POST /api/credit-cards would.
+     */
+    @Benchmark
+    public void insertOneByOne(Blackhole blackhole) {
+        for (CreditCard card : nextCards()) {
+            blackhole.consume(creditCardService.createCreditCard(card));
+        }
+    }
+
+    /**
+     * Inserts the cards with a single call, as POST /api/credit-cards/batch does.
+     */
+    @Benchmark
+    public void insertBatch(Blackhole blackhole) {
+        blackhole.consume(creditCardService.createCreditCards(nextCards()));
+    }
+
+    /**
+     * Runs this benchmark. Standard JMH command line options are accepted.
+     *
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CreditCardBatchInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
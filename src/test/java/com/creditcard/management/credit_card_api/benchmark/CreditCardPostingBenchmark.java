@@ -0,0 +1,128 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.application.service.CreditCardService;
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of applying balance changes to many cards:
+ *  - read-modify-write path: one CreditCardService.getCreditCardById and updateCreditCard call per change,
+ *    as a client computing the new balance and sending it with PUT /api/credit-cards/{id} would
+ *  - posting path: one CreditCardService.postToBalance call (a single conditional UPDATE) per change
+ *  - batch path: one CreditCardService.postToBalances call for all changes, using JDBC batching
+ *
+ * Each operation applies BATCH_SIZE changes, so the scores are directly comparable; multiply them by
+ * BATCH_SIZE to get postings per second, e.g.:
+ *   java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *       com.creditcard.management.credit_card_api.benchmark.CreditCardPostingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardPostingBenchmark {
+
+    // Number of balance changes applied by each benchmark operation
+    private static final int BATCH_SIZE = 1_000;
+
+    // Number of cards the changes are spread over
+    private static final int CARD_COUNT = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService creditCardService;
+    private long[] cardIds;
+    private int nextCard;
+    private boolean charge;
+
+    /**
+     * Starts the application and seeds the cards once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("posting_benchmark");
+        cardIds = BenchmarkContext.seedCreditCards(context, CARD_COUNT);
+        creditCardService = context.getBean(CreditCardService.class);
+    }
+
+    /**
+     * Stops the application at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Builds the next postings, cycling over the cards and alternating charges and payments
+     * so that balances stay within their limits.
+     *
+     * @return BATCH_SIZE postings of 1.00 or -1.00.
+     */
+    private List<Posting> nextPostings() {
+        charge = !charge;
+        Money amount = Money.ofMinor(charge ? 100 : -100);
+        List<Posting> postings = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            postings.add(new Posting(cardIds[nextCard], amount));
+            nextCard = (nextCard + 1) % cardIds.length;
+        }
+        return postings;
+    }
+
+    /**
+     * Reads each card, computes the new balance and writes the whole card back.
+     */
+    @Benchmark
+    public void readModifyWrite(Blackhole blackhole) {
+        for (Posting posting : nextPostings()) {
+            CreditCard card = creditCardService.getCreditCardById(posting.getCardId()).orElseThrow();
+            card.setCurrentBalance(card.getCurrentBalance().plus(posting.getAmount()));
+            blackhole.consume(creditCardService.updateCreditCard(card.getId(), card));
+        }
+    }
+
+    /**
+     * Posts the changes one at a time, as repeated calls to POST /api/credit-cards/{id}/postings would.
+     */
+    @Benchmark
+    public void postOneByOne(Blackhole blackhole) {
+        for (Posting posting : nextPostings()) {
+            blackhole.consume(creditCardService.postToBalance(posting.getCardId(), posting.getAmount()));
+        }
+    }
+
+    /**
+     * Posts the changes with a single call, as POST /api/credit-cards/postings/batch does.
+     */
+    @Benchmark
+    public void postBatch(Blackhole blackhole) {
+        blackhole.consume(creditCardService.postToBalances(nextPostings()));
+    }
+
+    /**
+     * Runs this benchmark. Standard JMH command line options are accepted.
+     *
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CreditCardPostingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.creditcard.management.credit_card_api.benchmark;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.application.mapper.CreditCardMapper;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardQueryPort;
+import com.creditcard.management.credit_card_api.application.port.out.CreditCardRepositoryPort;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepositoryAdapter;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the read paths for credit cards:
+ *  - entity path: managed CreditCardEntity -> CreditCard -> CreditCardDTO (CreditCardRepositoryAdapter)
+ *  - projection path: JDBC row -> CreditCardDTO (CreditCardQueryPort)
+ *  - cached path: copy of a cached CreditCard -> CreditCardDTO (CreditCardRepositoryPort, with the repository cache)
+ *
+ * Run with the GC profiler to compare allocation per operation (gc.alloc.rate.norm), e.g.:
+ *   java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *       com.creditcard.management.credit_card_api.benchmark.CreditCardReadPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardReadPathBenchmark {
+
+    // Number of cards seeded in the database and size of the benchmarked pages
+    private static final int CARDS = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardRepositoryPort creditCardRepositoryPort;
+    private CreditCardRepositoryAdapter creditCardRepositoryAdapter;
+    private CreditCardQueryPort creditCardQueryPort;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private long[] cardIds;
+    private int next;
+
+    /**
+     * Starts the application and seeds the database once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read_path_benchmark");
+        cardIds = BenchmarkContext.seedCreditCards(context, CARDS);
+        creditCardRepositoryPort = context.getBean(CreditCardRepositoryPort.class);
+        creditCardRepositoryAdapter = context.getBean(CreditCardRepositoryAdapter.class);
+        creditCardQueryPort = context.getBean(CreditCardQueryPort.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Stops the application at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Picks the next card ID in round-robin order.
+     *
+     * @return A card ID that exists in the database.
+     */
+    private long nextCardId() {
+        next = (next + 1) % cardIds.length;
+        return cardIds[next];
+    }
+
+    /**
+     * Single-card lookup through the managed entity and domain model.
+     */
+    @Benchmark
+    public CreditCardDTO findByIdEntityPath() {
+        return creditCardRepositoryAdapter.findById(nextCardId()).map(CreditCardMapper::toDTO).orElseThrow();
+    }
+
+    /**
+     * Single-card lookup through the JDBC projection.
+     */
+    @Benchmark
+    public CreditCardDTO findByIdProjectionPath() {
+        return creditCardQueryPort.findById(nextCardId()).orElseThrow();
+    }
+
+    /**
+     * Single-card lookup through the repository cache; every seeded card fits in it, so after the warm-up
+     * iterations no lookup reaches the database.
+     */
+    @Benchmark
+    public CreditCardDTO findByIdCachedPath() {
+        return creditCardRepositoryPort.findById(nextCardId()).map(CreditCardMapper::toDTO).orElseThrow();
+    }
+
+    /**
+     * Page of cards loaded as managed entities, then copied to domain objects and DTOs.
+     */
+    @Benchmark
+    public void findPageEntityPath(Blackhole blackhole) {
+        long after = nextCardId() % (CARDS - PAGE_SIZE);
+        List<CreditCardEntity> entities = readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT c FROM CreditCardEntity c WHERE c.cardId > :after ORDER BY c.cardId",
+                        CreditCardEntity.class)
+                .setParameter("after", after)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+        entities.forEach(entity -> blackhole.consume(CreditCardMapper.toDTO(CreditCardMapper.toDomain(entity))));
+    }
+
+    /**
+     * Page of cards projected straight from the result set into DTOs.
+     */
+    @Benchmark
+    public void findPageProjectionPath(Blackhole blackhole) {
+        long after = nextCardId() % (CARDS - PAGE_SIZE);
+        creditCardQueryPort.findPage(after, PAGE_SIZE).getItems().forEach(blackhole::consume);
+    }
+
+    /**
+     * Runs this benchmark with the GC profiler. Standard JMH command line options are accepted.
+     *
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CreditCardReadPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package com.creditcard.management.credit_card_api.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Money value class.
+ */
+class MoneyTest {
+
+    /**
+     * Tests that decimal amounts are converted exactly and compared by value, whatever their scale.
+     */
+    @Test
+    void testOf_ExactConversion() {
+        // Act
+        Money amount = Money.of(new BigDecimal("10.5"));
+
+        // Assert
+        assertEquals(1050, amount.getMinorUnits());
+        assertEquals(Money.parse("10.50"), amount);
+        assertEquals(new BigDecimal("10.50"), amount.toBigDecimal());
+        assertEquals("10.50", amount.toString());
+        assertNull(Money.of(null));
+    }
+
+    /**
+     * Tests that fractions of a cent and malformed text are rejected instead of rounded.
+     */
+    @Test
+    void testParse_Invalid() {
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> Money.parse("10.005"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("ten"));
+    }
+
+    /**
+     * Tests that the arithmetic is exact where binary floating point is not, and detects overflow.
+     */
+    @Test
+    void testArithmetic() {
+        // Act: 0.1 + 0.2 is not 0.3 with doubles
+        Money sum = Money.parse("0.1").plus(Money.parse("0.2"));
+
+        // Assert
+        assertEquals(Money.parse("0.3"), sum);
+        assertTrue(Money.ZERO.minus(sum).isNegative());
+        assertEquals(60, Money.sumMinor(new long[]{10, 20, 30}));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+    }
+}
@@ -1,9 +1,18 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.in.web;
 
+import com.creditcard.management.credit_card_api.application.dto.BatchItemResultDTO;
 import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
 import com.creditcard.management.credit_card_api.application.mapper.CreditCardMapper;
+import com.creditcard.management.credit_card_api.application.service.CreditAuthorizationService;
+import com.creditcard.management.credit_card_api.application.service.CreditCardQueryService;
 import com.creditcard.management.credit_card_api.application.service.CreditCardService;
+import com.creditcard.management.credit_card_api.core.exception.InvalidPostingException;
+import com.creditcard.management.credit_card_api.core.exception.VersionMismatchException;
 import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.PostingStatus;
 import com.creditcard.management.credit_card_api.infrastructure.config.SecurityConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +21,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.context.annotation.Import;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.Arrays;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +50,12 @@ class CreditCardControllerTest {
     @MockBean
     private CreditCardService creditCardService; // Mocked service to simulate business logic
 
+    @MockBean
+    private CreditCardQueryService creditCardQueryService; // Mocked service to simulate read-only queries
+
+    @MockBean
+    private CreditAuthorizationService creditAuthorizationService; // Mocked service to simulate authorizations
+
     private CreditCardDTO testCardDTO; // Test DTO object for the tests
 
     /**
@@ -47,38 +67,88 @@ class CreditCardControllerTest {
         testCardDTO = new CreditCardDTO();
         testCardDTO.setCardId(1L);
         testCardDTO.setCardNumber("1234567890123456");
-        testCardDTO.setExpirationDate("2025-12-31");
+        testCardDTO.setExpirationDate(LocalDate.of(2025, 12, 31));
         testCardDTO.setCvv("123");
         testCardDTO.setCardType("Credit");
-        testCardDTO.setCreditLimit(5000.0);
-        testCardDTO.setCurrentBalance(1000.0);
+        testCardDTO.setCreditLimit(Money.parse("5000.0"));
+        testCardDTO.setCurrentBalance(Money.parse("1000.0"));
         testCardDTO.setCustomerId(1L);
     }
 
     /**
-     * Tests retrieving all credit cards.
+     * Tests retrieving the first page of credit cards.
      * Ensures the controller returns the expected list of credit cards in JSON format.
      */
     @Test
     void testGetAllCreditCards() throws Exception {
         // Arrange: Simulate service behavior
-        when(creditCardService.getAllCreditCards()).thenReturn(Arrays.asList(CreditCardMapper.toDomainFromDTO(testCardDTO)));
+        when(creditCardQueryService.getCreditCardPage(null, 50))
+                .thenReturn(new CursorPage<>(Arrays.asList(testCardDTO), null));
 
         // Act & Assert: Perform GET request and verify response
         mockMvc.perform(get("/api/credit-cards")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].cardId").value(1))
                 .andExpect(jsonPath("$[0].cardNumber").value("1234567890123456"))
                 .andExpect(jsonPath("$[0].creditLimit").value(5000.0));
     }
 
+    /**
+     * Tests retrieving a page of credit cards after a cursor.
+     * Ensures the cursor of the next page is returned in the X-Next-Cursor header.
+     */
+    @Test
+    void testGetCreditCardPage_WithNextCursor() throws Exception {
+        // Arrange: Simulate a page that is followed by another one
+        when(creditCardQueryService.getCreditCardPage(0L, 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(testCardDTO), 1L));
+
+        // Act & Assert: Perform GET request and verify the next cursor header
+        mockMvc.perform(get("/api/credit-cards")
+                        .param("after", "0")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    /**
+     * Tests the streaming export of credit cards.
+     * Ensures each card is written as one JSON document per line.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportCreditCards() throws Exception {
+        // Arrange: Simulate the service passing two cards to the consumer
+        doAnswer(invocation -> {
+            Consumer<CreditCard> consumer = invocation.getArgument(0);
+            consumer.accept(CreditCardMapper.toDomainFromDTO(testCardDTO));
+            consumer.accept(CreditCardMapper.toDomainFromDTO(testCardDTO));
+            return null;
+        }).when(creditCardService).exportCreditCards(any(Consumer.class));
+
+        // Act: Perform GET request, which starts asynchronous streaming
+        MvcResult result = mockMvc.perform(get("/api/credit-cards/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert: Verify the NDJSON body contains one line per card
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"cardNumber\":\"1234567890123456\"[^\\n]*}\\n){2}")));
+    }
+
     /**
      * Tests retrieving a specific credit card by ID when it exists.
      */
     @Test
     void testGetCreditCardById_Found() throws Exception {
         // Arrange: Simulate finding a credit card by ID
+        testCardDTO.setVersion(2L);
         when(creditCardService.getCreditCardById(1L))
                 .thenReturn(Optional.of(CreditCardMapper.toDomainFromDTO(testCardDTO)));
 
@@ -88,7 +158,9 @@ class CreditCardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.cardId").value(1))
                 .andExpect(jsonPath("$.cardNumber").value("1234567890123456"))
-                .andExpect(jsonPath("$.creditLimit").value(5000.0));
+                .andExpect(jsonPath("$.expirationDate").value("2025-12-31"))
+                .andExpect(jsonPath("$.creditLimit").value(5000.0))
+                .andExpect(header().string("ETag", "\"2\""));
     }
 
     /**
@@ -105,6 +177,46 @@ class CreditCardControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Tests searching credit cards.
+     * Verifies that the query parameters are passed as criteria and the next cursor is returned.
+     */
+    @Test
+    void testSearchCreditCards() throws Exception {
+        // Arrange
+        when(creditCardQueryService.searchCreditCards(argThat(criteria -> "Credit".equals(criteria.getCardType())
+                        && Money.parse("1000").equals(criteria.getMinBalance())
+                        && LocalDate.of(2026, 1, 1).equals(criteria.getExpiresBefore())), isNull(), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(testCardDTO), 1L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/credit-cards/search")
+                        .param("cardType", "Credit")
+                        .param("minBalance", "1000")
+                        .param("expiresBefore", "2026-01-01")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].cardId").value(1));
+    }
+
+    /**
+     * Tests retrieving a specific credit card by its number.
+     */
+    @Test
+    void testGetCreditCardByNumber() throws Exception {
+        // Arrange
+        when(creditCardQueryService.getCreditCardByNumber("1234567890123456")).thenReturn(Optional.of(testCardDTO));
+        when(creditCardQueryService.getCreditCardByNumber("0000000000000000")).thenReturn(Optional.empty());
+
+        // Act & Assert: Known and unknown numbers
+        mockMvc.perform(get("/api/credit-cards/by-number/1234567890123456"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(1));
+        mockMvc.perform(get("/api/credit-cards/by-number/0000000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Tests creating a new credit card.
      */
@@ -134,14 +246,46 @@ class CreditCardControllerTest {
                 .andExpect(jsonPath("$.cardNumber").value("1234567890123456"));
     }
 
+    /**
+     * Tests creating several credit cards in one request.
+     * Ensures one result per card is returned, in request order.
+     */
+    @Test
+    void testCreateCreditCards() throws Exception {
+        // Arrange: Simulate the service creating the first card and rejecting the second
+        when(creditCardService.createCreditCards(anyList()))
+                .thenReturn(Arrays.asList(
+                        BatchItemResultDTO.created(0, 10L),
+                        BatchItemResultDTO.rejected(1, "Card number is duplicated in the batch")));
+
+        // Act & Assert: Perform POST request and verify the per-item results
+        mockMvc.perform(post("/api/credit-cards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                [
+                    {"cardNumber": "1234567890123456", "expirationDate": "2025-12-31", "cvv": "123",
+                     "cardType": "Credit", "creditLimit": 5000.0, "currentBalance": 0.0, "customerId": 1},
+                    {"cardNumber": "1234567890123456", "expirationDate": "2025-12-31", "cvv": "123",
+                     "cardType": "Credit", "creditLimit": 5000.0, "currentBalance": 0.0, "customerId": 1}
+                ]
+                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"));
+    }
+
     /**
      * Tests updating an existing credit card.
      */
     @Test
     void testUpdateCreditCard() throws Exception {
-        // Arrange: Simulate service updating a credit card
-        when(creditCardService.updateCreditCard(eq(1L), any(CreditCard.class)))
-                .thenReturn(Optional.of(CreditCardMapper.toDomainFromDTO(testCardDTO)));
+        // Arrange: Simulate service updating a credit card to version 5
+        CreditCard updated = CreditCardMapper.toDomainFromDTO(testCardDTO);
+        updated.setVersion(5L);
+        when(creditCardService.updateCreditCard(eq(1L), argThat(card -> card.getVersion() == null)))
+                .thenReturn(Optional.of(updated));
 
         // Act & Assert: Perform PUT request and verify response
         mockMvc.perform(put("/api/credit-cards/1")
@@ -160,7 +304,215 @@ class CreditCardControllerTest {
                 """))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.cardId").value(1))
-                .andExpect(jsonPath("$.cardNumber").value("1234567890123456"));
+                .andExpect(jsonPath("$.cardNumber").value("1234567890123456"))
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    /**
+     * Tests a conditional update with an If-Match header.
+     * Verifies that the version of the ETag is passed to the service and the new ETag is returned.
+     */
+    @Test
+    void testUpdateCreditCard_IfMatch() throws Exception {
+        // Arrange: The service expects version 3 and returns version 4
+        CreditCard updated = CreditCardMapper.toDomainFromDTO(testCardDTO);
+        updated.setVersion(4L);
+        when(creditCardService.updateCreditCard(eq(1L), argThat(card -> Long.valueOf(3L).equals(card.getVersion()))))
+                .thenReturn(Optional.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/credit-cards/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\": \"1234567890123456\", \"version\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    /**
+     * Tests conditional updates whose If-Match header does not name the current version.
+     * Verifies that a stale version and an ETag this API never issues are both answered with 412.
+     */
+    @Test
+    void testUpdateCreditCard_PreconditionFailed() throws Exception {
+        // Arrange: The card was changed since version 3
+        when(creditCardService.updateCreditCard(eq(1L), any(CreditCard.class)))
+                .thenThrow(new VersionMismatchException("Credit card 1 no longer has version 3"));
+
+        // Act & Assert: Stale version
+        mockMvc.perform(put("/api/credit-cards/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\": \"1234567890123456\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // Act & Assert: Malformed entity tag, rejected before reaching the service
+        mockMvc.perform(put("/api/credit-cards/1")
+                        .header("If-Match", "W/\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\": \"1234567890123456\"}"))
+                .andExpect(status().isPreconditionFailed());
+        verify(creditCardService, times(1)).updateCreditCard(eq(1L), any(CreditCard.class));
+    }
+
+    /**
+     * Tests partially updating a credit card with a JSON Merge Patch.
+     * Ensures only the fields present in the document are passed on.
+     */
+    @Test
+    void testPatchCreditCard() throws Exception {
+        // Arrange: Simulate service patching the balance
+        when(creditCardService.patchCreditCard(eq(1L), argThat(patch -> Money.parse("1250").equals(patch.getCurrentBalance())
+                && patch.getCardNumber() == null && patch.getCreditLimit() == null)))
+                .thenReturn(Optional.of(CreditCardMapper.toDomainFromDTO(testCardDTO)));
+
+        // Act & Assert: Perform PATCH request and verify response
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 1250.0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(1));
+    }
+
+    /**
+     * Tests a conditional partial update with an If-Match header.
+     * Verifies that the version of the ETag is passed to the service, the new ETag is returned,
+     * and a stale version is answered with 412.
+     */
+    @Test
+    void testPatchCreditCard_IfMatch() throws Exception {
+        // Arrange: The service expects version 3 and returns version 4
+        CreditCard patched = CreditCardMapper.toDomainFromDTO(testCardDTO);
+        patched.setVersion(4L);
+        when(creditCardService.patchCreditCard(eq(1L), argThat(patch -> Long.valueOf(3L).equals(patch.getExpectedVersion()))))
+                .thenReturn(Optional.of(patched));
+        when(creditCardService.patchCreditCard(eq(1L), argThat(patch -> Long.valueOf(2L).equals(patch.getExpectedVersion()))))
+                .thenThrow(new VersionMismatchException("Credit card 1 no longer has version 2"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 1250.0}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        // Act & Assert: Stale version
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 1250.0}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    /**
+     * Tests partial updates that cannot be applied.
+     * Ensures removing a required field, changing the owner, or sending invalid dates or sub-cent amounts is rejected with 400.
+     */
+    @Test
+    void testPatchCreditCard_Invalid() throws Exception {
+        // Act & Assert: A null member would remove a required column
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"cvv\": null}"))
+                .andExpect(status().isBadRequest());
+
+        // Act & Assert: The owner cannot be changed
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"customerId\": 2}"))
+                .andExpect(status().isBadRequest());
+
+        // Act & Assert: Dates must be ISO calendar dates
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"expirationDate\": \"2025-02-30\"}"))
+                .andExpect(status().isBadRequest());
+
+        // Act & Assert: Amounts cannot hold fractions of a cent
+        mockMvc.perform(patch("/api/credit-cards/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 10.005}"))
+                .andExpect(status().isBadRequest());
+
+        verify(creditCardService, never()).patchCreditCard(anyLong(), any(CreditCardPatch.class));
+    }
+
+    /**
+     * Tests posting a charge to the balance of a card.
+     * Verifies that the outcome is returned with the card and the amount, and that a missing card gives 404.
+     */
+    @Test
+    void testPostToBalance() throws Exception {
+        // Arrange: The charge is declined on card 1, card 2 does not exist
+        when(creditCardService.postToBalance(1L, Money.parse("125.50"))).thenReturn(Optional.of(PostingStatus.DECLINED));
+        when(creditCardService.postToBalance(2L, Money.parse("125.50"))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/credit-cards/1/postings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 125.50}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(1))
+                .andExpect(jsonPath("$.amount").value(125.5))
+                .andExpect(jsonPath("$.status").value("DECLINED"));
+        mockMvc.perform(post("/api/credit-cards/2/postings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 125.50}"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests authorizing a charge against the available credit of a card.
+     * Verifies the outcome, the 404 of a missing card and the 400 of a non-positive amount.
+     */
+    @Test
+    void testAuthorize() throws Exception {
+        // Arrange: Approved on card 1, card 2 does not exist, negative amounts are invalid
+        when(creditAuthorizationService.authorize(1L, Money.parse("42.00"))).thenReturn(Optional.of(PostingStatus.APPROVED));
+        when(creditAuthorizationService.authorize(2L, Money.parse("42.00"))).thenReturn(Optional.empty());
+        when(creditAuthorizationService.authorize(1L, Money.parse("-1")))
+                .thenThrow(new InvalidPostingException("amount is required and must be positive"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/credit-cards/1/authorize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 42}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(1))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+        mockMvc.perform(post("/api/credit-cards/2/authorize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 42}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/credit-cards/1/authorize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": -1}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(creditCardService);
+    }
+
+    /**
+     * Tests posting a batch of charges and payments.
+     * Verifies that each element is passed on with its card ID and amount, and that the results are returned.
+     */
+    @Test
+    void testPostToBalances() throws Exception {
+        // Arrange
+        when(creditCardService.postToBalances(argThat(postings -> postings.size() == 2
+                && postings.get(0).getCardId() == 1L && Money.parse("-20").equals(postings.get(1).getAmount()))))
+                .thenReturn(List.of(BatchItemResultDTO.posted(0, 1L, PostingStatus.APPROVED),
+                        BatchItemResultDTO.posted(1, 2L, PostingStatus.DECLINED)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/credit-cards/postings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"cardId\": 1, \"amount\": 10.00}, {\"cardId\": 2, \"amount\": -20}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value("DECLINED"))
+                .andExpect(jsonPath("$[1].id").value(2));
     }
 
     /**
@@ -0,0 +1,283 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.cache;
+
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.BalanceLedgerStoreAdapter;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepositoryAdapter;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the RepositoryCache and the caching repository adapters built on it.
+ * The persistence adapters are mocked, so the number of their calls shows which reads reached the database.
+ */
+class RepositoryCacheTest {
+
+    @Mock
+    private CreditCardRepositoryAdapter creditCardRepositoryAdapter; // Mocked card persistence adapter
+
+    @Mock
+    private CustomerRepositoryAdapter customerRepositoryAdapter; // Mocked customer persistence adapter
+
+    @Mock
+    private BalanceLedgerStoreAdapter balanceLedgerStoreAdapter; // Mocked ledger store
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Mocked transaction manager of the loads
+
+    private SimpleMeterRegistry meterRegistry; // In-memory registry holding the cache metrics
+
+    private CachingCreditCardRepositoryAdapter cachingCreditCardRepositoryAdapter; // Card decorator under test
+
+    private CachingCustomerRepositoryAdapter cachingCustomerRepositoryAdapter; // Customer decorator under test
+
+    private CachingBalanceLedgerStoreAdapter cachingBalanceLedgerStoreAdapter; // Ledger store decorator under test
+
+    /**
+     * Creates the decorators over one cache; card 10 belongs to customer 1, who has no other card.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        RepositoryCache repositoryCache = new RepositoryCache(creditCardRepositoryAdapter, customerRepositoryAdapter,
+                transactionManager, meterRegistry, 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        cachingCreditCardRepositoryAdapter =
+                new CachingCreditCardRepositoryAdapter(creditCardRepositoryAdapter, repositoryCache);
+        cachingCustomerRepositoryAdapter =
+                new CachingCustomerRepositoryAdapter(customerRepositoryAdapter, repositoryCache);
+        cachingBalanceLedgerStoreAdapter =
+                new CachingBalanceLedgerStoreAdapter(balanceLedgerStoreAdapter, repositoryCache);
+
+        when(creditCardRepositoryAdapter.findById(10L)).thenAnswer(invocation -> Optional.of(card("100")));
+        when(customerRepositoryAdapter.findByIdWithCards(1L)).thenAnswer(invocation -> {
+            Customer customer = customer();
+            customer.setCreditCards(new ArrayList<>(List.of(card("100"))));
+            return Optional.of(customer);
+        });
+        when(customerRepositoryAdapter.findByIdWithoutCards(1L)).thenAnswer(invocation -> Optional.of(customer()));
+    }
+
+    /**
+     * Tests that repeated reads of a hot card hit the cache, and that callers get copies they cannot corrupt.
+     */
+    @Test
+    void testFindById_ServedFromCache() {
+        // Act
+        CreditCard first = cachingCreditCardRepositoryAdapter.findById(10L).orElseThrow();
+        first.setCurrentBalance(Money.parse("999"));
+        CreditCard second = cachingCreditCardRepositoryAdapter.findById(10L).orElseThrow();
+        cachingCreditCardRepositoryAdapter.findById(10L);
+
+        // Assert
+        assertEquals(Money.parse("100"), second.getCurrentBalance());
+        assertNotSame(first, second);
+        verify(creditCardRepositoryAdapter, times(1)).findById(10L);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "credit-cards").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "credit-cards").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    /**
+     * Tests that an entry is loaded in a new read-write transaction, which is routed to the primary
+     * even when the caller is in a read-only transaction.
+     */
+    @Test
+    void testFindById_LoadedInReadWriteTransaction() {
+        // Act
+        cachingCreditCardRepositoryAdapter.findById(10L);
+
+        // Assert
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * Tests that unknown IDs are not cached, so a card created later is found.
+     */
+    @Test
+    void testFindById_NotFoundIsNotCached() {
+        // Arrange
+        when(creditCardRepositoryAdapter.findById(20L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(cachingCreditCardRepositoryAdapter.findById(20L).isEmpty());
+        assertTrue(cachingCreditCardRepositoryAdapter.findById(20L).isEmpty());
+        verify(creditCardRepositoryAdapter, times(2)).findById(20L);
+    }
+
+    /**
+     * Tests that writing a card evicts it and the card list of its owner, but not the owner without cards.
+     */
+    @Test
+    void testCardWrite_EvictsCardAndOwnerCardList() {
+        // Arrange: Everything is cached
+        cachingCreditCardRepositoryAdapter.findById(10L);
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        cachingCustomerRepositoryAdapter.findByIdWithoutCards(1L);
+        when(creditCardRepositoryAdapter.patch(eq(10L), any())).thenReturn(Optional.of(card("100")));
+
+        // Act: The owner is not passed with the patch, it is known from the loaded card
+        cachingCreditCardRepositoryAdapter.patch(10L, new CreditCardPatch());
+        cachingCreditCardRepositoryAdapter.findById(10L);
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        cachingCustomerRepositoryAdapter.findByIdWithoutCards(1L);
+
+        // Assert
+        verify(creditCardRepositoryAdapter, times(2)).findById(10L);
+        verify(customerRepositoryAdapter, times(2)).findByIdWithCards(1L);
+        verify(customerRepositoryAdapter, times(1)).findByIdWithoutCards(1L);
+    }
+
+    /**
+     * Tests that a posting evicts the card list of the owner, when the card was only loaded with its customer.
+     */
+    @Test
+    void testCardWrite_OwnerKnownFromCachedCustomer() {
+        // Arrange: Only the customer with cards is cached
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        when(creditCardRepositoryAdapter.addToBalance(10L, Money.parse("5"))).thenReturn(true);
+
+        // Act
+        cachingCreditCardRepositoryAdapter.addToBalance(10L, Money.parse("5"));
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+
+        // Assert
+        verify(customerRepositoryAdapter, times(2)).findByIdWithCards(1L);
+    }
+
+    /**
+     * Tests that deleting a customer evicts them and the cached cards they owned.
+     */
+    @Test
+    void testCustomerDelete_EvictsCustomerAndCards() {
+        // Arrange
+        cachingCreditCardRepositoryAdapter.findById(10L);
+        cachingCustomerRepositoryAdapter.findByIdWithoutCards(1L);
+        when(customerRepositoryAdapter.deleteById(1L)).thenReturn(1);
+        when(creditCardRepositoryAdapter.findById(10L)).thenReturn(Optional.empty());
+        when(customerRepositoryAdapter.findByIdWithoutCards(1L)).thenReturn(Optional.empty());
+
+        // Act
+        cachingCustomerRepositoryAdapter.deleteById(1L);
+
+        // Assert
+        assertTrue(cachingCreditCardRepositoryAdapter.findById(10L).isEmpty());
+        assertTrue(cachingCustomerRepositoryAdapter.findByIdWithoutCards(1L).isEmpty());
+    }
+
+    /**
+     * Tests that a failed customer save still evicts the customer, so a retry reads the current version.
+     */
+    @Test
+    void testCustomerSave_FailureStillEvicts() {
+        // Arrange
+        Customer stale = cachingCustomerRepositoryAdapter.findByIdWithCards(1L).orElseThrow();
+        when(customerRepositoryAdapter.save(any())).thenThrow(new IllegalStateException("conflict"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> cachingCustomerRepositoryAdapter.save(stale));
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        cachingCreditCardRepositoryAdapter.findById(10L);
+
+        // Assert
+        verify(customerRepositoryAdapter, times(2)).findByIdWithCards(1L);
+        verify(creditCardRepositoryAdapter, times(1)).findById(10L);
+    }
+
+    /**
+     * Tests that a ledger flush evicts the cards whose balances it wrote.
+     */
+    @Test
+    void testLedgerFlush_EvictsCards() {
+        // Arrange
+        cachingCreditCardRepositoryAdapter.findById(10L);
+        when(balanceLedgerStoreAdapter.applyDeltas(any(), eq("default"), eq(5L))).thenReturn(Set.of());
+
+        // Act
+        cachingBalanceLedgerStoreAdapter.applyDeltas(Map.of(10L, 500L), "default", 5L);
+        cachingCreditCardRepositoryAdapter.findById(10L);
+
+        // Assert
+        verify(creditCardRepositoryAdapter, times(2)).findById(10L);
+    }
+
+    /**
+     * Tests that a batch of postings evicts all its cards with one synchronization, and the owner of a cached card.
+     */
+    @Test
+    void testAddToBalances_EvictsCardsAtOnce() {
+        // Arrange
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        when(creditCardRepositoryAdapter.addToBalances(any())).thenReturn(new boolean[]{true, true, false});
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cachingCreditCardRepositoryAdapter.addToBalances(List.of(new Posting(10L, Money.parse("1")),
+                    new Posting(11L, Money.parse("1")), new Posting(12L, Money.parse("1"))));
+
+            // Assert
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cachingCustomerRepositoryAdapter.findByIdWithCards(1L);
+        verify(customerRepositoryAdapter, times(2)).findByIdWithCards(1L);
+    }
+
+    /**
+     * Creates card 10 of customer 1 with a limit of 5000.00.
+     *
+     * @param balance The current balance.
+     * @return The card.
+     */
+    private static CreditCard card(String balance) {
+        CreditCard card = new CreditCard();
+        card.setId(10L);
+        card.setCardNumber("4111111111111111");
+        card.setCreditLimit(Money.parse("5000"));
+        card.setCurrentBalance(Money.parse(balance));
+        card.setCustomerId(1L);
+        card.setVersion(0L);
+        return card;
+    }
+
+    /**
+     * Creates customer 1 without cards.
+     *
+     * @return The customer.
+     */
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        customer.setEmail("ada@example.com");
+        customer.setVersion(0L);
+        return customer;
+    }
+}
@@ -0,0 +1,166 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.invalidation;
+
+import com.creditcard.management.credit_card_api.core.model.CacheInvalidation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the JdbcCacheInvalidationAdapter.
+ * Two adapters over the same database stand for two instances; their polls are run by the tests.
+ * Each batch commits on its own, as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcCacheInvalidationAdapterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Used by the adapters
+
+    @Autowired
+    private DataSource dataSource; // Used to hold a batch in an open transaction
+
+    private JdbcCacheInvalidationAdapter firstNode; // Adapter of the first instance
+
+    private JdbcCacheInvalidationAdapter secondNode; // Adapter of the second instance
+
+    private final List<CacheInvalidation> receivedByFirst = new ArrayList<>(); // Batches delivered to the first
+
+    private final List<CacheInvalidation> receivedBySecond = new ArrayList<>(); // Batches delivered to the second
+
+    /**
+     * Starts both adapters after the batches of earlier tests, with polls left to the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        firstNode = new JdbcCacheInvalidationAdapter(jdbcTemplate, Duration.ofHours(1), Duration.ofHours(1));
+        secondNode = new JdbcCacheInvalidationAdapter(jdbcTemplate, Duration.ofHours(1), Duration.ofHours(1));
+        firstNode.subscribe(receivedByFirst::add);
+        secondNode.subscribe(receivedBySecond::add);
+        firstNode.start();
+        secondNode.start();
+    }
+
+    /**
+     * Stops both adapters.
+     */
+    @AfterEach
+    void tearDown() {
+        firstNode.stop();
+        secondNode.stop();
+    }
+
+    /**
+     * Tests that a batch reaches the other instance once, with its IDs and card numbers, and not the instance
+     * that published it.
+     */
+    @Test
+    void testPublishAndPoll_DeliveredToOtherInstancesOnce() {
+        // Act
+        firstNode.publish(new CacheInvalidation(Set.of(1L, 2L), Set.of(7L), Set.of("4000000000000001")));
+        firstNode.publish(CacheInvalidation.everything());
+        firstNode.poll();
+        secondNode.poll();
+        secondNode.poll();
+
+        // Assert
+        assertTrue(receivedByFirst.isEmpty());
+        assertEquals(2, receivedBySecond.size());
+        assertEquals(Set.of(1L, 2L), receivedBySecond.get(0).getCardIds());
+        assertEquals(Set.of(7L), receivedBySecond.get(0).getCustomerIds());
+        assertEquals(Set.of("4000000000000001"), receivedBySecond.get(0).getCardNumbers());
+        assertFalse(receivedBySecond.get(0).isEverything());
+        assertTrue(receivedBySecond.get(1).isEverything());
+    }
+
+    /**
+     * Tests that a batch committed after a newer one is still delivered, and the newer one only once.
+     *
+     * @throws SQLException If the open transaction fails.
+     */
+    @Test
+    void testPoll_LateCommitIsDelivered() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            // Arrange: A batch is inserted but not committed, then a newer one is committed
+            connection.setAutoCommit(false);
+            insert(connection, "10");
+            firstNode.publish(new CacheInvalidation(Set.of(20L), Set.of()));
+
+            // Act: The newer batch is delivered at once
+            secondNode.poll();
+            assertEquals(1, receivedBySecond.size());
+            assertEquals(Set.of(20L), receivedBySecond.get(0).getCardIds());
+
+            // Act: The older one commits
+            connection.commit();
+        }
+        secondNode.poll();
+        secondNode.poll();
+
+        // Assert
+        assertEquals(2, receivedBySecond.size());
+        assertEquals(Set.of(10L), receivedBySecond.get(1).getCardIds());
+    }
+
+    /**
+     * Tests that a batch rolled back after its ID was allocated does not stop the delivery of the following ones.
+     *
+     * @throws SQLException If the open transaction fails.
+     */
+    @Test
+    void testPoll_RolledBackBatchIsSkipped() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            // Arrange
+            connection.setAutoCommit(false);
+            insert(connection, "10");
+            firstNode.publish(new CacheInvalidation(Set.of(20L), Set.of()));
+            connection.rollback();
+        }
+
+        // Act: The missing ID is waited for, then skipped
+        for (int i = 0; i <= JdbcCacheInvalidationAdapter.MAX_GAP_POLLS; i++) {
+            secondNode.poll();
+        }
+        firstNode.publish(new CacheInvalidation(Set.of(30L), Set.of()));
+        secondNode.poll();
+
+        // Assert
+        assertEquals(2, receivedBySecond.size());
+        assertEquals(Set.of(20L), receivedBySecond.get(0).getCardIds());
+        assertEquals(Set.of(30L), receivedBySecond.get(1).getCardIds());
+    }
+
+    /**
+     * Inserts a batch naming one card on a connection, as another instance would.
+     *
+     * @param connection The connection.
+     * @param cardIds    The comma-separated card IDs.
+     * @throws SQLException If the insert fails.
+     */
+    private static void insert(Connection connection, String cardIds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO cache_invalidation "
+                + "(origin, evict_all, card_ids, customer_ids, created_at) VALUES ('other', FALSE, ?, '', ?)")) {
+            statement.setString(1, cardIds);
+            statement.setTimestamp(2, Timestamp.from(Instant.now()));
+            statement.executeUpdate();
+        }
+    }
+}
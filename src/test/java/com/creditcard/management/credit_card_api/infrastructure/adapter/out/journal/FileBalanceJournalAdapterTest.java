@@ -0,0 +1,157 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileBalanceJournalAdapter.
+ * These tests verify recovery from the journal segments, including a record torn by a crash,
+ * their rotation and deletion, and concurrent appends.
+ */
+class FileBalanceJournalAdapterTest {
+
+    @TempDir
+    private Path directory; // Holds the journal file
+
+    /**
+     * Tests that recovery replays the entries after the checkpoint and continues the sequence numbers.
+     */
+    @Test
+    void testRecover_ReplaysAfterCheckpoint() throws Exception {
+        // Arrange: Three entries
+        Path path = directory.resolve("ledger.journal");
+        FileBalanceJournalAdapter journal = new FileBalanceJournalAdapter(path, true);
+        journal.recover(0, (sequence, cardId, amountMinor) -> fail("The new journal must be empty"));
+        journal.append(7, 100);
+        journal.append(8, -50);
+        journal.append(7, 25);
+        journal.close();
+
+        // Act
+        List<long[]> replayed = new ArrayList<>();
+        FileBalanceJournalAdapter reopened = new FileBalanceJournalAdapter(path, true);
+        long last = reopened.recover(1, (sequence, cardId, amountMinor) ->
+                replayed.add(new long[]{sequence, cardId, amountMinor}));
+
+        // Assert: Entries 2 and 3, and the next entry is 4
+        assertEquals(3, last);
+        assertEquals(2, replayed.size());
+        assertArrayEquals(new long[]{2, 8, -50}, replayed.get(0));
+        assertArrayEquals(new long[]{3, 7, 25}, replayed.get(1));
+        assertEquals(4, reopened.append(9, 1));
+        reopened.close();
+    }
+
+    /**
+     * Tests that a record torn by a crash is dropped and that appends continue in a new segment.
+     */
+    @Test
+    void testRecover_DropsTornRecord() throws Exception {
+        // Arrange: Two entries followed by half a record
+        Path path = directory.resolve("ledger.journal");
+        FileBalanceJournalAdapter journal = new FileBalanceJournalAdapter(path, false);
+        journal.recover(0, (sequence, cardId, amountMinor) -> { });
+        journal.append(7, 100);
+        journal.append(7, 200);
+        journal.close();
+        Path segment = directory.resolve("ledger.journal.00000000000000000001");
+        Files.write(segment, new byte[FileBalanceJournalAdapter.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        // Act
+        List<Long> sequences = new ArrayList<>();
+        FileBalanceJournalAdapter reopened = new FileBalanceJournalAdapter(path, false);
+        reopened.recover(0, (sequence, cardId, amountMinor) -> sequences.add(sequence));
+        reopened.append(7, 300);
+
+        // Assert: The complete records survive, and the next one starts the segment of entry 3
+        assertEquals(List.of(1L, 2L), sequences);
+        assertEquals(2L * FileBalanceJournalAdapter.RECORD_SIZE, Files.size(segment));
+        assertEquals(FileBalanceJournalAdapter.RECORD_SIZE,
+                Files.size(directory.resolve("ledger.journal.00000000000000000003")));
+        reopened.close();
+    }
+
+    /**
+     * Tests that the segments closed by rotations are deleted once absorbed, while appends never stop:
+     * the journal shrinks even though it is never drained.
+     */
+    @Test
+    void testDiscardThrough_DeletesAbsorbedSegments() throws Exception {
+        // Arrange: Two segments closed by rotations, and an entry in the open segment
+        Path path = directory.resolve("ledger.journal");
+        FileBalanceJournalAdapter journal = new FileBalanceJournalAdapter(path, false);
+        journal.recover(0, (sequence, cardId, amountMinor) -> { });
+        journal.append(7, 100);
+        assertEquals(1, journal.rotate());
+        journal.append(7, 200);
+        assertEquals(2, journal.rotate());
+        assertEquals(2, journal.rotate());
+        journal.append(7, 300);
+
+        // Act & Assert: Each checkpoint deletes the segments at or below it, never the open one
+        journal.discardThrough(1);
+        assertFalse(Files.exists(directory.resolve("ledger.journal.00000000000000000001")));
+        assertTrue(Files.exists(directory.resolve("ledger.journal.00000000000000000002")));
+        journal.discardThrough(3);
+        assertFalse(Files.exists(directory.resolve("ledger.journal.00000000000000000002")));
+        assertEquals(FileBalanceJournalAdapter.RECORD_SIZE,
+                Files.size(directory.resolve("ledger.journal.00000000000000000003")));
+        assertEquals(4, journal.append(7, 400));
+        journal.close();
+
+        // Assert: Only the entries of the open segment are replayed
+        List<Long> sequences = new ArrayList<>();
+        FileBalanceJournalAdapter reopened = new FileBalanceJournalAdapter(path, false);
+        reopened.recover(2, (sequence, cardId, amountMinor) -> sequences.add(sequence));
+        assertEquals(List.of(3L, 4L), sequences);
+        reopened.close();
+    }
+
+    /**
+     * Tests that concurrent appends, written in shared batches, each get their own sequence number
+     * and are all recovered.
+     */
+    @Test
+    void testAppend_ConcurrentAppendsAreAllWritten() throws Exception {
+        // Arrange
+        Path path = directory.resolve("ledger.journal");
+        FileBalanceJournalAdapter journal = new FileBalanceJournalAdapter(path, true);
+        journal.recover(0, (sequence, cardId, amountMinor) -> { });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 400; i++) {
+            long cardId = i;
+            results.add(executor.submit(() -> journal.append(cardId, 1)));
+        }
+        executor.shutdown();
+        Set<Long> sequences = new HashSet<>();
+        for (Future<Long> result : results) {
+            sequences.add(result.get(10, TimeUnit.SECONDS));
+        }
+        journal.close();
+
+        // Assert
+        assertEquals(400, sequences.size());
+        Set<Long> cardIds = new HashSet<>();
+        FileBalanceJournalAdapter reopened = new FileBalanceJournalAdapter(path, false);
+        reopened.recover(0, (sequence, cardId, amountMinor) -> cardIds.add(cardId));
+        assertEquals(400, cardIds.size());
+        reopened.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for BalanceLedgerStoreAdapter.
+ * These tests verify that deltas are added to the stored balances together with the checkpoint.
+ */
+@DataJpaTest
+@Import(BalanceLedgerStoreAdapter.class)
+class BalanceLedgerStoreAdapterTest {
+
+    @Autowired
+    private BalanceLedgerStoreAdapter balanceLedgerStoreAdapter; // Adapter under test
+
+    @Autowired
+    private TestEntityManager entityManager; // Used to prepare and read data
+
+    /**
+     * Tests applying deltas and advancing the checkpoint.
+     * Verifies that deltas are added to the balances, that unknown cards are reported,
+     * and that the checkpoint never moves backwards.
+     */
+    @Test
+    void testApplyDeltas() {
+        // Arrange: One card with a balance of 10.00
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        entityManager.persist(customer);
+        CreditCardEntity card = new CreditCardEntity();
+        card.setCardNumber("4000000000000001");
+        card.setExpirationDate(LocalDate.now());
+        card.setCvv("123");
+        card.setCardType("Credit");
+        card.setCreditLimit(Money.parse("100"));
+        card.setCurrentBalance(Money.parse("10"));
+        card.setCustomer(customer);
+        Long cardId = entityManager.persistAndFlush(card).getCardId();
+        assertEquals(0, balanceLedgerStoreAdapter.findCheckpoint("node-1"));
+
+        // Act
+        Set<Long> missing = balanceLedgerStoreAdapter.applyDeltas(Map.of(cardId, 2_550L, -1L, 100L), "node-1", 42);
+        balanceLedgerStoreAdapter.applyDeltas(Map.of(), "node-1", 41);
+        entityManager.flush(); // Done by the commit outside of tests
+        entityManager.clear();
+
+        // Assert
+        assertEquals(Set.of(-1L), missing);
+        CreditCardEntity stored = entityManager.find(CreditCardEntity.class, cardId);
+        assertEquals(Money.parse("35.50"), stored.getCurrentBalance());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(42, balanceLedgerStoreAdapter.findCheckpoint("node-1"));
+    }
+}
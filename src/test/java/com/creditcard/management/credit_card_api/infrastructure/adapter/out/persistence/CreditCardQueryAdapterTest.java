@@ -0,0 +1,236 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.application.dto.CreditCardDTO;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSearchCriteria;
+import com.creditcard.management.credit_card_api.core.model.CreditCardSort;
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for CreditCardQueryAdapter.
+ * These tests verify that rows are projected straight into CreditCardDTO objects
+ * and that cursor pagination returns the expected slices.
+ */
+@DataJpaTest
+@Import(CreditCardQueryAdapter.class)
+class CreditCardQueryAdapterTest {
+
+    @Autowired
+    private CreditCardQueryAdapter creditCardQueryAdapter; // Adapter under test
+
+    @Autowired
+    private TestEntityManager entityManager; // Used to prepare data
+
+    private Long[] cardIds; // IDs of the cards created for each test
+
+    /**
+     * Creates a customer with three credit cards and flushes them to the database,
+     * since the adapter reads through JDBC and does not see unflushed entities.
+     */
+    @BeforeEach
+    void setUp() {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        entityManager.persist(customer);
+
+        cardIds = new Long[3];
+        for (int i = 0; i < cardIds.length; i++) {
+            CreditCardEntity card = new CreditCardEntity();
+            card.setCardNumber("400000000000000" + i);
+            card.setExpirationDate(LocalDate.of(2027, 6, 30));
+            card.setCvv("123");
+            card.setCardType("Credit");
+            card.setCreditLimit(Money.parse("5000.0"));
+            card.setCurrentBalance(Money.parse("250.5"));
+            card.setCustomer(customer);
+            cardIds[i] = entityManager.persist(card).getCardId();
+        }
+        entityManager.flush();
+    }
+
+    /**
+     * Tests retrieving a credit card by ID.
+     * Verifies that every column is mapped to the DTO.
+     */
+    @Test
+    void testFindById() {
+        // Act
+        Optional<CreditCardDTO> found = creditCardQueryAdapter.findById(cardIds[0]);
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals("4000000000000000", found.get().getCardNumber());
+        assertEquals(LocalDate.of(2027, 6, 30), found.get().getExpirationDate());
+        assertEquals(Money.parse("5000.0"), found.get().getCreditLimit());
+        assertEquals(Money.parse("250.5"), found.get().getCurrentBalance());
+        assertNotNull(found.get().getCustomerId());
+        assertTrue(creditCardQueryAdapter.findById(-1L).isEmpty());
+    }
+
+    /**
+     * Tests retrieving a credit card by its number.
+     */
+    @Test
+    void testFindByCardNumber() {
+        // Act
+        Optional<CreditCardDTO> found = creditCardQueryAdapter.findByCardNumber("4000000000000001");
+
+        // Assert
+        assertEquals(cardIds[1], found.orElseThrow().getCardId());
+        assertTrue(creditCardQueryAdapter.findByCardNumber("4999999999999999").isEmpty());
+    }
+
+    /**
+     * Tests counting the cards and streaming their numbers.
+     */
+    @Test
+    void testCountAndForEachCardNumber() {
+        // Act
+        List<String> cardNumbers = new ArrayList<>();
+        creditCardQueryAdapter.forEachCardNumber(cardNumbers::add);
+
+        // Assert
+        assertEquals(3, creditCardQueryAdapter.count());
+        assertEquals(3, cardNumbers.size());
+        assertTrue(cardNumbers.contains("4000000000000002"));
+    }
+
+    /**
+     * Tests streaming the available credit of every card and listing the cards of a customer.
+     */
+    @Test
+    void testForEachAvailableCreditAndFindIdsByCustomer() {
+        // Act
+        Map<Long, Long> available = new HashMap<>();
+        creditCardQueryAdapter.forEachAvailableCredit(available::put);
+        Long customerId = creditCardQueryAdapter.findById(cardIds[0]).orElseThrow().getCustomerId();
+
+        // Assert: 5000.00 - 250.50 for every card
+        assertEquals(Map.of(cardIds[0], 474_950L, cardIds[1], 474_950L, cardIds[2], 474_950L), available);
+        assertEquals(List.of(cardIds), creditCardQueryAdapter.findIdsByCustomer(customerId));
+        assertTrue(creditCardQueryAdapter.findIdsByCustomer(-1L).isEmpty());
+    }
+
+    /**
+     * Tests cursor pagination.
+     * Verifies that pages follow each other without gaps or overlaps.
+     */
+    @Test
+    void testFindPage() {
+        // Act: Fetch the first page of two cards
+        CursorPage<CreditCardDTO> first = creditCardQueryAdapter.findPage(null, 2);
+
+        // Assert: Two cards and a cursor pointing to the second one
+        assertEquals(2, first.getItems().size());
+        assertEquals(cardIds[1], first.getNextCursor());
+
+        // Act: Fetch the next page
+        CursorPage<CreditCardDTO> second = creditCardQueryAdapter.findPage(first.getNextCursor(), 2);
+
+        // Assert: The last card and no further cursor
+        assertEquals(1, second.getItems().size());
+        assertEquals(cardIds[2], second.getItems().get(0).getCardId());
+        assertFalse(second.hasNext());
+    }
+
+    /**
+     * Tests searching credit cards with combined filters.
+     * Card i has a balance of 250.5 + 1000 * i, so utilization is about 5%, 25% and 45%.
+     */
+    @Test
+    void testSearch() {
+        // Arrange: Give the cards different balances and an expiration date each
+        for (int i = 0; i < cardIds.length; i++) {
+            CreditCardEntity card = entityManager.find(CreditCardEntity.class, cardIds[i]);
+            card.setCurrentBalance(Money.ofMinor(25_050 + 100_000 * i));
+            card.setExpirationDate(LocalDate.of(2027, 6 + i, 1));
+            card.setCardType(i == 0 ? "Debit" : "Credit");
+        }
+        entityManager.flush();
+
+        // Act & Assert: Type and balance
+        CreditCardSearchCriteria criteria = new CreditCardSearchCriteria();
+        criteria.setCardType("Credit");
+        criteria.setMinBalance(Money.parse("1000.0"));
+        assertEquals(2, creditCardQueryAdapter.search(criteria, null, 10).getItems().size());
+
+        // Act & Assert: Utilization and expiration window
+        criteria = new CreditCardSearchCriteria();
+        criteria.setMinUtilization(0.2);
+        criteria.setExpiresBefore(LocalDate.of(2027, 8, 1));
+        CursorPage<CreditCardDTO> page = creditCardQueryAdapter.search(criteria, null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals(cardIds[1], page.getItems().get(0).getCardId());
+
+        // Act & Assert: Paging over every card of the customer
+        criteria = new CreditCardSearchCriteria();
+        criteria.setCustomerId(page.getItems().get(0).getCustomerId());
+        CursorPage<CreditCardDTO> first = creditCardQueryAdapter.search(criteria, null, 2);
+        assertEquals(cardIds[1], first.getNextCursor());
+        assertEquals(1, creditCardQueryAdapter.search(criteria, first.getNextCursor(), 2).getItems().size());
+    }
+
+    /**
+     * Tests paging through the cards of a customer in descending balance order.
+     * Two cards share a balance, so the card ID decides between them and must be honored by the cursor.
+     */
+    @Test
+    void testFindPageByCustomer_SortedByBalance() {
+        // Arrange: Balances 300, 100 and 300
+        Money[] balances = {Money.parse("300"), Money.parse("100"), Money.parse("300")};
+        for (int i = 0; i < cardIds.length; i++) {
+            entityManager.find(CreditCardEntity.class, cardIds[i]).setCurrentBalance(balances[i]);
+        }
+        entityManager.flush();
+        Long customerId = creditCardQueryAdapter.findById(cardIds[0]).orElseThrow().getCustomerId();
+        CreditCardSort sort = CreditCardSort.parse("-currentBalance");
+
+        // Act: Two pages of two cards
+        CursorPage<CreditCardDTO> first = creditCardQueryAdapter.findPageByCustomer(customerId, sort, null, 2);
+        CursorPage<CreditCardDTO> second =
+                creditCardQueryAdapter.findPageByCustomer(customerId, sort, first.getNextCursor(), 2);
+
+        // Assert: 300 (highest ID first), 300, then 100
+        assertEquals(cardIds[2], first.getItems().get(0).getCardId());
+        assertEquals(cardIds[0], first.getItems().get(1).getCardId());
+        assertEquals(cardIds[0], first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertEquals(cardIds[1], second.getItems().get(0).getCardId());
+        assertFalse(second.hasNext());
+    }
+
+    /**
+     * Tests paging through the cards of a customer in ID order, and listing the cards of an unknown customer.
+     */
+    @Test
+    void testFindPageByCustomer_ById() {
+        Long customerId = creditCardQueryAdapter.findById(cardIds[0]).orElseThrow().getCustomerId();
+
+        // Act
+        CursorPage<CreditCardDTO> page =
+                creditCardQueryAdapter.findPageByCustomer(customerId, CreditCardSort.DEFAULT, cardIds[0], 10);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(cardIds[1], page.getItems().get(0).getCardId());
+        assertTrue(creditCardQueryAdapter.findPageByCustomer(-1L, CreditCardSort.DEFAULT, null, 10)
+                .getItems().isEmpty());
+    }
+}
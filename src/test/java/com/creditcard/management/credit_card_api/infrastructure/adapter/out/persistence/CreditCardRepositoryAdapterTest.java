@@ -0,0 +1,328 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for CreditCardRepositoryAdapter.
+ * These tests verify the number of statements the write paths issue, as counted
+ * by Hibernate statistics.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CreditCardRepositoryAdapter.class)
+class CreditCardRepositoryAdapterTest {
+
+    @Autowired
+    private CreditCardRepositoryAdapter creditCardRepositoryAdapter; // Adapter under test
+
+    @Autowired
+    private TestEntityManager entityManager; // Used to prepare data
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // Gives access to Hibernate statistics
+
+    private Statistics statistics; // Hibernate statistics used to count statements
+
+    private Long customerId; // Owner of the created cards
+
+    /**
+     * Creates the customer owning the cards and resets the statistics.
+     */
+    @BeforeEach
+    void setUp() {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        customerId = entityManager.persistAndFlush(customer).getCustomerId();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Tests saving many credit cards at once.
+     * Verifies that every card gets an identifier and that the inserts are sent in JDBC batches,
+     * so the number of statements is a small fraction of the number of cards.
+     */
+    @Test
+    void testSaveAll_UsesJdbcBatching() {
+        // Arrange: 200 new cards
+        List<CreditCard> cards = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            cards.add(newCard(String.format("4000%012d", i)));
+        }
+
+        // Act
+        List<CreditCard> saved = creditCardRepositoryAdapter.saveAll(cards);
+
+        // Assert: All cards are stored, in input order, with 4 insert batches plus a few sequence calls
+        assertEquals(200, saved.size());
+        assertEquals("4000000000000000", saved.get(0).getCardNumber());
+        saved.forEach(card -> assertNotNull(card.getId()));
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Expected batched inserts but got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    /**
+     * Tests looking up which card numbers already exist.
+     */
+    @Test
+    void testFindExistingCardNumbers() {
+        // Arrange: Store one card
+        creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001")));
+
+        // Act
+        Set<String> existing = creditCardRepositoryAdapter.findExistingCardNumbers(
+                List.of("4000000000000001", "4000000000000002"));
+
+        // Assert
+        assertEquals(Set.of("4000000000000001"), existing);
+    }
+
+    /**
+     * Tests updating a credit card without an expected version.
+     * Verifies that the card is written with a single UPDATE, that the new values are stored,
+     * and that the new version is read back so that it can be returned as the ETag.
+     */
+    @Test
+    void testUpdate_Unconditional() {
+        // Arrange: Store one card
+        CreditCard card = newCard("4000000000000001");
+        Long id = creditCardRepositoryAdapter.saveAll(List.of(card)).get(0).getId();
+        statistics.clear();
+
+        CreditCard changes = newCard("4000000000000009");
+        changes.setCardType("Debit");
+
+        // Act
+        Optional<CreditCard> updated = creditCardRepositoryAdapter.update(id, changes);
+
+        // Assert: One UPDATE and the version query, and the returned state matches what was written
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(updated.isPresent());
+        assertEquals(1L, updated.get().getVersion());
+        assertEquals(id, updated.get().getId());
+        assertEquals("Debit", updated.get().getCardType());
+        assertEquals(customerId, updated.get().getCustomerId());
+        assertEquals("4000000000000009", entityManager.find(CreditCardEntity.class, id).getCardNumber());
+    }
+
+    /**
+     * Tests a conditional update.
+     * Verifies that the update applies while the card has the expected version, increments the version,
+     * and that a second update based on the same version affects no row.
+     */
+    @Test
+    void testUpdate_WithVersion() {
+        // Arrange: Store one card, which starts at version 0
+        CreditCard saved = creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001"))).get(0);
+        assertEquals(0L, saved.getVersion());
+        CreditCard changes = newCard("4000000000000001");
+        changes.setCardType("Debit");
+        changes.setVersion(0L);
+
+        // Act
+        Optional<CreditCard> first = creditCardRepositoryAdapter.update(saved.getId(), changes);
+        Optional<CreditCard> second = creditCardRepositoryAdapter.update(saved.getId(), changes);
+
+        // Assert: Only the first update applied, and the stored version was incremented once
+        assertEquals(1L, first.orElseThrow().getVersion());
+        assertTrue(second.isEmpty());
+        assertEquals(1L, entityManager.find(CreditCardEntity.class, saved.getId()).getVersion());
+    }
+
+    /**
+     * Tests updating a credit card that does not exist.
+     */
+    @Test
+    void testUpdate_NotFound() {
+        // Act
+        Optional<CreditCard> updated = creditCardRepositoryAdapter.update(-1L, newCard("4000000000000001"));
+
+        // Assert: The single UPDATE affected no row
+        assertTrue(updated.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests deleting a credit card.
+     * Verifies that the card is deleted with a single statement, and that a second delete reports no row.
+     */
+    @Test
+    void testDeleteById_SingleStatement() {
+        // Arrange: Store one card
+        Long id = creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001"))).get(0).getId();
+        statistics.clear();
+
+        // Act & Assert: One DELETE removing one row
+        assertEquals(1, creditCardRepositoryAdapter.deleteById(id));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(entityManager.find(CreditCardEntity.class, id));
+
+        // Act & Assert: Deleting again affects no row
+        assertEquals(0, creditCardRepositoryAdapter.deleteById(id));
+    }
+
+    /**
+     * Tests partially updating a credit card.
+     * Verifies that the UPDATE sets only the patched column and that the other fields are kept.
+     */
+    @Test
+    void testPatch_OnlyChangedColumns() {
+        // Arrange: Store one card and patch its balance
+        Long id = creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001"))).get(0).getId();
+        statistics.clear();
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCurrentBalance(Money.parse("250.0"));
+
+        // Act
+        Optional<CreditCard> patched = creditCardRepositoryAdapter.patch(id, patch);
+
+        // Assert: The bulk UPDATE names only current_balance, and the rest of the card is unchanged
+        assertTrue(patched.isPresent());
+        assertEquals(Money.parse("250.0"), patched.get().getCurrentBalance());
+        assertEquals("4000000000000001", patched.get().getCardNumber());
+        assertEquals(Money.parse("1000.0"), patched.get().getCreditLimit());
+        String update = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.startsWith("UPDATE")).findFirst().orElseThrow();
+        assertEquals("UPDATE CreditCardEntity e SET e.currentBalance = :currentBalance, "
+                + "e.version = e.version + 1 WHERE e.cardId = :id", update);
+        assertEquals(1L, patched.get().getVersion());
+    }
+
+    /**
+     * Tests a partial update with an expected version.
+     * Verifies that a stale version writes nothing and that the current version is patched and incremented.
+     */
+    @Test
+    void testPatch_WithVersion() {
+        // Arrange: Store one card, which starts at version 0
+        Long id = creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001"))).get(0).getId();
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCardType("Debit");
+        patch.setExpectedVersion(5L);
+
+        // Act & Assert: Stale version
+        assertTrue(creditCardRepositoryAdapter.patch(id, patch).isEmpty());
+        assertEquals("Credit", entityManager.find(CreditCardEntity.class, id).getCardType());
+
+        // Act & Assert: Current version
+        patch.setExpectedVersion(0L);
+        CreditCard patched = creditCardRepositoryAdapter.patch(id, patch).orElseThrow();
+        assertEquals("Debit", patched.getCardType());
+        assertEquals(1L, patched.getVersion());
+
+        // Act & Assert: An empty patch is checked against the version too
+        CreditCardPatch empty = new CreditCardPatch();
+        empty.setExpectedVersion(0L);
+        assertTrue(creditCardRepositoryAdapter.patch(id, empty).isEmpty());
+    }
+
+    /**
+     * Tests partially updating a credit card that does not exist.
+     */
+    @Test
+    void testPatch_NotFound() {
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCurrentBalance(Money.parse("250.0"));
+
+        assertTrue(creditCardRepositoryAdapter.patch(-1L, patch).isEmpty());
+    }
+
+    /**
+     * Tests adding amounts to the balance of a card with a limit of 1000.
+     * Verifies that charges are applied up to the limit, that a charge beyond it is refused,
+     * and that payments are applied even when the card is over its limit.
+     */
+    @Test
+    void testAddToBalance_EnforcesLimit() {
+        // Arrange
+        Long id = creditCardRepositoryAdapter.saveAll(List.of(newCard("4000000000000001"))).get(0).getId();
+
+        // Act & Assert: Charges up to the limit are applied, the next one is refused
+        assertTrue(creditCardRepositoryAdapter.addToBalance(id, Money.parse("999.99")));
+        assertTrue(creditCardRepositoryAdapter.addToBalance(id, Money.parse("0.01")));
+        assertFalse(creditCardRepositoryAdapter.addToBalance(id, Money.parse("0.01")));
+        assertEquals(Money.parse("1000"), creditCardRepositoryAdapter.findById(id).orElseThrow().getCurrentBalance());
+
+        // Act & Assert: A payment on a card over its limit is still applied
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCreditLimit(Money.parse("500"));
+        creditCardRepositoryAdapter.patch(id, patch);
+        assertTrue(creditCardRepositoryAdapter.addToBalance(id, Money.parse("-100")));
+        assertEquals(Money.parse("900"), creditCardRepositoryAdapter.findById(id).orElseThrow().getCurrentBalance());
+
+        // Act & Assert: Nothing is updated for a missing card
+        assertFalse(creditCardRepositoryAdapter.addToBalance(-1L, Money.parse("-1")));
+    }
+
+    /**
+     * Tests applying a batch of postings to two cards with a limit of 1000.
+     * Verifies that each posting is applied in order against the balance left by the previous ones.
+     */
+    @Test
+    void testAddToBalances() {
+        // Arrange
+        List<CreditCard> saved = creditCardRepositoryAdapter.saveAll(
+                List.of(newCard("4000000000000001"), newCard("4000000000000002")));
+        Long first = saved.get(0).getId();
+        Long second = saved.get(1).getId();
+
+        // Act: The third charge to the first card exceeds the limit until the payment after it
+        boolean[] applied = creditCardRepositoryAdapter.addToBalances(List.of(
+                new Posting(first, Money.parse("600")),
+                new Posting(first, Money.parse("300")),
+                new Posting(first, Money.parse("200")),
+                new Posting(first, Money.parse("-500")),
+                new Posting(second, Money.parse("1000.01")),
+                new Posting(-1L, Money.parse("1"))));
+
+        // Assert
+        assertArrayEquals(new boolean[]{true, true, false, true, false, false}, applied);
+        entityManager.clear();
+        assertEquals(Money.parse("400"), creditCardRepositoryAdapter.findById(first).orElseThrow().getCurrentBalance());
+        assertEquals(Money.ZERO, creditCardRepositoryAdapter.findById(second).orElseThrow().getCurrentBalance());
+        assertEquals(Set.of(first), creditCardRepositoryAdapter.findExistingIds(List.of(first, -1L)));
+    }
+
+    /**
+     * Creates a new credit card owned by the test customer.
+     *
+     * @param cardNumber The card number.
+     * @return The new CreditCard.
+     */
+    private CreditCard newCard(String cardNumber) {
+        CreditCard card = new CreditCard();
+        card.setCardNumber(cardNumber);
+        card.setExpirationDate(LocalDate.of(2030, 1, 31));
+        card.setCvv("123");
+        card.setCardType("Credit");
+        card.setCreditLimit(Money.parse("1000.0"));
+        card.setCurrentBalance(Money.parse("0.0"));
+        card.setCustomerId(customerId);
+        return card;
+    }
+}
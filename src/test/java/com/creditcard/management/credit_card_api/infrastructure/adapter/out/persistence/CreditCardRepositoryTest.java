@@ -1,11 +1,12 @@
 package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
 
+import com.creditcard.management.credit_card_api.core.model.Money;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.time.LocalDate;
 import java.util.Optional;
-import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,11 +40,11 @@ class CreditCardRepositoryTest {
         // Create a CreditCardEntity associated with the saved customer
         CreditCardEntity card = new CreditCardEntity();
         card.setCardNumber("1234567890123456");
-        card.setExpirationDate(new Date());
+        card.setExpirationDate(LocalDate.now());
         card.setCvv("123");
         card.setCardType("Credit");
-        card.setCreditLimit(5000.0);
-        card.setCurrentBalance(1000.0);
+        card.setCreditLimit(Money.parse("5000.0"));
+        card.setCurrentBalance(Money.parse("1000.0"));
         card.setCustomer(savedCustomer); // Associate with the saved customer
 
         // Act: Save the credit card in the database
@@ -73,11 +74,11 @@ class CreditCardRepositoryTest {
         // Create and save a CreditCardEntity associated with the customer
         CreditCardEntity card = new CreditCardEntity();
         card.setCardNumber("9876543210987654");
-        card.setExpirationDate(new Date());
+        card.setExpirationDate(LocalDate.now());
         card.setCvv("456");
         card.setCardType("Debit");
-        card.setCreditLimit(3000.0);
-        card.setCurrentBalance(1500.0);
+        card.setCreditLimit(Money.parse("3000.0"));
+        card.setCurrentBalance(Money.parse("1500.0"));
         card.setCustomer(savedCustomer);
 
         CreditCardEntity savedCard = creditCardRepository.save(card);
@@ -107,20 +108,20 @@ class CreditCardRepositoryTest {
         // Create and save a CreditCardEntity associated with the customer
         CreditCardEntity card = new CreditCardEntity();
         card.setCardNumber("1234123412341234");
-        card.setExpirationDate(new Date());
+        card.setExpirationDate(LocalDate.now());
         card.setCvv("789");
         card.setCardType("Credit");
-        card.setCreditLimit(10000.0);
-        card.setCurrentBalance(2000.0);
+        card.setCreditLimit(Money.parse("10000.0"));
+        card.setCurrentBalance(Money.parse("2000.0"));
         card.setCustomer(savedCustomer);
 
         CreditCardEntity savedCard = creditCardRepository.save(card);
 
         // Act: Update the current balance of the card
-        savedCard.setCurrentBalance(5000.0);
+        savedCard.setCurrentBalance(Money.parse("5000.0"));
         CreditCardEntity updatedCard = creditCardRepository.save(savedCard);
 
         // Assert: Verify the balance was updated successfully
-        assertEquals(5000.0, updatedCard.getCurrentBalance());
+        assertEquals(Money.parse("5000.0"), updatedCard.getCurrentBalance());
     }
 }
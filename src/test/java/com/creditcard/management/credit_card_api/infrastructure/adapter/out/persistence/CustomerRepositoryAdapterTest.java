@@ -0,0 +1,207 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.core.model.CursorPage;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for CustomerRepositoryAdapter.
+ * These tests verify the fetch plans of the adapter by counting the SQL statements it issues,
+ * which must stay constant no matter how many customers and cards exist.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CustomerRepositoryAdapter.class)
+class CustomerRepositoryAdapterTest {
+
+    @Autowired
+    private CustomerRepositoryAdapter customerRepositoryAdapter; // Adapter under test
+
+    @Autowired
+    private TestEntityManager entityManager; // Used to prepare data and clear the persistence context
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // Gives access to Hibernate statistics
+
+    private Statistics statistics; // Hibernate statistics used to count statements
+
+    /**
+     * Creates five customers with three credit cards each, then clears the persistence context
+     * so that every read below really goes to the database.
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            CustomerEntity customer = new CustomerEntity();
+            customer.setFirstName("First" + i);
+            customer.setLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            entityManager.persist(customer);
+
+            for (int j = 0; j < 3; j++) {
+                CreditCardEntity card = new CreditCardEntity();
+                card.setCardNumber("50000000000" + i + "000" + j);
+                card.setExpirationDate(LocalDate.now());
+                card.setCvv("123");
+                card.setCardType("Credit");
+                card.setCreditLimit(Money.parse("1000.0"));
+                card.setCurrentBalance(Money.parse("0.0"));
+                card.setCustomer(customer);
+                entityManager.persist(card);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Tests retrieving a page of customers without their cards.
+     * Verifies that a single statement is issued and no card collection is loaded.
+     */
+    @Test
+    void testFindPage_WithoutCards() {
+        // Act: Fetch the first page of three customers
+        CursorPage<Customer> page = customerRepositoryAdapter.findPage(null, 3, false);
+
+        // Assert: One statement, a next cursor, and no cards
+        assertEquals(3, page.getItems().size());
+        assertTrue(page.hasNext());
+        assertNull(page.getItems().get(0).getCreditCards());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests retrieving a page of customers with their cards.
+     * Verifies that the cards of the whole page are loaded with one extra statement.
+     */
+    @Test
+    void testFindPage_WithCards() {
+        // Act: Fetch all customers with their cards
+        CursorPage<Customer> page = customerRepositoryAdapter.findPage(null, 10, true);
+
+        // Assert: Two statements regardless of the number of customers
+        assertEquals(5, page.getItems().size());
+        assertFalse(page.hasNext());
+        page.getItems().forEach(customer -> assertEquals(3, customer.getCreditCards().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests retrieving a single customer with and without their cards.
+     * Verifies that each lookup costs exactly one statement.
+     */
+    @Test
+    void testFindById_WithAndWithoutCards() {
+        Long id = customerRepositoryAdapter.findPage(null, 1, false).getItems().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        // Act & Assert: Lookup with cards uses a single join-fetch statement
+        Customer withCards = customerRepositoryAdapter.findByIdWithCards(id).orElseThrow();
+        assertEquals(3, withCards.getCreditCards().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+
+        // Act & Assert: Lookup without cards never touches the collection
+        Customer withoutCards = customerRepositoryAdapter.findByIdWithoutCards(id).orElseThrow();
+        assertNull(withoutCards.getCreditCards());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests retrieving a customer by email, ignoring case and surrounding whitespace.
+     * Verifies that the lookup costs one statement and does not load the cards.
+     */
+    @Test
+    void testFindByEmail_CaseInsensitive() {
+        // Act
+        Customer customer = customerRepositoryAdapter.findByEmail("  Customer3@Example.COM ").orElseThrow();
+
+        // Assert
+        assertEquals("First3", customer.getFirstName());
+        assertNull(customer.getCreditCards());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(customerRepositoryAdapter.findByEmail("nobody@example.com").isEmpty());
+    }
+
+    /**
+     * Tests deleting a customer who owns credit cards.
+     * Verifies that the customer and all their cards are removed with two statements,
+     * without loading the customer or the card collection.
+     */
+    @Test
+    void testDeleteById_SetBased() {
+        Long id = customerRepositoryAdapter.findPage(null, 1, false).getItems().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        int deleted = customerRepositoryAdapter.deleteById(id);
+
+        // Assert: One DELETE for the cards, one for the customer, and nothing loaded
+        assertEquals(1, deleted);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(customerRepositoryAdapter.findByIdWithoutCards(id).isEmpty());
+        assertEquals(4, customerRepositoryAdapter.findPage(null, 10, false).getItems().size());
+        assertEquals(0, customerRepositoryAdapter.deleteById(id));
+    }
+
+    /**
+     * Tests partially updating a customer.
+     * Verifies that only the patched column is written and the card collection is not loaded.
+     */
+    @Test
+    void testPatch_OnlyChangedColumns() {
+        Long id = customerRepositoryAdapter.findPage(null, 1, false).getItems().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+        CustomerPatch patch = new CustomerPatch();
+        patch.setLastName("Patched");
+
+        // Act
+        Customer patched = customerRepositoryAdapter.patch(id, patch).orElseThrow();
+
+        // Assert: One UPDATE of last_name, one SELECT of the customer, no cards
+        assertEquals("Patched", patched.getLastName());
+        assertEquals("customer0@example.com", patched.getEmail());
+        assertNull(patched.getCreditCards());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    /**
+     * Tests that patching the email also updates its normalized copy used by email lookups.
+     */
+    @Test
+    void testPatch_EmailKeepsLookupInSync() {
+        Long id = customerRepositoryAdapter.findPage(null, 1, false).getItems().get(0).getId();
+        CustomerPatch patch = new CustomerPatch();
+        patch.setEmail("New.Address@Example.com");
+
+        // Act
+        customerRepositoryAdapter.patch(id, patch);
+
+        // Assert: The new address is found in any case, the old one no longer
+        assertEquals(id, customerRepositoryAdapter.findByEmail("new.address@example.com").orElseThrow().getId());
+        assertTrue(customerRepositoryAdapter.findByEmail("customer0@example.com").isEmpty());
+    }
+}
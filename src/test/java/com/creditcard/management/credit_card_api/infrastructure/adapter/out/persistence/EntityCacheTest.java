@@ -0,0 +1,256 @@
+package com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence;
+
+import com.creditcard.management.credit_card_api.core.model.CreditCard;
+import com.creditcard.management.credit_card_api.core.model.CreditCardPatch;
+import com.creditcard.management.credit_card_api.core.model.Customer;
+import com.creditcard.management.credit_card_api.core.model.CustomerPatch;
+import com.creditcard.management.credit_card_api.core.model.Money;
+import com.creditcard.management.credit_card_api.core.model.Posting;
+import com.creditcard.management.credit_card_api.infrastructure.config.EntityCacheConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Hibernate second-level cache and query cache.
+ * Each step runs in its own committed transaction, as in production, and the Hibernate statistics tell
+ * whether a read was served from the cache or reached the database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({EntityCacheConfig.class, CustomerRepositoryAdapter.class, CreditCardRepositoryAdapter.class,
+        BalanceLedgerStoreAdapter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private CustomerRepositoryAdapter customerRepositoryAdapter; // Customer adapter under test
+
+    @Autowired
+    private CreditCardRepositoryAdapter creditCardRepositoryAdapter; // Card adapter under test
+
+    @Autowired
+    private BalanceLedgerStoreAdapter balanceLedgerStoreAdapter; // Ledger store writing balances with JDBC
+
+    @Autowired
+    private EntityManager entityManager; // Used to prepare data
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // Gives access to the cache and the statistics
+
+    @Autowired
+    private PlatformTransactionManager transactionManager; // Commits the test data
+
+    private Statistics statistics; // Hibernate statistics used to count statements and cache hits
+
+    private Long customerId; // Customer with three cards
+
+    private Long cardId; // First card of the customer
+
+    /**
+     * Creates a customer with three credit cards, committed, and starts from an empty cache.
+     */
+    @BeforeEach
+    void setUp() {
+        customerId = new TransactionTemplate(transactionManager).execute(status -> {
+            CustomerEntity customer = new CustomerEntity();
+            customer.setFirstName("Ada");
+            customer.setLastName("Lovelace");
+            customer.setEmail("ada@example.com");
+            entityManager.persist(customer);
+            for (int i = 0; i < 3; i++) {
+                CreditCardEntity card = new CreditCardEntity();
+                card.setCardNumber("400000000000000" + i);
+                card.setExpirationDate(LocalDate.now().plusYears(1));
+                card.setCvv("123");
+                card.setCardType("Credit");
+                card.setCreditLimit(Money.parse("1000"));
+                card.setCurrentBalance(Money.parse("100"));
+                card.setCustomer(customer);
+                entityManager.persist(card);
+            }
+            return customer.getCustomerId();
+        });
+        cardId = customerRepositoryAdapter.findByIdWithCards(customerId).orElseThrow()
+                .getCreditCards().get(0).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Deletes the test data, which was committed.
+     */
+    @AfterEach
+    void tearDown() {
+        customerRepositoryAdapter.deleteById(customerId);
+    }
+
+    /**
+     * Tests that once loaded, a single card is read without any statement, and a customer with their cards
+     * with only the query of their cards, which are not cached as a collection.
+     */
+    @Test
+    void testFindById_ServedFromSecondLevelCache() {
+        // Arrange: The first reads load the cache
+        customerRepositoryAdapter.findByIdWithCards(customerId);
+        creditCardRepositoryAdapter.findById(cardId);
+        statistics.clear();
+
+        // Act
+        CreditCard card = creditCardRepositoryAdapter.findById(cardId).orElseThrow();
+        long cardStatements = statistics.getPrepareStatementCount();
+        Customer customer = customerRepositoryAdapter.findByIdWithCards(customerId).orElseThrow();
+
+        // Assert
+        assertEquals(Money.parse("100"), card.getCurrentBalance());
+        assertEquals(customerId, card.getCustomerId());
+        assertEquals(0, cardStatements);
+        assertEquals(3, customer.getCreditCards().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    /**
+     * Tests that the cards of a customer inserted with them in one transaction, as by the CSV import,
+     * are found, and still are once the customer is cached.
+     */
+    @Test
+    void testSaveAll_CardsInsertedWithCustomerAreFound() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setFirstName("Grace");
+        customer.setLastName("Hopper");
+        customer.setEmail("grace@example.com");
+        CreditCard card = new CreditCard();
+        card.setCardNumber("4000000000000018");
+        card.setExpirationDate(LocalDate.now().plusYears(1));
+        card.setCvv("123");
+        card.setCardType("Credit");
+        card.setCreditLimit(Money.parse("500"));
+        card.setCurrentBalance(Money.ZERO);
+        customer.setCreditCards(List.of(card));
+        Long importedId = customerRepositoryAdapter.saveAll(List.of(customer)).get(0).getId();
+
+        try {
+            // Act
+            Customer first = customerRepositoryAdapter.findByIdWithCards(importedId).orElseThrow();
+            Customer second = customerRepositoryAdapter.findByIdWithCards(importedId).orElseThrow();
+
+            // Assert
+            assertEquals(1, first.getCreditCards().size());
+            assertEquals(1, second.getCreditCards().size());
+        } finally {
+            customerRepositoryAdapter.deleteById(importedId);
+        }
+    }
+
+    /**
+     * Tests that adding and deleting a card of a cached customer show in their cards.
+     */
+    @Test
+    void testCardInsertAndDelete_VisibleInCustomerCards() {
+        customerRepositoryAdapter.findByIdWithCards(customerId);
+
+        // Act: A fourth card is added
+        CreditCard added = new CreditCard();
+        added.setCardNumber("4000000000000009");
+        added.setExpirationDate(LocalDate.now().plusYears(1));
+        added.setCvv("123");
+        added.setCardType("Credit");
+        added.setCreditLimit(Money.parse("500"));
+        added.setCurrentBalance(Money.ZERO);
+        added.setCustomerId(customerId);
+        Long addedId = creditCardRepositoryAdapter.save(added).getId();
+
+        // Assert
+        assertEquals(4, customerRepositoryAdapter.findByIdWithCards(customerId).orElseThrow().getCreditCards().size());
+
+        // Act: It is deleted again
+        creditCardRepositoryAdapter.deleteById(addedId);
+
+        // Assert
+        assertEquals(3, customerRepositoryAdapter.findByIdWithCards(customerId).orElseThrow().getCreditCards().size());
+        assertTrue(creditCardRepositoryAdapter.findById(addedId).isEmpty());
+    }
+
+    /**
+     * Tests that balance writes made with plain JDBC, by single and batched postings and by the ledger store,
+     * evict the cached card.
+     */
+    @Test
+    void testJdbcBalanceWrites_EvictCard() {
+        creditCardRepositoryAdapter.findById(cardId);
+
+        // Act & Assert
+        assertTrue(creditCardRepositoryAdapter.addToBalance(cardId, Money.parse("10")));
+        assertEquals(Money.parse("110"), creditCardRepositoryAdapter.findById(cardId).orElseThrow().getCurrentBalance());
+
+        creditCardRepositoryAdapter.addToBalances(List.of(new Posting(cardId, Money.parse("20"))));
+        assertEquals(Money.parse("130"), creditCardRepositoryAdapter.findById(cardId).orElseThrow().getCurrentBalance());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                balanceLedgerStoreAdapter.applyDeltas(Map.of(cardId, 500L), "cache-test", 1));
+        CreditCard card = creditCardRepositoryAdapter.findById(cardId).orElseThrow();
+        assertEquals(Money.parse("135"), card.getCurrentBalance());
+        assertEquals(3L, card.getVersion());
+    }
+
+    /**
+     * Tests that a partial update of a cached card, a bulk statement, is visible on the next read.
+     */
+    @Test
+    void testPatch_EvictsCard() {
+        creditCardRepositoryAdapter.findById(cardId);
+        CreditCardPatch patch = new CreditCardPatch();
+        patch.setCardType("Debit");
+
+        // Act
+        CreditCard patched = creditCardRepositoryAdapter.patch(cardId, patch).orElseThrow();
+
+        // Assert
+        assertEquals("Debit", patched.getCardType());
+        assertEquals("Debit", creditCardRepositoryAdapter.findById(cardId).orElseThrow().getCardType());
+    }
+
+    /**
+     * Tests that the email lookup is answered by the query cache, and that a write to the customer table
+     * invalidates the cached result.
+     */
+    @Test
+    void testFindByEmail_QueryCache() {
+        customerRepositoryAdapter.findByEmail("ada@example.com");
+        statistics.clear();
+
+        // Act & Assert: Served from the query cache and the entity cache
+        assertTrue(customerRepositoryAdapter.findByEmail("ADA@example.com").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Act: The email is changed
+        CustomerPatch patch = new CustomerPatch();
+        patch.setEmail("countess@example.com");
+        customerRepositoryAdapter.patch(customerId, patch);
+
+        // Assert
+        assertTrue(customerRepositoryAdapter.findByEmail("ada@example.com").isEmpty());
+        assertEquals("countess@example.com",
+                customerRepositoryAdapter.findByIdWithoutCards(customerId).orElseThrow().getEmail());
+    }
+}
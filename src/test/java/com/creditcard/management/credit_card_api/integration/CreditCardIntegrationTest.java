@@ -1,5 +1,6 @@
 package com.creditcard.management.credit_card_api.integration;
 
+import com.creditcard.management.credit_card_api.core.model.Money;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardEntity;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepository;
 import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerEntity;
@@ -12,9 +13,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -100,11 +110,11 @@ class CreditCardIntegrationTest {
 
         CreditCardEntity creditCard = new CreditCardEntity();
         creditCard.setCardNumber("1234567890123456");
-        creditCard.setExpirationDate(new Date());
+        creditCard.setExpirationDate(LocalDate.now());
         creditCard.setCvv("123");
         creditCard.setCardType("Credit");
-        creditCard.setCreditLimit(5000.0);
-        creditCard.setCurrentBalance(1000.0);
+        creditCard.setCreditLimit(Money.parse("5000.0"));
+        creditCard.setCurrentBalance(Money.parse("1000.0"));
         creditCard.setCustomer(savedCustomer);
         CreditCardEntity savedCard = creditCardRepository.save(creditCard);
 
@@ -132,11 +142,11 @@ class CreditCardIntegrationTest {
 
         CreditCardEntity creditCard = new CreditCardEntity();
         creditCard.setCardNumber("1234567890123456");
-        creditCard.setExpirationDate(new Date());
+        creditCard.setExpirationDate(LocalDate.now());
         creditCard.setCvv("123");
         creditCard.setCardType("Credit");
-        creditCard.setCreditLimit(5000.0);
-        creditCard.setCurrentBalance(1000.0);
+        creditCard.setCreditLimit(Money.parse("5000.0"));
+        creditCard.setCurrentBalance(Money.parse("1000.0"));
         creditCard.setCustomer(savedCustomer);
         CreditCardEntity savedCard = creditCardRepository.save(creditCard);
 
@@ -168,4 +178,333 @@ class CreditCardIntegrationTest {
                 .andExpect(jsonPath("$.cardType").value("Debit"))
                 .andExpect(jsonPath("$.creditLimit").value(10000.0));
     }
+
+    /**
+     * Tests the streaming NDJSON export of all credit cards.
+     */
+    @Test
+    void testExportCreditCards() throws Exception {
+        // Arrange: Create a customer with two credit cards
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+
+        for (String cardNumber : new String[]{"1111222233334444", "5555666677778888"}) {
+            CreditCardEntity creditCard = new CreditCardEntity();
+            creditCard.setCardNumber(cardNumber);
+            creditCard.setExpirationDate(LocalDate.now());
+            creditCard.setCvv("123");
+            creditCard.setCardType("Credit");
+            creditCard.setCreditLimit(Money.parse("5000.0"));
+            creditCard.setCurrentBalance(Money.parse("1000.0"));
+            creditCard.setCustomer(savedCustomer);
+            creditCardRepository.save(creditCard);
+        }
+
+        // Act: Start the export, which is written asynchronously
+        MvcResult result = mockMvc.perform(get("/api/credit-cards/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert: Verify one line is written per card, in ID order
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"cardNumber\":\"1111222233334444\""));
+        assertTrue(lines[1].contains("\"cardNumber\":\"5555666677778888\""));
+    }
+
+    /**
+     * Tests partially updating a credit card with a JSON Merge Patch.
+     * Verifies that only the patched field changes.
+     */
+    @Test
+    void testPatchCreditCard() throws Exception {
+        // Arrange: Create a customer and associate a credit card
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+
+        CreditCardEntity creditCard = new CreditCardEntity();
+        creditCard.setCardNumber("1234567890123456");
+        creditCard.setExpirationDate(LocalDate.now());
+        creditCard.setCvv("123");
+        creditCard.setCardType("Credit");
+        creditCard.setCreditLimit(Money.parse("5000.0"));
+        creditCard.setCurrentBalance(Money.parse("1000.0"));
+        creditCard.setCustomer(savedCustomer);
+        CreditCardEntity savedCard = creditCardRepository.save(creditCard);
+
+        // Act: Send a PATCH request changing only the balance
+        mockMvc.perform(patch("/api/credit-cards/" + savedCard.getCardId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 1250.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentBalance").value(1250.5))
+                .andExpect(jsonPath("$.cardNumber").value("1234567890123456"))
+                .andExpect(jsonPath("$.customerId").value(savedCustomer.getCustomerId()));
+
+        // Assert: PATCH on a missing card returns 404
+        mockMvc.perform(patch("/api/credit-cards/" + (savedCard.getCardId() + 1000))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"currentBalance\": 1.0}"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests looking up a credit card by its number and creating a second card with the same number.
+     */
+    @Test
+    void testGetByNumberAndRejectDuplicate() throws Exception {
+        // Arrange: Create a customer and a credit card through the API
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+        String creditCardJson = """
+            {
+                "cardNumber": "4111222233334444",
+                "expirationDate": "2030-12-31",
+                "cvv": "123",
+                "cardType": "Credit",
+                "creditLimit": 5000.0,
+                "currentBalance": 0.0,
+                "customerId": %d
+            }
+        """.formatted(savedCustomer.getCustomerId());
+        mockMvc.perform(post("/api/credit-cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(creditCardJson))
+                .andExpect(status().isOk());
+
+        // Act & Assert: The card is found by its number, an unknown number is not
+        mockMvc.perform(get("/api/credit-cards/by-number/4111222233334444"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(savedCustomer.getCustomerId()));
+        mockMvc.perform(get("/api/credit-cards/by-number/4111222233330000"))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert: A second card with the same number is rejected with 409 Conflict
+        mockMvc.perform(post("/api/credit-cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(creditCardJson))
+                .andExpect(status().isConflict());
+        assertEquals(1, creditCardRepository.count());
+    }
+
+    /**
+     * Tests looking up by its number a credit card created with its customer.
+     */
+    @Test
+    void testGetByNumber_CardCreatedWithCustomer() throws Exception {
+        // Arrange: Create a customer with a credit card through the API
+        String customerJson = """
+            {
+                "firstName": "Jane",
+                "lastName": "Doe",
+                "email": "jane.doe@example.com",
+                "creditCards": [
+                    {
+                        "cardNumber": "4111222233335555",
+                        "expirationDate": "2030-12-31",
+                        "cvv": "123",
+                        "cardType": "Credit",
+                        "creditLimit": 5000.0,
+                        "currentBalance": 0.0
+                    }
+                ]
+            }
+        """;
+        mockMvc.perform(post("/api/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(customerJson))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/credit-cards/by-number/4111222233335555"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardNumber").value("4111222233335555"));
+    }
+
+    /**
+     * Tests concurrent charges to the same card.
+     * Twenty charges of 10.00 race against a limit of 100.00: exactly ten must be approved,
+     * and the final balance must account for every approved charge.
+     */
+    @Test
+    void testConcurrentPostings() throws Exception {
+        // Arrange: A card with a limit of 100.00 and no balance
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+
+        CreditCardEntity creditCard = new CreditCardEntity();
+        creditCard.setCardNumber("1234567890123456");
+        creditCard.setExpirationDate(LocalDate.now());
+        creditCard.setCvv("123");
+        creditCard.setCardType("Credit");
+        creditCard.setCreditLimit(Money.parse("100"));
+        creditCard.setCurrentBalance(Money.ZERO);
+        creditCard.setCustomer(savedCustomer);
+        Long cardId = creditCardRepository.save(creditCard).getCardId();
+
+        // Act: Post twenty charges from eight threads
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(executor.submit(() -> mockMvc.perform(post("/api/credit-cards/" + cardId + "/postings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"amount\": 10.00}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()));
+        }
+        executor.shutdown();
+        int approved = 0;
+        for (Future<String> response : responses) {
+            if (response.get(30, TimeUnit.SECONDS).contains("APPROVED")) {
+                approved++;
+            }
+        }
+
+        // Assert: No charge was lost and the limit was never exceeded
+        assertEquals(10, approved);
+        assertEquals(Money.parse("100"), creditCardRepository.findById(cardId).orElseThrow().getCurrentBalance());
+    }
+
+    /**
+     * Tests in-memory authorizations against the persisted balance.
+     * An approved authorization holds the available credit until the settled charge is posted; the posting
+     * reconciles the card with its balance, and deleting the owner of the card makes it unknown.
+     */
+    @Test
+    void testAuthorize() throws Exception {
+        // Arrange: A card with a limit of 100.00 and no balance
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+
+        CreditCardEntity creditCard = new CreditCardEntity();
+        creditCard.setCardNumber("1234567890123456");
+        creditCard.setExpirationDate(LocalDate.now());
+        creditCard.setCvv("123");
+        creditCard.setCardType("Credit");
+        creditCard.setCreditLimit(Money.parse("100"));
+        creditCard.setCurrentBalance(Money.ZERO);
+        creditCard.setCustomer(savedCustomer);
+        Long cardId = creditCardRepository.save(creditCard).getCardId();
+
+        // Act & Assert: 60.00 is held, so 50.00 more does not fit
+        authorize(cardId, "60.00").andExpect(jsonPath("$.status").value("APPROVED"));
+        authorize(cardId, "50.00").andExpect(jsonPath("$.status").value("DECLINED"));
+
+        // Act & Assert: The settled charge is posted; 40.00 remains available
+        mockMvc.perform(post("/api/credit-cards/" + cardId + "/postings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 60.00}"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+        authorize(cardId, "40.00").andExpect(jsonPath("$.status").value("APPROVED"));
+        authorize(cardId, "0.01").andExpect(jsonPath("$.status").value("DECLINED"));
+        assertEquals(Money.parse("60"), creditCardRepository.findById(cardId).orElseThrow().getCurrentBalance());
+
+        // Act & Assert: The card is gone with its owner
+        mockMvc.perform(delete("/api/customers/" + savedCustomer.getCustomerId()))
+                .andExpect(status().isNoContent());
+        authorize(cardId, "0.01").andExpect(status().isNotFound());
+    }
+
+    /**
+     * Authorizes a charge on a card.
+     *
+     * @param cardId The unique identifier of the credit card.
+     * @param amount The amount of the charge.
+     * @return The result of the request.
+     */
+    private ResultActions authorize(Long cardId, String amount) throws Exception {
+        return mockMvc.perform(post("/api/credit-cards/" + cardId + "/authorize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": " + amount + "}"));
+    }
+
+    /**
+     * Tests conditional updates with ETags.
+     * A posting changes the version of a card, so a PUT based on the ETag read before it is rejected,
+     * while a PUT based on the current ETag applies and returns the next one.
+     */
+    @Test
+    void testConditionalUpdate() throws Exception {
+        // Arrange: A customer with one card
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@example.com");
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+
+        CreditCardEntity creditCard = new CreditCardEntity();
+        creditCard.setCardNumber("1234567890123456");
+        creditCard.setExpirationDate(LocalDate.now());
+        creditCard.setCvv("123");
+        creditCard.setCardType("Credit");
+        creditCard.setCreditLimit(Money.parse("100"));
+        creditCard.setCurrentBalance(Money.ZERO);
+        creditCard.setCustomer(savedCustomer);
+        Long cardId = creditCardRepository.save(creditCard).getCardId();
+        String cardJson = """
+            {
+                "cardNumber": "1234567890123456",
+                "expirationDate": "2030-01-31",
+                "cvv": "123",
+                "cardType": "Credit",
+                "creditLimit": 500.0,
+                "currentBalance": 0.0,
+                "customerId": %d
+            }
+            """.formatted(savedCustomer.getCustomerId());
+
+        // Act: Read the card, then post to it
+        String staleTag = mockMvc.perform(get("/api/credit-cards/" + cardId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(post("/api/credit-cards/" + cardId + "/postings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.00}"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        // Assert: The ETag read before the posting no longer matches, the current one does
+        assertEquals("\"0\"", staleTag);
+        mockMvc.perform(put("/api/credit-cards/" + cardId)
+                        .header("If-Match", staleTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cardJson))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/credit-cards/" + cardId)
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cardJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+
+        // Assert: The customer, whose card changed, is still updated without a precondition
+        mockMvc.perform(put("/api/customers/" + savedCustomer.getCustomerId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"Jane\", \"lastName\": \"Doe\", \"email\": \"jane.doe@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        mockMvc.perform(put("/api/customers/" + savedCustomer.getCustomerId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"Jim\", \"lastName\": \"Doe\", \"email\": \"jim.doe@example.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals(Money.parse("500"), creditCardRepository.findById(cardId).orElseThrow().getCreditLimit());
+    }
 }
@@ -0,0 +1,113 @@
+package com.creditcard.management.credit_card_api.integration;
+
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CreditCardRepository;
+import com.creditcard.management.credit_card_api.infrastructure.adapter.out.persistence.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the CSV import of customers.
+ * A chunk size of two rows is used so that the files below are written in several transactions.
+ */
+@SpringBootTest(properties = "creditcard.import.chunk-size=2")
+@AutoConfigureMockMvc
+class CustomerImportIntegrationTest {
+
+    // Header of the import files
+    private static final String HEADER =
+            "first_name,last_name,email,card_number,expiration_date,cvv,card_type,credit_limit,current_balance\n";
+
+    @Autowired
+    private MockMvc mockMvc; // MockMvc for simulating HTTP requests
+
+    @Autowired
+    private CreditCardRepository creditCardRepository; // Repository for CreditCardEntity
+
+    @Autowired
+    private CustomerRepository customerRepository; // Repository for CustomerEntity
+
+    /**
+     * Cleans up the database before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        creditCardRepository.deleteAll(); // Clear credit card records
+        customerRepository.deleteAll();  // Clear customer records
+    }
+
+    /**
+     * Tests importing a multipart CSV file.
+     * Consecutive rows with the same email become one customer, and invalid rows are reported by line number.
+     */
+    @Test
+    void testImportCustomers_Multipart() throws Exception {
+        // Arrange: Two rows for Ann, one customer without a card, one row without email and one with a bad date
+        String csv = HEADER
+                + "Ann,Lee,ann@example.com,4000000000000001,2030-01-31,123,Credit,5000,0\n"
+                + "Ann,Lee,ann@example.com,4000000000000002,2030-01-31,456,Debit,1000,10.5\n"
+                + "Bob,Ray,bob@example.com,,,,,,\n"
+                + "Eve,Kim,,4000000000000003,2030-01-31,123,Credit,5000,0\n"
+                + "\"Smith, Jr\",Joe,joe@example.com,4000000000000004,31/01/2030,123,Credit,5000,0\n";
+        MockMultipartFile file = new MockMultipartFile("file", "customers.csv", "text/csv", csv.getBytes());
+
+        // Act & Assert: Verify the report
+        mockMvc.perform(multipart("/api/customers/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(5))
+                .andExpect(jsonPath("$.customersCreated").value(3))
+                .andExpect(jsonPath("$.cardsCreated").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(5))
+                .andExpect(jsonPath("$.errors[1].index").value(6));
+
+        // Assert: Verify the database content
+        assertEquals(3, customerRepository.count());
+        assertEquals(2, creditCardRepository.count());
+        assertTrue(customerRepository.findAll().stream().anyMatch(c -> c.getFirstName().equals("Smith, Jr")));
+    }
+
+    /**
+     * Tests importing a raw CSV body where one customer cannot be saved and another already exists.
+     * Verifies that only those rows are rejected and the rest of the chunk is still imported.
+     */
+    @Test
+    void testImportCustomers_IsolatesFailingRows() throws Exception {
+        // Arrange: Import Ann first, then a file repeating Ann and containing a CVV too long for its column
+        mockMvc.perform(post("/api/customers/import").contentType("text/csv")
+                        .content(HEADER + "Ann,Lee,ann@example.com,,,,,,\n"))
+                .andExpect(status().isOk());
+        String csv = HEADER
+                + "Ann,Lee,ann@example.com,4000000000000001,2030-01-31,123,Credit,5000,0\n"
+                + "Bob,Ray,bob@example.com,4000000000000002,2030-01-31," + "9".repeat(300) + ",Credit,5000,0\n"
+                + "Cid,Moe,cid@example.com,4000000000000003,2030-01-31,123,Credit,5000,0\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/customers/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customersCreated").value(1))
+                .andExpect(jsonPath("$.cardsCreated").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Customer email already exists"))
+                .andExpect(jsonPath("$.errors[1].message").value("Customer could not be saved"));
+
+        assertEquals(2, customerRepository.count());
+    }
+
+    /**
+     * Tests importing a file without the required columns.
+     */
+    @Test
+    void testImportCustomers_MissingColumns() throws Exception {
+        mockMvc.perform(post("/api/customers/import").contentType("text/csv").content("first_name,email\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
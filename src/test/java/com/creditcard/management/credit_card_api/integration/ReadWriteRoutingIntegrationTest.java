@@ -0,0 +1,156 @@
+package com.creditcard.management.credit_card_api.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the routing of reads to a replica.
+ * A second in-memory database stands in for the replica; it receives the schema of the primary but is never
+ * written by the application, so a read answered by it is easy to tell apart from one answered by the primary.
+ * The second-level cache is enabled, as in production.
+ */
+@SpringBootTest(properties = {
+        "creditcard.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "creditcard.datasource.replica.username=sa",
+        "creditcard.datasource.read-your-writes-window=5s",
+        // The repository cache loads its entries from the primary, whatever the route of the caller
+        "creditcard.repository-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc; // MockMvc for simulating HTTP requests
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource; // Pool of the primary database
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource; // Pool of the replica database
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // Owns the second-level cache
+
+    private final ObjectMapper objectMapper = new ObjectMapper(); // Parses response bodies
+
+    /**
+     * Copies the schema of the primary to an empty replica and empties the second-level cache before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        List<String> script = new JdbcTemplate(primaryDataSource)
+                .queryForList("SCRIPT NODATA", String.class);
+        script.stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    /**
+     * Tests that reads go to the replica unless the client wrote recently.
+     * The new customer only exists on the primary: a client without the read-your-writes cookie
+     * gets a 404 from the replica, while the writing client reads its customer from the primary.
+     */
+    @Test
+    void testReadsRoutedToReplica_ExceptAfterOwnWrite() throws Exception {
+        // Arrange: Create a customer, which is written to the primary
+        MvcResult created = mockMvc.perform(post("/api/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann.routing@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists("primary-until"))
+                .andReturn();
+        JsonNode body = objectMapper.readTree(created.getResponse().getContentAsString());
+        long id = body.get("customerId").asLong();
+        Cookie stickiness = created.getResponse().getCookie("primary-until");
+        entityManagerFactory.getCache().evictAll(); // As if the entry had expired
+
+        // Act & Assert: Another client reads from the replica, which does not have the customer yet
+        mockMvc.perform(get("/api/customers/{id}", id))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert: The writing client is pinned to the primary and sees its customer
+        mockMvc.perform(get("/api/customers/{id}", id).cookie(stickiness))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("ann.routing@example.com"));
+    }
+
+    /**
+     * Tests that rows present on the replica are served from it.
+     */
+    @Test
+    void testReadFromReplica() throws Exception {
+        // Arrange: Insert a customer directly into the replica
+        new JdbcTemplate(replicaDataSource).update(
+                "INSERT INTO customer (customer_id, first_name, last_name, email) VALUES (?, ?, ?, ?)",
+                999_999L, "Rep", "Lica", "replica@example.com");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/customers/{id}", 999_999L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("replica@example.com"));
+    }
+
+    /**
+     * Tests that a row read from a lagging replica is not cached: a client pinned to the primary then reads
+     * the row of the primary, not the stale copy.
+     */
+    @Test
+    void testReplicaReadIsNotCached() throws Exception {
+        // Arrange: The replica still has the old email of the customer
+        insertCustomer(primaryDataSource, "current@example.com");
+        insertCustomer(replicaDataSource, "stale@example.com");
+        Cookie stickiness = new Cookie("primary-until", String.valueOf(System.currentTimeMillis() + 60_000));
+
+        try {
+            // Act & Assert: An unpinned client reads the replica
+            mockMvc.perform(get("/api/customers/{id}", 999_998L))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value("stale@example.com"));
+
+            // Act & Assert: A pinned client reads the primary, and so does the next unpinned one, from the cache
+            mockMvc.perform(get("/api/customers/{id}", 999_998L).cookie(stickiness))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value("current@example.com"));
+            mockMvc.perform(get("/api/customers/{id}", 999_998L))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value("current@example.com"));
+        } finally {
+            new JdbcTemplate(primaryDataSource).update("DELETE FROM customer WHERE customer_id = ?", 999_998L);
+        }
+    }
+
+    /**
+     * Inserts customer 999998 directly into a database.
+     *
+     * @param dataSource The database.
+     * @param email      The email of the customer.
+     */
+    private static void insertCustomer(DataSource dataSource, String email) {
+        new JdbcTemplate(dataSource).update("INSERT INTO customer (customer_id, first_name, last_name, email, "
+                + "email_normalized) VALUES (?, ?, ?, ?, ?)", 999_998L, "Late", "Replica", email, email);
+    }
+}